@@ -0,0 +1,106 @@
+package com.maroontress.coverture.bench;
+
+import com.maroontress.coverture.CorpusGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+   ベンチマークで使用する合成したgcnoファイルとgcdaファイルを生成し
+   ます。
+
+   内容はCorpusGeneratorで生成し、関数の個数とブロックの個数が同じで
+   あれば常に同じ内容になります。
+*/
+public final class BenchmarkData {
+
+    /** ソースファイルのパスです。 */
+    private String sourceFile;
+
+    /** コーパスの生成器です。 */
+    private CorpusGenerator gen;
+
+    /** gcnoファイルの内容です。 */
+    private byte[] note;
+
+    /** gcdaファイルの内容です。 */
+    private byte[] data;
+
+    /**
+       インスタンスを生成します。
+
+       @param functions 関数の個数
+       @param blocks 関数毎のブロックの個数（入口、出口を含み4以上）
+       @param sourceFile ソースファイルのパス
+    */
+    public BenchmarkData(final int functions, final int blocks,
+			 final String sourceFile) {
+	this.sourceFile = sourceFile;
+	gen = new CorpusGenerator();
+	gen.setFunctions(functions);
+	gen.setBlocks(blocks);
+	gen.setUnexecutedRatio(0);
+	gen.setSeed(functions * 31L + blocks);
+	ByteArrayOutputStream no = new ByteArrayOutputStream();
+	ByteArrayOutputStream da = new ByteArrayOutputStream();
+	gen.generate(0, sourceFile, no, da);
+	note = no.toByteArray();
+	data = da.toByteArray();
+    }
+
+    /**
+       gcnoファイルの内容を取得します。
+
+       @return gcnoファイルの内容
+    */
+    public byte[] getNote() {
+	return note.clone();
+    }
+
+    /**
+       gcdaファイルの内容を取得します。
+
+       @return gcdaファイルの内容
+    */
+    public byte[] getData() {
+	return data.clone();
+    }
+
+    /**
+       gcnoファイル、gcdaファイル、ソースファイルをディレクトリに書き
+       込みます。ソースファイルのパスは、インスタンスを生成したときに
+       指定したパスです。
+
+       @param dir ディレクトリ
+       @param name gcnoファイルとgcdaファイルの拡張子を除いた名前
+       @return gcnoファイルのパス
+       @throws IOException 入出力エラー
+    */
+    public String write(final File dir, final String name)
+	throws IOException {
+	CorpusGenerator.writeSource(new File(sourceFile),
+				    gen.getSourceLines());
+	File noteFile = new File(dir, name + ".gcno");
+	writeFile(noteFile, note);
+	writeFile(new File(dir, name + ".gcda"), data);
+	return noteFile.getPath();
+    }
+
+    /**
+       ファイルにバイト列を書き込みます。
+
+       @param file ファイル
+       @param b バイト列
+       @throws IOException 入出力エラー
+    */
+    private static void writeFile(final File file, final byte[] b)
+	throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	try {
+	    out.write(b);
+	} finally {
+	    out.close();
+	}
+    }
+}
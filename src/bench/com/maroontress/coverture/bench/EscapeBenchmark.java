@@ -0,0 +1,98 @@
+package com.maroontress.coverture.bench;
+
+import com.maroontress.coverture.XML;
+import com.maroontress.gcovparser.Origin;
+import com.maroontress.gcovparser.PathEscaper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+   XMLのエスケープと、カバレッジファイルのパスの生成のベンチマーク
+   です。
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EscapeBenchmark {
+
+    /** ソースファイルのパスの個数です。 */
+    private static final int SOURCES = 1024;
+
+    /** エスケープする関数名です。 */
+    private static final String[] NAMES = {
+	"main",
+	"compute_checksum_for_block",
+	"std::vector<std::pair<int, Foo&> >::operator[]",
+	"bool operator<(const Key&, const Key&) [with Key = 'a&b']",
+    };
+
+    /** ソースファイルのパスの配列です。 */
+    private String[] sources;
+
+    /** オリジンです。 */
+    private Origin origin;
+
+    /** 次に使用する要素のインデックスです。 */
+    private int index;
+
+    /**
+       ソースファイルのパスとオリジンを生成します。
+    */
+    @Setup
+    public void setup() {
+	sources = new String[SOURCES];
+	for (int k = 0; k < SOURCES; ++k) {
+	    sources[k] = String.format(
+		"../../include/module%d/./detail/../impl/header%d.h",
+		k % 32, k);
+	}
+	origin = new Origin("build/obj/very/deep/path/to/module.gcno");
+    }
+
+    /**
+       次の要素のインデックスを取得します。
+
+       @param n 要素の個数
+       @return インデックス
+    */
+    private int next(final int n) {
+	index = (index + 1) % n;
+	return index;
+    }
+
+    /**
+       関数名をXMLのためにエスケープします。
+
+       @return エスケープした文字列
+    */
+    @Benchmark
+    public String escapeXML() {
+	return XML.escape(NAMES[next(NAMES.length)]);
+    }
+
+    /**
+       キャッシュを使ってカバレッジファイルのパスを生成します。
+
+       @return カバレッジファイルのパス
+    */
+    @Benchmark
+    public String getCoverageFilePath() {
+	return origin.getCoverageFilePath(sources[next(SOURCES)]);
+    }
+
+    /**
+       キャッシュを使わずにパスをエスケープします。
+
+       @return エスケープしたパス
+    */
+    @Benchmark
+    public String escapeGcov() {
+	return PathEscaper.escapeGcov(sources[next(SOURCES)]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.maroontress.coverture.bench;
+
+import com.maroontress.coverture.IOProperties;
+import com.maroontress.coverture.Note;
+import com.maroontress.coverture.Source;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+   gcovファイルの生成のベンチマークです。
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GcovRenderBenchmark {
+
+    /** 関数の個数です。 */
+    @Param({"10", "100"})
+    public int functions;
+
+    /** gcovファイルに分岐の結果を出力するかどうかです。 */
+    @Param({"false", "true"})
+    public boolean branches;
+
+    /** 作業ディレクトリです。 */
+    private File dir;
+
+    /** 入出力プロパティです。 */
+    private IOProperties props;
+
+    /** ノートです。 */
+    private Note note;
+
+    /** gcovファイルを生成するソースです。 */
+    private Source source;
+
+    /**
+       作業ディレクトリに合成したgcnoファイル、gcdaファイル、ソース
+       ファイルを生成して、ノートをパースします。
+
+       @throws IOException 入出力エラー
+    */
+    @Setup
+    public void setup() throws IOException {
+	dir = File.createTempFile("coverture", ".bench");
+	if (!dir.delete() || !dir.mkdir()) {
+	    throw new IOException(dir.getPath() + ": can't create.");
+	}
+	String sourceFile = new File(dir, "bench.c").getPath();
+	BenchmarkData d = new BenchmarkData(functions, 16, sourceFile);
+	String path = d.write(dir, "bench");
+	props = new IOProperties();
+	props.setOutputDir(dir);
+	props.setBranchProbabilitiesEnabled(branches);
+	note = Note.parse(path, props);
+	if (note == null) {
+	    throw new IOException(path + ": can't parse.");
+	}
+	source = note.getSources().iterator().next();
+    }
+
+    /**
+       作業ディレクトリを削除します。
+    */
+    @TearDown
+    public void tearDown() {
+	File[] files = dir.listFiles();
+	if (files != null) {
+	    for (File f : files) {
+		f.delete();
+	    }
+	}
+	dir.delete();
+    }
+
+    /**
+       gcovファイルを生成します。
+
+       @throws IOException 入出力エラー
+    */
+    @Benchmark
+    public void outputGcovFile() throws IOException {
+	source.outputFile(note.getOrigin(), 1, 1, props);
+    }
+}
@@ -0,0 +1,73 @@
+package com.maroontress.coverture.bench;
+
+import com.maroontress.gcovparser.CorruptedFileException;
+import com.maroontress.gcovparser.gcda.DataRecord;
+import com.maroontress.gcovparser.gcno.NoteRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+   gcnoファイルとgcdaファイルのデコードのベンチマークです。
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+
+    /** 関数の個数です。 */
+    @Param({"100", "1000"})
+    public int functions;
+
+    /** 関数毎のブロックの個数です。 */
+    @Param({"8", "64"})
+    public int blocks;
+
+    /** gcnoファイルの内容です。 */
+    private byte[] note;
+
+    /** gcdaファイルの内容です。 */
+    private byte[] data;
+
+    /**
+       合成したgcnoファイルとgcdaファイルを生成します。
+    */
+    @Setup
+    public void setup() {
+	BenchmarkData d = new BenchmarkData(functions, blocks, "src/bench.c");
+	note = d.getNote();
+	data = d.getData();
+    }
+
+    /**
+       gcnoファイルをデコードします。
+
+       @return ノートレコード
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    @Benchmark
+    public NoteRecord parseNote() throws IOException, CorruptedFileException {
+	return new NoteRecord(ByteBuffer.wrap(note));
+    }
+
+    /**
+       gcdaファイルをデコードします。
+
+       @return データレコード
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    @Benchmark
+    public DataRecord parseData() throws IOException, CorruptedFileException {
+	return new DataRecord(ByteBuffer.wrap(data));
+    }
+}
@@ -0,0 +1,84 @@
+package com.maroontress.coverture.bench;
+
+import com.maroontress.coverture.FunctionGraph;
+import com.maroontress.gcovparser.CorruptedFileException;
+import com.maroontress.gcovparser.gcda.DataRecord;
+import com.maroontress.gcovparser.gcda.FunctionDataRecord;
+import com.maroontress.gcovparser.gcno.FunctionGraphRecord;
+import com.maroontress.gcovparser.gcno.NoteRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+   関数グラフの生成とフローグラフの解決のベンチマークです。
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverBenchmark {
+
+    /** 関数の個数です。 */
+    @Param({"100"})
+    public int functions;
+
+    /** 関数毎のブロックの個数です。 */
+    @Param({"8", "64", "512"})
+    public int blocks;
+
+    /** 関数グラフレコードの配列です。 */
+    private FunctionGraphRecord[] graphs;
+
+    /** 関数データレコードの配列です。 */
+    private FunctionDataRecord[] counts;
+
+    /**
+       合成したgcnoファイルとgcdaファイルをデコードします。
+
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    @Setup
+    public void setup() throws IOException, CorruptedFileException {
+	BenchmarkData d = new BenchmarkData(functions, blocks, "src/bench.c");
+	graphs = new NoteRecord(ByteBuffer.wrap(d.getNote())).getList();
+	counts = new DataRecord(ByteBuffer.wrap(d.getData())).getList();
+    }
+
+    /**
+       関数グラフを生成します。
+
+       @param bh ブラックホール
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    @Benchmark
+    public void construct(final Blackhole bh) throws CorruptedFileException {
+	for (FunctionGraphRecord rec : graphs) {
+	    bh.consume(new FunctionGraph(rec));
+	}
+    }
+
+    /**
+       関数グラフを生成して、フローグラフを解決します。
+
+       @param bh ブラックホール
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    @Benchmark
+    public void solve(final Blackhole bh) throws CorruptedFileException {
+	for (int k = 0; k < graphs.length; ++k) {
+	    FunctionGraph fg = new FunctionGraph(graphs[k]);
+	    fg.setFunctionDataRecord(counts[k]);
+	    bh.consume(fg);
+	}
+    }
+}
@@ -0,0 +1,67 @@
+package com.maroontress.coverture.jfr;
+
+import com.maroontress.gcovparser.ProfilingEvent;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+   Covertureのイベントの基底クラスです。
+
+   Flight Recorderは基底クラスのprivateなフィールドを記録しないので、
+   フィールドはprotectedにしています。
+*/
+@Category("Coverture")
+public abstract class CovertureEvent extends Event implements ProfilingEvent {
+
+    /** ファイルのパス、または関数名です。 */
+    @Label("Name")
+    protected String name;
+
+    /** ファイルのバイト数です。 */
+    @Label("Size")
+    @DataAmount
+    protected long size;
+
+    /** 関数の個数です。 */
+    @Label("Functions")
+    protected int functions;
+
+    /** ブロックの個数です。 */
+    @Label("Blocks")
+    protected int blocks;
+
+    /** アークの個数です。 */
+    @Label("Arcs")
+    protected int arcs;
+
+    /**
+       ファイルのパス、または関数名を設定します。
+
+       @param name ファイルのパス、または関数名
+    */
+    final void setName(final String name) {
+	this.name = name;
+    }
+
+    /** {@inheritDoc} */
+    public final void setSize(final long size) {
+	this.size = size;
+    }
+
+    /** {@inheritDoc} */
+    public final void setFunctionCount(final int count) {
+	functions = count;
+    }
+
+    /** {@inheritDoc} */
+    public final void setBlockCount(final int count) {
+	blocks = count;
+    }
+
+    /** {@inheritDoc} */
+    public final void setArcCount(final int count) {
+	arcs = count;
+    }
+}
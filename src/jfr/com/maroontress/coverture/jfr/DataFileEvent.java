@@ -0,0 +1,14 @@
+package com.maroontress.coverture.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+   gcdaファイルをパースして、フローグラフを解決するイベントです。
+*/
+@Name("com.maroontress.coverture.DataFile")
+@Label("Data File")
+@Description("Decode a .gcda file and solve the flow graphs.")
+public final class DataFileEvent extends CovertureEvent {
+}
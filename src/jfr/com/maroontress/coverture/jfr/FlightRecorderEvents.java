@@ -0,0 +1,65 @@
+package com.maroontress.coverture.jfr;
+
+import com.maroontress.gcovparser.ProfilingEvent;
+import com.maroontress.gcovparser.ProfilingEventFactory;
+import com.maroontress.gcovparser.ProfilingEvents;
+import jdk.jfr.EventType;
+
+/**
+   JDK Flight Recorderのイベントを生成するファクトリです。
+
+   記録が有効でないイベントの種類については、インスタンスを生成せず
+   にnullを返します。
+*/
+public final class FlightRecorderEvents implements ProfilingEventFactory {
+
+    /** イベントの種類毎のイベントタイプです。 */
+    private EventType[] types;
+
+    /**
+       インスタンスを生成します。
+    */
+    public FlightRecorderEvents() {
+	types = new EventType[] {
+	    EventType.getEventType(NoteEvent.class),
+	    EventType.getEventType(NoteFileEvent.class),
+	    EventType.getEventType(DataFileEvent.class),
+	    EventType.getEventType(SolveEvent.class),
+	    EventType.getEventType(GcovEvent.class),
+	};
+    }
+
+    /**
+       イベントの種類に対応するイベントを生成します。
+
+       @param kind イベントの種類
+       @return イベント
+    */
+    private static CovertureEvent create(final int kind) {
+	switch (kind) {
+	case ProfilingEvents.NOTE:
+	    return new NoteEvent();
+	case ProfilingEvents.NOTE_FILE:
+	    return new NoteFileEvent();
+	case ProfilingEvents.DATA_FILE:
+	    return new DataFileEvent();
+	case ProfilingEvents.SOLVE:
+	    return new SolveEvent();
+	case ProfilingEvents.GCOV:
+	    return new GcovEvent();
+	default:
+	    throw new IllegalArgumentException("unknown kind: " + kind);
+	}
+    }
+
+    /** {@inheritDoc} */
+    public ProfilingEvent begin(final int kind, final String name) {
+	if (!types[kind].isEnabled()) {
+	    return null;
+	}
+	CovertureEvent e = create(kind);
+	e.setName(name);
+	e.begin();
+	return e;
+    }
+}
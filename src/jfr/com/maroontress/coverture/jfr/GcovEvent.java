@@ -0,0 +1,14 @@
+package com.maroontress.coverture.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+   gcovファイルを出力するイベントです。
+*/
+@Name("com.maroontress.coverture.Gcov")
+@Label("Gcov")
+@Description("Write the .gcov file of a source file.")
+public final class GcovEvent extends CovertureEvent {
+}
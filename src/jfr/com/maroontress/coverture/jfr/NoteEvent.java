@@ -0,0 +1,14 @@
+package com.maroontress.coverture.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+   gcnoファイルとgcdaファイルからノートを生成するイベントです。
+*/
+@Name("com.maroontress.coverture.Note")
+@Label("Note")
+@Description("Parse a .gcno/.gcda pair into a note.")
+public final class NoteEvent extends CovertureEvent {
+}
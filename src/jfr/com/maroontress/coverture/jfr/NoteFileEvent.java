@@ -0,0 +1,14 @@
+package com.maroontress.coverture.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+   gcnoファイルをパースするイベントです。
+*/
+@Name("com.maroontress.coverture.NoteFile")
+@Label("Note File")
+@Description("Decode a .gcno file and build the function graphs.")
+public final class NoteFileEvent extends CovertureEvent {
+}
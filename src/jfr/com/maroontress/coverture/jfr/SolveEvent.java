@@ -0,0 +1,14 @@
+package com.maroontress.coverture.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+   関数のフローグラフを解決するイベントです。
+*/
+@Name("com.maroontress.coverture.Solve")
+@Label("Solve")
+@Description("Solve the flow graph of a function.")
+public final class SolveEvent extends CovertureEvent {
+}
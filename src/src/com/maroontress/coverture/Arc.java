@@ -3,19 +3,31 @@ package com.maroontress.coverture;
 import com.maroontress.gcovparser.AbstractArc;
 
 /**
-   ؿդΥåȤʤ륢μ饹Ǥ
+   関数グラフのエッジとなるアークの実装クラスです。
 */
 public final class Arc extends AbstractArc<Block, Arc> {
 
     /**
-       ޤ󥹥󥹤ϳϥ֥åΡֽФ
-       סλ֥åΡ륢פɲäޤ
+       アークを生成します。生成したインスタンスは開始ブロックの「出る
+       アーク」、終了ブロックの「入るアーク」に追加されます。
 
-       @param start ϥ֥å
-       @param end λ֥å
-       @param flags ե饰
+       @param start 開始ブロック
+       @param end 終了ブロック
+       @param flags フラグ
     */
     public Arc(final Block start, final Block end, final int flags) {
 	super(start, end, flags);
     }
+
+    /**
+       アークが条件分岐の経路であるかどうかを取得します。
+
+       戻らない関数の呼び出しと無条件分岐は条件分岐の経路ではありませ
+       ん。
+
+       @return 条件分岐の経路の場合はtrue、そうでなければfalse
+    */
+    public boolean isBranch() {
+	return !isCallNonReturn() && !isUnconditional();
+    }
 }
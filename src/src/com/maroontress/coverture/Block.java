@@ -6,29 +6,29 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 
 /**
-   ؿդΥΡɤȤʤܥ֥åμ饹Ǥ
+   関数グラフのノードとなる基本ブロックの実装クラスです。
 */
 public final class Block extends AbstractBlock<Block, Arc> {
 
-    /** ѡȤѴ뤿ηǤ */
+    /** パーセントに変換するための係数です。 */
     private static final double PERCENT = 100;
 
     /**
-       ֥åޤ
+       ブロックを生成します。
 
-       @param id ֥åμ̻
-       @param flags ֥åΥե饰
+       @param id ブロックの識別子
+       @param flags ブロックのフラグ
     */
     public Block(final int id, final int flags) {
 	super(id, flags);
     }
 
     /**
-       ֹμ¹Բ򥽡ꥹȤ˥ޡޤ
+       行番号毎の実行回数をソースリストにマージします。
 
-       ˼¹ԲΥȤͭˤʤäƤɬפޤ
+       事前に実行回数のカウントが有効になっている必要があります。
 
-       @param sourceList ꥹ
+       @param sourceList ソースリスト
     */
     public void addLineCounts(final SourceList sourceList) {
 	assert (getCount() >= 0);
@@ -37,9 +37,10 @@ public final class Block extends AbstractBlock<Block, Arc> {
 	if (lines == null) {
 	    return;
 	}
-	// forLineEntry˰ܤ...
+	// 次のforの中はLineEntryに移せる...
 	// e.addLineCounts(sourcelist, count);
-	for (LineEntry e : lines) {
+	for (int j = 0; j < lines.length; ++j) {
+	    LineEntry e = lines[j];
 	    String fileName = e.getFileName();
 	    int[] nums = e.getLines();
 	    if (nums.length == 0) {
@@ -49,14 +50,64 @@ public final class Block extends AbstractBlock<Block, Arc> {
 	    for (int k = 0; k < nums.length; ++k) {
 		source.addLineCount(nums[k], count);
 	    }
+	    if (isLastEntry(lines, j)) {
+		source.addBlock(nums[nums.length - 1], this);
+	    }
+	}
+    }
+
+    /**
+       行エントリが、そのソースファイルの行番号を含む最後の行エントリ
+       かどうかを取得します。gcovと同様に、ブロックはそのソースファイ
+       ルの最後の行で終わるものとします。
+
+       @param lines 行エントリの配列
+       @param index 行エントリのインデックス
+       @return 最後の行エントリの場合はtrue、そうでなければfalse
+    */
+    private static boolean isLastEntry(final LineEntry[] lines,
+				       final int index) {
+	String fileName = lines[index].getFileName();
+	for (int k = index + 1; k < lines.length; ++k) {
+	    if (lines[k].getFileName().equals(fileName)
+		&& lines[k].getLines().length > 0) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+       ブロックが変更された行を含むかどうかを取得します。
+
+       @param changeSet 変更された行の集合
+       @return 変更された行を含む場合はtrue、そうでなければfalse
+    */
+    public boolean touches(final ChangeSet changeSet) {
+	LineEntry[] lines = getLines();
+	if (lines == null) {
+	    return false;
+	}
+	for (LineEntry e : lines) {
+	    LineRangeSet ranges = changeSet.getRanges(e.getFileName());
+	    if (ranges == null) {
+		continue;
+	    }
+	    int[] nums = e.getLines();
+	    for (int k = 0; k < nums.length; ++k) {
+		if (ranges.contains(nums[k])) {
+		    return true;
+		}
+	    }
 	}
+	return false;
     }
 
     /**
-       ¹Գʥѡȡˤޤ
+       実行割合（パーセント）を取得します。
 
-       @param c ¹Բ
-       @return ¹Գ
+       @param c 実行回数
+       @return 実行割合
     */
     private double getRate(final long c) {
 	long count = getCount();
@@ -64,9 +115,9 @@ public final class Block extends AbstractBlock<Block, Arc> {
     }
 
     /**
-       XMLǥ֥åϤޤ
+       XMLでブロックを出力します。
 
-       @param out 
+       @param out 出力先
     */
     public void printXML(final PrintWriter out) {
 	final boolean countValid = getCountValid();
@@ -96,7 +147,7 @@ public final class Block extends AbstractBlock<Block, Arc> {
 	}
 	LineEntry[] lines = getLines();
 	if (lines != null) {
-	    // forLineEntry˰ܤ...
+	    // 次のforの中はLineEntryに移せる...
 	    // e.printXML();
 	    for (LineEntry e : lines) {
 		String fileName = e.getFileName();
@@ -0,0 +1,112 @@
+package com.maroontress.coverture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+   ソースファイルをデコードせずに1行ずつ読み込むクラスです。
+
+   ソースファイルとgcovファイルの文字集合が同じで、ASCII互換の場合
+   に使用します。ソースファイルをマップして行の境界をバイト単位で探
+   し、行のバイトをマップしたバッファからgcovファイルの出力バッファ
+   に直接コピーします。チャネルをマップするので、2Gバイトを超えるファ
+   イルは扱えません。
+*/
+public final class ByteLineReader implements SourceLineReader {
+
+    /** ソースファイルをマップしたバッファです。 */
+    private ByteBuffer bb;
+
+    /** 次の行の開始位置です。 */
+    private int position;
+
+    /** 最後に読み込んだ行の開始位置です。 */
+    private int start;
+
+    /** 最後に読み込んだ行の終了位置（行の終わりの文字を含まない）です。 */
+    private int end;
+
+    /**
+       インスタンスを生成します。
+
+       @param sourceFile ソースファイル
+       @throws IOException 入出力エラー
+    */
+    public ByteLineReader(final File sourceFile) throws IOException {
+	this(map(sourceFile));
+    }
+
+    /**
+       マップしたソースファイルから読み込むインスタンスを生成します。
+       バッファの位置とリミットは変更しないので、同じバッファを複数の
+       スレッドで同時に読み込むことができます。
+
+       @param bb ソースファイルをマップしたバッファ
+    */
+    public ByteLineReader(final ByteBuffer bb) {
+	this.bb = bb.duplicate();
+	this.bb.clear();
+	position = 0;
+    }
+
+    /**
+       ソースファイルを読み込み専用でマップします。マップしたバッファ
+       は、ファイルを閉じた後も有効です。
+
+       @param sourceFile ソースファイル
+       @return マップしたバッファ
+       @throws IOException 入出力エラー
+    */
+    public static ByteBuffer map(final File sourceFile) throws IOException {
+	RandomAccessFile file = new RandomAccessFile(sourceFile, "r");
+	try {
+	    FileChannel ch = file.getChannel();
+	    return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+	} finally {
+	    file.close();
+	}
+    }
+
+    /** {@inheritDoc} */
+    public boolean readLine() throws IOException {
+	int limit = bb.limit();
+	if (position == limit) {
+	    return false;
+	}
+	int k = position;
+	byte b = 0;
+	while (k < limit && (b = bb.get(k)) != '\n' && b != '\r') {
+	    ++k;
+	}
+	start = position;
+	end = k;
+	if (k < limit) {
+	    ++k;
+	    if (b == '\r' && k < limit && bb.get(k) == '\n') {
+		++k;
+	    }
+	}
+	position = k;
+	return true;
+    }
+
+    /** {@inheritDoc} */
+    public void printLine(final GcovPrinter out) throws IOException {
+	int limit = bb.limit();
+	bb.position(start);
+	bb.limit(end);
+	out.put(bb);
+	bb.limit(limit);
+    }
+
+    /**
+       何もしません。ファイルはマップした時点で閉じています。
+
+       @throws IOException 入出力エラー
+    */
+    public void close() throws IOException {
+    }
+}
@@ -0,0 +1,374 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+   パッチで変更された行の集合です。ソースファイル毎に変更された行番号
+   の範囲を管理します。
+
+   変更された行は、unified diff形式のパッチ、または次の形式の行のリ
+   ストで指定します。LINESを省略した場合はファイル全体が変更されたも
+   のとみなします。
+
+   PATH[:LINES]
+   LINES: RANGE | RANGE,LINES
+   RANGE: N | N-M
+
+   ソースファイルのパスは、パッチのパスと一致するか、パスコンポーネ
+   ントの区切りでパッチのパスで終わる場合に対応するものとみなします。
+*/
+public final class ChangeSet {
+
+    /** 対応する範囲がないことを表す空の集合です。 */
+    private static final LineRangeSet NONE = new LineRangeSet();
+
+    /** 正規化したパスと変更された行の範囲のマップです。 */
+    private HashMap<String, LineRangeSet> map;
+
+    /** ソースファイルのパスと変更された行の範囲のキャッシュです。 */
+    private ConcurrentHashMap<String, LineRangeSet> cache;
+
+    /** unified diffの現在のファイルの変更された行の範囲です。 */
+    private LineRangeSet current;
+
+    /** unified diffの現在のハンクの新しいファイルの行番号です。 */
+    private int newLine;
+
+    /** unified diffの現在のハンクの古いファイルの残りの行数です。 */
+    private int oldRemaining;
+
+    /** unified diffの現在のハンクの新しいファイルの残りの行数です。 */
+    private int newRemaining;
+
+    /**
+       空の集合を生成します。
+    */
+    private ChangeSet() {
+	map = new HashMap<String, LineRangeSet>();
+	cache = new ConcurrentHashMap<String, LineRangeSet>();
+    }
+
+    /**
+       パスを正規化します。
+
+       パスコンポーネントの区切り文字を「/」に変換し、空のパスコンポー
+       ネントと「.」のパスコンポーネントを取り除きます。
+
+       @param path パス
+       @return 正規化したパス
+    */
+    private static String normalize(final String path) {
+	String[] allComp = path.replace(File.separatorChar, '/').split("/");
+	StringBuilder b = new StringBuilder();
+	if (path.startsWith("/")) {
+	    b.append("/");
+	}
+	for (String comp : allComp) {
+	    if (comp.length() == 0 || comp.equals(".")) {
+		continue;
+	    }
+	    if (b.length() > 0 && b.charAt(b.length() - 1) != '/') {
+		b.append("/");
+	    }
+	    b.append(comp);
+	}
+	return b.toString();
+    }
+
+    /**
+       パスに対応する変更された行の範囲を取得します。存在しない場合は
+       生成します。
+
+       @param path パス
+       @return 変更された行の範囲
+    */
+    private LineRangeSet getOrCreate(final String path) {
+	String key = normalize(path);
+	LineRangeSet set = map.get(key);
+	if (set == null) {
+	    set = new LineRangeSet();
+	    map.put(key, set);
+	}
+	return set;
+    }
+
+    /**
+       数値を解析します。
+
+       @param s 文字列
+       @return 数値
+       @throws IOException 数値として解析できない
+    */
+    private static int parseNumber(final String s) throws IOException {
+	try {
+	    return Integer.parseInt(s.trim());
+	} catch (NumberFormatException e) {
+	    throw new IOException("invalid line number: " + s);
+	}
+    }
+
+    /**
+       unified diffの「+++」で始まる行を解析します。
+
+       @param line 行
+    */
+    private void parseNewFile(final String line) {
+	String path = line.substring(4);
+	int n = path.indexOf('\t');
+	if (n >= 0) {
+	    path = path.substring(0, n);
+	}
+	path = path.trim();
+	if (path.equals("/dev/null")) {
+	    current = null;
+	    return;
+	}
+	if (path.startsWith("b/")) {
+	    path = path.substring(2);
+	}
+	current = getOrCreate(path);
+    }
+
+    /**
+       ハンクのヘッダの「-a,b」または「+c,d」から行数を取得します。
+       行数を省略した場合は1です。
+
+       @param range 範囲
+       @return 行数
+       @throws IOException 行数が不正
+    */
+    private static int parseCount(final String range) throws IOException {
+	int n = range.indexOf(',');
+	return (n < 0) ? 1 : parseNumber(range.substring(n + 1));
+    }
+
+    /**
+       unified diffの「@@ -a,b +c,d @@」の行を解析します。
+
+       @param line 行
+       @throws IOException ハンクのヘッダが不正
+    */
+    private void parseHunk(final String line) throws IOException {
+	String[] s = line.split(" ");
+	if (s.length < 3 || !s[1].startsWith("-") || !s[2].startsWith("+")) {
+	    throw new IOException("invalid hunk: " + line);
+	}
+	String range = s[2].substring(1);
+	int n = range.indexOf(',');
+	newLine = parseNumber((n < 0) ? range : range.substring(0, n));
+	oldRemaining = parseCount(s[1]);
+	newRemaining = parseCount(range);
+    }
+
+    /**
+       unified diffのハンクの本体の1行を解析します。
+
+       ハンクの本体として解釈できない行の場合は、ハンクが途中で終わっ
+       たものとみなします。
+
+       @param line 行
+       @return ハンクの本体の行の場合はtrue、そうでなければfalse
+    */
+    private boolean parseHunkLine(final String line) {
+	if (line.startsWith("+")) {
+	    if (current != null) {
+		current.add(newLine, newLine);
+	    }
+	    ++newLine;
+	    --newRemaining;
+	} else if (line.startsWith("-")) {
+	    --oldRemaining;
+	} else if (line.startsWith(" ") || line.length() == 0) {
+	    ++newLine;
+	    --oldRemaining;
+	    --newRemaining;
+	} else if (!line.startsWith("\\")) {
+	    oldRemaining = 0;
+	    newRemaining = 0;
+	    return false;
+	}
+	return true;
+    }
+
+    /**
+       unified diffの1行を解析します。
+
+       ハンクの本体の行が残っている間は、「+++」や「---」で始まる行
+       もハンクの本体として扱います。
+
+       @param line 行
+       @throws IOException 入出力エラー
+    */
+    private void parseDiffLine(final String line) throws IOException {
+	if ((oldRemaining > 0 || newRemaining > 0) && parseHunkLine(line)) {
+	    return;
+	}
+	if (line.startsWith("+++ ")) {
+	    parseNewFile(line);
+	} else if (line.startsWith("@@")) {
+	    parseHunk(line);
+	}
+    }
+
+    /**
+       PATH[:LINES]形式の1行を解析します。
+
+       @param line 行
+       @throws IOException 行番号が不正
+    */
+    private void parseListLine(final String line) throws IOException {
+	String s = line.trim();
+	if (s.length() == 0 || s.startsWith("#")) {
+	    return;
+	}
+	int n = s.lastIndexOf(':');
+	if (n < 0 || !s.substring(n + 1).matches("[0-9,\\- ]+")) {
+	    getOrCreate(s).addAll();
+	    return;
+	}
+	LineRangeSet set = getOrCreate(s.substring(0, n));
+	String[] ranges = s.substring(n + 1).split(",");
+	for (String r : ranges) {
+	    int k = r.indexOf('-');
+	    if (k < 0) {
+		int num = parseNumber(r);
+		set.add(num, num);
+	    } else {
+		set.add(parseNumber(r.substring(0, k)),
+			parseNumber(r.substring(k + 1)));
+	    }
+	}
+    }
+
+    /**
+       行がunified diffの一部かどうかを取得します。
+
+       @param line 行
+       @return unified diffの一部の場合はtrue、そうでなければfalse
+    */
+    private static boolean isDiff(final String line) {
+	return line.startsWith("diff ") || line.startsWith("--- ")
+	    || line.startsWith("+++ ") || line.startsWith("Index: ")
+	    || line.startsWith("@@");
+    }
+
+    /**
+       リーダから変更された行の集合を入力します。
+
+       @param in リーダ
+       @return 変更された行の集合
+       @throws IOException 入出力エラー
+    */
+    public static ChangeSet read(final Reader in) throws IOException {
+	ChangeSet changeSet = new ChangeSet();
+	BufferedReader rd = new BufferedReader(in);
+	String line;
+	Boolean diff = null;
+	while ((line = rd.readLine()) != null) {
+	    if (diff == null) {
+		if (line.trim().length() == 0) {
+		    continue;
+		}
+		diff = isDiff(line);
+	    }
+	    if (diff) {
+		changeSet.parseDiffLine(line);
+	    } else {
+		changeSet.parseListLine(line);
+	    }
+	}
+	return changeSet;
+    }
+
+    /**
+       ファイルから変更された行の集合を入力します。
+
+       ファイル名がハイフンの場合は、標準入力から入力します。
+
+       @param path ファイル名、またはハイフン
+       @return 変更された行の集合
+       @throws IOException 入出力エラー
+    */
+    public static ChangeSet read(final String path) throws IOException {
+	Reader in;
+	if (path.equals("-")) {
+	    in = new InputStreamReader(System.in);
+	} else {
+	    in = new FileReader(path);
+	}
+	try {
+	    return read(in);
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+       ソースファイルの変更された行の範囲を取得します。変更された行
+       がないソースファイルの場合はnullを返します。
+
+       @param sourceFile ソースファイルのパス
+       @return 変更された行の範囲、またはnull
+    */
+    public LineRangeSet getRanges(final String sourceFile) {
+	LineRangeSet set = cache.get(sourceFile);
+	if (set == null) {
+	    set = lookup(normalize(sourceFile));
+	    cache.put(sourceFile, set);
+	}
+	return set.isEmpty() ? null : set;
+    }
+
+    /**
+       正規化したソースファイルのパスに対応する変更された行の範囲を探
+       します。
+
+       @param path 正規化したソースファイルのパス
+       @return 変更された行の範囲、またはNONE
+    */
+    private LineRangeSet lookup(final String path) {
+	LineRangeSet set = map.get(path);
+	if (set != null) {
+	    return set;
+	}
+	for (String key : map.keySet()) {
+	    if (path.endsWith("/" + key)) {
+		return map.get(key);
+	    }
+	}
+	return NONE;
+    }
+
+    /**
+       ソースファイルのいずれかが変更されているかどうかを取得します。
+
+       @param sourceFiles ソースファイルのパスのコレクション
+       @return いずれかが変更されている場合はtrue、そうでなければfalse
+    */
+    public boolean touches(final Collection<String> sourceFiles) {
+	for (String s : sourceFiles) {
+	    if (getRanges(s) != null) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+       変更されたファイルの正規化したパスのセットを取得します。
+
+       @return 変更されたファイルのパスのセット
+    */
+    public Set<String> getPaths() {
+	return map.keySet();
+    }
+}
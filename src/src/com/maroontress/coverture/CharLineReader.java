@@ -0,0 +1,44 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+   ソースファイルを文字にデコードして1行ずつ読み込むクラスです。
+
+   ソースファイルとgcovファイルの文字集合が異なる場合に使用します。
+*/
+public final class CharLineReader implements SourceLineReader {
+
+    /** ソースファイルのリーダです。 */
+    private BufferedReader in;
+
+    /** 最後に読み込んだ行です。 */
+    private String line;
+
+    /**
+       インスタンスを生成します。
+
+       @param in ソースファイルのリーダ
+    */
+    public CharLineReader(final Reader in) {
+	this.in = new BufferedReader(in);
+    }
+
+    /** {@inheritDoc} */
+    public boolean readLine() throws IOException {
+	line = in.readLine();
+	return line != null;
+    }
+
+    /** {@inheritDoc} */
+    public void printLine(final GcovPrinter out) throws IOException {
+	out.put(line);
+    }
+
+    /** {@inheritDoc} */
+    public void close() throws IOException {
+	in.close();
+    }
+}
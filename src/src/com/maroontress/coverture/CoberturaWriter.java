@@ -0,0 +1,310 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+   Cobertura形式のXMLファイルを出力するクラスです。
+
+   ノートを追加するたびに、ソースファイル毎のカバレッジを集計します。
+   ドキュメントはclose()を呼び出したときに、ソースファイルをディレク
+   トリ毎のパッケージにまとめて、DOMを構築せずに逐次出力します。
+
+   add()は複数のスレッドから同時に呼び出すことができます。
+*/
+public final class CoberturaWriter {
+
+    /** 有効な行数を表す配列のインデックスです。 */
+    private static final int LINES_VALID = 0;
+
+    /** 実行された行数を表す配列のインデックスです。 */
+    private static final int LINES_COVERED = 1;
+
+    /** 条件分岐の経路の個数を表す配列のインデックスです。 */
+    private static final int BRANCHES_VALID = 2;
+
+    /** 実行された条件分岐の経路の個数を表す配列のインデックスです。 */
+    private static final int BRANCHES_COVERED = 3;
+
+    /** 複雑度を表す配列のインデックスです。 */
+    private static final int COMPLEXITY = 4;
+
+    /** 集計値の配列の長さです。 */
+    private static final int LENGTH = 5;
+
+    /** パーセントに変換するための係数です。 */
+    private static final double PERCENT = 100;
+
+    /** 出力するファイルです。 */
+    private File file;
+
+    /** ソースファイルのパスとカバレッジのマップです。 */
+    private TreeMap<String, FileCoverage> map;
+
+    /**
+       インスタンスを生成します。
+
+       @param file 出力するファイル
+    */
+    public CoberturaWriter(final File file) {
+	this.file = file;
+	map = new TreeMap<String, FileCoverage>();
+    }
+
+    /**
+       ノートに含まれるすべてのソースのカバレッジを集計します。
+
+       @param note ノート
+    */
+    public synchronized void add(final Note note) {
+	Collection<Source> all = note.getSources();
+	for (Source s : all) {
+	    String path = s.getPath();
+	    FileCoverage c = map.get(path);
+	    if (c == null) {
+		c = new FileCoverage(path);
+		map.put(path, c);
+	    }
+	    c.add(s);
+	}
+    }
+
+    /**
+       比率を計算します。分母が0のときは0を返します。
+
+       比率はデフォルトのロケールによらず、小数点に「.」を使った文字
+       列にします。
+
+       @param n 分子
+       @param m 分母
+       @return n/m
+    */
+    private static String rate(final long n, final long m) {
+	double r = (m == 0) ? 0 : (double) n / m;
+	return String.format(Locale.ROOT, "%.4f", r);
+    }
+
+    /**
+       集計値の配列から、line-rate属性とbranch-rate属性を出力します。
+
+       @param out 出力先
+       @param a 集計値の配列
+    */
+    private static void printRates(final PrintWriter out, final long[] a) {
+	out.printf(" line-rate='%s' branch-rate='%s' complexity='%d'",
+		   rate(a[LINES_COVERED], a[LINES_VALID]),
+		   rate(a[BRANCHES_COVERED], a[BRANCHES_VALID]),
+		   a[COMPLEXITY]);
+    }
+
+    /**
+       集計値の配列に、もうひとつの集計値の配列を加算します。
+
+       @param sum 加算される配列
+       @param a 加算する配列
+    */
+    private static void addAll(final long[] sum, final long[] a) {
+	for (int k = 0; k < LENGTH; ++k) {
+	    sum[k] += a[k];
+	}
+    }
+
+    /**
+       行の情報の配列を集計値の配列に加算します。
+
+       @param sum 加算される配列
+       @param line 行の情報の配列
+    */
+    private static void addLine(final long[] sum, final long[] line) {
+	++sum[LINES_VALID];
+	if (FileCoverage.getHits(line) > 0) {
+	    ++sum[LINES_COVERED];
+	}
+	sum[BRANCHES_VALID] += FileCoverage.getBranches(line);
+	sum[BRANCHES_COVERED] += FileCoverage.getTakenBranches(line);
+    }
+
+    /**
+       ソースファイルのカバレッジを集計します。
+
+       @param c ソースファイルのカバレッジ
+       @return 集計値の配列
+    */
+    private static long[] summarize(final FileCoverage c) {
+	long[] sum = new long[LENGTH];
+	for (Map.Entry<Integer, long[]> e : c.getLines()) {
+	    addLine(sum, e.getValue());
+	}
+	for (MethodCoverage m : c.getMethods()) {
+	    sum[COMPLEXITY] += m.getComplexity();
+	}
+	return sum;
+    }
+
+    /**
+       ソースファイルのパスからディレクトリの部分を取得します。
+
+       @param path ソースファイルのパス
+       @return ディレクトリ、またはディレクトリを含まない場合は空文字列
+    */
+    private static String getDirectory(final String path) {
+	int n = path.replace(File.separatorChar, '/').lastIndexOf('/');
+	return (n < 0) ? "" : path.substring(0, n);
+    }
+
+    /**
+       ソースファイルのパスからファイル名の部分を取得します。
+
+       @param path ソースファイルのパス
+       @return ファイル名
+    */
+    private static String getBaseName(final String path) {
+	int n = path.replace(File.separatorChar, '/').lastIndexOf('/');
+	return path.substring(n + 1);
+    }
+
+    /**
+       line要素を出力します。
+
+       @param out 出力先
+       @param num 行番号
+       @param line 行の情報の配列
+    */
+    private static void printLine(final PrintWriter out, final int num,
+				  final long[] line) {
+	long branches = FileCoverage.getBranches(line);
+	out.printf("<line number='%d' hits='%d'", num,
+		   FileCoverage.getHits(line));
+	if (branches > 0) {
+	    long taken = FileCoverage.getTakenBranches(line);
+	    out.printf(" branch='true' condition-coverage='%d%% (%d/%d)'",
+		       Math.round(PERCENT * taken / branches), taken, branches);
+	} else {
+	    out.printf(" branch='false'");
+	}
+	out.printf("/>\n");
+    }
+
+    /**
+       method要素を出力します。
+
+       @param out 出力先
+       @param c ソースファイルのカバレッジ
+       @param m 関数のカバレッジ
+    */
+    private static void printMethod(final PrintWriter out,
+				    final FileCoverage c,
+				    final MethodCoverage m) {
+	long[] sum = new long[LENGTH];
+	for (int num : m.getLines()) {
+	    long[] line = c.getLine(num);
+	    if (line != null) {
+		addLine(sum, line);
+	    }
+	}
+	sum[COMPLEXITY] = m.getComplexity();
+	out.printf("<method name='%s' signature=''", XML.escape(m.getName()));
+	printRates(out, sum);
+	out.printf(">\n<lines>\n");
+	out.printf("<line number='%d' hits='%d' branch='false'/>\n",
+		   m.getLineNumber(), m.getCalledCount());
+	out.printf("</lines>\n</method>\n");
+    }
+
+    /**
+       class要素を出力します。
+
+       @param out 出力先
+       @param c ソースファイルのカバレッジ
+       @param sum ソースファイルの集計値の配列
+    */
+    private static void printClass(final PrintWriter out,
+				   final FileCoverage c, final long[] sum) {
+	String path = c.getPath();
+	out.printf("<class name='%s' filename='%s'",
+		   XML.escape(getBaseName(path)), XML.escape(path));
+	printRates(out, sum);
+	out.printf(">\n<methods>\n");
+	for (MethodCoverage m : c.getMethods()) {
+	    printMethod(out, c, m);
+	}
+	out.printf("</methods>\n<lines>\n");
+	for (Map.Entry<Integer, long[]> e : c.getLines()) {
+	    printLine(out, e.getKey(), e.getValue());
+	}
+	out.printf("</lines>\n</class>\n");
+    }
+
+    /**
+       集計したカバレッジをファイルに出力します。
+
+       @throws IOException 入出力エラー
+    */
+    public synchronized void close() throws IOException {
+	TreeMap<String, List<FileCoverage>> packages
+	    = new TreeMap<String, List<FileCoverage>>();
+	long[] total = new long[LENGTH];
+	for (FileCoverage c : map.values()) {
+	    String dir = getDirectory(c.getPath());
+	    List<FileCoverage> list = packages.get(dir);
+	    if (list == null) {
+		list = new ArrayList<FileCoverage>();
+		packages.put(dir, list);
+	    }
+	    list.add(c);
+	    addAll(total, summarize(c));
+	}
+
+	PrintWriter out = new PrintWriter(new BufferedWriter(
+	    new OutputStreamWriter(new FileOutputStream(file), "UTF-8")));
+	try {
+	    out.printf("<?xml version='1.0' encoding='UTF-8'?>\n"
+		       + "<!DOCTYPE coverage SYSTEM 'http://cobertura"
+		       + ".sourceforge.net/xml/coverage-04.dtd'>\n");
+	    out.printf("<coverage lines-valid='%d' lines-covered='%d'"
+		       + " branches-valid='%d' branches-covered='%d'",
+		       total[LINES_VALID], total[LINES_COVERED],
+		       total[BRANCHES_VALID], total[BRANCHES_COVERED]);
+	    printRates(out, total);
+	    out.printf(" version='coverture' timestamp='%d'>\n",
+		       System.currentTimeMillis() / 1000);
+	    out.printf("<sources>\n<source>.</source>\n</sources>\n");
+	    out.printf("<packages>\n");
+	    for (Map.Entry<String, List<FileCoverage>> e
+		     : packages.entrySet()) {
+		List<FileCoverage> list = e.getValue();
+		long[][] sums = new long[list.size()][];
+		long[] sum = new long[LENGTH];
+		for (int k = 0; k < sums.length; ++k) {
+		    sums[k] = summarize(list.get(k));
+		    addAll(sum, sums[k]);
+		}
+		String name = e.getKey().replace(File.separatorChar, '/')
+		    .replace('/', '.');
+		out.printf("<package name='%s'", XML.escape(name));
+		printRates(out, sum);
+		out.printf(">\n<classes>\n");
+		for (int k = 0; k < sums.length; ++k) {
+		    printClass(out, list.get(k), sums[k]);
+		}
+		out.printf("</classes>\n</package>\n");
+	    }
+	    out.printf("</packages>\n</coverage>\n");
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+    }
+}
@@ -0,0 +1,859 @@
+package com.maroontress.coverture;
+
+import com.maroontress.cui.OptionListener;
+import com.maroontress.cui.Options;
+import com.maroontress.cui.OptionsParsingException;
+import com.maroontress.gcovparser.Tag;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+   性能の評価のために、合成したgcnoファイルとgcdaファイルのコーパス
+   を生成します。
+
+   関数は、入口から出口までブロックが一列に並び、一部のブロックから
+   2つ先のブロックへ分岐するフローグラフです。ブロックの列のアークが
+   スパニングツリーになり、分岐のアークと出口へのアークにカウンタが
+   あります。ヘッダファイルのインライン関数は、そのヘッダファイルを
+   インクルードするすべてのファイルで同じ名前、チェックサム、行番号
+   になります。
+
+   出力ディレクトリには次のファイルを生成します。ソースファイルのパ
+   スは出力ディレクトリからの相対パスなので、Covertureは出力ディレク
+   トリで実行します。
+
+   files.txt: gcnoファイルのパスのリスト
+   obj/NNN/fileI.gcno, obj/NNN/fileI.gcda: 1000ファイル毎のディレクトリ
+   src/NNN/fileI.c: ソースファイル（--sourcesを指定した場合）
+   include/headerH.h: ヘッダファイル（--sourcesを指定した場合）
+*/
+public final class CorpusGenerator {
+
+    /** ヘルプメッセージのインデント幅です。 */
+    private static final int INDENT_WIDTH = 32;
+
+    /** gcc 4.4のバージョン番号（"404*"）です。 */
+    private static final int VERSION = 0x3430342a;
+
+    /** タイムスタンプです。 */
+    private static final int STAMP = 0x12345678;
+
+    /** スパニングツリーのアークのフラグです。 */
+    private static final int FLAG_ON_TREE = 0x1;
+
+    /** フォールスルーのアークのフラグです。 */
+    private static final int FLAG_FALL_THROUGH = 0x4;
+
+    /** パーセントの分母です。 */
+    private static final int PERCENT = 100;
+
+    /** ひとつのディレクトリに格納するファイルの個数です。 */
+    private static final int FILES_PER_DIR = 1000;
+
+    /** ブロックの個数の最小値（入口、出口を含む）です。 */
+    private static final int MIN_BLOCKS = 4;
+
+    /** サマリの配列のカウンタ数の添字です。 */
+    private static final int SUMMARY_NUM = 0;
+
+    /** サマリの配列のすべてのカウンタの合計の添字です。 */
+    private static final int SUMMARY_SUM_ALL = 1;
+
+    /** サマリの配列のカウンタの最大値の添字です。 */
+    private static final int SUMMARY_RUN_MAX = 2;
+
+    /** サマリの配列の要素数です。 */
+    private static final int SUMMARY_SIZE = 3;
+
+    /** ファイル毎の関数の個数です。 */
+    private int functions;
+
+    /** 関数毎のブロックの個数（入口、出口を含む）です。 */
+    private int blocks;
+
+    /** 分岐するブロックの割合（パーセント）です。 */
+    private int branchRatio;
+
+    /** 行番号を持つブロックの割合（パーセント）です。 */
+    private int lineDensity;
+
+    /** ブロック毎の行番号の個数です。 */
+    private int linesPerBlock;
+
+    /** ヘッダファイルの個数です。 */
+    private int headers;
+
+    /** ヘッダファイル毎のインライン関数の個数です。 */
+    private int headerFunctions;
+
+    /** ファイル毎にインクルードするヘッダファイルの個数です。 */
+    private int includes;
+
+    /** 関数が呼ばれた回数の最大値です。 */
+    private long maxCount;
+
+    /** 実行されない関数の割合（パーセント）です。 */
+    private int unexecutedRatio;
+
+    /** gcdaファイルに記録する実行回数です。 */
+    private int runs;
+
+    /** 乱数の種です。 */
+    private long seed;
+
+    /**
+       デフォルトのパラメータでインスタンスを生成します。
+    */
+    public CorpusGenerator() {
+	functions = 10;
+	blocks = 16;
+	branchRatio = 50;
+	lineDensity = PERCENT;
+	linesPerBlock = 1;
+	headers = 0;
+	headerFunctions = 10;
+	includes = 0;
+	maxCount = 1000000;
+	unexecutedRatio = 10;
+	runs = 1;
+	seed = 0;
+    }
+
+    /**
+       ファイル毎の関数の個数を設定します。
+
+       @param num 関数の個数
+    */
+    public void setFunctions(final int num) {
+	functions = num;
+    }
+
+    /**
+       関数毎のブロックの個数を設定します。4未満の場合は4になります。
+
+       @param num 入口と出口を含むブロックの個数
+    */
+    public void setBlocks(final int num) {
+	blocks = Math.max(num, MIN_BLOCKS);
+    }
+
+    /**
+       分岐するブロックの割合を設定します。分岐のアークの個数は、概ね
+       ブロックの個数とこの割合の積になります。
+
+       @param percent 割合（パーセント）
+    */
+    public void setBranchRatio(final int percent) {
+	branchRatio = percent;
+    }
+
+    /**
+       行番号を持つブロックの割合を設定します。
+
+       @param percent 割合（パーセント）
+    */
+    public void setLineDensity(final int percent) {
+	lineDensity = percent;
+    }
+
+    /**
+       ブロック毎の行番号の個数を設定します。
+
+       @param num 行番号の個数
+    */
+    public void setLinesPerBlock(final int num) {
+	linesPerBlock = Math.max(num, 1);
+    }
+
+    /**
+       ヘッダファイルの個数を設定します。
+
+       @param num ヘッダファイルの個数
+    */
+    public void setHeaders(final int num) {
+	headers = num;
+    }
+
+    /**
+       ヘッダファイル毎のインライン関数の個数を設定します。
+
+       @param num インライン関数の個数
+    */
+    public void setHeaderFunctions(final int num) {
+	headerFunctions = num;
+    }
+
+    /**
+       ファイル毎にインクルードするヘッダファイルの個数を設定します。
+       ヘッダファイルの個数を超える場合は、すべてのヘッダファイルをイ
+       ンクルードします。
+
+       @param num インクルードするヘッダファイルの個数
+    */
+    public void setIncludes(final int num) {
+	includes = num;
+    }
+
+    /**
+       関数が呼ばれた回数の最大値を設定します。
+
+       @param num 呼ばれた回数の最大値
+    */
+    public void setMaxCount(final long num) {
+	maxCount = Math.max(num, 1);
+    }
+
+    /**
+       実行されない関数の割合を設定します。
+
+       @param percent 割合（パーセント）
+    */
+    public void setUnexecutedRatio(final int percent) {
+	unexecutedRatio = percent;
+    }
+
+    /**
+       gcdaファイルのサマリに記録する実行回数を設定します。1未満の場
+       合は1になります。カウンタの値は、すべての実行の合計とみなしま
+       す。
+
+       @param num 実行回数
+    */
+    public void setRuns(final int num) {
+	runs = Math.max(num, 1);
+    }
+
+    /**
+       乱数の種を設定します。同じ種とパラメータでは同じコーパスを生成
+       します。
+
+       @param seed 乱数の種
+    */
+    public void setSeed(final long seed) {
+	this.seed = seed;
+    }
+
+    /**
+       関数が占める行数を取得します。
+
+       @return 関数の行数
+    */
+    private int getLinesPerFunction() {
+	return blocks * linesPerBlock + 2;
+    }
+
+    /**
+       ファイルに含まれる関数が占める行数を取得します。
+
+       @return ソースファイルの行数
+    */
+    public int getSourceLines() {
+	return functions * getLinesPerFunction();
+    }
+
+    /**
+       ヘッダファイルの行数を取得します。
+
+       @return ヘッダファイルの行数
+    */
+    public int getHeaderLines() {
+	return headerFunctions * getLinesPerFunction();
+    }
+
+    /**
+       リトルエンディアンの32ビット整数を書き込みます。
+
+       @param out 出力先
+       @param v 値
+    */
+    private static void putInt(final ByteArrayOutputStream out,
+			       final int v) {
+	out.write(v);
+	out.write(v >>> 8);
+	out.write(v >>> 16);
+	out.write(v >>> 24);
+    }
+
+    /**
+       64ビット整数を下位、上位の順に書き込みます。
+
+       @param out 出力先
+       @param v 値
+    */
+    private static void putLong(final ByteArrayOutputStream out,
+				final long v) {
+	putInt(out, (int) v);
+	putInt(out, (int) (v >>> 32));
+    }
+
+    /**
+       文字列を、長さ（32ビット単位）とヌル文字で終わる4バイト境界に
+       揃えたバイト列で書き込みます。nullの場合は長さ0を書き込みます。
+
+       @param out 出力先
+       @param s 文字列、またはnull
+    */
+    private static void putString(final ByteArrayOutputStream out,
+				  final String s) {
+	if (s == null) {
+	    putInt(out, 0);
+	    return;
+	}
+	byte[] b = s.getBytes();
+	int words = b.length / 4 + 1;
+	putInt(out, words);
+	out.write(b, 0, b.length);
+	for (int k = b.length; k < words * 4; ++k) {
+	    out.write(0);
+	}
+    }
+
+    /**
+       レコードを書き込みます。
+
+       @param out 出力先
+       @param tag タグ
+       @param body レコードの本体
+    */
+    private static void putRecord(final ByteArrayOutputStream out,
+				  final int tag,
+				  final ByteArrayOutputStream body) {
+	putInt(out, tag);
+	putInt(out, body.size() / 4);
+	byte[] b = body.toByteArray();
+	out.write(b, 0, b.length);
+    }
+
+    /**
+       マジックナンバー、バージョン、タイムスタンプを書き込みます。
+
+       @param out 出力先
+       @param magic リトルエンディアンのマジックナンバー
+    */
+    private static void putHeader(final ByteArrayOutputStream out,
+				  final String magic) {
+	byte[] b = magic.getBytes();
+	out.write(b, 0, b.length);
+	putInt(out, VERSION);
+	putInt(out, STAMP);
+    }
+
+    /**
+       サマリレコードを書き込みます。
+
+       SummaryRecordと同じく、num、runs、sum_all、run_max、sum_maxの
+       順に書き込みます。カウンタの値はすべての実行の合計なので、
+       sum_maxにはrun_maxと同じ値を書き込みます。
+
+       @param out 出力先
+       @param tag タグ
+       @param num カウンタ数
+       @param runs 実行回数
+       @param sumAll すべてのカウンタの合計
+       @param runMax カウンタの最大値
+    */
+    private static void putSummary(final ByteArrayOutputStream out,
+				   final int tag, final int num,
+				   final int runs, final long sumAll,
+				   final long runMax) {
+	ByteArrayOutputStream b = new ByteArrayOutputStream();
+	putInt(b, 0);
+	putInt(b, num);
+	putInt(b, runs);
+	putLong(b, sumAll);
+	putLong(b, runMax);
+	putLong(b, runMax);
+	putRecord(out, tag, b);
+    }
+
+    /**
+       アークのカウンタの値を書き込んで、サマリに加えます。
+
+       @param counts ARC_COUNTSレコードの内容の出力先
+       @param summary サマリの配列
+       @param count カウンタの値
+    */
+    private static void putCount(final ByteArrayOutputStream counts,
+				 final long[] summary, final long count) {
+	putLong(counts, count);
+	++summary[SUMMARY_NUM];
+	summary[SUMMARY_SUM_ALL] += count;
+	summary[SUMMARY_RUN_MAX] = Math.max(summary[SUMMARY_RUN_MAX], count);
+    }
+
+    /**
+       ひとつの関数のレコードを書き込みます。
+
+       @param no gcnoファイルの出力先
+       @param da gcdaファイルの出力先
+       @param id 関数の識別子
+       @param name 関数名
+       @param sourceFile ソースファイルのパス
+       @param firstLine 関数の先頭の行番号
+       @param shape フローグラフと行番号を決める乱数
+       @param rand 実行回数を決める乱数
+       @param summary カウンタを加えるサマリの配列
+    */
+    private void putFunction(final ByteArrayOutputStream no,
+			     final ByteArrayOutputStream da,
+			     final int id, final String name,
+			     final String sourceFile, final int firstLine,
+			     final Random shape, final Random rand,
+			     final long[] summary) {
+	int checksum = shape.nextInt();
+	ByteArrayOutputStream b = new ByteArrayOutputStream();
+	putInt(b, id);
+	putInt(b, checksum);
+	putString(b, name);
+	putString(b, sourceFile);
+	putInt(b, firstLine);
+	putRecord(no, Tag.FUNCTION, b);
+
+	b = new ByteArrayOutputStream();
+	for (int k = 0; k < blocks; ++k) {
+	    putInt(b, 0);
+	}
+	putRecord(no, Tag.BLOCK, b);
+
+	long calls = 0;
+	if (rand.nextInt(PERCENT) >= unexecutedRatio) {
+	    calls = 1 + (long) (rand.nextDouble() * maxCount);
+	}
+	int exit = blocks - 1;
+	long[] in = new long[blocks];
+	in[1] = calls;
+	ByteArrayOutputStream counts = new ByteArrayOutputStream();
+	b = new ByteArrayOutputStream();
+	putInt(b, 0);
+	putInt(b, 1);
+	putInt(b, FLAG_ON_TREE);
+	putRecord(no, Tag.ARCS, b);
+	for (int k = 1; k < exit; ++k) {
+	    boolean branch = k + 2 <= exit
+		&& shape.nextInt(PERCENT) < branchRatio;
+	    long taken = 0;
+	    if (branch && in[k] > 0) {
+		taken = (long) (rand.nextDouble() * in[k]);
+	    }
+	    long through = in[k] - taken;
+	    in[k + 1] += through;
+	    b = new ByteArrayOutputStream();
+	    putInt(b, k);
+	    putInt(b, k + 1);
+	    if (k + 1 == exit) {
+		putInt(b, branch ? FLAG_FALL_THROUGH : 0);
+		putCount(counts, summary, through);
+	    } else {
+		putInt(b, FLAG_ON_TREE | (branch ? FLAG_FALL_THROUGH : 0));
+	    }
+	    if (branch) {
+		in[k + 2] += taken;
+		putInt(b, k + 2);
+		putInt(b, 0);
+		putCount(counts, summary, taken);
+	    }
+	    putRecord(no, Tag.ARCS, b);
+
+	    if (shape.nextInt(PERCENT) >= lineDensity) {
+		continue;
+	    }
+	    b = new ByteArrayOutputStream();
+	    putInt(b, k);
+	    putInt(b, 0);
+	    putString(b, sourceFile);
+	    int line = firstLine + (k - 1) * linesPerBlock + 1;
+	    for (int n = 0; n < linesPerBlock; ++n) {
+		putInt(b, line + n);
+	    }
+	    putInt(b, 0);
+	    putString(b, null);
+	    putRecord(no, Tag.LINES, b);
+	}
+
+	b = new ByteArrayOutputStream();
+	putInt(b, id);
+	putInt(b, checksum);
+	putRecord(da, Tag.FUNCTION, b);
+	putRecord(da, Tag.ARC_COUNTS, counts);
+    }
+
+    /**
+       ヘッダファイルのパスを取得します。
+
+       @param h ヘッダファイルの番号
+       @return ヘッダファイルのパス
+    */
+    private static String getHeaderPath(final int h) {
+	return String.format("include/header%d.h", h);
+    }
+
+    /**
+       ソースファイルのパスを取得します。
+
+       @param index ファイルの番号
+       @return ソースファイルのパス
+    */
+    private static String getSourcePath(final int index) {
+	return String.format("src/%03d/file%d.c", index / FILES_PER_DIR,
+			     index);
+    }
+
+    /**
+       gcnoファイルの拡張子を除いたパスを取得します。
+
+       @param index ファイルの番号
+       @return 拡張子を除いたパス
+    */
+    private static String getObjectPath(final int index) {
+	return String.format("obj/%03d/file%d", index / FILES_PER_DIR,
+			     index);
+    }
+
+    /**
+       ひとつのファイルのgcnoファイルとgcdaファイルの内容を生成します。
+
+       同じ番号では同じ内容を生成します。ヘッダファイルのインライン関
+       数の内容は番号に依存しません。
+
+       @param index ファイルの番号
+       @param sourceFile ソースファイルのパス
+       @param no gcnoファイルの出力先
+       @param da gcdaファイルの出力先
+    */
+    public void generate(final int index, final String sourceFile,
+			 final ByteArrayOutputStream no,
+			 final ByteArrayOutputStream da) {
+	Random rand = new Random(seed * 31 + index);
+	putHeader(no, "oncg");
+	putHeader(da, "adcg");
+	int span = getLinesPerFunction();
+	int id = 0;
+	long[] summary = new long[SUMMARY_SIZE];
+	for (int k = 0; k < functions; ++k) {
+	    putFunction(no, da, id, "function" + k, sourceFile,
+			k * span + 1, rand, rand, summary);
+	    ++id;
+	}
+	int n = Math.min(includes, headers);
+	int base = (n == 0) ? 0 : rand.nextInt(headers);
+	for (int k = 0; k < n; ++k) {
+	    int h = (base + k) % headers;
+	    String path = getHeaderPath(h);
+	    for (int f = 0; f < headerFunctions; ++f) {
+		Random shape = new Random(seed * 31 - h * 7919L - f);
+		putFunction(no, da, id,
+			    String.format("header%d_inline%d", h, f),
+			    path, f * span + 1, shape, rand, summary);
+		++id;
+	    }
+	}
+	int num = (int) summary[SUMMARY_NUM];
+	putSummary(da, Tag.OBJECT_SUMMARY, num, runs,
+		   summary[SUMMARY_SUM_ALL], summary[SUMMARY_RUN_MAX]);
+	putSummary(da, Tag.PROGRAM_SUMMARY, num, runs,
+		   summary[SUMMARY_SUM_ALL], summary[SUMMARY_RUN_MAX]);
+    }
+
+    /**
+       ソースファイルを書き込みます。
+
+       @param file ソースファイル
+       @param lines 行数
+       @throws IOException 入出力エラー
+    */
+    public static void writeSource(final File file, final int lines)
+	throws IOException {
+	File parent = file.getParentFile();
+	if (parent != null) {
+	    parent.mkdirs();
+	}
+	PrintWriter out = new PrintWriter(file);
+	try {
+	    for (int k = 1; k <= lines; ++k) {
+		out.printf("    value = compute(value, %d); /* line %d */\n",
+			   k, k);
+	    }
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+    }
+
+    /**
+       ファイルにバイト列を書き込みます。
+
+       @param file ファイル
+       @param out バイト列
+       @throws IOException 入出力エラー
+    */
+    private static void writeFile(final File file,
+				  final ByteArrayOutputStream out)
+	throws IOException {
+	FileOutputStream s = new FileOutputStream(file);
+	try {
+	    out.writeTo(s);
+	} finally {
+	    s.close();
+	}
+    }
+
+    /**
+       コーパスを出力ディレクトリに書き込みます。ソースファイルは、
+       gcnoファイルより新しくならないように先に書き込みます。
+
+       @param dir 出力ディレクトリ
+       @param files ファイルの個数
+       @param sources ソースファイルとヘッダファイルも書き込む場合は
+       true
+       @throws IOException 入出力エラー
+    */
+    public void write(final File dir, final int files, final boolean sources)
+	throws IOException {
+	dir.mkdirs();
+	if (sources) {
+	    for (int h = 0; h < headers; ++h) {
+		writeSource(new File(dir, getHeaderPath(h)), getHeaderLines());
+	    }
+	}
+	PrintWriter list = new PrintWriter(new File(dir, "files.txt"));
+	try {
+	    ByteArrayOutputStream no = new ByteArrayOutputStream();
+	    ByteArrayOutputStream da = new ByteArrayOutputStream();
+	    for (int k = 0; k < files; ++k) {
+		String sourceFile = getSourcePath(k);
+		no.reset();
+		da.reset();
+		generate(k, sourceFile, no, da);
+		if (sources) {
+		    writeSource(new File(dir, sourceFile), getSourceLines());
+		}
+		String path = getObjectPath(k);
+		File noteFile = new File(dir, path + ".gcno");
+		if (k % FILES_PER_DIR == 0) {
+		    noteFile.getParentFile().mkdirs();
+		}
+		writeFile(noteFile, no);
+		writeFile(new File(dir, path + ".gcda"), da);
+		list.printf("%s.gcno\n", path);
+	    }
+	} finally {
+	    list.close();
+	}
+	if (list.checkError()) {
+	    throw new IOException("files.txt: write error.");
+	}
+    }
+
+    /**
+       オプションの引数を0以上の整数に変換します。
+
+       @param arg 引数
+       @return 整数
+       @throws OptionsParsingException 0以上の整数ではない
+    */
+    private static long toLong(final String arg)
+	throws OptionsParsingException {
+	String m = "invalid value: " + arg;
+	long num;
+	try {
+	    num = Long.valueOf(arg);
+	} catch (NumberFormatException e) {
+	    throw new OptionsParsingException(m);
+	}
+	if (num < 0) {
+	    throw new OptionsParsingException(m);
+	}
+	return num;
+    }
+
+    /**
+       オプションの引数を0以上の整数に変換します。
+
+       @param arg 引数
+       @return 整数
+       @throws OptionsParsingException 0以上の整数ではない
+    */
+    private static int toInt(final String arg)
+	throws OptionsParsingException {
+	long num = toLong(arg);
+	if (num > Integer.MAX_VALUE) {
+	    throw new OptionsParsingException("invalid value: " + arg);
+	}
+	return (int) num;
+    }
+
+    /**
+       使用方法を表示して終了します。
+
+       @param options コマンドラインオプションの定義
+    */
+    private static void usage(final Options options) {
+	PrintStream out = System.err;
+	out.printf("Usage: java -cp coverture.jar "
+		   + "com.maroontress.coverture.CorpusGenerator [Options]%n"
+		   + "Options are:%n");
+	String[] help = options.getHelpMessage(INDENT_WIDTH).split("\n");
+	for (String s : help) {
+	    out.printf("  %s%n", s);
+	}
+	System.exit(1);
+    }
+
+    /**
+       コーパスを生成します。
+
+       @param av コマンドラインオプション
+    */
+    public static void main(final String[] av) {
+	final CorpusGenerator gen = new CorpusGenerator();
+	final File[] dir = {new File("corpus")};
+	final int[] files = {1};
+	final boolean[] sources = {false};
+	final Options options = new Options();
+
+	options.add("help", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		usage(options);
+	    }
+	}, "Show this message and exit.");
+
+	options.add("output-dir", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		dir[0] = new File(arg);
+	    }
+	}, "DIR", "Specify where to place the corpus:\n"
+		    + "corpus is the default.");
+
+	options.add("files", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		files[0] = toInt(arg);
+	    }
+	}, "NUM", "Specify the number of .gcno/.gcda pairs:\n"
+		    + "1 is the default.");
+
+	options.add("functions", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setFunctions(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of functions per file:\n"
+		    + "10 is the default.");
+
+	options.add("blocks", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setBlocks(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of blocks per function:\n"
+		    + "NUM >= 4; 16 is the default.");
+
+	options.add("branch-ratio", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setBranchRatio(toInt(arg));
+	    }
+	}, "PERCENT", "Specify the ratio of blocks with a branch arc:\n"
+		    + "50 is the default.");
+
+	options.add("line-density", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setLineDensity(toInt(arg));
+	    }
+	}, "PERCENT", "Specify the ratio of blocks with lines:\n"
+		    + "100 is the default.");
+
+	options.add("lines-per-block", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setLinesPerBlock(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of lines per block:\n"
+		    + "1 is the default.");
+
+	options.add("headers", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setHeaders(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of shared headers:\n"
+		    + "0 is the default.");
+
+	options.add("header-functions", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setHeaderFunctions(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of inline functions\n"
+		    + "per header: 10 is the default.");
+
+	options.add("includes", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setIncludes(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of headers each file\n"
+		    + "includes: 0 is the default.");
+
+	options.add("max-count", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setMaxCount(toLong(arg));
+	    }
+	}, "NUM", "Specify the maximum call count of functions:\n"
+		    + "1000000 is the default.");
+
+	options.add("unexecuted-ratio", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setUnexecutedRatio(toInt(arg));
+	    }
+	}, "PERCENT", "Specify the ratio of functions never called:\n"
+		    + "10 is the default.");
+
+	options.add("runs", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setRuns(toInt(arg));
+	    }
+	}, "NUM", "Specify the number of runs recorded in the\n"
+		    + "summaries: 1 is the default.");
+
+	options.add("seed", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		gen.setSeed(toLong(arg));
+	    }
+	}, "NUM", "Specify the random seed: 0 is the default.");
+
+	options.add("sources", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		sources[0] = true;
+	    }
+	}, "Write source files and headers as well.");
+
+	try {
+	    if (options.parse(av).length != 0) {
+		usage(options);
+	    }
+	} catch (OptionsParsingException e) {
+	    System.err.println(e.getMessage());
+	    usage(options);
+	}
+	try {
+	    gen.write(dir[0], files[0], sources[0]);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	    System.exit(1);
+	}
+	System.exit(0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.FileCache;
+import com.maroontress.gcovparser.gcno.NoteRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+
+/**
+   長時間動作するJVMにcovertureを組み込むためのAPIです。
+
+   インスタンスは、ファイルを処理するスレッドプールと、ノートレコー
+   ドとソースファイルのキャッシュを保持し、呼び出しの間で再利用しま
+   す。process()は複数のスレッドから同時に呼び出すことができます。
+   JVMを終了したり、標準出力や標準エラー出力に直接書き込んだりする
+   ことはありません。
+
+   出力先と問題の受け取り方は、呼び出し毎に入出力プロパティで指定し
+   ます。XMLはIOProperties#setOutputStream(OutputStream)、メッセー
+   ジはIOProperties#setMessageStream(PrintStream)、ファイル毎の問題
+   はIOProperties#setProblemListener(ProblemListener)で設定した先に
+   出力します。
+*/
+public final class CoverageEngine {
+
+    /** デフォルトのキャッシュの個数です。 */
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+
+    /** ファイルを処理するスレッドプールです。 */
+    private ExecutorService executor;
+
+    /** ノートレコードのキャッシュです。 */
+    private FileCache<NoteRecord> noteCache;
+
+    /** ソースファイルをマップしたバッファのキャッシュです。 */
+    private FileCache<ByteBuffer> sourceCache;
+
+    /**
+       インスタンスを生成します。スレッドプールは呼び出し側が所有し、
+       このインスタンスはシャットダウンしません。
+
+       @param executor ファイルを処理するスレッドプール
+       @param cacheSize キャッシュするgcnoファイルとソースファイルの個数
+    */
+    public CoverageEngine(final ExecutorService executor,
+			  final int cacheSize) {
+	this.executor = executor;
+	noteCache = new FileCache<NoteRecord>(cacheSize);
+	sourceCache = new FileCache<ByteBuffer>(cacheSize);
+    }
+
+    /**
+       デフォルトの個数のキャッシュを持つインスタンスを生成します。
+
+       @param executor ファイルを処理するスレッドプール
+    */
+    public CoverageEngine(final ExecutorService executor) {
+	this(executor, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+       gcnoファイルを処理して、結果を返します。
+
+       入出力プロパティにキャッシュが設定されていなければ、このインス
+       タンスのキャッシュを設定します。入出力プロパティは呼び出し毎に
+       生成し、同時に実行している呼び出しの間で共有しないでください。
+
+       ファイル毎の問題は結果に記録してから、入出力プロパティのリスナ
+       に転送します。XMLはgcnoファイルのパスの順に出力します。
+
+       @param props 入出力プロパティ
+       @param files gcnoファイルのパスのコレクション
+       @return 処理の結果
+       @throws IOException 入出力エラー
+    */
+    public CoverageResult process(final IOProperties props,
+				  final Collection<String> files)
+	throws IOException {
+	ProblemListener listener = props.getProblemListener();
+	CoverageResult result = new CoverageResult(listener);
+	if (props.getNoteCache() == null) {
+	    props.setNoteCache(noteCache);
+	}
+	if (props.getSourceCache() == null) {
+	    props.setSourceCache(sourceCache);
+	}
+	props.setProblemListener(result);
+	Processor processor = new DeliveryProcessor(props, executor);
+	processor.setResult(result);
+	try {
+	    processor.run(files.toArray(new String[files.size()]), null);
+	} catch (ExitException e) {
+	    result.setStatus(e.getStatus());
+	} finally {
+	    props.setProblemListener(listener);
+	}
+	return result;
+    }
+}
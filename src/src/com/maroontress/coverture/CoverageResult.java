@@ -0,0 +1,136 @@
+package com.maroontress.coverture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+   CoverageEngineでファイルを処理した結果です。
+
+   処理したノートの個数、ソースファイル毎のカバレッジ、処理する途中
+   で発生した問題、終了ステータスを保持します。問題を受け取るリスナ
+   として、受け取った問題を記録してから、もうひとつのリスナに転送し
+   ます。
+
+   add(Note)とreport(Problem)は複数のスレッドから同時に呼び出すこと
+   ができます。
+*/
+public final class CoverageResult implements ProblemListener {
+
+    /** 問題を転送するリスナ、またはnullです。 */
+    private ProblemListener next;
+
+    /** ソースファイルのパスとカバレッジのマップです。 */
+    private TreeMap<String, FileCoverage> map;
+
+    /** 発生した問題のリストです。 */
+    private List<Problem> problems;
+
+    /** 処理したノートの個数です。 */
+    private int noteCount;
+
+    /** 終了ステータスです。 */
+    private int status;
+
+    /**
+       インスタンスを生成します。
+
+       @param next 問題を転送するリスナ、またはnull
+    */
+    public CoverageResult(final ProblemListener next) {
+	this.next = next;
+	map = new TreeMap<String, FileCoverage>();
+	problems = new ArrayList<Problem>();
+	noteCount = 0;
+	status = 0;
+    }
+
+    /**
+       ノートに含まれるすべてのソースのカバレッジを集計します。
+
+       @param note ノート
+    */
+    public synchronized void add(final Note note) {
+	++noteCount;
+	Collection<Source> all = note.getSources();
+	for (Source s : all) {
+	    String path = s.getPath();
+	    FileCoverage c = map.get(path);
+	    if (c == null) {
+		c = new FileCoverage(path);
+		map.put(path, c);
+	    }
+	    c.add(s);
+	}
+    }
+
+    /** {@inheritDoc} */
+    public void report(final Problem problem) {
+	synchronized (this) {
+	    problems.add(problem);
+	}
+	if (next != null) {
+	    next.report(problem);
+	}
+    }
+
+    /**
+       終了ステータスを設定します。
+
+       @param status 終了ステータス
+    */
+    public synchronized void setStatus(final int status) {
+	this.status = status;
+    }
+
+    /**
+       終了ステータスを取得します。すべてのファイルを処理できた場合は
+       0です。個々のファイルの問題は終了ステータスに影響しません。
+
+       @return 終了ステータス
+    */
+    public synchronized int getStatus() {
+	return status;
+    }
+
+    /**
+       処理したノートの個数を取得します。
+
+       @return ノートの個数
+    */
+    public synchronized int getNoteCount() {
+	return noteCount;
+    }
+
+    /**
+       ソースファイルのパスの順に、ソースファイル毎のカバレッジを取得
+       します。
+
+       @return カバレッジのコレクション
+    */
+    public synchronized Collection<FileCoverage> getFileCoverages() {
+	return Collections.unmodifiableCollection(
+	    new ArrayList<FileCoverage>(map.values()));
+    }
+
+    /**
+       ソースファイルのカバレッジを取得します。
+
+       @param path ソースファイルのパス
+       @return カバレッジ、またはソースファイルがない場合はnull
+    */
+    public synchronized FileCoverage getFileCoverage(final String path) {
+	return map.get(path);
+    }
+
+    /**
+       発生した順に、問題のリストを取得します。
+
+       @return 問題のリスト
+    */
+    public synchronized List<Problem> getProblems() {
+	return Collections.unmodifiableList(new ArrayList<Problem>(problems));
+    }
+}
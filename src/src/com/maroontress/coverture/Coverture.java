@@ -3,53 +3,92 @@ package com.maroontress.coverture;
 import com.maroontress.cui.OptionListener;
 import com.maroontress.cui.Options;
 import com.maroontress.cui.OptionsParsingException;
+import com.maroontress.gcovparser.FileCache;
+import com.maroontress.gcovparser.gcno.NoteRecord;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
 
 /**
-   Covertureεư饹Ǥ
+   Covertureの起動クラスです。
 */
 public final class Coverture {
 
-    /** إץåΥǥǤ */
+    /** ヘルプメッセージのインデント幅です。 */
     private static final int INDENT_WIDTH = 32;
 
-    /** ǥեȤΥåɤθĿ */
+    /** デフォルトのスレッドの個数。 */
     private static final int DEFAULT_THREADS = 4;
 
-    /** ȤƽϤ뤫ɤΥե饰Ǥ */
+    /** 1メガバイトのバイト数です。 */
+    private static final long MEGABYTE = 1L << 20;
+
+    /** ジャーナルのシグネチャに含めない、出力に影響しないオプションです。 */
+    private static final String[] UNSIGNED_OPTIONS = {
+	"--verbose",
+	"--threads=",
+	"--stats",
+	"--slow-files=",
+	"--spill-budget=",
+    };
+
+    /** ソートして出力するかどうかのフラグです。 */
     private boolean sortsOutput;
 
-    /** gcnoեΥꥹȥեΥѥǤ */
+    /** gcnoファイルのリストファイルのパスです。 */
     private String inputFile;
 
-    /** ϥץѥƥǤ */
+    /** 入出力プロパティです。 */
     private IOProperties props;
 
-    /** ޥɥ饤ǻꤵ줿gcnoեΥѥǤ */
+    /** コマンドラインで指定されたgcnoファイルのパスの配列です。 */
     private String[] files;
 
-    /** gcnoեѡ륹åɤθĿǤ */
+    /** gcnoファイルをパースするスレッドの個数です。 */
     private int threads;
 
-    /** ޥɥ饤󥪥ץǤ */
+    /** コマンドラインオプションの定義です。 */
     private Options options;
 
-    /** gcnoեΥץåǤ */
+    /** gcnoファイルのプロセッサです。 */
     private Processor processor;
 
+    /** 生成する逆引きインデックスファイル、またはnullです。 */
+    private File indexFile;
+
+    /** ソースファイルのインクルードのパターンのリストです。 */
+    private List<String> includes;
+
+    /** ソースファイルのエクスクルードのパターンのリストです。 */
+    private List<String> excludes;
+
     /**
-       ư饹Υ󥹥󥹤ޤ
+       起動クラスのインスタンスを生成します。
 
-       @param av ޥɥ饤󥪥ץ
+       スレッドプールを指定した場合は、ファイルをソートして処理すると
+       きにそのスレッドプールを使用し、--threadsオプションは無視します。
+
+       @param av コマンドラインオプションの配列
+       @param props 入出力プロパティ
+       @param executor スレッドプール、またはnull
+       @throws ExitException 使用方法やバージョンを表示した、またはオ
+       プションが不正
     */
-    private Coverture(final String[] av) {
+    private Coverture(final String[] av, final IOProperties props,
+		      final ExecutorService executor) {
 	threads = DEFAULT_THREADS;
 	sortsOutput = true;
-	props = new IOProperties();
+	this.props = props;
+	includes = new ArrayList<String>();
+	excludes = new ArrayList<String>();
 
 	options = new Options();
 	options.add("help", new OptionListener() {
@@ -77,6 +116,81 @@ public final class Coverture {
 	}, "FILE", "Read the list of files from FILE:\n"
 		    + "FILE can be - for standard input.");
 
+	options.add("changed-lines", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		try {
+		    props.setChangeSet(ChangeSet.read(arg));
+		} catch (IOException e) {
+		    throw new OptionsParsingException(
+			arg + ": can't read: " + e.getMessage());
+		}
+	    }
+	}, "FILE", "Process only functions with changed lines:\n"
+		    + "FILE is a unified diff or PATH[:LINES] list.");
+
+	options.add("journal", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setJournalFile(new File(arg));
+		props.setJournalSignature(getSignature(av));
+	    }
+	}, "FILE", "Record completed files in FILE and skip them\n"
+		    + "when rerun with the same options.");
+
+	options.add("index", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		try {
+		    props.setSourceIndex(SourceIndex.read(new File(arg)));
+		} catch (IOException e) {
+		    throw new OptionsParsingException(
+			arg + ": can't read: " + e.getMessage());
+		}
+	    }
+	}, "FILE", "Read the source index from FILE and open only\n"
+		    + "the files referring to the changed sources:\n"
+		    + "requires --changed-lines.");
+
+	options.add("build-index", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		indexFile = new File(arg);
+	    }
+	}, "FILE", "Write the source index of the files to FILE\n"
+		    + "and exit.");
+
+	options.add("include", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		includes.add(arg);
+	    }
+	}, "PATTERN", "Report only source files matching PATTERN:\n"
+		    + "PATTERN is a glob; may be given repeatedly.");
+
+	options.add("exclude", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		excludes.add(arg);
+	    }
+	}, "PATTERN", "Ignore source files matching PATTERN:\n"
+		    + "PATTERN is a glob; may be given repeatedly.");
+
+	options.add("spill-budget", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		String m = "invalid value: " + arg;
+		int num;
+		try {
+		    num = Integer.valueOf(arg);
+		} catch (NumberFormatException e) {
+		    throw new OptionsParsingException(m);
+		}
+		if (num <= 0) {
+		    throw new OptionsParsingException(m);
+		}
+		props.setSpillBudget((long) num * MEGABYTE);
+	    }
+	}, "MB", "Keep at most MB megabytes of sorted XML in\n"
+		    + "memory and merge the rest from temporary\n"
+		    + "files.");
+
 	options.add("source-file-charset", new OptionListener() {
 	    public void run(final String name, final String arg)
 		throws OptionsParsingException {
@@ -90,6 +204,74 @@ public final class Coverture {
 	    }
 	}, "Output .gcov files compatible with gcov.");
 
+	options.add("gcov-gzip", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setGcovEnabled(true);
+		props.setGcovGzipped(true);
+	    }
+	}, "Output .gcov.gz files compressed with gzip.");
+
+	options.add("hash-filenames", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setHashedFilenamesEnabled(true);
+	    }
+	}, "Name .gcov files with the source basename\n"
+		    + "and an MD5 digest of the long name.");
+
+	options.add("hash-subdirs", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setHashedFilenamesEnabled(true);
+		props.setHashedSubdirectoriesEnabled(true);
+	    }
+	}, "Hash .gcov files into subdirectories named\n"
+		    + "by the first 2 digits of the digest.");
+
+	options.add("branch-probabilities", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setBranchProbabilitiesEnabled(true);
+	    }
+	}, "Include branch frequencies in .gcov files.");
+
+	options.add("all-blocks", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setAllBlocksEnabled(true);
+	    }
+	}, "Show information for every basic block.");
+
+	options.add("unconditional-branches", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setUnconditionalBranchesEnabled(true);
+	    }
+	}, "Include unconditional branches with\n"
+		    + "--branch-probabilities.");
+
+	options.add("json", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setJsonEnabled(true);
+	    }
+	}, "Output .gcov.json files in the gcov\n"
+	   + "intermediate format.");
+
+	options.add("json-gzip", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setJsonEnabled(true);
+		props.setJsonGzipped(true);
+	    }
+	}, "Output .gcov.json.gz files compressed with\n"
+	   + "gzip.");
+
+	options.add("lcov", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setLcovFile(new File(arg));
+	    }
+	}, "FILE", "Output the LCOV tracefile to FILE.");
+
+	options.add("cobertura", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setCoberturaFile(new File(arg));
+	    }
+	}, "FILE", "Output the Cobertura XML to FILE.");
+
 	options.add("gcov-file-charset", new OptionListener() {
 	    public void run(final String name, final String arg)
 		throws OptionsParsingException {
@@ -115,29 +297,125 @@ public final class Coverture {
 	}, "NUM", "Specify the number of parser threads:\n"
 		    + "NUM > 0; 4 is the default.");
 
+	options.add("shard", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setShardEnabled(true);
+	    }
+	}, "Write the XML of each file into the output\n"
+		    + "directory with manifest.txt, not to stdout.");
+
+	options.add("merge-functions", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setFunctionMergingEnabled(true);
+	    }
+	}, "Merge the same functions in all files and\n"
+		    + "output each of them once.");
+
+	options.add("gzip", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setOutputGzipped(true);
+	    }
+	}, "Compress the XML output with gzip in parallel.");
+
 	options.add("no-sort", new OptionListener() {
 	    public void run(final String name, final String arg) {
 		sortsOutput = false;
 	    }
 	}, "Disable sorting and threading.");
 
+	options.add("stats", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setStatistics(new Statistics());
+	    }
+	}, "Print per-phase timings and throughput\n"
+		    + "to stderr at the end.");
+
+	options.add("stats-json", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setStatistics(new Statistics());
+		props.setStatisticsFile(new File(arg));
+	    }
+	}, "FILE", "Write the statistics of --stats to FILE\n"
+		    + "in JSON instead.");
+
+	options.add("slow-files", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		String m = "invalid value: " + arg;
+		int num;
+		try {
+		    num = Integer.valueOf(arg);
+		} catch (NumberFormatException e) {
+		    throw new OptionsParsingException(m);
+		}
+		if (num <= 0) {
+		    throw new OptionsParsingException(m);
+		}
+		props.setSlowFileCount(num);
+	    }
+	}, "NUM", "Print the NUM slowest files with their sizes,\n"
+		    + "graph sizes and solver rounds at the end.");
+
 	options.add("verbose", new OptionListener() {
 	    public void run(final String name, final String arg) {
 		props.setVerbose(true);
 	    }
 	}, "Be extra verbose.");
 
+	options.add("watch", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		props.setWatchEnabled(true);
+	    }
+	}, "Keep watching gcno/gcda files after processing\n"
+		    + "and regenerate the outputs of changed files.");
+
+	options.add("watch-delay", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		String m = "invalid value: " + arg;
+		int num;
+		try {
+		    num = Integer.valueOf(arg);
+		} catch (NumberFormatException e) {
+		    throw new OptionsParsingException(m);
+		}
+		if (num <= 0) {
+		    throw new OptionsParsingException(m);
+		}
+		props.setWatchDelay(num);
+	    }
+	}, "MS", "Wait until files are quiet for MS milliseconds\n"
+		    + "with --watch: 200 is the default.");
+
 	try {
 	    files = options.parse(av);
 	} catch (OptionsParsingException e) {
 	    System.err.println(e.getMessage());
 	    usage();
 	}
-	if (files.length == 0 && inputFile == null) {
+	if (props.getSourceIndex() != null && props.getChangeSet() == null) {
+	    System.err.println("--index requires --changed-lines.");
+	    usage();
+	}
+	if (files.length == 0 && inputFile == null
+	    && (props.getSourceIndex() == null || props.getChangeSet() == null
+		|| indexFile != null)) {
 	    usage();
 	}
 
-	if (sortsOutput) {
+	if (props.isWatchEnabled() && props.getNoteCache() == null) {
+	    props.setNoteCache(new FileCache<NoteRecord>(Integer.MAX_VALUE));
+	}
+
+	if (!includes.isEmpty() || !excludes.isEmpty()) {
+	    props.setSourceFilter(new PathFilter(includes, excludes));
+	}
+
+	if (indexFile != null) {
+	    processor = new IndexProcessor(props, indexFile);
+	} else if (sortsOutput && executor != null) {
+	    processor = new DeliveryProcessor(props, executor);
+	} else if (sortsOutput) {
 	    processor = new DeliveryProcessor(props, threads);
 	} else {
 	    processor = new SimpleProcessor(props);
@@ -145,13 +423,52 @@ public final class Coverture {
     }
 
     /**
-       ʸޤ
+       オプションが出力に影響しないものかどうかを取得します。
+
+       @param arg オプション
+       @return 出力に影響しない場合はtrue
+    */
+    private static boolean isUnsigned(final String arg) {
+	for (String s : UNSIGNED_OPTIONS) {
+	    if (arg.startsWith(s)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+       コマンドラインオプションのシグネチャを取得します。シグネチャは、
+       出力に影響しないオプションを除いたすべてのオプションを改行で連
+       結した文字列のCRC32の16進数表記です。
+
+       @param av コマンドラインオプション
+       @return シグネチャ
+    */
+    private static String getSignature(final String[] av) {
+	CRC32 crc = new CRC32();
+	for (String s : av) {
+	    if (isUnsigned(s)) {
+		continue;
+	    }
+	    try {
+		crc.update(s.getBytes("UTF-8"));
+	    } catch (UnsupportedEncodingException e) {
+		throw new RuntimeException("internal error.", e);
+	    }
+	    crc.update('\n');
+	}
+	return Long.toHexString(crc.getValue());
+    }
+
+    /**
+       文字集合を取得します。
 
-       csnnullξϥǥեȤʸ֤ޤ
+       csnがnullの場合はデフォルトの文字集合を返します。
 
-       @param csn ʸ̾ޤnull
-       @return ʸ
-       @throws OptionsParsingException ʸ̾ѤǤʤ
+       @param csn 文字集合名、またはnull
+       @return 文字集合
+       @throws OptionsParsingException 指定の文字集合名を使用できない
     */
     private Charset getCharset(final String csn)
 	throws OptionsParsingException {
@@ -166,22 +483,30 @@ public final class Coverture {
     }
 
     /**
-       ꤵ줿եϤ¹Ԥޤ
+       指定されたファイルの入出力を実行します。
+
+       @return 終了ステータス
     */
-    private void run() {
+    private int run() {
 	try {
 	    processor.run(files, inputFile);
+	    if (props.isWatchEnabled()) {
+		processor.watch();
+	    }
+	} catch (ExitException e) {
+	    return e.getStatus();
 	} catch (Exception e) {
-	    e.printStackTrace();
-	    System.exit(1);
+	    props.report(new Problem(ProblemKind.UNEXPECTED, null,
+				     String.valueOf(e), e));
+	    return 1;
 	}
-	System.exit(0);
+	return 0;
     }
 
     /**
-       ˡɽޤ
+       使用方法を表示します。
 
-       @param out ϥȥ꡼
+       @param out 出力ストリーム
     */
     private void printUsage(final PrintStream out) {
         out.printf("Usage: coverture [Options] [FILE...]%n"
@@ -193,15 +518,19 @@ public final class Coverture {
     }
 
     /**
-       ˡɽƽλޤ
+       使用方法を表示して終了します。
+
+       @throws ExitException 常にスロー
     */
     private void usage() {
         printUsage(System.err);
-        System.exit(1);
+        throw new ExitException(1);
     }
 
     /**
-       СϤƽλޤ
+       バージョンを出力して終了します。
+
+       @throws ExitException 常にスロー
     */
     private void version() {
 	BufferedReader in = new BufferedReader(
@@ -215,17 +544,36 @@ public final class Coverture {
         } catch (Exception e) {
             e.printStackTrace();
         }
-        System.exit(1);
+        throw new ExitException(1);
     }
 
     /**
-       Coverture¹Ԥޤ
+       Covertureを実行します。
 
-       @param av ޥɥ饤󥪥ץ
+       @param av コマンドラインオプション
     */
     public static void main(final String[] av) {
-	Coverture cov = new Coverture(av);
-	cov.run();
-        System.exit(0);
+        System.exit(execute(av, new IOProperties(), null));
+    }
+
+    /**
+       JVMを終了せずにCovertureを実行します。
+
+       入出力プロパティにはコマンドラインオプションの設定を追加します。
+       標準出力、標準エラー出力、標準入力はSystemクラスのものを使用し
+       ます。
+
+       @param av コマンドラインオプション
+       @param props 入出力プロパティ
+       @param executor ファイルを処理するスレッドプール、またはnull
+       @return 終了ステータス
+    */
+    public static int execute(final String[] av, final IOProperties props,
+			      final ExecutorService executor) {
+	try {
+	    return new Coverture(av, props, executor).run();
+	} catch (ExitException e) {
+	    return e.getStatus();
+	}
     }
 }
@@ -0,0 +1,513 @@
+package com.maroontress.coverture;
+
+import com.maroontress.cui.OptionListener;
+import com.maroontress.cui.Options;
+import com.maroontress.cui.OptionsParsingException;
+import com.maroontress.gcovparser.FileCache;
+import com.maroontress.gcovparser.gcno.NoteRecord;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+   常駐して、クライアントから受け取ったコマンドラインオプションでファ
+   イルを処理するデーモンです。
+
+   JVMの起動、クラスのロード、JITコンパイルのコストを一度だけにする
+   ために、スレッドプール、ノートレコードのキャッシュ、ソースファイ
+   ルのキャッシュをリクエストの間で共有します。
+
+   デーモンはループバックアドレスの空いているポートで待ち受け、ポー
+   ト番号と秘密のトークンを所有者だけが読み書きできるソケットファイ
+   ル（デフォルトは作業ディレクトリの.coverture-daemon）に書き込みま
+   す。トークンが一致しないリクエストは拒否します。JVMのカレントディ
+   レクトリは変更できないので、デーモンを起動したディレクトリと異な
+   るディレクトリからのリクエストも拒否します。
+
+   リクエストは、トークン、作業ディレクトリ、コマンド、引数の個数、
+   引数、標準入力の長さ、標準入力のバイト列です。レスポンスは、標準
+   出力と標準エラー出力のフレーム（FramedOutputStream）の列と、最後
+   の終了ステータスのフレームです。リクエストはひとつずつ順番に処理
+   します。
+*/
+public final class Daemon {
+
+    /** デフォルトのソケットファイルの名前です。 */
+    public static final String DEFAULT_SOCKET_FILE = ".coverture-daemon";
+
+    /** ソケットファイルのパスを指定する環境変数の名前です。 */
+    public static final String SOCKET_ENV = "COVERTURE_SOCKET";
+
+    /** ファイルを処理するコマンドです。 */
+    public static final String COMMAND_RUN = "run";
+
+    /** デーモンを終了するコマンドです。 */
+    public static final String COMMAND_STOP = "stop";
+
+    /** 終了ステータスのフレームのチャネル番号です。 */
+    public static final int CHANNEL_EXIT = 0;
+
+    /** 標準出力のフレームのチャネル番号です。 */
+    public static final int CHANNEL_STDOUT = 1;
+
+    /** 標準エラー出力のフレームのチャネル番号です。 */
+    public static final int CHANNEL_STDERR = 2;
+
+    /** リクエストを処理し終えないので受け付けないオプションです。 */
+    private static final String WATCH_OPTION = "--watch";
+
+    /** ヘルプメッセージのインデント幅です。 */
+    private static final int INDENT_WIDTH = 32;
+
+    /** デフォルトのスレッドの個数です。 */
+    private static final int DEFAULT_THREADS = 4;
+
+    /** デフォルトのキャッシュの個数です。 */
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+
+    /** 接続要求のキューの長さです。 */
+    private static final int BACKLOG = 16;
+
+    /** トークンのバイト数です。 */
+    private static final int TOKEN_LENGTH = 16;
+
+    /** 標準出力のバッファのサイズです。 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 作業ディレクトリと異なるディレクトリからのリクエストの終了ステータスです。 */
+    private static final int STATUS_WRONG_DIRECTORY = 2;
+
+    /** ソケットファイルです。 */
+    private File socketFile;
+
+    /** デーモンの作業ディレクトリです。 */
+    private File workingDir;
+
+    /** ファイルを処理するスレッドプールです。 */
+    private ExecutorService executor;
+
+    /** ノートレコードのキャッシュです。 */
+    private FileCache<NoteRecord> noteCache;
+
+    /** ソースファイルをマップしたバッファのキャッシュです。 */
+    private FileCache<ByteBuffer> sourceCache;
+
+    /** メッセージ出力を冗長にするかどうかのフラグです。 */
+    private boolean verbose;
+
+    /** 秘密のトークンです。 */
+    private String token;
+
+    /** 終了を要求されたかどうかのフラグです。 */
+    private boolean stopped;
+
+    /**
+       インスタンスを生成します。
+
+       @param socketFile ソケットファイル
+       @param threads スレッドプールのスレッド数
+       @param cacheSize キャッシュの個数
+       @param verbose メッセージ出力を冗長にする場合はtrue
+       @throws IOException 入出力エラー
+    */
+    private Daemon(final File socketFile, final int threads,
+		   final int cacheSize, final boolean verbose)
+	throws IOException {
+	this.socketFile = socketFile;
+	this.verbose = verbose;
+	workingDir = new File(".").getCanonicalFile();
+	executor = Executors.newFixedThreadPool(threads);
+	noteCache = new FileCache<NoteRecord>(cacheSize);
+	sourceCache = new FileCache<ByteBuffer>(cacheSize);
+    }
+
+    /**
+       秘密のトークンを生成します。
+
+       @return トークン
+    */
+    private static String createToken() {
+	byte[] b = new byte[TOKEN_LENGTH];
+	new SecureRandom().nextBytes(b);
+	StringBuilder s = new StringBuilder();
+	for (byte e : b) {
+	    s.append(String.format("%02x", e & 0xff));
+	}
+	return s.toString();
+    }
+
+    /**
+       ソケットファイルの内容のデーモンに接続できるかどうかを調べます。
+
+       @return 接続できる場合はtrue
+    */
+    private boolean isRunning() {
+	Socket s = DaemonClient.connect(socketFile);
+	if (s == null) {
+	    return false;
+	}
+	try {
+	    s.close();
+	} catch (IOException e) {
+	    // 接続できたことだけが分かればよい
+	}
+	return true;
+    }
+
+    /**
+       所有者だけが読み書きできる空のファイルを生成します。
+
+       POSIXのパーミッションをサポートするファイルシステムでは、生成
+       する時点でパーミッションを所有者だけに限定します。
+
+       @param file ファイル
+       @throws IOException 入出力エラー
+    */
+    private static void createPrivateFile(final File file)
+	throws IOException {
+	Path path = file.toPath();
+	try {
+	    Files.createFile(path, PosixFilePermissions.asFileAttribute(
+				 PosixFilePermissions.fromString("rw-------")));
+	    return;
+	} catch (UnsupportedOperationException e) {
+	    // POSIXのパーミッションをサポートしないファイルシステム
+	}
+	Files.createFile(path);
+	if (!file.setReadable(false, false) || !file.setWritable(false, false)
+	    || !file.setReadable(true, true) || !file.setWritable(true, true)) {
+	    file.delete();
+	    throw new IOException(file.getPath() + ": can't set permissions.");
+	}
+    }
+
+    /**
+       所有者だけが読み書きできるソケットファイルにポート番号とトーク
+       ンを書き込みます。
+
+       @param port ポート番号
+       @throws IOException 入出力エラー
+    */
+    private void writeSocketFile(final int port) throws IOException {
+	File tmp = new File(socketFile.getPath() + ".tmp");
+	tmp.delete();
+	createPrivateFile(tmp);
+	PrintWriter out = new PrintWriter(new FileOutputStream(tmp));
+	try {
+	    out.printf("%d\n%s\n", port, token);
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    tmp.delete();
+	    throw new IOException(tmp.getPath() + ": write error.");
+	}
+	socketFile.delete();
+	if (!tmp.renameTo(socketFile)) {
+	    tmp.delete();
+	    throw new IOException(socketFile.getPath() + ": can't create.");
+	}
+    }
+
+    /**
+       リクエストを待ち受けて処理します。終了を要求されるまで戻りませ
+       ん。
+
+       @throws IOException 入出力エラー
+    */
+    private void serve() throws IOException {
+	if (isRunning()) {
+	    throw new IOException(socketFile.getPath()
+				  + ": daemon is already running.");
+	}
+	ServerSocket server = new ServerSocket(
+	    0, BACKLOG, InetAddress.getByName("127.0.0.1"));
+	token = createToken();
+	writeSocketFile(server.getLocalPort());
+	Runtime.getRuntime().addShutdownHook(new Thread() {
+	    public void run() {
+		socketFile.delete();
+	    }
+	});
+	if (verbose) {
+	    System.err.printf("%s: listening on port %d for %s%n",
+			      socketFile.getPath(), server.getLocalPort(),
+			      workingDir.getPath());
+	}
+	try {
+	    while (!stopped) {
+		Socket s = server.accept();
+		try {
+		    handle(s);
+		} catch (IOException e) {
+		    if (verbose) {
+			e.printStackTrace();
+		    }
+		} finally {
+		    s.close();
+		}
+	    }
+	} finally {
+	    server.close();
+	    executor.shutdown();
+	    socketFile.delete();
+	}
+    }
+
+    /**
+       終了ステータスのフレームを送ります。
+
+       @param out 出力先
+       @param status 終了ステータス
+       @throws IOException 入出力エラー
+    */
+    private static void sendExit(final DataOutputStream out,
+				 final int status) throws IOException {
+	synchronized (out) {
+	    out.writeByte(CHANNEL_EXIT);
+	    out.writeInt(status);
+	    out.flush();
+	}
+    }
+
+    /**
+       ひとつのリクエストを処理します。
+
+       @param s クライアントのソケット
+       @throws IOException 入出力エラー
+    */
+    private void handle(final Socket s) throws IOException {
+	DataInputStream in = new DataInputStream(
+	    new BufferedInputStream(s.getInputStream()));
+	DataOutputStream out = new DataOutputStream(
+	    new BufferedOutputStream(s.getOutputStream()));
+	String t;
+	try {
+	    t = in.readUTF();
+	} catch (EOFException e) {
+	    // 接続を確認するだけのクライアント
+	    return;
+	}
+	if (!MessageDigest.isEqual(t.getBytes("UTF-8"),
+				   token.getBytes("UTF-8"))) {
+	    return;
+	}
+	String cwd = in.readUTF();
+	String command = in.readUTF();
+	String[] args = new String[in.readInt()];
+	for (int k = 0; k < args.length; ++k) {
+	    args[k] = in.readUTF();
+	}
+	byte[] stdin = new byte[in.readInt()];
+	in.readFully(stdin);
+
+	if (command.equals(COMMAND_STOP)) {
+	    stopped = true;
+	    sendExit(out, 0);
+	    return;
+	}
+	if (!new File(cwd).getCanonicalFile().equals(workingDir)) {
+	    PrintStream err = new PrintStream(
+		new FramedOutputStream(out, CHANNEL_STDERR), true);
+	    err.printf("coverture daemon: serves %s, not %s%n",
+		       workingDir.getPath(), cwd);
+	    sendExit(out, STATUS_WRONG_DIRECTORY);
+	    return;
+	}
+	if (Arrays.asList(args).contains(WATCH_OPTION)) {
+	    PrintStream err = new PrintStream(
+		new FramedOutputStream(out, CHANNEL_STDERR), true);
+	    err.printf("coverture daemon: %s is not supported.%n",
+		       WATCH_OPTION);
+	    sendExit(out, 1);
+	    return;
+	}
+	int status = execute(args, stdin, out);
+	sendExit(out, status);
+    }
+
+    /**
+       標準出力、標準エラー出力、標準入力を置き換えてCovertureを実行
+       します。
+
+       @param args コマンドラインオプション
+       @param stdin 標準入力のバイト列
+       @param out フレームの出力先
+       @return 終了ステータス
+    */
+    private int execute(final String[] args, final byte[] stdin,
+			final DataOutputStream out) {
+	PrintStream savedOut = System.out;
+	PrintStream savedErr = System.err;
+	InputStream savedIn = System.in;
+	PrintStream stdout = new PrintStream(new BufferedOutputStream(
+	    new FramedOutputStream(out, CHANNEL_STDOUT), BUFFER_SIZE));
+	PrintStream stderr = new PrintStream(
+	    new FramedOutputStream(out, CHANNEL_STDERR), true);
+	long start = System.nanoTime();
+	System.setOut(stdout);
+	System.setErr(stderr);
+	System.setIn(new ByteArrayInputStream(stdin));
+	int status;
+	try {
+	    IOProperties props = new IOProperties();
+	    props.setNoteCache(noteCache);
+	    props.setSourceCache(sourceCache);
+	    status = Coverture.execute(args, props, executor);
+	} catch (RuntimeException e) {
+	    e.printStackTrace();
+	    status = 1;
+	} finally {
+	    stdout.flush();
+	    stderr.flush();
+	    System.setOut(savedOut);
+	    System.setErr(savedErr);
+	    System.setIn(savedIn);
+	}
+	if (verbose) {
+	    System.err.printf("request: %d args, status %d, %.1f ms, "
+			      + "note cache %d/%d, source cache %d/%d%n",
+			      args.length, status,
+			      (System.nanoTime() - start) / 1e6,
+			      noteCache.getHits(), noteCache.getMisses(),
+			      sourceCache.getHits(), sourceCache.getMisses());
+	}
+	return status;
+    }
+
+    /**
+       オプションの引数を正の整数に変換します。
+
+       @param arg 引数
+       @return 整数
+       @throws OptionsParsingException 正の整数ではない
+    */
+    private static int toPositiveInt(final String arg)
+	throws OptionsParsingException {
+	String m = "invalid value: " + arg;
+	int num;
+	try {
+	    num = Integer.valueOf(arg);
+	} catch (NumberFormatException e) {
+	    throw new OptionsParsingException(m);
+	}
+	if (num <= 0) {
+	    throw new OptionsParsingException(m);
+	}
+	return num;
+    }
+
+    /**
+       使用方法を表示して終了します。
+
+       @param options コマンドラインオプションの定義
+    */
+    private static void usage(final Options options) {
+	PrintStream out = System.err;
+	out.printf("Usage: coverture --daemon [Options]%n"
+		   + "Options are:%n");
+	String[] help = options.getHelpMessage(INDENT_WIDTH).split("\n");
+	for (String s : help) {
+	    out.printf("  %s%n", s);
+	}
+	System.exit(1);
+    }
+
+    /**
+       ソケットファイルのパスを取得します。環境変数が設定されていない
+       場合は、デフォルトのソケットファイルのパスを返します。
+
+       @return ソケットファイルのパス
+    */
+    public static String getDefaultSocketPath() {
+	String path = System.getenv(SOCKET_ENV);
+	return (path == null || path.length() == 0)
+	    ? DEFAULT_SOCKET_FILE : path;
+    }
+
+    /**
+       デーモンを起動します。
+
+       @param av コマンドラインオプション
+    */
+    public static void main(final String[] av) {
+	final String[] socketPath = {getDefaultSocketPath()};
+	final int[] threads = {DEFAULT_THREADS};
+	final int[] cacheSize = {DEFAULT_CACHE_SIZE};
+	final boolean[] verbose = {false};
+	final Options options = new Options();
+
+	options.add("help", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		usage(options);
+	    }
+	}, "Show this message and exit.");
+
+	options.add("socket", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		socketPath[0] = arg;
+	    }
+	}, "FILE", "Write the port and token to FILE:\n"
+		    + ".coverture-daemon is the default.");
+
+	options.add("threads", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		threads[0] = toPositiveInt(arg);
+	    }
+	}, "NUM", "Specify the number of parser threads:\n"
+		    + "NUM > 0; 4 is the default.");
+
+	options.add("cache-size", new OptionListener() {
+	    public void run(final String name, final String arg)
+		throws OptionsParsingException {
+		cacheSize[0] = toPositiveInt(arg);
+	    }
+	}, "NUM", "Specify the number of cached gcno and\n"
+		    + "source files: 4096 is the default.");
+
+	options.add("verbose", new OptionListener() {
+	    public void run(final String name, final String arg) {
+		verbose[0] = true;
+	    }
+	}, "Log each request to stderr.");
+
+	try {
+	    if (options.parse(av).length != 0) {
+		usage(options);
+	    }
+	} catch (OptionsParsingException e) {
+	    System.err.println(e.getMessage());
+	    usage(options);
+	}
+	try {
+	    new Daemon(new File(socketPath[0]), threads[0], cacheSize[0],
+		       verbose[0]).serve();
+	} catch (IOException e) {
+	    System.err.println(e.getMessage());
+	    System.exit(1);
+	}
+	System.exit(0);
+    }
+}
@@ -0,0 +1,284 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+   コマンドラインオプションをデーモンに転送するクライアントです。
+
+   ソケットファイル（環境変数COVERTURE_SOCKET、またはデフォルトの
+   .coverture-daemon）が現在のユーザのものでない場合や、デーモンに
+   接続できない場合は、同じJVMでCovertureを実行します。
+
+   オプションに--input-file=-または--changed-lines=-が含まれる場合
+   は、標準入力を読み込んでデーモンに送ります。最初の引数が
+   --stop-daemonの場合は、デーモンを終了します。
+*/
+public final class DaemonClient {
+
+    /** デーモンを終了するオプションです。 */
+    private static final String STOP_OPTION = "--stop-daemon";
+
+    /** 標準入力を読み込むオプションです。 */
+    private static final String[] STDIN_OPTIONS = {
+	"--input-file=-",
+	"--changed-lines=-",
+    };
+
+    /** 入出力のバッファのサイズです。 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 接続できなかった場合の終了ステータスです。 */
+    private static final int STATUS_NOT_RUNNING = 1;
+
+    /** 所有者以外に許可されていてはいけないパーミッションです。 */
+    private static final Set<PosixFilePermission> NON_OWNER_PERMISSIONS
+	= EnumSet.of(PosixFilePermission.GROUP_READ,
+		     PosixFilePermission.GROUP_WRITE,
+		     PosixFilePermission.GROUP_EXECUTE,
+		     PosixFilePermission.OTHERS_READ,
+		     PosixFilePermission.OTHERS_WRITE,
+		     PosixFilePermission.OTHERS_EXECUTE);
+
+    /**
+       コンストラクタです。
+    */
+    private DaemonClient() {
+    }
+
+    /**
+       ソケットファイルを信頼できるかどうかを取得します。
+
+       ソケットファイルは、シンボリックリンクではない通常のファイル
+       で、現在のユーザが所有していなければなりません。POSIXのパーミッ
+       ションをサポートするファイルシステムでは、さらに所有者以外に
+       パーミッションがあってはいけません。他のユーザが置いたソケット
+       ファイルのデーモンに、コマンドラインオプションや標準入力を送ら
+       ないためです。
+
+       @param socketFile ソケットファイル
+       @return 信頼できる場合はtrue
+       @throws IOException 入出力エラー
+    */
+    private static boolean isTrusted(final File socketFile)
+	throws IOException {
+	Path path = socketFile.toPath();
+	LinkOption noFollow = LinkOption.NOFOLLOW_LINKS;
+	if (!Files.isRegularFile(path, noFollow)) {
+	    return false;
+	}
+	UserPrincipal user = FileSystems.getDefault()
+	    .getUserPrincipalLookupService()
+	    .lookupPrincipalByName(System.getProperty("user.name"));
+	if (!Files.getOwner(path, noFollow).equals(user)) {
+	    return false;
+	}
+	Set<PosixFilePermission> perms;
+	try {
+	    perms = Files.getPosixFilePermissions(path, noFollow);
+	} catch (UnsupportedOperationException e) {
+	    return true;
+	}
+	perms.retainAll(NON_OWNER_PERMISSIONS);
+	return perms.isEmpty();
+    }
+
+    /**
+       ソケットファイルの内容を読み込みます。
+
+       @param socketFile ソケットファイル
+       @return ポート番号とトークンの配列、または読み込めない場合や信
+       頼できない場合はnull
+    */
+    private static String[] readSocketFile(final File socketFile) {
+	try {
+	    if (!isTrusted(socketFile)) {
+		return null;
+	    }
+	    BufferedReader in = new BufferedReader(new FileReader(socketFile));
+	    try {
+		String port = in.readLine();
+		String token = in.readLine();
+		if (port == null || token == null) {
+		    return null;
+		}
+		return new String[] {port, token};
+	    } finally {
+		in.close();
+	    }
+	} catch (IOException e) {
+	    return null;
+	}
+    }
+
+    /**
+       ソケットファイルのデーモンに接続します。
+
+       @param socketFile ソケットファイル
+       @return ソケット、または接続できない場合はnull
+    */
+    public static Socket connect(final File socketFile) {
+	String[] s = readSocketFile(socketFile);
+	if (s == null) {
+	    return null;
+	}
+	try {
+	    return new Socket(InetAddress.getByName("127.0.0.1"),
+			      Integer.parseInt(s[0]));
+	} catch (NumberFormatException e) {
+	    return null;
+	} catch (IOException e) {
+	    return null;
+	}
+    }
+
+    /**
+       標準入力を読み込む必要があるかどうかを取得します。
+
+       @param av コマンドラインオプション
+       @return 標準入力を読み込む場合はtrue
+    */
+    private static boolean readsStdin(final String[] av) {
+	for (String arg : av) {
+	    for (String s : STDIN_OPTIONS) {
+		if (arg.equals(s)) {
+		    return true;
+		}
+	    }
+	}
+	return false;
+    }
+
+    /**
+       入力ストリームの残りをすべて読み込みます。
+
+       @param in 入力ストリーム
+       @return バイト列
+       @throws IOException 入出力エラー
+    */
+    private static byte[] readAll(final InputStream in) throws IOException {
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	byte[] b = new byte[BUFFER_SIZE];
+	int n;
+	while ((n = in.read(b)) > 0) {
+	    out.write(b, 0, n);
+	}
+	return out.toByteArray();
+    }
+
+    /**
+       リクエストを送って、レスポンスを標準出力と標準エラー出力にコピー
+       します。
+
+       @param s ソケット
+       @param token トークン
+       @param command コマンド
+       @param av コマンドラインオプション
+       @return 終了ステータス
+       @throws IOException 入出力エラー
+    */
+    private static int request(final Socket s, final String token,
+			       final String command, final String[] av)
+	throws IOException {
+	byte[] stdin = readsStdin(av) ? readAll(System.in) : new byte[0];
+	DataOutputStream out = new DataOutputStream(
+	    new BufferedOutputStream(s.getOutputStream()));
+	out.writeUTF(token);
+	out.writeUTF(System.getProperty("user.dir"));
+	out.writeUTF(command);
+	out.writeInt(av.length);
+	for (String arg : av) {
+	    out.writeUTF(arg);
+	}
+	out.writeInt(stdin.length);
+	out.write(stdin);
+	out.flush();
+
+	DataInputStream in = new DataInputStream(
+	    new BufferedInputStream(s.getInputStream()));
+	byte[] b = new byte[BUFFER_SIZE];
+	for (;;) {
+	    int channel;
+	    try {
+		channel = in.readByte();
+	    } catch (EOFException e) {
+		throw new IOException("connection closed by daemon.");
+	    }
+	    if (channel == Daemon.CHANNEL_EXIT) {
+		return in.readInt();
+	    }
+	    OutputStream dest = (channel == Daemon.CHANNEL_STDOUT)
+		? System.out : System.err;
+	    int len = in.readInt();
+	    while (len > 0) {
+		int n = in.read(b, 0, Math.min(len, b.length));
+		if (n < 0) {
+		    throw new IOException("connection closed by daemon.");
+		}
+		dest.write(b, 0, n);
+		len -= n;
+	    }
+	    if (channel != Daemon.CHANNEL_STDOUT) {
+		dest.flush();
+	    }
+	}
+    }
+
+    /**
+       コマンドラインオプションをデーモンに転送します。
+
+       @param av コマンドラインオプション
+    */
+    public static void main(final String[] av) {
+	File socketFile = new File(Daemon.getDefaultSocketPath());
+	boolean stop = av.length > 0 && av[0].equals(STOP_OPTION);
+	String[] content = readSocketFile(socketFile);
+	Socket s = connect(socketFile);
+	if (content == null || s == null) {
+	    if (stop) {
+		System.err.printf("%s: daemon is not running.%n",
+				  socketFile.getPath());
+		System.exit(STATUS_NOT_RUNNING);
+	    }
+	    Coverture.main(av);
+	    return;
+	}
+	int status;
+	try {
+	    try {
+		status = request(s, content[1],
+				 stop ? Daemon.COMMAND_STOP
+				 : Daemon.COMMAND_RUN,
+				 stop ? new String[0] : av);
+	    } finally {
+		s.close();
+	    }
+	} catch (IOException e) {
+	    System.err.printf("%s: %s%n", socketFile.getPath(),
+			      e.getMessage());
+	    status = 1;
+	}
+	System.out.flush();
+	System.exit(status);
+    }
+}
@@ -1,16 +1,16 @@
 package com.maroontress.coverture;
 
 /**
-   ͤ륤󥿥եǤ
+   値を配送するインタフェイスです。
 
-   @param <T> ͤΥ饹
+   @param <T> 配送する値のクラス
 */
 public interface DeliveryListener<T> {
 
     /**
-       ͤޤ
+       値を配送します。
 
-       @param instance 
+       @param instance 値
     */
     void deliver(T instance);
 }
@@ -2,68 +2,156 @@ package com.maroontress.coverture;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 /**
-   ӥǥե륯饹Ǥ
+   配送サービスでファイルを処理するクラスです。
+
+   入出力プロパティにXMLを保持するヒープの上限が設定されている場合は、
+   ノートを保持せずに、処理し終えたノートのXMLをすぐに生成して
+   SpillSorterで並べ替えます。
 */
 public final class DeliveryProcessor extends Processor {
 
-    /** Note󥹥󥹤ƱΥ塼Ǥ */
+    /** 入出力プロパティです。 */
+    private IOProperties props;
+
+    /** Noteインスタンスを生成する非同期タスクのキューです。 */
     private DeliveryService<Note> service;
 
+    /** 配送されたノートのセットです。 */
+    private Set<Note> set;
+
+    /** ノートのXMLを並べ替えるソータ、またはnullです。 */
+    private SpillSorter sorter;
+
     /**
-       󥹥󥹤ޤ
+       インスタンスを生成します。
 
-       @param props ϥץѥƥ
-       @param threads ӥΥåɿ
+       @param props 入出力プロパティ
+       @param threads 配送サービスのスレッド数
     */
     public DeliveryProcessor(final IOProperties props, final int threads) {
 	super(props);
+	this.props = props;
 	service = new DeliveryService<Note>(threads);
     }
 
+    /**
+       スレッドプールを共有するインスタンスを生成します。
+
+       @param props 入出力プロパティ
+       @param executor 配送サービスのスレッドプール
+    */
+    public DeliveryProcessor(final IOProperties props,
+			     final ExecutorService executor) {
+	super(props);
+	this.props = props;
+	service = new DeliveryService<Note>(executor);
+    }
+
+    /**
+       ノートのXMLを生成して、ソータに追加します。
+
+       @param note ノート
+       @throws IOException 入出力エラー
+    */
+    private void spill(final Note note) throws IOException {
+	StringWriter w = new StringWriter();
+	PrintWriter out = new PrintWriter(w);
+	printXML(out, note);
+	out.flush();
+	sorter.add(note.getOrigin(), w.toString());
+    }
+
     /** {@inheritDoc} */
     protected void processFile(final String name) throws IOException {
 	service.submit(new Callable<Note>() {
 	    public Note call() throws Exception {
-		Note note = Note.parse(name);
-		if (note == null) {
+		Note note = processNote(name);
+		if (note == null || isSharded() || isJournaled()) {
+		    return null;
+		}
+		if (sorter != null) {
+		    spill(note);
 		    return null;
 		}
-		createSourceList(note);
 		return note;
 	    }
 	});
+	if (sorter != null) {
+	    deliver(false);
+	}
     }
 
     /** {@inheritDoc} */
     protected void pre() throws IOException {
 	makeOutputDir();
+	set = new TreeSet<Note>(Note.getOriginComparator());
+	long budget = props.getSpillBudget();
+	if (budget > 0 && !isSharded() && !isJournaled()) {
+	    sorter = new SpillSorter(budget, null);
+	}
     }
 
-    /** {@inheritDoc} */
-    protected void post() throws IOException {
-	final Set<Note> set = new TreeSet<Note>(Note.getOriginComparator());
+    /**
+       配送サービスからノートを受け取って、セットに追加します。
+
+       ワーカスレッドが例外をスローした場合は、問題を報告して終了しま
+       す。
+
+       @param all すべてのタスクを待つ場合はtrue、完了したタスクの結
+       果だけを受け取る場合はfalse
+       @throws ExitException ワーカスレッドが例外をスロー
+    */
+    private void deliver(final boolean all) {
+	DeliveryListener<Note> listener = new DeliveryListener<Note>() {
+	    public void deliver(final Note note) {
+		set.add(note);
+	    }
+	};
 	try {
-	    service.deliver(new DeliveryListener<Note>() {
-	        public void deliver(final Note note) {
-		    set.add(note);
-		}
-	    });
+	    if (all) {
+		service.deliver(listener);
+	    } else {
+		service.deliverCompleted(listener);
+	    }
 	} catch (ExecutionException e) {
-	    e.getCause().printStackTrace();
-	    System.exit(1);
+	    Throwable cause = e.getCause();
+	    props.report(new Problem(ProblemKind.UNEXPECTED, null,
+				     String.valueOf(cause), cause));
+	    throw new ExitException(1);
 	}
+    }
 
-	PrintWriter out = new PrintWriter(System.out);
+    /** {@inheritDoc} */
+    protected void post() throws IOException {
+	deliver(true);
+	if (isSharded()) {
+	    return;
+	}
+	if (sorter != null && props.isVerbose()) {
+	    props.getMessageStream().printf("spill: %d runs%n",
+					    sorter.getRunCount());
+	}
+
+	PrintWriter out = createXMLWriter();
 	out.print("<gcno>\n");
+	if (isJournaled()) {
+	    printFragments(out);
+	}
+	if (sorter != null) {
+	    sorter.print(out);
+	}
 	for (Note note : set) {
-	    note.printXML(out);
+	    printXML(out, note);
 	}
+	printMergedFunctions(out);
 	out.print("</gcno>\n");
 	out.close();
     }
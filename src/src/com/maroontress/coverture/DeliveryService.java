@@ -4,37 +4,47 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
-   ӥǤ
+   配送サービスです。
 
-   @param <T> ͤΥ饹
+   @param <T> 配送する値のクラス
 */
 public final class DeliveryService<T> {
 
-    /** ͤθĿǤ */
+    /** 配送する値の個数です。 */
     private int taskCount;
 
-    /** ͤƱΥ塼Ǥ */
+    /** 値を生成する非同期タスクのキューです。 */
     private CompletionService<T> service;
 
     /**
-       åɥסΥåɿꤷơ󥹥󥹤ޤ
+       スレッドプールのスレッド数を指定して、インスタンスを生成します。
 
-       @param threads åɿ
+       @param threads スレッド数
     */
     public DeliveryService(final int threads) {
-	service = new ExecutorCompletionService<T>(
-	    Executors.newFixedThreadPool(threads));
+	this(Executors.newFixedThreadPool(threads));
+    }
+
+    /**
+       スレッドプールを指定して、インスタンスを生成します。スレッドプー
+       ルは複数のインスタンスで共有できます。
+
+       @param executor スレッドプール
+    */
+    public DeliveryService(final ExecutorService executor) {
+	service = new ExecutorCompletionService<T>(executor);
 	taskCount = 0;
     }
 
     /**
-       ֤ͤ¹ѥޤ
+       値を返す実行用タスクを送信します。
 
-       @param callable ֤ͤ¹ѥ
+       @param callable 値を返す実行用タスク
     */
     public void submit(final Callable<T> callable) {
 	++taskCount;
@@ -42,11 +52,35 @@ public final class DeliveryService<T> {
     }
 
     /**
-       ӥ̤ꥹʤΤޤ٤ƤΥ
-       ̤ΤǤޤǥ֥åޤ
+       完了したタスクの結果をサービスから取得し、リスナに通知します。
+       完了していないタスクを待たずに戻ります。
+
+       @param listener リスナ
+       @throws ExecutionException ワーカスレッドが例外をスロー
+    */
+    public void deliverCompleted(final DeliveryListener<T> listener)
+	throws ExecutionException {
+	Future<T> future;
+	while (taskCount > 0 && (future = service.poll()) != null) {
+	    T instance;
+	    try {
+		instance = future.get();
+	    } catch (InterruptedException e) {
+		throw new RuntimeException("internal error.", e);
+	    }
+	    --taskCount;
+	    if (instance != null) {
+		listener.deliver(instance);
+	    }
+	}
+    }
+
+    /**
+       サービスから結果を取得し、リスナに通知します。すべてのタスクの
+       結果を通知できるまでブロックします。
 
-       @param listener ꥹ
-       @throws ExecutionException åɤ㳰򥹥
+       @param listener リスナ
+       @throws ExecutionException ワーカスレッドが例外をスロー
     */
     public void deliver(final DeliveryListener<T> listener)
 	throws ExecutionException {
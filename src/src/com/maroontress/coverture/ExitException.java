@@ -0,0 +1,36 @@
+package com.maroontress.coverture;
+
+/**
+   処理を中断して、終了ステータスを返すことを通知する例外です。
+
+   コマンドラインから起動した場合は、この例外を捕捉したときに終了ス
+   テータスでJVMを終了します。デーモンでは、JVMを終了せずに終了ステー
+   タスをクライアントに返します。
+*/
+public final class ExitException extends RuntimeException {
+
+    /** シリアルバージョンです。 */
+    private static final long serialVersionUID = 1L;
+
+    /** 終了ステータスです。 */
+    private int status;
+
+    /**
+       インスタンスを生成します。
+
+       @param status 終了ステータス
+    */
+    public ExitException(final int status) {
+	super("exit status: " + status);
+	this.status = status;
+    }
+
+    /**
+       終了ステータスを取得します。
+
+       @return 終了ステータス
+    */
+    public int getStatus() {
+	return status;
+    }
+}
@@ -0,0 +1,178 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.LineEntry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+   複数のノートにまたがって集計した、ひとつのソースファイルのカバレッ
+   ジです。
+
+   関数グラフを保持せず、行番号毎の実行回数と条件分岐の経路の個数だ
+   けを保持します。
+*/
+public final class FileCoverage {
+
+    /** 行の実行回数を表す配列のインデックスです。 */
+    private static final int HITS = 0;
+
+    /** 行の条件分岐の経路の個数を表す配列のインデックスです。 */
+    private static final int BRANCHES = 1;
+
+    /** 行の実行された条件分岐の経路の個数を表す配列のインデックスです。 */
+    private static final int TAKEN = 2;
+
+    /** 行の情報を表す配列の長さです。 */
+    private static final int LENGTH = 3;
+
+    /** ソースファイルのパスです。 */
+    private String path;
+
+    /** 行番号と、実行回数・条件分岐の経路の個数の配列のマップです。 */
+    private TreeMap<Integer, long[]> lines;
+
+    /** 関数名と関数のカバレッジのマップです。 */
+    private TreeMap<String, MethodCoverage> methods;
+
+    /**
+       インスタンスを生成します。
+
+       @param path ソースファイルのパス
+    */
+    public FileCoverage(final String path) {
+	this.path = path;
+	lines = new TreeMap<Integer, long[]>();
+	methods = new TreeMap<String, MethodCoverage>();
+    }
+
+    /**
+       ソースファイルのパスを取得します。
+
+       @return ソースファイルのパス
+    */
+    public String getPath() {
+	return path;
+    }
+
+    /**
+       ソースのカバレッジを加算します。
+
+       行の実行回数は合計し、条件分岐の経路の個数は、同じ行を複数のノー
+       トが含む場合を考慮して最大値をとります。
+
+       @param source ソース
+    */
+    public void add(final Source source) {
+	int[] nums = source.getSortedLineNumbers();
+	for (int num : nums) {
+	    LineInfo info = source.getLineInfo(num);
+	    long[] a = lines.get(num);
+	    if (a == null) {
+		a = new long[LENGTH];
+		lines.put(num, a);
+	    }
+	    a[HITS] += info.getCount();
+	    a[BRANCHES] = Math.max(a[BRANCHES], info.getBranchCount());
+	    a[TAKEN] = Math.max(a[TAKEN], info.getTakenBranchCount());
+	}
+	Collection<FunctionGraph> all = source.getFunctionGraphs();
+	for (FunctionGraph fg : all) {
+	    String name = fg.getFunctionName();
+	    MethodCoverage m = methods.get(name);
+	    if (m == null) {
+		m = new MethodCoverage(name, fg.getLineNumber(),
+				       fg.getComplexity());
+		methods.put(name, m);
+		addMethodLines(m, fg);
+	    }
+	    m.addCalledCount(fg.getCalledCount());
+	}
+    }
+
+    /**
+       関数グラフのブロックが含む、このソースファイルの行番号を関数の
+       カバレッジに追加します。
+
+       @param m 関数のカバレッジ
+       @param fg 関数グラフ
+    */
+    private void addMethodLines(final MethodCoverage m,
+				final FunctionGraph fg) {
+	Iterable<Block> blocks = fg.getBlocks();
+	for (Block b : blocks) {
+	    LineEntry[] entries = b.getLines();
+	    if (entries == null) {
+		continue;
+	    }
+	    for (LineEntry e : entries) {
+		if (!e.getFileName().equals(path)) {
+		    continue;
+		}
+		int[] nums = e.getLines();
+		for (int num : nums) {
+		    m.addLine(num);
+		}
+	    }
+	}
+    }
+
+    /**
+       行番号と、実行回数・条件分岐の経路の個数の配列のマップのエント
+       リを取得します。
+
+       @return マップのエントリ
+    */
+    public Iterable<Map.Entry<Integer, long[]>> getLines() {
+	return lines.entrySet();
+    }
+
+    /**
+       関数のカバレッジのコレクションを取得します。
+
+       @return 関数のカバレッジのコレクション
+    */
+    public Collection<MethodCoverage> getMethods() {
+	return methods.values();
+    }
+
+    /**
+       行の実行回数を取得します。
+
+       @param a 行の情報の配列
+       @return 実行回数
+    */
+    public static long getHits(final long[] a) {
+	return a[HITS];
+    }
+
+    /**
+       行の条件分岐の経路の個数を取得します。
+
+       @param a 行の情報の配列
+       @return 条件分岐の経路の個数
+    */
+    public static long getBranches(final long[] a) {
+	return a[BRANCHES];
+    }
+
+    /**
+       行の実行された条件分岐の経路の個数を取得します。
+
+       @param a 行の情報の配列
+       @return 実行された条件分岐の経路の個数
+    */
+    public static long getTakenBranches(final long[] a) {
+	return a[TAKEN];
+    }
+
+    /**
+       行番号の行の情報の配列を取得します。
+
+       @param num 行番号
+       @return 行の情報の配列、または実行可能でない場合はnull
+    */
+    public long[] getLine(final int num) {
+	return lines.get(num);
+    }
+}
@@ -0,0 +1,94 @@
+package com.maroontress.coverture;
+
+import java.io.PrintStream;
+
+/**
+   ひとつのgcnoファイルの処理時間と特徴です。
+*/
+public final class FileProfile implements Comparable<FileProfile> {
+
+    /** gcnoファイルのパスです。 */
+    private String path;
+
+    /** 処理時間（ナノ秒）です。 */
+    private long time;
+
+    /** gcnoファイルとgcdaファイルのバイト数の合計です。 */
+    private long size;
+
+    /** 関数の個数です。 */
+    private int functions;
+
+    /** ブロックの個数です。 */
+    private int blocks;
+
+    /** アークの個数です。 */
+    private int arcs;
+
+    /** ソルバの反復回数の合計です。 */
+    private int rounds;
+
+    /** 関数毎のソルバの反復回数の最大値です。 */
+    private int maxRounds;
+
+    /**
+       ノートからインスタンスを生成します。
+
+       @param note ノート
+       @param time 処理時間（ナノ秒）
+    */
+    public FileProfile(final Note note, final long time) {
+	this.path = note.getOrigin().getNoteFile().getPath();
+	this.time = time;
+	size = note.getMappedSize();
+	for (FunctionGraph g : note.getFunctionGraphCollection()) {
+	    ++functions;
+	    blocks += g.getBlockCount();
+	    arcs += g.getArcCount();
+	    int n = g.getSolverRounds();
+	    rounds += n;
+	    maxRounds = Math.max(maxRounds, n);
+	}
+    }
+
+    /**
+       処理時間で比較します。
+
+       @param o 比較するインスタンス
+       @return 処理時間が短い場合は負の値、長い場合は正の値
+    */
+    public int compareTo(final FileProfile o) {
+	return (time < o.time) ? -1 : (time > o.time) ? 1 : 0;
+    }
+
+    /**
+       処理時間を取得します。
+
+       @return 処理時間（ナノ秒）
+    */
+    public long getTime() {
+	return time;
+    }
+
+    /**
+       ヘッダを出力します。
+
+       @param out 出力先
+    */
+    public static void printHeader(final PrintStream out) {
+	out.printf("%10s %10s %6s %8s %8s %7s %5s  %s%n",
+		   "time(ms)", "bytes", "funcs", "blocks", "arcs",
+		   "rounds", "max", "file");
+    }
+
+    /**
+       処理時間と特徴を1行で出力します。
+
+       @param out 出力先
+    */
+    public void print(final PrintStream out) {
+	out.printf("%10.1f %10d %6d %8d %8d %7d %5d  %s%n",
+		   time / 1e6, size, functions, blocks, arcs, rounds,
+		   maxRounds, path);
+    }
+}
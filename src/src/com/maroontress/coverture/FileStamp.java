@@ -0,0 +1,168 @@
+package com.maroontress.coverture;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+   ジャーナルに記録するファイルのスタンプです。
+
+   入力ファイルは長さと更新時刻を、出力ファイルは長さとCRC32のチェッ
+   クサムを記録します。ファイルがスタンプを記録したときから変わって
+   いないかどうかを検証できます。
+*/
+public final class FileStamp {
+
+    /** 入力ファイルのスタンプを表すジャーナルのキーワードです。 */
+    public static final String INPUT = "input";
+
+    /** 出力ファイルのスタンプを表すジャーナルのキーワードです。 */
+    public static final String OUTPUT = "output";
+
+    /** チェックサムを計算するバッファのサイズです。 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 16進数の基数です。 */
+    private static final int HEX = 16;
+
+    /** ファイルです。 */
+    private File file;
+
+    /** ファイルの長さです。 */
+    private long length;
+
+    /** 入力ファイルの更新時刻、または出力ファイルのチェックサムです。 */
+    private long value;
+
+    /** 出力ファイルのスタンプかどうかのフラグです。 */
+    private boolean output;
+
+    /**
+       インスタンスを生成します。
+
+       @param file ファイル
+       @param length ファイルの長さ
+       @param value 入力ファイルの更新時刻、または出力ファイルのチェッ
+       クサム
+       @param output 出力ファイルのスタンプの場合はtrue
+    */
+    private FileStamp(final File file, final long length, final long value,
+		      final boolean output) {
+	this.file = file;
+	this.length = length;
+	this.value = value;
+	this.output = output;
+    }
+
+    /**
+       入力ファイルのスタンプを生成します。
+
+       @param file 入力ファイル
+       @return スタンプ
+    */
+    public static FileStamp input(final File file) {
+	return new FileStamp(file, file.length(), file.lastModified(), false);
+    }
+
+    /**
+       出力ファイルのスタンプを生成します。
+
+       @param file 出力ファイル
+       @return スタンプ
+       @throws IOException 入出力エラー
+    */
+    public static FileStamp output(final File file) throws IOException {
+	return new FileStamp(file, file.length(), checksum(file), true);
+    }
+
+    /**
+       ファイルのCRC32のチェックサムを計算します。
+
+       @param file ファイル
+       @return チェックサム
+       @throws IOException 入出力エラー
+    */
+    private static long checksum(final File file) throws IOException {
+	CRC32 crc = new CRC32();
+	InputStream in = new FileInputStream(file);
+	try {
+	    byte[] b = new byte[BUFFER_SIZE];
+	    int n;
+	    while ((n = in.read(b)) > 0) {
+		crc.update(b, 0, n);
+	    }
+	} finally {
+	    in.close();
+	}
+	return crc.getValue();
+    }
+
+    /**
+       ジャーナルの行からスタンプを生成します。
+
+       @param line 行
+       @return スタンプ、または行がスタンプではない場合はnull
+    */
+    public static FileStamp parse(final String line) {
+	String[] a = line.split(" ", 4);
+	if (a.length != 4) {
+	    return null;
+	}
+	boolean output;
+	if (a[0].equals(OUTPUT)) {
+	    output = true;
+	} else if (a[0].equals(INPUT)) {
+	    output = false;
+	} else {
+	    return null;
+	}
+	try {
+	    return new FileStamp(new File(a[3]), Long.parseLong(a[2]),
+				 Long.parseLong(a[1], HEX), output);
+	} catch (NumberFormatException e) {
+	    return null;
+	}
+    }
+
+    /**
+       ファイルを取得します。
+
+       @return ファイル
+    */
+    public File getFile() {
+	return file;
+    }
+
+    /**
+       ファイルがスタンプを記録したときから変わっていないかどうかを検
+       証します。
+
+       @return 変わっていない場合はtrue
+    */
+    public boolean isValid() {
+	if (!file.isFile() || file.length() != length) {
+	    return false;
+	}
+	if (!output) {
+	    return file.lastModified() == value;
+	}
+	try {
+	    return checksum(file) == value;
+	} catch (IOException e) {
+	    return false;
+	}
+    }
+
+    /**
+       ジャーナルの行の形式の文字列を返します。
+
+       @return キーワード、更新時刻かチェックサム、長さ、パスを空白で
+       区切った文字列
+    */
+    @Override public String toString() {
+	return String.format("%s %x %d %s", output ? OUTPUT : INPUT,
+			     value, length, file.getPath());
+    }
+}
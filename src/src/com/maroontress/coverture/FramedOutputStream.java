@@ -0,0 +1,58 @@
+package com.maroontress.coverture;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+   書き込んだバイト列を、デーモンのプロトコルのフレームにしてクライ
+   アントに送る出力ストリームです。
+
+   フレームは、チャネル番号（1バイト）、長さ（4バイト）、バイト列で
+   構成されます。同じDataOutputStreamを共有する複数のストリームに、
+   複数のスレッドから同時に書き込むことができます。
+*/
+public final class FramedOutputStream extends OutputStream {
+
+    /** フレームの出力先です。 */
+    private DataOutputStream out;
+
+    /** チャネル番号です。 */
+    private int channel;
+
+    /**
+       インスタンスを生成します。
+
+       @param out フレームの出力先
+       @param channel チャネル番号
+    */
+    public FramedOutputStream(final DataOutputStream out, final int channel) {
+	this.out = out;
+	this.channel = channel;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(final int b) throws IOException {
+	write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(final byte[] b, final int off, final int len)
+	throws IOException {
+	if (len == 0) {
+	    return;
+	}
+	synchronized (out) {
+	    out.writeByte(channel);
+	    out.writeInt(len);
+	    out.write(b, off, len);
+	}
+    }
+
+    /** {@inheritDoc} */
+    @Override public void flush() throws IOException {
+	synchronized (out) {
+	    out.flush();
+	}
+    }
+}
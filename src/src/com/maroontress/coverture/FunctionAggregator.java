@@ -0,0 +1,83 @@
+package com.maroontress.coverture;
+
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+   複数のノートに現れる同じ関数を統合するクラスです。
+
+   関数は、ソースファイル、行番号、関数名、チェックサムの組で識別し
+   ます。複数のスレッドから同時にノートを追加できます。
+*/
+public final class FunctionAggregator {
+
+    /** キーと統合した関数のマップです。 */
+    private ConcurrentHashMap<String, MergedFunction> map;
+
+    /**
+       インスタンスを生成します。
+    */
+    public FunctionAggregator() {
+	map = new ConcurrentHashMap<String, MergedFunction>();
+    }
+
+    /**
+       ノートに含まれるすべての関数グラフを追加します。
+
+       @param note ノート
+    */
+    public void add(final Note note) {
+	Collection<FunctionGraph> all = note.getFunctionGraphCollection();
+	for (FunctionGraph fg : all) {
+	    String key = MergedFunction.getKey(fg);
+	    MergedFunction f = map.get(key);
+	    if (f == null) {
+		MergedFunction newFunction = new MergedFunction(fg);
+		f = map.putIfAbsent(key, newFunction);
+		if (f == null) {
+		    f = newFunction;
+		}
+	    }
+	    f.add(fg);
+	}
+    }
+
+    /**
+       統合した関数を、ソースファイル、行番号、関数名の順にソートして
+       XML形式で出力します。
+
+       @param out 出力先
+    */
+    public void printXML(final PrintWriter out) {
+	TreeSet<MergedFunction> set = new TreeSet<MergedFunction>(
+	    new Comparator<MergedFunction>() {
+		public int compare(final MergedFunction f1,
+				   final MergedFunction f2) {
+		    int d = f1.getSourceFile().compareTo(f2.getSourceFile());
+		    if (d != 0) {
+			return d;
+		    }
+		    d = f1.getLineNumber() - f2.getLineNumber();
+		    if (d != 0) {
+			return d;
+		    }
+		    d = f1.getFunctionName().compareTo(f2.getFunctionName());
+		    if (d != 0) {
+			return d;
+		    }
+		    int c1 = f1.getChecksum();
+		    int c2 = f2.getChecksum();
+		    return (c1 < c2) ? -1 : ((c1 == c2) ? 0 : 1);
+		}
+	    });
+	set.addAll(map.values());
+	out.print("<mergedFunctions>\n");
+	for (MergedFunction f : set) {
+	    f.printXML(out);
+	}
+	out.print("</mergedFunctions>\n");
+    }
+}
@@ -2,12 +2,14 @@ package com.maroontress.coverture;
 
 import com.maroontress.gcovparser.AbstractFunctionGraph;
 import com.maroontress.gcovparser.CorruptedFileException;
+import com.maroontress.gcovparser.LineEntry;
+import com.maroontress.gcovparser.SourceFilter;
 import com.maroontress.gcovparser.gcno.FunctionGraphRecord;
 import java.io.PrintWriter;
 import java.util.Comparator;
 
 /**
-   ؿդǤ
+   関数グラフです。
 */
 public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
 
@@ -23,19 +25,23 @@ public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
     }
 
     /**
-       ꥹȤˤδؿդɲä٤ƤΥ֥åιֹ
-       μ¹Բޡޤ
+       ソースリストにこの関数グラフを追加し、すべてのブロックの行番号
+       毎の実行回数をマージします。
 
-       եդ褷Ƥʤϲ⤷ޤ
+       フローグラフが解決していない場合は何もしません。関数のソースファ
+       イルがフィルタで除外されている場合は、ソースリストに関数グラフ
+       を追加しません。
 
-       @param sourceList ꥹ
+       @param sourceList ソースリスト
     */
     public void addLineCounts(final SourceList sourceList) {
 	if (!isSolved()) {
 	    return;
 	}
-	Source source = sourceList.getSource(getSourceFile());
-	source.addFunctionGraph(this);
+	if (isSourceFileAccepted()) {
+	    Source source = sourceList.getSource(getSourceFile());
+	    source.addFunctionGraph(this);
+	}
 	Iterable<Block> blocks = getBlocks();
 	for (Block b : blocks) {
 	    b.addLineCounts(sourceList);
@@ -43,9 +49,78 @@ public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
     }
 
     /**
-       ؿդXMLǽϤޤ
+       関数のソースファイルで、関数のブロックが含む最大の行番号を取得
+       します。
 
-       @param out 
+       @return 最大の行番号、または行番号を含まない場合は関数が始まる
+       行番号
+    */
+    public int getEndLineNumber() {
+	String sourceFile = getSourceFile();
+	int max = getLineNumber();
+	Iterable<Block> blocks = getBlocks();
+	for (Block b : blocks) {
+	    LineEntry[] lines = b.getLines();
+	    if (lines == null) {
+		continue;
+	    }
+	    for (LineEntry e : lines) {
+		if (!e.getFileName().equals(sourceFile)) {
+		    continue;
+		}
+		int[] nums = e.getLines();
+		for (int num : nums) {
+		    max = Math.max(max, num);
+		}
+	    }
+	}
+	return max;
+    }
+
+    /**
+       入口、出口を除くブロック毎の実行回数を、ブロックのIDの順に取得
+       します。
+
+       @return ブロック毎の実行回数の配列、またはフローグラフが解決し
+       ていない場合はnull
+    */
+    public long[] getBlockCounts() {
+	if (!isSolved()) {
+	    return null;
+	}
+	int n = getBlockCount();
+	long[] counts = new long[n];
+	Iterable<Block> blocks = getBlocks();
+	int k = -1;
+	for (Block b : blocks) {
+	    if (k >= 0 && k < n) {
+		counts[k] = b.getCount();
+	    }
+	    ++k;
+	}
+	return counts;
+    }
+
+    /**
+       関数グラフが変更された行を含むかどうかを取得します。
+
+       @param changeSet 変更された行の集合
+       @return 変更された行を含む場合はtrue、そうでなければfalse
+    */
+    public boolean touches(final ChangeSet changeSet) {
+	Iterable<Block> blocks = getBlocks();
+	for (Block b : blocks) {
+	    if (b.touches(changeSet)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+       関数グラフをXML形式で出力します。
+
+       @param out 出力先
     */
     public void printXML(final PrintWriter out) {
 	out.printf("<functionGraph id='%d' checksum='0x%x' functionName='%s'"
@@ -68,10 +143,10 @@ public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
     }
 
     /**
-       ؿե쥳ɤ饤󥹥󥹤ޤ
+       関数グラフレコードからインスタンスを生成します。
 
-       @param rec ؿե쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param rec 関数グラフレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     public FunctionGraph(final FunctionGraphRecord rec)
 	throws CorruptedFileException {
@@ -79,7 +154,20 @@ public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
     }
 
     /**
-       ؿϤޤֹӤ륳ѥ졼Ǥ
+       関数グラフレコードからインスタンスを生成します。
+
+       @param rec 関数グラフレコード
+       @param filter ソースファイルのフィルタ、またはnull
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    public FunctionGraph(final FunctionGraphRecord rec,
+			 final SourceFilter filter)
+	throws CorruptedFileException {
+	super(rec, filter);
+    }
+
+    /**
+       関数が始まる行番号で比較するコンパレータです。
     */
     private static Comparator<FunctionGraph> lineNumberComparator;
 
@@ -93,9 +181,9 @@ public final class FunctionGraph extends AbstractFunctionGraph<Block, Arc> {
     }
 
     /**
-       ؿϤޤֹӤ륳ѥ졼֤ޤ
+       関数が始まる行番号で比較するコンパレータを返します。
 
-       @return ؿϤޤֹӤ륳ѥ졼
+       @return 関数が始まる行番号で比較するコンパレータ
     */
     public static Comparator<FunctionGraph> getLineNumberComparator() {
 	return lineNumberComparator;
@@ -0,0 +1,274 @@
+package com.maroontress.coverture;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+   gcovファイルを出力するクラスです。
+
+   出力はスレッド毎に再利用するバッファに書き込み、バッファが一杯に
+   なるとチャネルに書き込みます。行番号や実行回数は文字列を生成せず
+   にバッファに直接書き込みます。ひとつのスレッドで同時に使用できる
+   インスタンスはひとつだけです。
+*/
+public final class GcovPrinter {
+
+    /** バッファのバイト長です。 */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 数値の最大の桁数です。 */
+    private static final int MAX_DIGITS = 20;
+
+    /** 基数です。 */
+    private static final int RADIX = 10;
+
+    /** ASCII互換かどうかを判定するための文字列です。 */
+    private static final String ASCII_SAMPLE
+	= "\r\n\t -#$%:()0123456789"
+	+ "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    /** スレッド毎のバッファです。 */
+    private static final ThreadLocal<ByteBuffer> BUFFERS
+	= new ThreadLocal<ByteBuffer>() {
+	    protected ByteBuffer initialValue() {
+		return ByteBuffer.allocateDirect(BUFFER_SIZE);
+	    }
+	};
+
+    /** 出力先のチャネルです。 */
+    private WritableByteChannel channel;
+
+    /** 出力するバイトのバッファです。 */
+    private ByteBuffer buffer;
+
+    /** gcovファイルの文字集合のエンコーダです。 */
+    private CharsetEncoder encoder;
+
+    /** gcovファイルの文字集合がASCII互換かどうかのフラグです。 */
+    private boolean asciiCompatible;
+
+    /** 数値を文字に変換するための作業領域です。 */
+    private char[] digits;
+
+    /** ASCII互換でない文字集合で1文字をエンコードするためのバッファです。 */
+    private CharBuffer charBuffer;
+
+    /** チャネルに書き込んだバイト数です。 */
+    private long bytesWritten;
+
+    /**
+       インスタンスを生成します。
+
+       @param channel 出力先のチャネル
+       @param cs gcovファイルの文字集合
+    */
+    public GcovPrinter(final WritableByteChannel channel, final Charset cs) {
+	this.channel = channel;
+	buffer = BUFFERS.get();
+	buffer.clear();
+	encoder = cs.newEncoder()
+	    .onMalformedInput(CodingErrorAction.REPLACE)
+	    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+	asciiCompatible = isAsciiCompatible(cs);
+	digits = new char[MAX_DIGITS];
+	charBuffer = CharBuffer.allocate(1);
+	bytesWritten = 0;
+    }
+
+    /**
+       チャネルに書き込んだバイト数を取得します。チャネルが圧縮する場
+       合は、圧縮する前のバイト数です。
+
+       @return バイト数
+    */
+    public long getBytesWritten() {
+	return bytesWritten;
+    }
+
+    /**
+       文字集合がASCII互換かどうかを取得します。ASCII互換の文字集合で
+       は、ASCIIの文字は1バイトで表現され、改行文字のバイトが他の文字
+       の一部として現れることはないものとします。
+
+       @param cs 文字集合
+       @return ASCII互換の場合はtrue、そうでなければfalse
+    */
+    public static boolean isAsciiCompatible(final Charset cs) {
+	try {
+	    byte[] b = ASCII_SAMPLE.getBytes(cs.name());
+	    byte[] ascii = ASCII_SAMPLE.getBytes("US-ASCII");
+	    return Arrays.equals(b, ascii);
+	} catch (UnsupportedEncodingException e) {
+	    return false;
+	}
+    }
+
+    /**
+       バッファの内容をチャネルに書き込みます。
+
+       @throws IOException 入出力エラー
+    */
+    private void flushBuffer() throws IOException {
+	buffer.flip();
+	bytesWritten += buffer.remaining();
+	while (buffer.hasRemaining()) {
+	    channel.write(buffer);
+	}
+	buffer.clear();
+    }
+
+    /**
+       文字バッファの文字をエンコードしてバッファに書き込みます。
+
+       @param in 文字バッファ
+       @throws IOException 入出力エラー
+    */
+    private void encode(final CharBuffer in) throws IOException {
+	for (;;) {
+	    CoderResult r = encoder.encode(in, buffer, false);
+	    if (r.isOverflow()) {
+		flushBuffer();
+		continue;
+	    }
+	    if (r.isError()) {
+		r.throwException();
+	    }
+	    return;
+	}
+    }
+
+    /**
+       ASCIIの文字を書き込みます。
+
+       @param c ASCIIの文字
+       @throws IOException 入出力エラー
+    */
+    public void put(final char c) throws IOException {
+	if (!asciiCompatible) {
+	    charBuffer.clear();
+	    charBuffer.put(c);
+	    charBuffer.flip();
+	    encode(charBuffer);
+	    return;
+	}
+	if (!buffer.hasRemaining()) {
+	    flushBuffer();
+	}
+	buffer.put((byte) c);
+    }
+
+    /**
+       文字列を書き込みます。
+
+       @param s 文字列
+       @throws IOException 入出力エラー
+    */
+    public void put(final CharSequence s) throws IOException {
+	encode(CharBuffer.wrap(s));
+    }
+
+    /**
+       gcovファイルの文字集合でエンコードされたバイトバッファの残りの
+       バイトをそのまま書き込みます。バイトバッファの位置はリミットま
+       で進みます。
+
+       @param src バイトバッファ
+       @throws IOException 入出力エラー
+    */
+    public void put(final ByteBuffer src) throws IOException {
+	int limit = src.limit();
+	try {
+	    while (src.hasRemaining()) {
+		if (!buffer.hasRemaining()) {
+		    flushBuffer();
+		}
+		int n = Math.min(src.remaining(), buffer.remaining());
+		src.limit(src.position() + n);
+		buffer.put(src);
+		src.limit(limit);
+	    }
+	} finally {
+	    src.limit(limit);
+	}
+    }
+
+    /**
+       指定した幅で、空白を詰めて右寄せしたASCIIの文字列を書き込みます。
+
+       @param s ASCIIの文字列
+       @param width 幅
+       @throws IOException 入出力エラー
+    */
+    public void put(final String s, final int width) throws IOException {
+	int n = s.length();
+	for (int k = n; k < width; ++k) {
+	    put(' ');
+	}
+	for (int k = 0; k < n; ++k) {
+	    put(s.charAt(k));
+	}
+    }
+
+    /**
+       指定した幅で、空白を詰めて右寄せした負でない整数を書き込みます。
+
+       @param value 負でない整数
+       @param width 幅
+       @throws IOException 入出力エラー
+    */
+    public void put(final long value, final int width) throws IOException {
+	int k = digits.length;
+	long v = value;
+	do {
+	    --k;
+	    digits[k] = (char) ('0' + (int) (v % RADIX));
+	    v /= RADIX;
+	} while (v != 0);
+	for (int n = digits.length - k; n < width; ++n) {
+	    put(' ');
+	}
+	for (; k < digits.length; ++k) {
+	    put(digits[k]);
+	}
+    }
+
+    /**
+       書式付きの文字列を書き込みます。
+
+       @param format 書式
+       @param args 引数
+       @throws IOException 入出力エラー
+    */
+    public void printf(final String format, final Object... args)
+	throws IOException {
+	put(String.format(format, args));
+    }
+
+    /**
+       残りの出力をチャネルに書き込んで、チャネルを閉じます。
+
+       @throws IOException 入出力エラー
+    */
+    public void close() throws IOException {
+	try {
+	    CharBuffer empty = CharBuffer.allocate(0);
+	    while (encoder.encode(empty, buffer, true).isOverflow()) {
+		flushBuffer();
+	    }
+	    while (encoder.flush(buffer).isOverflow()) {
+		flushBuffer();
+	    }
+	    flushBuffer();
+	} finally {
+	    channel.close();
+	}
+    }
+}
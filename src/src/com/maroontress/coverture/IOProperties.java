@@ -1,37 +1,141 @@
 package com.maroontress.coverture;
 
+import com.maroontress.gcovparser.FileCache;
+import com.maroontress.gcovparser.Origin;
+import com.maroontress.gcovparser.SourceFilter;
+import com.maroontress.gcovparser.gcno.NoteRecord;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
+import java.io.PrintStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
 
 /**
-   Ϥ˴ϢץѥƥǤ
+   入出力に関連するプロパティです。
 */
 public final class IOProperties {
 
-    /** ¿ΥåϤ뤫ɤΥե饰Ǥ */
+    /** gcovの中間形式（JSON）のファイルの文字集合です。 */
+    private static final Charset JSON_CHARSET = Charset.forName("UTF-8");
+
+    /** 更新が収まったとみなすまでのデフォルトの時間（ミリ秒）です。 */
+    private static final long DEFAULT_WATCH_DELAY = 200;
+
+    /** より多くのメッセージを出力するかどうかのフラグです。 */
     private boolean verbose;
 
-    /** եϤǥ쥯ȥǤ */
+    /** ファイルを出力するディレクトリです。 */
     private File outputDir;
 
-    /** եʸǤ */
+    /** ソースファイルの文字集合です。 */
     private Charset sourceFileCharset;
 
-    /** gcovեʸǤ */
+    /** gcovファイルの文字集合です。 */
     private Charset gcovFileCharset;
 
-    /** gcovեϤ뤫ɤΥե饰Ǥ */
+    /** gcovファイルを出力するかどうかのフラグです。 */
     private boolean gcovEnabled;
 
+    /** gcovファイルに分岐の結果を出力するかどうかのフラグです。 */
+    private boolean branchProbabilitiesEnabled;
+
+    /** 基本ブロック毎の実行回数を出力するかどうかのフラグです。 */
+    private boolean allBlocksEnabled;
+
+    /** gcovファイルに無条件分岐の結果を出力するかどうかのフラグです。 */
+    private boolean unconditionalBranchesEnabled;
+
+    /** 処理対象を制限する変更された行の集合、またはnullです。 */
+    private ChangeSet changeSet;
+
+    /** ソースファイルの逆引きインデックス、またはnullです。 */
+    private SourceIndex sourceIndex;
+
+    /** ソースファイルのフィルタ、またはnullです。 */
+    private SourceFilter sourceFilter;
+
+    /** LCOVのトレースファイル、またはnullです。 */
+    private File lcovFile;
+
+    /** Cobertura形式のXMLファイル、またはnullです。 */
+    private File coberturaFile;
+
+    /** gcovの中間形式（JSON）のファイルを出力するかどうかのフラグです。 */
+    private boolean jsonEnabled;
+
+    /** gcovの中間形式（JSON）のファイルを圧縮するかどうかのフラグです。 */
+    private boolean jsonGzipped;
+
+    /** gcovファイルを圧縮するかどうかのフラグです。 */
+    private boolean gcovGzipped;
+
+    /** gcovファイルの名前にハッシュを使うかどうかのフラグです。 */
+    private boolean hashedFilenamesEnabled;
+
+    /** gcovファイルをハッシュでサブディレクトリに振り分けるかどうかのフラグです。 */
+    private boolean hashedSubdirectoriesEnabled;
+
+    /** XMLの出力を圧縮するかどうかのフラグです。 */
+    private boolean outputGzipped;
+
+    /** ノート毎にXMLファイルを出力するかどうかのフラグです。 */
+    private boolean shardEnabled;
+
+    /** ノートをまたがって同じ関数を統合するかどうかのフラグです。 */
+    private boolean functionMergingEnabled;
+
+    /** 処理の統計、またはnullです。 */
+    private Statistics statistics;
+
+    /** 統計をJSONで出力するファイル、またはnullです。 */
+    private File statisticsFile;
+
+    /** 処理時間が長いgcnoファイルを報告する件数、または0です。 */
+    private int slowFileCount;
+
+    /** ノートレコードのキャッシュ、またはnullです。 */
+    private FileCache<NoteRecord> noteCache;
+
+    /** ソースファイルをマップしたバッファのキャッシュ、またはnullです。 */
+    private FileCache<ByteBuffer> sourceCache;
+
+    /** XMLの出力先、または標準出力に出力する場合はnullです。 */
+    private OutputStream outputStream;
+
+    /** メッセージの出力先、または標準エラー出力に出力する場合はnullです。 */
+    private PrintStream messageStream;
+
+    /** 問題を受け取るリスナ、またはメッセージとして出力する場合はnullです。 */
+    private ProblemListener problemListener;
+
+    /** 処理を完了したgcnoファイルのジャーナルファイル、またはnullです。 */
+    private File journalFile;
+
+    /** ジャーナルを再開できるかどうかを判定するオプションのシグネチャです。 */
+    private String journalSignature;
+
+    /** 並べ替えるXMLを保持するヒープの上限（バイト）、または0です。 */
+    private long spillBudget;
+
+    /** 処理した後にgcdaファイルの更新を監視するかどうかのフラグです。 */
+    private boolean watchEnabled;
+
+    /** 監視するファイルの更新が収まったとみなすまでの時間（ミリ秒）です。 */
+    private long watchDelay;
+
     /**
-       ǥեȤϥץѥƥޤ
+       デフォルトの入出力プロパティを生成します。
     */
     public IOProperties() {
 	verbose = false;
@@ -39,30 +143,616 @@ public final class IOProperties {
 	sourceFileCharset = Charset.defaultCharset();
 	gcovFileCharset = Charset.defaultCharset();
 	gcovEnabled = false;
+	branchProbabilitiesEnabled = false;
+	allBlocksEnabled = false;
+	unconditionalBranchesEnabled = false;
+	changeSet = null;
+	sourceIndex = null;
+	sourceFilter = null;
+	lcovFile = null;
+	coberturaFile = null;
+	jsonEnabled = false;
+	jsonGzipped = false;
+	gcovGzipped = false;
+	hashedFilenamesEnabled = false;
+	hashedSubdirectoriesEnabled = false;
+	outputGzipped = false;
+	shardEnabled = false;
+	functionMergingEnabled = false;
+	statistics = null;
+	statisticsFile = null;
+	slowFileCount = 0;
+	noteCache = null;
+	sourceCache = null;
+	outputStream = null;
+	messageStream = null;
+	problemListener = null;
+	journalFile = null;
+	journalSignature = "";
+	spillBudget = 0;
+	watchEnabled = false;
+	watchDelay = DEFAULT_WATCH_DELAY;
     }
 
     /**
-       gcovեϤ뤫ɤꤷޤ
+       gcovファイルを出力するかどうか設定します。
 
-       @param b gcovեϤtrue
+       @param b gcovファイルを出力する場合はtrue
     */
     public void setGcovEnabled(final boolean b) {
 	gcovEnabled = b;
     }
 
     /**
-       gcovեϤ뤫ɤޤ
+       gcovファイルを出力するかどうか取得します。
 
-       @return gcovեϤtrue
+       @return gcovファイルを出力する場合はtrue
     */
     public boolean isGcovEnabled() {
 	return gcovEnabled;
     }
 
     /**
-       åϤĹˤ뤫ɤꤷޤ
+       gcovファイルに分岐の結果を出力するかどうか設定します。
 
-       @param b åϤĹˤtrueϡǤʤ
+       @param b 分岐の結果を出力する場合はtrue
+    */
+    public void setBranchProbabilitiesEnabled(final boolean b) {
+	branchProbabilitiesEnabled = b;
+    }
+
+    /**
+       gcovファイルに分岐の結果を出力するかどうか取得します。
+
+       @return 分岐の結果を出力する場合はtrue
+    */
+    public boolean isBranchProbabilitiesEnabled() {
+	return branchProbabilitiesEnabled;
+    }
+
+    /**
+       gcovファイルに基本ブロック毎の実行回数を出力するかどうか設定し
+       ます。
+
+       @param b 基本ブロック毎の実行回数を出力する場合はtrue
+    */
+    public void setAllBlocksEnabled(final boolean b) {
+	allBlocksEnabled = b;
+    }
+
+    /**
+       gcovファイルに基本ブロック毎の実行回数を出力するかどうか取得し
+       ます。
+
+       @return 基本ブロック毎の実行回数を出力する場合はtrue
+    */
+    public boolean isAllBlocksEnabled() {
+	return allBlocksEnabled;
+    }
+
+    /**
+       gcovファイルに無条件分岐の結果を出力するかどうか設定します。
+       分岐の結果を出力しない場合は無視されます。
+
+       @param b 無条件分岐の結果を出力する場合はtrue
+    */
+    public void setUnconditionalBranchesEnabled(final boolean b) {
+	unconditionalBranchesEnabled = b;
+    }
+
+    /**
+       gcovファイルに無条件分岐の結果を出力するかどうか取得します。
+
+       @return 無条件分岐の結果を出力する場合はtrue
+    */
+    public boolean isUnconditionalBranchesEnabled() {
+	return unconditionalBranchesEnabled;
+    }
+
+    /**
+       処理対象を制限する変更された行の集合を設定します。
+
+       @param cs 変更された行の集合、または制限しない場合はnull
+    */
+    public void setChangeSet(final ChangeSet cs) {
+	changeSet = cs;
+    }
+
+    /**
+       処理対象を制限する変更された行の集合を取得します。
+
+       @return 変更された行の集合、または制限しない場合はnull
+    */
+    public ChangeSet getChangeSet() {
+	return changeSet;
+    }
+
+    /**
+       ソースファイルの逆引きインデックスを設定します。
+
+       @param index 逆引きインデックス、または使用しない場合はnull
+    */
+    public void setSourceIndex(final SourceIndex index) {
+	sourceIndex = index;
+    }
+
+    /**
+       ソースファイルの逆引きインデックスを取得します。
+
+       @return 逆引きインデックス、または使用しない場合はnull
+    */
+    public SourceIndex getSourceIndex() {
+	return sourceIndex;
+    }
+
+    /**
+       ソースファイルのフィルタを設定します。
+
+       @param filter ソースファイルのフィルタ、または使用しない場合は
+       null
+    */
+    public void setSourceFilter(final SourceFilter filter) {
+	sourceFilter = filter;
+    }
+
+    /**
+       ソースファイルのフィルタを取得します。
+
+       @return ソースファイルのフィルタ、または使用しない場合はnull
+    */
+    public SourceFilter getSourceFilter() {
+	return sourceFilter;
+    }
+
+    /**
+       LCOVのトレースファイルを設定します。
+
+       @param file トレースファイル、または出力しない場合はnull
+    */
+    public void setLcovFile(final File file) {
+	lcovFile = file;
+    }
+
+    /**
+       LCOVのトレースファイルを取得します。
+
+       @return トレースファイル、または出力しない場合はnull
+    */
+    public File getLcovFile() {
+	return lcovFile;
+    }
+
+    /**
+       Cobertura形式のXMLファイルを設定します。
+
+       @param file XMLファイル、または出力しない場合はnull
+    */
+    public void setCoberturaFile(final File file) {
+	coberturaFile = file;
+    }
+
+    /**
+       Cobertura形式のXMLファイルを取得します。
+
+       @return XMLファイル、または出力しない場合はnull
+    */
+    public File getCoberturaFile() {
+	return coberturaFile;
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルを出力するかどうか設定します。
+
+       @param b 出力する場合はtrue
+    */
+    public void setJsonEnabled(final boolean b) {
+	jsonEnabled = b;
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルを出力するかどうか取得します。
+
+       @return 出力する場合はtrue
+    */
+    public boolean isJsonEnabled() {
+	return jsonEnabled;
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルをgzipで圧縮するかどうか設定し
+       ます。
+
+       @param b 圧縮する場合はtrue
+    */
+    public void setJsonGzipped(final boolean b) {
+	jsonGzipped = b;
+    }
+
+    /**
+       gcovファイルをgzipで圧縮するかどうか設定します。
+
+       @param b 圧縮する場合はtrue
+    */
+    public void setGcovGzipped(final boolean b) {
+	gcovGzipped = b;
+    }
+
+    /**
+       gcovファイルの名前を、ソースファイルのベース名とハッシュにする
+       かどうか設定します。
+
+       @param b ハッシュを使う場合はtrue
+    */
+    public void setHashedFilenamesEnabled(final boolean b) {
+	hashedFilenamesEnabled = b;
+    }
+
+    /**
+       ハッシュを使った名前のgcovファイルを、ハッシュの先頭の2文字のサ
+       ブディレクトリに振り分けるかどうか設定します。
+
+       @param b サブディレクトリに振り分ける場合はtrue
+    */
+    public void setHashedSubdirectoriesEnabled(final boolean b) {
+	hashedSubdirectoriesEnabled = b;
+    }
+
+    /**
+       gcovファイルの出力ディレクトリを基点とした相対パスを取得します。
+
+       @param origin gcnoファイルのオリジン
+       @param sourceFile カバレッジ対象のソースファイルのパス
+       @return gcovファイルのパス
+    */
+    public String getCoverageFilePath(final Origin origin,
+				      final String sourceFile) {
+	if (!hashedFilenamesEnabled) {
+	    return origin.getCoverageFilePath(sourceFile);
+	}
+	return origin.getHashedCoverageFilePath(sourceFile,
+						hashedSubdirectoriesEnabled);
+    }
+
+    /**
+       XMLの出力をgzipで圧縮するかどうか設定します。
+
+       @param b 圧縮する場合はtrue
+    */
+    public void setOutputGzipped(final boolean b) {
+	outputGzipped = b;
+    }
+
+    /**
+       XMLの出力をgzipで圧縮するかどうか取得します。
+
+       @return 圧縮する場合はtrue
+    */
+    public boolean isOutputGzipped() {
+	return outputGzipped;
+    }
+
+    /**
+       XMLを標準出力の代わりに、出力ディレクトリのノート毎のXMLファイ
+       ルに出力するかどうか設定します。
+
+       @param b ノート毎のXMLファイルに出力する場合はtrue
+    */
+    public void setShardEnabled(final boolean b) {
+	shardEnabled = b;
+    }
+
+    /**
+       XMLを標準出力の代わりに、出力ディレクトリのノート毎のXMLファイ
+       ルに出力するかどうか取得します。
+
+       @return ノート毎のXMLファイルに出力する場合はtrue
+    */
+    public boolean isShardEnabled() {
+	return shardEnabled;
+    }
+
+    /**
+       ノートをまたがって同じ関数を統合するかどうか設定します。
+
+       統合する場合、ノートのXMLには関数グラフを出力せず、統合した関
+       数をまとめて出力します。
+
+       @param b 統合する場合はtrue
+    */
+    public void setFunctionMergingEnabled(final boolean b) {
+	functionMergingEnabled = b;
+    }
+
+    /**
+       ノートをまたがって同じ関数を統合するかどうか取得します。
+
+       @return 統合する場合はtrue
+    */
+    public boolean isFunctionMergingEnabled() {
+	return functionMergingEnabled;
+    }
+
+    /**
+       処理の統計を設定します。
+
+       @param s 統計、またはnull
+    */
+    public void setStatistics(final Statistics s) {
+	statistics = s;
+    }
+
+    /**
+       処理の統計を取得します。
+
+       @return 統計、またはnull
+    */
+    public Statistics getStatistics() {
+	return statistics;
+    }
+
+    /**
+       現在のスレッドの統計のレコーダを取得します。
+
+       @return レコーダ、または統計を集計しない場合はnull
+    */
+    public StatisticsRecorder getStatisticsRecorder() {
+	if (statistics == null) {
+	    return null;
+	}
+	return statistics.getRecorder();
+    }
+
+    /**
+       統計をJSONで出力するファイルを設定します。nullの場合は、統計を
+       表の形式で標準エラー出力に出力します。
+
+       @param file ファイル、またはnull
+    */
+    public void setStatisticsFile(final File file) {
+	statisticsFile = file;
+    }
+
+    /**
+       統計をJSONで出力するファイルを取得します。
+
+       @return ファイル、またはnull
+    */
+    public File getStatisticsFile() {
+	return statisticsFile;
+    }
+
+    /**
+       処理時間が長いgcnoファイルを報告する件数を設定します。
+
+       @param num 件数、または報告しない場合は0
+    */
+    public void setSlowFileCount(final int num) {
+	slowFileCount = num;
+    }
+
+    /**
+       処理時間が長いgcnoファイルを報告する件数を取得します。
+
+       @return 件数、または報告しない場合は0
+    */
+    public int getSlowFileCount() {
+	return slowFileCount;
+    }
+
+    /**
+       ノートレコードのキャッシュを設定します。
+
+       @param cache キャッシュ、またはnull
+    */
+    public void setNoteCache(final FileCache<NoteRecord> cache) {
+	noteCache = cache;
+    }
+
+    /**
+       ノートレコードのキャッシュを取得します。
+
+       @return キャッシュ、またはnull
+    */
+    public FileCache<NoteRecord> getNoteCache() {
+	return noteCache;
+    }
+
+    /**
+       ソースファイルをマップしたバッファのキャッシュを設定します。
+       キャッシュは、ソースファイルをデコードせずに読み込む場合にだけ
+       使用します。
+
+       @param cache キャッシュ、またはnull
+    */
+    public void setSourceCache(final FileCache<ByteBuffer> cache) {
+	sourceCache = cache;
+    }
+
+    /**
+       ソースファイルをマップしたバッファのキャッシュを取得します。
+
+       @return キャッシュ、またはnull
+    */
+    public FileCache<ByteBuffer> getSourceCache() {
+	return sourceCache;
+    }
+
+    /**
+       XMLの出力先を設定します。出力先は、XMLを出力し終えると閉じま
+       す。
+
+       @param out 出力先、または標準出力に出力する場合はnull
+    */
+    public void setOutputStream(final OutputStream out) {
+	outputStream = out;
+    }
+
+    /**
+       XMLの出力先を取得します。
+
+       @return 出力先
+    */
+    public OutputStream getOutputStream() {
+	return (outputStream == null) ? System.out : outputStream;
+    }
+
+    /**
+       メッセージの出力先を設定します。
+
+       @param out 出力先、または標準エラー出力に出力する場合はnull
+    */
+    public void setMessageStream(final PrintStream out) {
+	messageStream = out;
+    }
+
+    /**
+       メッセージの出力先を取得します。
+
+       @return 出力先
+    */
+    public PrintStream getMessageStream() {
+	return (messageStream == null) ? System.err : messageStream;
+    }
+
+    /**
+       ファイルを処理する途中で発生した問題を受け取るリスナを設定しま
+       す。
+
+       @param listener リスナ、または問題をメッセージとして出力する場
+       合はnull
+    */
+    public void setProblemListener(final ProblemListener listener) {
+	problemListener = listener;
+    }
+
+    /**
+       ファイルを処理する途中で発生した問題を受け取るリスナを取得しま
+       す。
+
+       @return リスナ、または問題をメッセージとして出力する場合はnull
+    */
+    public ProblemListener getProblemListener() {
+	return problemListener;
+    }
+
+    /**
+       ファイルを処理する途中で発生した問題をリスナに渡します。リスナ
+       が設定されていない場合は、メッセージの出力先に表示します。
+
+       @param problem 問題
+    */
+    public void report(final Problem problem) {
+	ProblemListener listener = problemListener;
+	if (listener == null) {
+	    listener = new ProblemPrinter(getMessageStream());
+	}
+	listener.report(problem);
+    }
+
+    /**
+       処理を完了したgcnoファイルを記録するジャーナルファイルを設定し
+       ます。
+
+       @param file ジャーナルファイル、または記録しない場合はnull
+       @see Journal
+    */
+    public void setJournalFile(final File file) {
+	journalFile = file;
+    }
+
+    /**
+       処理を完了したgcnoファイルを記録するジャーナルファイルを取得し
+       ます。
+
+       @return ジャーナルファイル、または記録しない場合はnull
+    */
+    public File getJournalFile() {
+	return journalFile;
+    }
+
+    /**
+       ジャーナルを再開できるかどうかを判定するオプションのシグネチャ
+       を設定します。シグネチャが異なるジャーナルは破棄します。
+
+       @param signature シグネチャ
+    */
+    public void setJournalSignature(final String signature) {
+	journalSignature = signature;
+    }
+
+    /**
+       ジャーナルを再開できるかどうかを判定するオプションのシグネチャ
+       を取得します。
+
+       @return シグネチャ
+    */
+    public String getJournalSignature() {
+	return journalSignature;
+    }
+
+    /**
+       並べ替えるXMLを保持するヒープの上限を設定します。上限を設定す
+       ると、ソートして出力するXMLは上限を超えるたびに一時ファイルに
+       書き出し、最後にマージします。
+
+       @param bytes 上限（バイト）、または上限を設定しない場合は0
+       @see SpillSorter
+    */
+    public void setSpillBudget(final long bytes) {
+	spillBudget = bytes;
+    }
+
+    /**
+       並べ替えるXMLを保持するヒープの上限を取得します。
+
+       @return 上限（バイト）、または上限を設定しない場合は0
+    */
+    public long getSpillBudget() {
+	return spillBudget;
+    }
+
+    /**
+       処理した後にgcdaファイルの更新を監視するかどうか設定します。
+
+       @param b 監視する場合はtrue
+    */
+    public void setWatchEnabled(final boolean b) {
+	watchEnabled = b;
+    }
+
+    /**
+       処理した後にgcdaファイルの更新を監視するかどうかを取得します。
+
+       @return 監視する場合はtrue
+    */
+    public boolean isWatchEnabled() {
+	return watchEnabled;
+    }
+
+    /**
+       監視するファイルの更新が収まったとみなすまでの時間を設定します。
+       最後の更新からこの時間だけ他の更新がなければ、更新されたファイ
+       ルを処理します。
+
+       @param millis 時間（ミリ秒）
+    */
+    public void setWatchDelay(final long millis) {
+	watchDelay = millis;
+    }
+
+    /**
+       監視するファイルの更新が収まったとみなすまでの時間を取得します。
+
+       @return 時間（ミリ秒）
+    */
+    public long getWatchDelay() {
+	return watchDelay;
+    }
+
+    /**
+       メッセージ出力を冗長にするかどうか設定します。
+
+       @param b メッセージ出力を冗長にする場合はtrueは、そうでなければ
        false
     */
     public void setVerbose(final boolean b) {
@@ -70,36 +760,36 @@ public final class IOProperties {
     }
 
     /**
-       եϤǥ쥯ȥꤷޤ
+       ファイルを出力するディレクトリを設定します。
 
-       @param dir եϤǥ쥯ȥ
+       @param dir ファイルを出力するディレクトリ
     */
     public void setOutputDir(final File dir) {
 	outputDir = dir;
     }
 
     /**
-       եʸꤷޤ
+       ソースファイルの文字集合を設定します。
 
-       @param cs եʸ
+       @param cs ソースファイルの文字集合
     */
     public void setSourceFileCharset(final Charset cs) {
 	sourceFileCharset = cs;
     }
 
     /**
-       gcovեʸꤷޤ
+       gcovファイルの文字集合を設定します。
 
-       @param cs gcovեʸ
+       @param cs gcovファイルの文字集合
     */
     public void setGcovFileCharset(final Charset cs) {
 	gcovFileCharset = cs;
     }
 
     /**
-       åϤĹˤ뤫ɤޤ
+       メッセージ出力を冗長にするかどうか取得します。
 
-       @return åϤĹˤtrueϡǤʤ
+       @return メッセージ出力を冗長にする場合はtrueは、そうでなければ
        false
     */
     public boolean isVerbose() {
@@ -107,48 +797,121 @@ public final class IOProperties {
     }
 
     /**
-       ϥեޤ
+       出力ファイルを生成します。
 
-       @param path ϥǥ쥯ȥȤХѥ
-       @return ϥե
+       @param path 出力ディレクトリを基点とした相対パス
+       @return 出力ファイル
     */
     public File createOutputFile(final String path) {
 	return new File(outputDir, path);
     }
 
     /**
-       Υǥ쥯ȥޤ
+       出力先のディレクトリを生成します。
     */
     public void makeOutputDir() {
 	outputDir.mkdirs();
     }
 
     /**
-       gcovեΥ饤ޤ
+       gcovファイルのプリンタを生成します。
+
+       圧縮する設定の場合は、gzipで圧縮しながら出力するプリンタを生成
+       します。
 
-       @param path ϥǥ쥯ȥȤХѥ
-       @return gcovեΥ饤
-       @throws FileNotFoundException եǤʤ
+       @param path 出力ディレクトリを基点とした相対パス
+       @return gcovファイルのプリンタ
+       @throws IOException ファイルを生成できない
+       @see #createGcovFile(String)
     */
-    public Writer createGcovWriter(final String path)
-	throws FileNotFoundException {
-	File file = createOutputFile(path);
-	Writer out = new OutputStreamWriter(new FileOutputStream(file),
-					    gcovFileCharset);
-	return out;
+    public GcovPrinter createGcovPrinter(final String path)
+	throws IOException {
+	File file = createGcovFile(path);
+	File parent = file.getParentFile();
+	if (!parent.isDirectory()) {
+	    parent.mkdirs();
+	}
+	FileOutputStream out = new FileOutputStream(file);
+	WritableByteChannel ch;
+	if (gcovGzipped) {
+	    ch = Channels.newChannel(new GZIPOutputStream(out));
+	} else {
+	    ch = out.getChannel();
+	}
+	return new GcovPrinter(ch, gcovFileCharset);
     }
 
     /**
-       եΥ꡼ޤ
+       gcovファイルのFileインスタンスを生成します。
+
+       圧縮する設定の場合は、パスに".gz"を連結したファイルになります。
+
+       @param path 出力ディレクトリを基点とした相対パス
+       @return gcovファイル
+    */
+    public File createGcovFile(final String path) {
+	return createOutputFile(gcovGzipped ? path + ".gz" : path);
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルのライタを生成します。ファイル
+       の文字集合はUTF-8です。
+
+       圧縮する設定の場合は、パスに".gz"を連結したファイルをgzipで圧
+       縮しながら出力するライタを生成します。
+
+       @param path 出力ディレクトリを基点とした相対パス
+       @return 中間形式のファイルのライタ
+       @throws IOException 入出力エラー
+    */
+    public Writer createJsonWriter(final String path) throws IOException {
+	OutputStream out = new FileOutputStream(createJsonFile(path));
+	if (jsonGzipped) {
+	    out = new GZIPOutputStream(out);
+	}
+	return new BufferedWriter(new OutputStreamWriter(out, JSON_CHARSET));
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルのFileインスタンスを生成します。
+
+       圧縮する設定の場合は、パスに".gz"を連結したファイルになります。
+
+       @param path 出力ディレクトリを基点とした相対パス
+       @return 中間形式のファイル
+    */
+    public File createJsonFile(final String path) {
+	return createOutputFile(jsonGzipped ? path + ".gz" : path);
+    }
+
+    /**
+       ソースファイルを1行ずつ読み込むリーダを生成します。
+
+       ソースファイルとgcovファイルの文字集合が同じでASCII互換の場合は、
+       ソースファイルをマップして、行のバイトをデコードせずにそのまま
+       書き込むリーダを生成します。ソースファイルのキャッシュが設定さ
+       れている場合は、マップしたバッファを再利用します。文字集合が異
+       なる場合だけ、デコードとエンコードを行うリーダを生成します。
 
-       @param file ե
-       @return եΥ꡼
-       @throws FileNotFoundException ե뤬¸ߤʤ
+       @param file ソースファイル
+       @return ソースファイルのリーダ
+       @throws IOException 入出力エラー
     */
-    public Reader createSourceFileReader(final File file)
-	throws FileNotFoundException {
-	Reader in = new InputStreamReader(new FileInputStream(file),
-					  sourceFileCharset);
-	return in;
+    public SourceLineReader createSourceLineReader(final File file)
+	throws IOException {
+	if (sourceFileCharset.equals(gcovFileCharset)
+	    && GcovPrinter.isAsciiCompatible(sourceFileCharset)) {
+	    if (sourceCache == null) {
+		return new ByteLineReader(file);
+	    }
+	    ByteBuffer bb = sourceCache.get(file);
+	    if (bb == null) {
+		bb = ByteLineReader.map(file);
+		sourceCache.put(file, bb);
+	    }
+	    return new ByteLineReader(bb);
+	}
+	InputStream in = new FileInputStream(file);
+	return new CharLineReader(new InputStreamReader(in, sourceFileCharset));
     }
 }
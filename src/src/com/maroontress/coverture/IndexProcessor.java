@@ -0,0 +1,67 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.CorruptedFileException;
+import com.maroontress.gcovparser.SourceScanner;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+   gcnoファイルを走査して、ソースファイルの逆引きインデックスを生成
+   するクラスです。
+*/
+public final class IndexProcessor extends Processor {
+
+    /** 入出力プロパティです。 */
+    private IOProperties props;
+
+    /** インデックスファイルです。 */
+    private File indexFile;
+
+    /** 生成中のインデックスです。 */
+    private SourceIndex index;
+
+    /**
+       インスタンスを生成します。
+
+       @param props 入出力プロパティ
+       @param indexFile 出力するインデックスファイル
+    */
+    public IndexProcessor(final IOProperties props, final File indexFile) {
+	super(props);
+	this.props = props;
+	this.indexFile = indexFile;
+    }
+
+    /** {@inheritDoc} */
+    protected void processFile(final String name) throws IOException {
+	if (!name.endsWith(".gcno")) {
+	    props.report(new Problem(ProblemKind.NOT_NOTE_FILE, name,
+				     "suffix is not '.gcno'."));
+	    return;
+	}
+	try {
+	    index.add(name, SourceScanner.scan(new File(name)));
+	} catch (CorruptedFileException e) {
+	    props.report(new Problem(ProblemKind.CORRUPTED, name,
+				     e.getMessage(), e));
+	} catch (FileNotFoundException e) {
+	    props.report(new Problem(ProblemKind.NOT_FOUND, name,
+				     "not found."));
+	}
+    }
+
+    /** {@inheritDoc} */
+    protected void pre() throws IOException {
+	index = new SourceIndex();
+    }
+
+    /** {@inheritDoc} */
+    protected void post() throws IOException {
+	index.write(indexFile);
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf("%s: created.%n",
+					    indexFile.getPath());
+	}
+    }
+}
@@ -0,0 +1,53 @@
+package com.maroontress.coverture;
+
+/**
+   JSON出力のためのユーティリティです。
+*/
+public final class JSON {
+
+    /** 制御文字の上限（この値を含まない）です。 */
+    private static final char CONTROL_LIMIT = 0x20;
+
+    /**
+       コンストラクタです。
+    */
+    private JSON() {
+    }
+
+    /**
+       JSONの文字列として出力できるようにエスケープした文字列を取得し
+       ます。引用符は含みません。
+
+       @param s 文字列
+       @return エスケープした文字列
+    */
+    public static String escape(final String s) {
+	StringBuilder b = new StringBuilder();
+	int n = s.length();
+	for (int k = 0; k < n; ++k) {
+	    char c = s.charAt(k);
+	    switch (c) {
+	    case '"':
+		b.append("\\\"");
+		break;
+	    case '\\':
+		b.append("\\\\");
+		break;
+	    case '\n':
+		b.append("\\n");
+		break;
+	    case '\t':
+		b.append("\\t");
+		break;
+	    default:
+		if (c < CONTROL_LIMIT) {
+		    b.append(String.format("\\u%04x", (int) c));
+		} else {
+		    b.append(c);
+		}
+		break;
+	    }
+	}
+	return b.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.Origin;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+   処理を完了したgcnoファイルを記録するジャーナルです。
+
+   gcnoファイルを処理し終えるたびに、入力ファイル（gcnoファイルと
+   gcdaファイル）の長さと更新時刻、出力ファイルの長さとチェックサム
+   をジャーナルファイルに追記します。標準出力に出力するXMLは、ジャー
+   ナルファイルのパスに".d"を連結したディレクトリに、ノート毎の断片
+   として出力し、その断片も出力ファイルとして記録します。
+
+   異常終了した後に同じオプションで再実行すると、記録したファイルが
+   変わっていないgcnoファイルは処理し直さずに、記録した出力ファイル
+   とXMLの断片を使用します。オプションが異なる場合は、ジャーナルを
+   破棄して最初から処理します。
+
+   ジャーナルファイルは次の形式の行からなります。endの行がないエント
+   リは、書き込み中に異常終了したものとして無視します。
+
+   <pre>
+   coverture-journal 1 SIGNATURE
+   note GCNO
+   input MTIME LENGTH PATH
+   output CRC32 LENGTH PATH
+   fragment PATH
+   end
+   </pre>
+
+   複数のスレッドから同時に使用できます。
+*/
+public final class Journal {
+
+    /** ジャーナルファイルの先頭の行の接頭辞です。 */
+    private static final String MAGIC = "coverture-journal 1 ";
+
+    /** エントリの開始を表すキーワードです。 */
+    private static final String NOTE = "note ";
+
+    /** XMLの断片を表すキーワードです。 */
+    private static final String FRAGMENT = "fragment ";
+
+    /** エントリの終了を表すキーワードです。 */
+    private static final String END = "end";
+
+    /** XMLの断片を出力するディレクトリの接尾辞です。 */
+    private static final String FRAGMENT_DIR_SUFFIX = ".d";
+
+    /** 入出力プロパティです。 */
+    private IOProperties props;
+
+    /** ジャーナルファイルです。 */
+    private File file;
+
+    /** XMLの断片を出力するディレクトリです。 */
+    private File fragmentDir;
+
+    /** gcnoファイルのパスとエントリのマップです。 */
+    private Map<String, JournalEntry> entries;
+
+    /** ジャーナルファイルのライタです。 */
+    private PrintWriter out;
+
+    /**
+       入出力プロパティのジャーナルファイルを開きます。
+
+       ジャーナルファイルが存在して、オプションのシグネチャが一致す
+       る場合は記録したエントリを読み込みます。読み込んだエントリだけ
+       でジャーナルファイルを書き直してから、追記するために開きます。
+
+       @param props 入出力プロパティ
+       @throws IOException 入出力エラー
+    */
+    public Journal(final IOProperties props) throws IOException {
+	this.props = props;
+	file = props.getJournalFile();
+	fragmentDir = new File(file.getPath() + FRAGMENT_DIR_SUFFIX);
+	entries = new HashMap<String, JournalEntry>();
+	String signature = props.getJournalSignature();
+	if (file.exists()) {
+	    if (!load(signature)) {
+		props.getMessageStream().printf(
+		    "%s: options differ; starting over.%n", file.getPath());
+		entries.clear();
+	    } else if (!entries.isEmpty()) {
+		props.getMessageStream().printf(
+		    "%s: resuming after %d completed files.%n",
+		    file.getPath(), entries.size());
+	    }
+	}
+	rewrite(signature);
+	out = new PrintWriter(new BufferedWriter(new FileWriter(file, true)));
+    }
+
+    /**
+       ジャーナルファイルからエントリを読み込みます。
+
+       @param signature オプションのシグネチャ
+       @return シグネチャが一致した場合はtrue
+       @throws IOException 入出力エラー
+    */
+    private boolean load(final String signature) throws IOException {
+	BufferedReader in = new BufferedReader(new FileReader(file));
+	try {
+	    String line = in.readLine();
+	    if (line == null || !line.equals(MAGIC + signature)) {
+		return false;
+	    }
+	    JournalEntry e = null;
+	    while ((line = in.readLine()) != null) {
+		if (line.startsWith(NOTE)) {
+		    e = new JournalEntry(line.substring(NOTE.length()));
+		} else if (e == null) {
+		    continue;
+		} else if (line.equals(END)) {
+		    entries.put(e.getName(), e);
+		    e = null;
+		} else if (line.startsWith(FRAGMENT)) {
+		    e.setFragment(new File(line.substring(FRAGMENT.length())));
+		} else {
+		    FileStamp s = FileStamp.parse(line);
+		    if (s == null) {
+			e = null;
+			continue;
+		    }
+		    e.add(s);
+		}
+	    }
+	    return true;
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+       エントリをジャーナルの形式で出力します。
+
+       @param pw 出力先
+       @param e エントリ
+    */
+    private static void print(final PrintWriter pw, final JournalEntry e) {
+	pw.printf("%s%s\n", NOTE, e.getName());
+	for (FileStamp s : e.getStamps()) {
+	    pw.printf("%s\n", s);
+	}
+	File fragment = e.getFragment();
+	if (fragment != null) {
+	    pw.printf("%s%s\n", FRAGMENT, fragment.getPath());
+	}
+	pw.printf("%s\n", END);
+    }
+
+    /**
+       読み込んだエントリだけでジャーナルファイルを書き直します。
+
+       @param signature オプションのシグネチャ
+       @throws IOException 入出力エラー
+    */
+    private void rewrite(final String signature) throws IOException {
+	File tmp = new File(file.getPath() + ".tmp");
+	PrintWriter pw = new PrintWriter(
+	    new BufferedWriter(new FileWriter(tmp)));
+	try {
+	    pw.printf("%s%s\n", MAGIC, signature);
+	    for (JournalEntry e : entries.values()) {
+		print(pw, e);
+	    }
+	} finally {
+	    pw.close();
+	}
+	if (pw.checkError()) {
+	    throw new IOException(tmp.getPath() + ": write error.");
+	}
+	file.delete();
+	if (!tmp.renameTo(file)) {
+	    throw new IOException(file.getPath() + ": can't create.");
+	}
+    }
+
+    /**
+       gcnoファイルの処理を完了していて、記録したファイルが変わってい
+       ないかどうかを取得します。ファイルが変わっている場合はエントリ
+       を破棄します。
+
+       @param name gcnoファイルのパス
+       @return 処理し直す必要がない場合はtrue
+    */
+    public boolean isCompleted(final String name) {
+	JournalEntry e;
+	synchronized (this) {
+	    e = entries.get(name);
+	}
+	if (e == null) {
+	    return false;
+	}
+	if (e.isValid()) {
+	    return true;
+	}
+	synchronized (this) {
+	    entries.remove(name);
+	}
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf(
+		"%s: files changed since journaled.%n", name);
+	}
+	return false;
+    }
+
+    /**
+       gcnoファイルのXMLの断片のファイルを取得します。
+
+       @param name gcnoファイルのパス
+       @return XMLの断片のファイル、またはnull
+    */
+    public synchronized File getFragment(final String name) {
+	JournalEntry e = entries.get(name);
+	return (e == null) ? null : e.getFragment();
+    }
+
+    /**
+       XMLの断片を出力するファイルを生成します。
+
+       @param origin gcnoファイルのオリジン
+       @return XMLの断片のファイル
+    */
+    public File createFragmentFile(final Origin origin) {
+	File fragment = new File(fragmentDir, origin.getXMLFilePath());
+	File parent = fragment.getParentFile();
+	if (!parent.isDirectory()) {
+	    parent.mkdirs();
+	}
+	return fragment;
+    }
+
+    /**
+       処理を完了したgcnoファイルのエントリを追記します。
+
+       @param e エントリ
+       @throws IOException 入出力エラー
+    */
+    public synchronized void record(final JournalEntry e)
+	throws IOException {
+	print(out, e);
+	out.flush();
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+	entries.put(e.getName(), e);
+    }
+
+    /**
+       ジャーナルファイルを閉じます。
+
+       @throws IOException 入出力エラー
+    */
+    public synchronized void close() throws IOException {
+	out.close();
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+    }
+}
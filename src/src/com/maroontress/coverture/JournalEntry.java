@@ -0,0 +1,94 @@
+package com.maroontress.coverture;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+   ジャーナルに記録した、処理を完了したgcnoファイルのエントリです。
+
+   gcnoファイルのパス、入力ファイルと出力ファイルのスタンプ、XMLの
+   断片のファイルを保持します。
+*/
+public final class JournalEntry {
+
+    /** gcnoファイルのパスです。 */
+    private String name;
+
+    /** 入力ファイルと出力ファイルのスタンプのリストです。 */
+    private List<FileStamp> stamps;
+
+    /** XMLの断片のファイル、またはnullです。 */
+    private File fragment;
+
+    /**
+       インスタンスを生成します。
+
+       @param name gcnoファイルのパス
+    */
+    public JournalEntry(final String name) {
+	this.name = name;
+	stamps = new ArrayList<FileStamp>();
+    }
+
+    /**
+       gcnoファイルのパスを取得します。
+
+       @return gcnoファイルのパス
+    */
+    public String getName() {
+	return name;
+    }
+
+    /**
+       スタンプを追加します。
+
+       @param stamp スタンプ
+    */
+    public void add(final FileStamp stamp) {
+	stamps.add(stamp);
+    }
+
+    /**
+       スタンプのリストを取得します。
+
+       @return スタンプのリスト
+    */
+    public List<FileStamp> getStamps() {
+	return stamps;
+    }
+
+    /**
+       XMLの断片のファイルを設定します。断片のファイルは出力ファイル
+       のスタンプとしても追加しておく必要があります。
+
+       @param file XMLの断片のファイル、またはnull
+    */
+    public void setFragment(final File file) {
+	fragment = file;
+    }
+
+    /**
+       XMLの断片のファイルを取得します。
+
+       @return XMLの断片のファイル、またはnull
+    */
+    public File getFragment() {
+	return fragment;
+    }
+
+    /**
+       すべての入力ファイルと出力ファイルが、記録したときから変わって
+       いないかどうかを検証します。
+
+       @return 変わっていない場合はtrue
+    */
+    public boolean isValid() {
+	for (FileStamp s : stamps) {
+	    if (!s.isValid()) {
+		return false;
+	    }
+	}
+	return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+   LCOVのトレースファイルを出力するクラスです。
+
+   ノート毎のレコードは呼び出したスレッドで生成し、ファイルへの書き
+   込みだけを排他的に行うので、複数のスレッドから同時に呼び出すこと
+   ができます。
+*/
+public final class LcovWriter {
+
+    /** トレースファイルのライタです。 */
+    private Writer out;
+
+    /**
+       トレースファイルを生成します。トレースファイルの文字コードは
+       UTF-8です。
+
+       @param file トレースファイル
+       @throws IOException 入出力エラー
+    */
+    public LcovWriter(final File file) throws IOException {
+	out = new BufferedWriter(
+	    new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+    }
+
+    /**
+       ノートに含まれるすべてのソースのレコードを出力します。
+
+       @param note ノート
+       @throws IOException 入出力エラー
+    */
+    public void write(final Note note) throws IOException {
+	StringWriter s = new StringWriter();
+	PrintWriter pw = new PrintWriter(s);
+	note.printLcov(pw);
+	pw.flush();
+	synchronized (this) {
+	    out.write(s.toString());
+	}
+    }
+
+    /**
+       トレースファイルを閉じます。
+
+       @throws IOException 入出力エラー
+    */
+    public synchronized void close() throws IOException {
+	out.close();
+    }
+}
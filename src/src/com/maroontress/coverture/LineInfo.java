@@ -1,33 +1,99 @@
 package com.maroontress.coverture;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
-   ԾǤɤιֹμ¹Բޤ
+   行情報です。ソースコードの行番号毎の実行回数を管理します。
 */
 public final class LineInfo {
 
-    /** ¹ԲΥ󥿤Ǥ */
+    /** 実行回数のカウンタです。 */
     private long count;
 
+    /** この行で終わる基本ブロックのリスト、またはnullです。 */
+    private ArrayList<Block> blocks;
+
     /**
-       Ծޤ
+       行情報を生成します。
     */
     public LineInfo() {
 	count = 0;
     }
 
     /**
-       ¹Բûޤ
+       この行で終わる基本ブロックを追加します。
+
+       @param block 基本ブロック
+    */
+    public void addBlock(final Block block) {
+	if (blocks == null) {
+	    blocks = new ArrayList<Block>();
+	}
+	blocks.add(block);
+    }
+
+    /**
+       この行で終わる基本ブロックのリストを取得します。
+
+       @return 基本ブロックのリスト
+    */
+    public List<Block> getBlocks() {
+	if (blocks == null) {
+	    return Collections.emptyList();
+	}
+	return blocks;
+    }
+
+    /**
+       この行で終わる基本ブロックの条件分岐の経路の個数を取得します。
+
+       @return 条件分岐の経路の個数
+    */
+    public int getBranchCount() {
+	int n = 0;
+	for (Block b : getBlocks()) {
+	    for (Arc arc : b.getOutArcs()) {
+		if (arc.isBranch()) {
+		    ++n;
+		}
+	    }
+	}
+	return n;
+    }
+
+    /**
+       この行で終わる基本ブロックの条件分岐の経路のうち、実行された経
+       路の個数を取得します。
+
+       @return 実行された条件分岐の経路の個数
+    */
+    public int getTakenBranchCount() {
+	int n = 0;
+	for (Block b : getBlocks()) {
+	    for (Arc arc : b.getOutArcs()) {
+		if (arc.isBranch() && arc.getCount() > 0) {
+		    ++n;
+		}
+	    }
+	}
+	return n;
+    }
+
+    /**
+       実行回数を加算します。
 
-       @param delta û¹Բ
+       @param delta 加算する実行回数
     */
     public void addCount(final long delta) {
 	count += delta;
     }
 
     /**
-       ¹Բޤ
+       実行回数を取得します。
 
-       @return ¹Բ
+       @return 実行回数
     */
     public long getCount() {
 	return count;
@@ -0,0 +1,75 @@
+package com.maroontress.coverture;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+   行番号の範囲の集合です。重なり合う範囲、隣接する範囲はひとつにま
+   とめて保持します。
+
+   範囲の追加が終わった後は、複数のスレッドから同時に参照できます。
+*/
+public final class LineRangeSet {
+
+    /** 範囲の開始行番号と終了行番号（終了行を含む）のマップです。 */
+    private TreeMap<Integer, Integer> map;
+
+    /**
+       空の集合を生成します。
+    */
+    public LineRangeSet() {
+	map = new TreeMap<Integer, Integer>();
+    }
+
+    /**
+       範囲を追加します。
+
+       @param first 開始行番号
+       @param last 終了行番号（この行を含みます）
+    */
+    public void add(final int first, final int last) {
+	if (first > last) {
+	    return;
+	}
+	int start = first;
+	int end = last;
+	Map.Entry<Integer, Integer> e = map.floorEntry(start);
+	if (e != null && e.getValue() >= start - 1) {
+	    start = e.getKey();
+	    end = Math.max(end, e.getValue());
+	}
+	while ((e = map.ceilingEntry(start)) != null
+	       && e.getKey() <= end + 1) {
+	    end = Math.max(end, e.getValue());
+	    map.remove(e.getKey());
+	}
+	map.put(start, end);
+    }
+
+    /**
+       すべての行を含む範囲を追加します。
+    */
+    public void addAll() {
+	add(1, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+       行番号が集合に含まれるかどうかを取得します。
+
+       @param num 行番号
+       @return 含まれる場合はtrue、そうでなければfalse
+    */
+    public boolean contains(final int num) {
+	Map.Entry<Integer, Integer> e = map.floorEntry(num);
+	return e != null && e.getValue() >= num;
+    }
+
+    /**
+       集合が空かどうかを取得します。
+
+       @return 空の場合はtrue、そうでなければfalse
+    */
+    public boolean isEmpty() {
+	return map.isEmpty();
+    }
+}
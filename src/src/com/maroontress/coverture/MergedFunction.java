@@ -0,0 +1,155 @@
+package com.maroontress.coverture;
+
+import java.io.PrintWriter;
+
+/**
+   複数のノートに現れる同じ関数を、ひとつに統合した関数です。
+
+   ヘッダファイルで定義されたインライン関数やテンプレートのインスタ
+   ンスは、ソースファイル、行番号、関数名、チェックサムが等しい関数
+   グラフとして多くのノートに現れます。それらの実行回数を合計します。
+*/
+public final class MergedFunction {
+
+    /** ソースファイルのパスです。 */
+    private String sourceFile;
+
+    /** 関数が始まる行番号です。 */
+    private int lineNumber;
+
+    /** 関数名です。 */
+    private String functionName;
+
+    /** チェックサムです。 */
+    private int checksum;
+
+    /** 複雑度です。 */
+    private int complexity;
+
+    /** 統合した関数グラフの個数です。 */
+    private int instances;
+
+    /** 関数が呼ばれた回数の合計です。 */
+    private long calledCount;
+
+    /** 関数が戻った回数の合計です。 */
+    private long returnedCount;
+
+    /** ブロック毎の実行回数の合計です。 */
+    private long[] blockCounts;
+
+    /**
+       関数グラフからインスタンスを生成します。関数グラフの実行回数は
+       加算しません。
+
+       @param fg 関数グラフ
+    */
+    public MergedFunction(final FunctionGraph fg) {
+	sourceFile = fg.getSourceFile();
+	lineNumber = fg.getLineNumber();
+	functionName = fg.getFunctionName();
+	checksum = fg.getChecksum();
+	complexity = fg.getComplexity();
+	blockCounts = new long[fg.getBlockCount()];
+    }
+
+    /**
+       関数を識別するキーを取得します。
+
+       @param fg 関数グラフ
+       @return キー
+    */
+    public static String getKey(final FunctionGraph fg) {
+	return String.format("%s:%d:%s:%x", fg.getSourceFile(),
+			     fg.getLineNumber(), fg.getFunctionName(),
+			     fg.getChecksum());
+    }
+
+    /**
+       関数グラフの実行回数を加算します。
+
+       複数のスレッドから同時に呼び出すことができます。
+
+       @param fg 関数グラフ
+    */
+    public synchronized void add(final FunctionGraph fg) {
+	++instances;
+	long[] counts = fg.getBlockCounts();
+	if (counts == null) {
+	    return;
+	}
+	calledCount += fg.getCalledCount();
+	returnedCount += fg.getReturnedCount();
+	int n = Math.min(counts.length, blockCounts.length);
+	for (int k = 0; k < n; ++k) {
+	    blockCounts[k] += counts[k];
+	}
+    }
+
+    /**
+       ソースファイルのパスを取得します。
+
+       @return ソースファイルのパス
+    */
+    public String getSourceFile() {
+	return sourceFile;
+    }
+
+    /**
+       関数が始まる行番号を取得します。
+
+       @return 行番号
+    */
+    public int getLineNumber() {
+	return lineNumber;
+    }
+
+    /**
+       関数名を取得します。
+
+       @return 関数名
+    */
+    public String getFunctionName() {
+	return functionName;
+    }
+
+    /**
+       チェックサムを取得します。
+
+       @return チェックサム
+    */
+    public int getChecksum() {
+	return checksum;
+    }
+
+    /**
+       実行されたブロックの個数を取得します。
+
+       @return 実行されたブロックの個数
+    */
+    private int getExecutedBlockCount() {
+	int n = 0;
+	for (long c : blockCounts) {
+	    if (c > 0) {
+		++n;
+	    }
+	}
+	return n;
+    }
+
+    /**
+       統合した関数をXML形式で出力します。
+
+       @param out 出力先
+    */
+    public synchronized void printXML(final PrintWriter out) {
+	out.printf("<mergedFunction checksum='0x%x' functionName='%s'"
+		   + " sourceFile='%s' lineNumber='%d' complexity='%d'"
+		   + " instances='%d' called='%d' returned='%d'"
+		   + " executedBlocks='%d' allBlocks='%d'/>\n",
+		   checksum, XML.escape(functionName),
+		   XML.escape(sourceFile), lineNumber, complexity,
+		   instances, calledCount, returnedCount,
+		   getExecutedBlockCount(), blockCounts.length);
+    }
+}
@@ -0,0 +1,102 @@
+package com.maroontress.coverture;
+
+import java.util.TreeSet;
+
+/**
+   複数のノートにまたがって集計した、ひとつの関数のカバレッジです。
+*/
+public final class MethodCoverage {
+
+    /** 関数名です。 */
+    private String name;
+
+    /** 関数が始まる行番号です。 */
+    private int lineNumber;
+
+    /** 関数が呼ばれた回数の合計です。 */
+    private long calledCount;
+
+    /** 複雑度です。 */
+    private int complexity;
+
+    /** 関数を構成する実行可能な行番号のセットです。 */
+    private TreeSet<Integer> lines;
+
+    /**
+       インスタンスを生成します。
+
+       @param name 関数名
+       @param lineNumber 関数が始まる行番号
+       @param complexity 複雑度
+    */
+    public MethodCoverage(final String name, final int lineNumber,
+			  final int complexity) {
+	this.name = name;
+	this.lineNumber = lineNumber;
+	this.complexity = complexity;
+	lines = new TreeSet<Integer>();
+    }
+
+    /**
+       呼ばれた回数を加算します。
+
+       @param delta 呼ばれた回数
+    */
+    public void addCalledCount(final long delta) {
+	calledCount += delta;
+    }
+
+    /**
+       関数を構成する行番号を追加します。
+
+       @param num 行番号
+    */
+    public void addLine(final int num) {
+	lines.add(num);
+    }
+
+    /**
+       関数名を取得します。
+
+       @return 関数名
+    */
+    public String getName() {
+	return name;
+    }
+
+    /**
+       関数が始まる行番号を取得します。
+
+       @return 関数が始まる行番号
+    */
+    public int getLineNumber() {
+	return lineNumber;
+    }
+
+    /**
+       関数が呼ばれた回数の合計を取得します。
+
+       @return 関数が呼ばれた回数
+    */
+    public long getCalledCount() {
+	return calledCount;
+    }
+
+    /**
+       複雑度を取得します。
+
+       @return 複雑度
+    */
+    public int getComplexity() {
+	return complexity;
+    }
+
+    /**
+       関数を構成する行番号のセットを取得します。
+
+       @return 行番号のセット
+    */
+    public Iterable<Integer> getLines() {
+	return lines;
+    }
+}
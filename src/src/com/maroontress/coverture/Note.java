@@ -2,50 +2,227 @@ package com.maroontress.coverture;
 
 import com.maroontress.gcovparser.AbstractNote;
 import com.maroontress.gcovparser.CorruptedFileException;
+import com.maroontress.gcovparser.ProfilingEvent;
+import com.maroontress.gcovparser.ProfilingEvents;
+import com.maroontress.gcovparser.SourceFilter;
+import com.maroontress.gcovparser.SourceScanner;
 import com.maroontress.gcovparser.gcno.FunctionGraphRecord;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 
 /**
-   gcnoեѡ̤ݻޤ
+   gcnoファイルをパースした結果を保持します。
 */
 public final class Note extends AbstractNote<FunctionGraph> {
 
-    /** Ϣ륽ɤΥꥹȤǤ */
+    /** 関連するソースコードのリストです。 */
     private SourceList sourceList;
 
+    /** ソースファイルのフィルタ、またはnullです。 */
+    private SourceFilter sourceFilter;
+
+    /** 統計のレコーダ、またはnullです。 */
+    private StatisticsRecorder recorder;
+
+    /** 入出力プロパティです。 */
+    private IOProperties prop;
+
+    /** マップしたgcnoファイルとgcdaファイルのバイト数の合計です。 */
+    private long mappedSize;
+
     /**
-       󥹥󥹤ޤ
+       インスタンスを生成します。
 
-       @param path gcnoեΥѥ
+       @param path gcnoファイルのパス
+       @param filter ソースファイルのフィルタ、またはnull
     */
-    private Note(final String path) {
+    private Note(final String path, final SourceFilter filter) {
 	super(path);
 	sourceList = new SourceList();
+	sourceFilter = filter;
     }
 
     /** {@inheritDoc} */
     @Override protected FunctionGraph createFunctionGraph(
 	final FunctionGraphRecord e) throws CorruptedFileException {
-	return new FunctionGraph(e);
+	return new FunctionGraph(e, sourceFilter);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void fileMapped(final File file, final long size) {
+	mappedSize += size;
+	if (recorder != null) {
+	    recorder.lap(Phase.MAP);
+	    recorder.addBytesRead(size);
+	}
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void warning(final String message) {
+	prop.report(new Problem(ProblemKind.WARNING,
+				getOrigin().getNoteFile().getPath(), message));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void noteDecoded() {
+	if (recorder != null) {
+	    recorder.lap(Phase.NOTE);
+	}
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void dataDecoded() {
+	if (recorder != null) {
+	    recorder.lap(Phase.DATA);
+	}
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void flowGraphsSolved() {
+	if (recorder != null) {
+	    recorder.lap(Phase.SOLVE);
+	}
     }
 
     /**
-       gcovߴΥեΥХåޤ
+       マップしたgcnoファイルとgcdaファイルのバイト数の合計を取得しま
+       す。
 
-       @param prop ϥץѥƥ
+       @return バイト数
+    */
+    public long getMappedSize() {
+	return mappedSize;
+    }
+
+    /**
+       gcov互換のソースファイルのカバレッジを生成します。
+
+       @param prop 入出力プロパティ
     */
     public void createSourceList(final IOProperties prop) {
 	sourceList.outputFiles(getOrigin(), getRuns(), getPrograms(), prop);
     }
 
     /**
-       եΥꥹȤ򹹿ޤgcdaեѡ
-       ˸ƤӽФɬפޤ
+       ノートが参照するソースのコレクションを取得します。gcdaファイル
+       をパースしていない場合は空になります。
+
+       @return ソースのコレクション
+    */
+    public Collection<Source> getSources() {
+	return sourceList.getSources();
+    }
+
+    /**
+       ノートのカバレッジ結果をLCOVのトレースファイルの形式で出力しま
+       す。
+
+       @param out 出力先
+    */
+    public void printLcov(final PrintWriter out) {
+	sourceList.printLcov(out);
+    }
+
+    /**
+       gcnoファイルのバージョンをgccのバージョンを表す文字列に変換しま
+       す。
+
+       @return gccのバージョン
+    */
+    private String getGccVersion() {
+	int v = getVersion();
+	char major = (char) ((v >>> 24) & 0xff);
+	char minor1 = (char) ((v >>> 16) & 0xff);
+	char minor2 = (char) ((v >>> 8) & 0xff);
+	int minor = (minor1 - '0') * 10 + (minor2 - '0');
+	if (major < '0' || minor < 0) {
+	    return String.format("0x%x", v);
+	}
+	int m = (major <= '9') ? major - '0' : major - 'A' + 10;
+	return String.format("%d.%d", m, minor);
+    }
+
+    /**
+       ノートのカバレッジ結果をgcovの中間形式（JSON）で出力します。
+
+       @param out 出力先
+    */
+    public void printJson(final PrintWriter out) {
+	out.printf("{\"format_version\":\"1\",\"gcc_version\":\"%s\","
+		   + "\"current_working_directory\":\"%s\","
+		   + "\"data_file\":\"%s\",\"files\":[",
+		   getGccVersion(),
+		   JSON.escape(System.getProperty("user.dir")),
+		   JSON.escape(getOrigin().getDataFile().getPath()));
+	sourceList.printJson(out);
+	out.printf("]}\n");
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルを生成します。
+
+       @param prop 入出力プロパティ
+       @throws IOException 入出力エラー
+    */
+    public void createJsonFile(final IOProperties prop) throws IOException {
+	String path = getOrigin().getIntermediateFilePath();
+	PrintWriter out = new PrintWriter(prop.createJsonWriter(path));
+	try {
+	    printJson(out);
+	} finally {
+	    out.close();
+	}
+	File file = prop.createJsonFile(path);
+	if (recorder != null) {
+	    recorder.addBytesWritten(file.length());
+	}
+	if (prop.isVerbose()) {
+	    prop.getMessageStream().printf("%s: created.%n", file.getPath());
+	}
+    }
+
+    /**
+       ノートのXMLを、出力ディレクトリのノート毎のXMLファイルに出力し
+       ます。
+
+       XMLファイルはnote要素をルートとする文書になります。
+
+       @param prop 入出力プロパティ
+       @return 出力ディレクトリを基点としたXMLファイルのパス
+       @throws IOException 入出力エラー
+    */
+    public String createXMLFile(final IOProperties prop) throws IOException {
+	String path = getOrigin().getXMLFilePath();
+	File file = prop.createOutputFile(path);
+	PrintWriter out = new PrintWriter(
+	    new BufferedWriter(new FileWriter(file)));
+	try {
+	    printXML(out, !prop.isFunctionMergingEnabled());
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+	if (recorder != null) {
+	    recorder.addBytesWritten(file.length());
+	}
+	if (prop.isVerbose()) {
+	    prop.getMessageStream().printf("%s: created.%n", file.getPath());
+	}
+	return path;
+    }
+
+    /**
+       ソースファイルのリストを更新します。gcdaファイルをパースした後
+       に呼び出す必要があります。
     */
     private void updateSourceList() {
 	Collection<FunctionGraph> all = getFunctionGraphCollection();
@@ -55,69 +232,170 @@ public final class Note extends AbstractNote<FunctionGraph> {
     }
 
     /**
-       ΡȤXMLǽϤޤ
+       ノートをXML形式で出力します。
 
-       @param out 
+       @param out 出力先
     */
     public void printXML(final PrintWriter out) {
+	printXML(out, true);
+    }
+
+    /**
+       ノートをXML形式で出力します。関数グラフを出力しない場合は、ソー
+       スファイルのリストのサマリだけを出力します。
+
+       @param out 出力先
+       @param withFunctionGraphs 関数グラフを出力する場合はtrue
+    */
+    public void printXML(final PrintWriter out,
+			 final boolean withFunctionGraphs) {
 	File file = getOrigin().getNoteFile();
 	out.printf("<note file='%s' version='0x%x' stamp='0x%x'"
 		   + " lastModified='%d'>\n",
 		   XML.escape(file.getPath()), getVersion(), getStamp(),
 		   file.lastModified());
 	sourceList.printXML(out);
-	Collection<FunctionGraph> all = getFunctionGraphCollection();
-	for (FunctionGraph g : all) {
-	    g.printXML(out);
+	if (withFunctionGraphs) {
+	    Collection<FunctionGraph> all = getFunctionGraphCollection();
+	    for (FunctionGraph g : all) {
+		g.printXML(out);
+	    }
 	}
 	out.printf("</note>\n");
     }
 
     /**
-       gcnoեѡơΡȤޤgcnoե
-       gcdaե뤬ѤǤϡgcdaեѡơ
-       ΡȤ˥󥿤ɲäޤ
+       変更された行を含まない関数グラフを取り除きます。
 
-       gcnoե롢gcdaե붦ˡͥޥåפΤǡ2G
-       ȤĶեϰޤ
+       @param changeSet 変更された行の集合
+       @return 関数グラフが残った場合はtrue、そうでなければfalse
+    */
+    private boolean retainFunctionGraphs(final ChangeSet changeSet) {
+	Iterator<FunctionGraph> i = getFunctionGraphCollection().iterator();
+	while (i.hasNext()) {
+	    if (!i.next().touches(changeSet)) {
+		i.remove();
+	    }
+	}
+	return !getFunctionGraphCollection().isEmpty();
+    }
+
+    /**
+       gcnoファイルをパースして、ノートを生成します。gcnoファイルに対
+       応するgcdaファイルが利用できる場合は、gcdaファイルをパースして、
+       ノートにアークカウンタを追加します。
 
-       եƤʾϡɸ२顼Ϥ˥åȥ졼
-       Ϥơnull֤ޤ
+       gcnoファイル、gcdaファイル共に、チャネルをマップするので、2Gバ
+       イトを超えるファイルは扱えません。
 
-       @param path gcnoեΥѥ
-       @return Ρ
-       @throws IOException ϥ顼
+       ファイルが見つからない場合や内容が不正な場合は、入出力プロパティ
+       に問題を報告して、nullを返します。gcdaファイルの場合は、カウン
+       タのないノートを返します。
+
+       入出力プロパティに変更された行の集合が設定されている場合は、変
+       更されたソースファイルを参照しないgcnoファイルはパースせずに
+       nullを返します。また、変更された行を含まない関数グラフはノート
+       から取り除きます。
+
+       入出力プロパティにソースファイルのフィルタが設定されている場合
+       は、フィルタが受け入れないソースファイルの行番号を無視します。
+       ノートレコードのキャッシュが設定されている場合は、更新されてい
+       ないgcnoファイルをデコードしません。
+
+       入出力プロパティに統計が設定されている場合は、現在のスレッドの
+       レコーダに段階毎の処理時間と入力したバイト数を記録します。ノー
+       トを生成した場合は、プロファイリングのイベントも記録します。
+
+       @param path gcnoファイルのパス
+       @param prop 入出力プロパティ
+       @return ノート
+       @throws IOException 入出力エラー
     */
-    public static Note parse(final String path) throws IOException {
+    public static Note parse(final String path, final IOProperties prop)
+	throws IOException {
+	ProfilingEvent event = ProfilingEvents.begin(ProfilingEvents.NOTE,
+						     path);
+	Note note = parseFiles(path, prop);
+	if (note != null) {
+	    event.setSize(note.mappedSize);
+	    note.setGraphCounts(event);
+	    event.commit();
+	}
+	return note;
+    }
+
+    /**
+       gcnoファイルとgcdaファイルをパースして、ノートを生成します。
+
+       @param path gcnoファイルのパス
+       @param prop 入出力プロパティ
+       @return ノート
+       @throws IOException 入出力エラー
+       @see #parse(String, IOProperties)
+    */
+    private static Note parseFiles(final String path, final IOProperties prop)
+	throws IOException {
 	if (!path.endsWith(".gcno")) {
-	    System.err.printf("%s: suffix is not '.gcno'.%n", path);
+	    prop.report(new Problem(ProblemKind.NOT_NOTE_FILE, path,
+				    "suffix is not '.gcno'."));
 	    return null;
 	}
-	Note note = new Note(path);
+	ChangeSet changeSet = prop.getChangeSet();
+	Note note = new Note(path, prop.getSourceFilter());
+	note.prop = prop;
+	note.recorder = prop.getStatisticsRecorder();
+	if (note.recorder != null) {
+	    note.recorder.start();
+	}
 	try {
-	    note.parseNote();
+	    if (changeSet != null
+		&& !changeSet.touches(SourceScanner.scan(new File(path)))) {
+		if (prop.isVerbose()) {
+		    prop.getMessageStream().printf(
+			"%s: skipped: no changed sources.%n", path);
+		}
+		return null;
+	    }
+	    note.parseNote(prop.getNoteCache());
 	} catch (CorruptedFileException e) {
-	    e.printStackTrace();
+	    prop.report(new Problem(ProblemKind.CORRUPTED, path,
+				    e.getMessage(), e));
 	    return null;
 	} catch (FileNotFoundException e) {
-	    System.err.printf("%s: not found.%n", path);
+	    prop.report(new Problem(ProblemKind.NOT_FOUND, path,
+				    "not found."));
 	    return null;
 	}
+	boolean dataParsed = false;
 	try {
 	    note.parseData();
+	    dataParsed = true;
 	} catch (CorruptedFileException e) {
-	    e.printStackTrace();
-	    return note;
+	    prop.report(new Problem(ProblemKind.CORRUPTED, path,
+				    e.getMessage(), e));
 	} catch (FileNotFoundException e) {
 	    File dataFile = note.getOrigin().getDataFile();
-	    System.err.printf("%s: not found.%n", dataFile.getPath());
-	    return note;
+	    prop.report(new Problem(ProblemKind.NOT_FOUND, dataFile.getPath(),
+				    "not found."));
+	}
+	if (changeSet != null && !note.retainFunctionGraphs(changeSet)) {
+	    if (prop.isVerbose()) {
+		prop.getMessageStream().printf(
+		    "%s: skipped: no changed functions.%n", path);
+	    }
+	    return null;
+	}
+	if (dataParsed) {
+	    note.updateSourceList();
+	}
+	if (note.recorder != null) {
+	    note.recorder.lap(Phase.LINES);
+	    note.recorder.addFile();
 	}
-	note.updateSourceList();
 	return note;
     }
 
-    /** ꥸӤ륳ѥ졼Ǥ */
+    /** オリジンで比較するコンパレータです。 */
     private static Comparator<Note> originComparator;
 
     static {
@@ -130,12 +408,12 @@ public final class Note extends AbstractNote<FunctionGraph> {
     }
 
     /**
-       ꥸӤ륳ѥ졼֤ޤ
+       オリジンで比較するコンパレータを返します。
 
-       @return ꥸӤ륳ѥ졼
+       @return オリジンで比較するコンパレータ
     */
     public static Comparator<Note> getOriginComparator() {
-	// ComparableƤ⤤...
+	// Comparableを実装してもいいけど...
 	return originComparator;
     }
 }
@@ -0,0 +1,215 @@
+package com.maroontress.coverture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+   データを固定長のブロックに分割し、ブロック毎に複数のスレッドで
+   gzip圧縮して出力するストリームです。
+
+   pigzと同様に、ブロック毎に独立したgzipのメンバを生成して、入力し
+   た順番に連結して出力します。連結したメンバはgunzipで元のデータに
+   伸長できます。
+*/
+public final class ParallelGzipOutputStream extends OutputStream {
+
+    /** デフォルトのブロックのバイト長です。 */
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** スレッド毎に先行して圧縮できるブロックの個数です。 */
+    private static final int BLOCKS_PER_THREAD = 2;
+
+    /** 出力先のストリームです。 */
+    private OutputStream out;
+
+    /** 圧縮するスレッドのスレッドプールです。 */
+    private ExecutorService executor;
+
+    /** 圧縮中のブロックのキューです。 */
+    private LinkedList<Future<byte[]>> queue;
+
+    /** キューに入れることができるブロックの個数です。 */
+    private int maxQueueSize;
+
+    /** 圧縮するブロックのバッファです。 */
+    private byte[] buffer;
+
+    /** バッファに書き込んだバイト長です。 */
+    private int length;
+
+    /** ストリームを閉じたかどうかのフラグです。 */
+    private boolean closed;
+
+    /**
+       スレッドの個数を指定して、ストリームを生成します。
+
+       @param out 出力先のストリーム
+       @param threads スレッドの個数
+    */
+    public ParallelGzipOutputStream(final OutputStream out,
+				    final int threads) {
+	this.out = out;
+	executor = Executors.newFixedThreadPool(threads);
+	queue = new LinkedList<Future<byte[]>>();
+	maxQueueSize = threads * BLOCKS_PER_THREAD;
+	buffer = new byte[DEFAULT_BLOCK_SIZE];
+	length = 0;
+	closed = false;
+    }
+
+    /**
+       利用可能なプロセッサの個数のスレッドで圧縮するストリームを生成
+       します。
+
+       @param out 出力先のストリーム
+    */
+    public ParallelGzipOutputStream(final OutputStream out) {
+	this(out, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+       ブロックをgzipのメンバに圧縮します。
+
+       @param b ブロック
+       @param len ブロックのバイト長
+       @return gzipのメンバ
+       @throws IOException 入出力エラー
+    */
+    private static byte[] compress(final byte[] b, final int len)
+	throws IOException {
+	ByteArrayOutputStream s = new ByteArrayOutputStream(len / 2);
+	GZIPOutputStream z = new GZIPOutputStream(s);
+	z.write(b, 0, len);
+	z.close();
+	return s.toByteArray();
+    }
+
+    /**
+       キューの先頭のブロックの圧縮が終わるのを待って、出力先に書き込
+       みます。
+
+       @throws IOException 入出力エラー
+    */
+    private void writeHead() throws IOException {
+	Future<byte[]> future = queue.removeFirst();
+	try {
+	    out.write(future.get());
+	} catch (ExecutionException e) {
+	    Throwable t = e.getCause();
+	    if (t instanceof IOException) {
+		throw (IOException) t;
+	    }
+	    throw new IOException("compression failed.", t);
+	} catch (InterruptedException e) {
+	    throw new RuntimeException("internal error.", e);
+	}
+    }
+
+    /**
+       バッファのブロックの圧縮をスレッドプールに送信します。キューが
+       一杯のときは、先頭のブロックを書き込むまでブロックします。
+
+       @throws IOException 入出力エラー
+    */
+    private void submitBlock() throws IOException {
+	if (length == 0) {
+	    return;
+	}
+	final byte[] b = buffer;
+	final int len = length;
+	queue.addLast(executor.submit(new Callable<byte[]>() {
+	    public byte[] call() throws IOException {
+		return compress(b, len);
+	    }
+	}));
+	buffer = new byte[b.length];
+	length = 0;
+	while (queue.size() > maxQueueSize) {
+	    writeHead();
+	}
+    }
+
+    /**
+       ストリームを閉じていればIOExceptionをスローします。
+
+       @throws IOException ストリームを閉じている
+    */
+    private void ensureOpen() throws IOException {
+	if (closed) {
+	    throw new IOException("stream closed.");
+	}
+    }
+
+    /** {@inheritDoc} */
+    public void write(final int b) throws IOException {
+	ensureOpen();
+	buffer[length] = (byte) b;
+	++length;
+	if (length == buffer.length) {
+	    submitBlock();
+	}
+    }
+
+    /** {@inheritDoc} */
+    public void write(final byte[] b, final int off, final int len)
+	throws IOException {
+	ensureOpen();
+	int offset = off;
+	int rest = len;
+	while (rest > 0) {
+	    int n = Math.min(rest, buffer.length - length);
+	    System.arraycopy(b, offset, buffer, length, n);
+	    length += n;
+	    offset += n;
+	    rest -= n;
+	    if (length == buffer.length) {
+		submitBlock();
+	    }
+	}
+    }
+
+    /**
+       圧縮が終わったブロックを出力先に書き込みます。
+
+       バッファに残っているデータは、ブロックの大きさになるか、ストリー
+       ムを閉じるまで圧縮しません。
+
+       @throws IOException 入出力エラー
+    */
+    public void flush() throws IOException {
+	ensureOpen();
+	while (!queue.isEmpty() && queue.getFirst().isDone()) {
+	    writeHead();
+	}
+	out.flush();
+    }
+
+    /**
+       残りのデータを圧縮して書き込み、出力先のストリームを閉じます。
+
+       @throws IOException 入出力エラー
+    */
+    public void close() throws IOException {
+	if (closed) {
+	    return;
+	}
+	try {
+	    submitBlock();
+	    while (!queue.isEmpty()) {
+		writeHead();
+	    }
+	} finally {
+	    closed = true;
+	    executor.shutdown();
+	    out.close();
+	}
+    }
+}
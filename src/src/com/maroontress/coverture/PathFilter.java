@@ -0,0 +1,136 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.SourceFilter;
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+   インクルード/エクスクルードのパターンでソースファイルを選択するフィ
+   ルタです。
+
+   パターンはグロブで、「*」と「?」はパスコンポーネントの区切り文字
+   以外の文字に、「**」は任意の文字列にマッチします。パターンはパス
+   そのもの、またはパスの祖先のディレクトリにマッチすればマッチした
+   ものとみなします。
+
+   インクルードのパターンがない場合は、エクスクルードのパターンにマッ
+   チしないすべてのパスを受け入れます。インクルードのパターンがある
+   場合は、インクルードのパターンのいずれかにマッチし、エクスクルー
+   ドのパターンのいずれにもマッチしないパスを受け入れます。
+
+   すべてのパターンは生成時にひとつの正規表現にコンパイルし、判定結
+   果はパス毎にキャッシュします。
+*/
+public final class PathFilter implements SourceFilter {
+
+    /** インクルードのパターン、またはnullです。 */
+    private Pattern include;
+
+    /** エクスクルードのパターン、またはnullです。 */
+    private Pattern exclude;
+
+    /** パスと判定結果のキャッシュです。 */
+    private ConcurrentHashMap<String, Boolean> cache;
+
+    /**
+       フィルタを生成します。
+
+       @param includes インクルードのパターンのコレクション
+       @param excludes エクスクルードのパターンのコレクション
+    */
+    public PathFilter(final Collection<String> includes,
+		      final Collection<String> excludes) {
+	include = compile(includes);
+	exclude = compile(excludes);
+	cache = new ConcurrentHashMap<String, Boolean>();
+    }
+
+    /**
+       グロブのパターンを正規表現に変換します。
+
+       @param glob グロブのパターン
+       @return 正規表現
+    */
+    private static String toRegex(final String glob) {
+	String s = glob.replace(File.separatorChar, '/');
+	StringBuilder b = new StringBuilder();
+	int n = s.length();
+	for (int k = 0; k < n; ++k) {
+	    char c = s.charAt(k);
+	    switch (c) {
+	    case '*':
+		if (k + 1 < n && s.charAt(k + 1) == '*') {
+		    ++k;
+		    if (k + 1 < n && s.charAt(k + 1) == '/') {
+			++k;
+			b.append("(?:.*/)?");
+		    } else {
+			b.append(".*");
+		    }
+		} else {
+		    b.append("[^/]*");
+		}
+		break;
+	    case '?':
+		b.append("[^/]");
+		break;
+	    default:
+		if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+		    b.append('\\');
+		}
+		b.append(c);
+		break;
+	    }
+	}
+	return b.toString();
+    }
+
+    /**
+       グロブのパターンのコレクションをひとつの正規表現にコンパイルし
+       ます。
+
+       @param globs グロブのパターンのコレクション
+       @return コンパイルしたパターン、またはコレクションが空の場合は
+       null
+    */
+    private static Pattern compile(final Collection<String> globs) {
+	if (globs.isEmpty()) {
+	    return null;
+	}
+	StringBuilder b = new StringBuilder("(?:");
+	String sep = "";
+	for (String g : globs) {
+	    b.append(sep);
+	    b.append(toRegex(g));
+	    sep = "|";
+	}
+	b.append(")(?:/.*)?");
+	return Pattern.compile(b.toString());
+    }
+
+    /**
+       パスを判定します。
+
+       @param path パス
+       @return 受け入れる場合はtrue、そうでなければfalse
+    */
+    private boolean match(final String path) {
+	String s = path.replace(File.separatorChar, '/');
+	if (include != null && !include.matcher(s).matches()) {
+	    return false;
+	}
+	return exclude == null || !exclude.matcher(s).matches();
+    }
+
+    /** {@inheritDoc} */
+    public boolean accept(final String path) {
+	Boolean b = cache.get(path);
+	if (b == null) {
+	    b = match(path);
+	    cache.put(path, b);
+	}
+	return b;
+    }
+}
@@ -0,0 +1,52 @@
+package com.maroontress.coverture;
+
+/**
+   統計を集計する処理の段階です。
+*/
+public enum Phase {
+
+    /** gcnoファイルとgcdaファイルのマップです。 */
+    MAP("map"),
+
+    /** gcnoファイルのデコードと関数グラフの生成です。 */
+    NOTE("gcno"),
+
+    /** gcdaファイルのデコードです。 */
+    DATA("gcda"),
+
+    /** フローグラフの解決です。 */
+    SOLVE("solve"),
+
+    /** ソースファイル毎の行のカウントの集計です。 */
+    LINES("lines"),
+
+    /** gcovファイルの出力です。 */
+    GCOV("gcov"),
+
+    /** XMLの出力です。 */
+    XML("xml"),
+
+    /** JSON、LCOV、Coberturaの出力と関数の統合です。 */
+    OTHER("other");
+
+    /** 表示する名前です。 */
+    private String label;
+
+    /**
+       段階を生成します。
+
+       @param label 表示する名前
+    */
+    private Phase(final String label) {
+	this.label = label;
+    }
+
+    /**
+       表示する名前を取得します。
+
+       @return 表示する名前
+    */
+    public String getLabel() {
+	return label;
+    }
+}
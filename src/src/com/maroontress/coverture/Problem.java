@@ -0,0 +1,95 @@
+package com.maroontress.coverture;
+
+/**
+   ファイルを処理する途中で発生した問題です。
+
+   問題の種類、問題が発生したファイルのパス、メッセージ、原因の例外
+   を保持します。
+*/
+public final class Problem {
+
+    /** 問題の種類です。 */
+    private ProblemKind kind;
+
+    /** 問題が発生したファイルのパス、またはnullです。 */
+    private String path;
+
+    /** メッセージです。 */
+    private String message;
+
+    /** 原因の例外、またはnullです。 */
+    private Throwable cause;
+
+    /**
+       インスタンスを生成します。
+
+       @param kind 問題の種類
+       @param path 問題が発生したファイルのパス、またはnull
+       @param message メッセージ
+       @param cause 原因の例外、またはnull
+    */
+    public Problem(final ProblemKind kind, final String path,
+		   final String message, final Throwable cause) {
+	this.kind = kind;
+	this.path = path;
+	this.message = message;
+	this.cause = cause;
+    }
+
+    /**
+       原因の例外のない問題を生成します。
+
+       @param kind 問題の種類
+       @param path 問題が発生したファイルのパス、またはnull
+       @param message メッセージ
+    */
+    public Problem(final ProblemKind kind, final String path,
+		   final String message) {
+	this(kind, path, message, null);
+    }
+
+    /**
+       問題の種類を取得します。
+
+       @return 問題の種類
+    */
+    public ProblemKind getKind() {
+	return kind;
+    }
+
+    /**
+       問題が発生したファイルのパスを取得します。
+
+       @return ファイルのパス、またはnull
+    */
+    public String getPath() {
+	return path;
+    }
+
+    /**
+       メッセージを取得します。
+
+       @return メッセージ
+    */
+    public String getMessage() {
+	return message;
+    }
+
+    /**
+       原因の例外を取得します。
+
+       @return 原因の例外、またはnull
+    */
+    public Throwable getCause() {
+	return cause;
+    }
+
+    /**
+       パスとメッセージをコロンで区切った文字列を返します。
+
+       @return 文字列
+    */
+    @Override public String toString() {
+	return (path == null) ? message : path + ": " + message;
+    }
+}
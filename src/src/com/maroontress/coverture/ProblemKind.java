@@ -0,0 +1,50 @@
+package com.maroontress.coverture;
+
+/**
+   ファイルを処理する途中で発生した問題の種類です。
+*/
+public enum ProblemKind {
+
+    /** ファイルの拡張子が.gcnoではありません。 */
+    NOT_NOTE_FILE(false),
+
+    /** 入力するファイルが見つかりません。 */
+    NOT_FOUND(false),
+
+    /** ファイルの構造が壊れています。 */
+    CORRUPTED(true),
+
+    /** 出力するファイルを開けません。 */
+    CANT_OPEN(false),
+
+    /** 入出力エラーです。 */
+    IO_ERROR(true),
+
+    /** 処理は続けられますが、結果が正確ではない可能性があります。 */
+    WARNING(false),
+
+    /** 予期しない例外です。 */
+    UNEXPECTED(true);
+
+    /** 原因の例外のスタックトレースを表示するかどうかのフラグです。 */
+    private boolean traced;
+
+    /**
+       問題の種類を生成します。
+
+       @param traced 原因の例外のスタックトレースを表示する場合はtrue
+    */
+    private ProblemKind(final boolean traced) {
+	this.traced = traced;
+    }
+
+    /**
+       問題を表示するときに、原因の例外のスタックトレースを表示するか
+       どうかを取得します。
+
+       @return スタックトレースを表示する場合はtrue
+    */
+    public boolean isTraced() {
+	return traced;
+    }
+}
@@ -0,0 +1,16 @@
+package com.maroontress.coverture;
+
+/**
+   ファイルを処理する途中で発生した問題を受け取るインタフェイスです。
+
+   複数のスレッドから同時に呼び出されることがあります。
+*/
+public interface ProblemListener {
+
+    /**
+       問題を受け取ります。
+
+       @param problem 問題
+    */
+    void report(Problem problem);
+}
@@ -0,0 +1,35 @@
+package com.maroontress.coverture;
+
+import java.io.PrintStream;
+
+/**
+   問題を出力ストリームに表示するリスナです。
+
+   問題の種類がスタックトレースを表示するものであれば原因の例外のス
+   タックトレースを、そうでなければパスとメッセージを1行で表示しま
+   す。
+*/
+public final class ProblemPrinter implements ProblemListener {
+
+    /** 出力先です。 */
+    private PrintStream out;
+
+    /**
+       インスタンスを生成します。
+
+       @param out 出力先
+    */
+    public ProblemPrinter(final PrintStream out) {
+	this.out = out;
+    }
+
+    /** {@inheritDoc} */
+    public void report(final Problem problem) {
+	Throwable cause = problem.getCause();
+	if (cause != null && problem.getKind().isTraced()) {
+	    cause.printStackTrace(out);
+	    return;
+	}
+	out.printf("%s%n", problem);
+    }
+}
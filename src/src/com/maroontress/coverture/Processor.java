@@ -1,69 +1,652 @@
 package com.maroontress.coverture;
 
+import com.maroontress.gcovparser.Origin;
+import com.maroontress.gcovparser.PathEscaper;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
-   եݥ饹Ǥ
+   ファイルを処理する抽象クラスです。
 */
 public abstract class Processor {
 
-    /** ϥץѥƥǤ */
+    /** ノート毎のXMLファイルのマニフェストファイルの名前です。 */
+    private static final String MANIFEST_FILE = "manifest.txt";
+
+    /** ノート毎のXMLファイルと一緒に出力する統合した関数のファイルの名前です。 */
+    private static final String MERGED_FUNCTIONS_FILE = "functions.xml";
+
+    /** XMLの断片をコピーするバッファの文字数です。 */
+    private static final int FRAGMENT_BUFFER_SIZE = 1 << 14;
+
+    /** 入出力プロパティです。 */
     private IOProperties props;
 
     /**
-       󥹥󥹤ޤ
+       逆引きインデックスで選択したgcnoファイルのパスのセットです。逆
+       引きインデックスを使用しない場合はnullです。
+    */
+    private Set<String> selectedNotes;
+
+    /** LCOVのトレースファイルのライタ、またはnullです。 */
+    private LcovWriter lcovWriter;
+
+    /** Cobertura形式のXMLファイルのライタ、またはnullです。 */
+    private CoberturaWriter coberturaWriter;
+
+    /**
+       オリジンと、出力したノート毎のXMLファイルのパスのマップです。
+       ノート毎に出力しない場合はnullです。
+    */
+    private Map<Origin, String> shards;
+
+    /** 同じ関数を統合するアグリゲータ、またはnullです。 */
+    private FunctionAggregator aggregator;
+
+    /** 処理時間が長いgcnoファイルの報告、またはnullです。 */
+    private SlowFileReport slowFiles;
+
+    /**
+       処理したgcnoファイルのパスのセットです。処理した後に更新を監視
+       しない場合はnullです。
+    */
+    private Set<String> watchedNotes;
+
+    /** 処理の結果、またはnullです。 */
+    private CoverageResult result;
+
+    /** 処理を完了したgcnoファイルを記録するジャーナル、またはnullです。 */
+    private Journal journal;
+
+    /**
+       処理した、またはジャーナルから再開したgcnoファイルのオリジンと
+       XMLの断片のファイルのマップです。ジャーナルを使用しない場合は
+       nullです。
+    */
+    private Map<Origin, File> fragments;
+
+    /**
+       インスタンスを生成します。
 
-       @param props ϥץѥƥ
+       @param props 入出力プロパティ
     */
     protected Processor(final IOProperties props) {
 	this.props = props;
     }
 
     /**
-       verbose⡼ɤΤȤ˥ҡץɸ२顼Ϥɽޤ
+       処理したノートを集計する結果を設定します。run(String[], String)
+       の前に呼び出す必要があります。
+
+       @param result 処理の結果、またはnull
+    */
+    public final void setResult(final CoverageResult result) {
+	this.result = result;
+    }
+
+    /**
+       verboseモードのときにヒープサイズをメッセージの出力先に表示しま
+       す。
     */
     private void verifyHeapSize() {
 	if (props.isVerbose()) {
 	    Runtime t = Runtime.getRuntime();
 	    t.gc();
-	    System.err.printf("heap: %d/%d%n", t.freeMemory(), t.maxMemory());
+	    props.getMessageStream().printf("heap: %d/%d%n", t.freeMemory(),
+					    t.maxMemory());
 	}
     }
 
     /**
-       gcovեgcovեϤǥ쥯ȥ
-       ޤ
+       verboseモードのときにパスのエスケープのキャッシュの統計をメッ
+       セージの出力先に表示します。
+    */
+    private void printPathEscaperStatistics() {
+	if (props.isVerbose()) {
+	    PathEscaper e = PathEscaper.getInstance();
+	    props.getMessageStream().printf(
+		"path cache: %d hits, %d misses (%.1f%%)%n",
+		e.getHits(), e.getMisses(), e.getHitRate());
+	}
+    }
+
+    /**
+       統計を出力します。統計のファイルが設定されている場合はJSONでファ
+       イルに、そうでなければ表の形式でメッセージの出力先に出力します。
+
+       @param stats 統計
+       @throws IOException 入出力エラー
+    */
+    private void printStatistics(final Statistics stats) throws IOException {
+	File file = props.getStatisticsFile();
+	if (file == null) {
+	    stats.print(props.getMessageStream());
+	    return;
+	}
+	PrintWriter out = new PrintWriter(
+	    new BufferedWriter(new FileWriter(file)));
+	try {
+	    stats.printJson(out);
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf("%s: created.%n", file.getPath());
+	}
+    }
+
+    /**
+       gcovファイルを生成する場合はgcovファイルを出力するディレクトリ
+       を生成します。
     */
     protected final void makeOutputDir() {
-	if (props.isGcovEnabled()) {
+	if (props.isGcovEnabled() || props.isJsonEnabled()
+	    || props.isShardEnabled()) {
 	    props.makeOutputDir();
 	}
     }
 
     /**
-       gcovեޤ
+       XMLをノート毎のXMLファイルに出力するかどうかを取得します。
+
+       @return ノート毎に出力する場合はtrue
+    */
+    protected final boolean isSharded() {
+	return shards != null;
+    }
+
+    /**
+       出力したノート毎のXMLファイルのパスを、標準出力に出力する場合
+       と同じgcnoファイルのパスの順に、出力ディレクトリのマニフェスト
+       ファイルに出力します。
+
+       マニフェストファイルの各行は、出力ディレクトリを基点とした
+       XMLファイルのパスです。XMLファイルをこの順番で連結してgcno要素
+       で囲むと、標準出力に出力するXMLと同じ内容になります。
+
+       @throws IOException 入出力エラー
+    */
+    private void writeManifest() throws IOException {
+	File file = props.createOutputFile(MANIFEST_FILE);
+	PrintWriter out = new PrintWriter(
+	    new BufferedWriter(new FileWriter(file)));
+	try {
+	    for (String path : shards.values()) {
+		out.printf("%s\n", path);
+	    }
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf("%s: created.%n", file.getPath());
+	}
+    }
+
+    /**
+       XMLを入出力プロパティの出力先（デフォルトは標準出力）に出力す
+       るライタを生成します。
+
+       XMLの出力を圧縮する設定の場合は、複数のスレッドでgzip圧縮しな
+       がら出力するライタを生成します。統計を集計する場合は、出力先に
+       書き込んだバイト数を記録します。
+
+       @return XMLのライタ
+    */
+    protected final PrintWriter createXMLWriter() {
+	OutputStream stream = props.getOutputStream();
+	final Statistics stats = props.getStatistics();
+	if (stats != null) {
+	    stream = new FilterOutputStream(stream) {
+		@Override public void write(final int b) throws IOException {
+		    out.write(b);
+		    stats.getRecorder().addBytesWritten(1);
+		}
+
+		@Override public void write(final byte[] b, final int off,
+					    final int len)
+		    throws IOException {
+		    out.write(b, off, len);
+		    stats.getRecorder().addBytesWritten(len);
+		}
+	    };
+	}
+	if (props.isOutputGzipped()) {
+	    return new PrintWriter(new ParallelGzipOutputStream(stream));
+	}
+	return new PrintWriter(stream);
+    }
+
+    /**
+       gcnoファイルをパースして、ノートを生成します。
+
+       @param name gcnoファイルのパス
+       @return ノート、またはnull
+       @throws IOException 入出力エラー
+       @see Note#parse(String, IOProperties)
+    */
+    private Note parseNote(final String name) throws IOException {
+	return Note.parse(name, props);
+    }
+
+    /**
+       gcnoファイルをパースしてノートを生成し、ノートからレポートを出
+       力します。
+
+       処理時間が長いgcnoファイルを報告する場合は、パースとレポートの
+       出力にかかった時間を記録します。
+
+       複数のスレッドから同時に呼び出すことができます。
+
+       @param name gcnoファイルのパス
+       @return ノート、またはnull
+       @throws IOException 入出力エラー
+    */
+    protected final Note processNote(final String name) throws IOException {
+	if (watchedNotes != null) {
+	    watchedNotes.add(name);
+	}
+	if (journal != null && resume(name)) {
+	    return null;
+	}
+	long start = System.nanoTime();
+	Note note = parseNote(name);
+	if (note == null) {
+	    return null;
+	}
+	outputReports(note);
+	if (journal != null) {
+	    record(name, note);
+	}
+	if (slowFiles != null) {
+	    slowFiles.add(note, System.nanoTime() - start);
+	}
+	return note;
+    }
+
+    /**
+       ノートからgcovファイル、gcovの中間形式（JSON）のファイル、ノー
+       ト毎のXMLファイル、LCOVのトレースファイルのレコードを生成し、
+       Cobertura形式のカバレッジと統合した関数を集計します。
+
+       @param note ノート
+       @throws IOException 入出力エラー
+    */
+    private void outputReports(final Note note) throws IOException {
+	StatisticsRecorder recorder = props.getStatisticsRecorder();
+	if (recorder != null) {
+	    recorder.start();
+	}
+	outputFiles(note, recorder);
+	aggregate(note);
+	lap(recorder, Phase.OTHER);
+    }
+
+    /**
+       すべてのノートから生成するLCOVのトレースファイル、Cobertura形
+       式のカバレッジ、統合した関数、処理の結果にノートを追加します。
+
+       @param note ノート
+       @throws IOException 入出力エラー
+    */
+    private void aggregate(final Note note) throws IOException {
+	if (lcovWriter != null) {
+	    lcovWriter.write(note);
+	}
+	if (coberturaWriter != null) {
+	    coberturaWriter.add(note);
+	}
+	if (aggregator != null) {
+	    aggregator.add(note);
+	}
+	if (result != null) {
+	    result.add(note);
+	}
+    }
+
+    /**
+       ジャーナルに処理を完了したと記録されていて、記録したファイルが
+       変わっていないgcnoファイルの処理を再開します。
+
+       gcovファイルなどのノート毎のファイルは出力し直しません。LCOV
+       のトレースファイル、Cobertura形式のカバレッジ、統合した関数、
+       処理の結果を生成する場合は、gcnoファイルをパースし直してノート
+       を追加します。
+
+       @param name gcnoファイルのパス
+       @return 処理を再開した場合はtrue、処理し直す必要がある場合は
+       false
+       @throws IOException 入出力エラー
+    */
+    private boolean resume(final String name) throws IOException {
+	if (!journal.isCompleted(name)) {
+	    return false;
+	}
+	Origin origin = new Origin(name);
+	File fragment = journal.getFragment(name);
+	if (fragment != null) {
+	    fragments.put(origin, fragment);
+	}
+	if (shards != null) {
+	    shards.put(origin, origin.getXMLFilePath());
+	}
+	if (lcovWriter != null || coberturaWriter != null
+	    || aggregator != null || result != null) {
+	    Note note = parseNote(name);
+	    if (note != null) {
+		aggregate(note);
+	    }
+	}
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf(
+		"%s: skipped: completed in journal.%n", name);
+	}
+	return true;
+    }
+
+    /**
+       ノートから出力したノート毎のファイルを取得します。
+
+       @param note ノート
+       @return ファイルのリスト
+    */
+    private List<File> getOutputFiles(final Note note) {
+	Origin origin = note.getOrigin();
+	List<File> list = new ArrayList<File>();
+	if (props.isGcovEnabled()) {
+	    for (Source s : note.getSources()) {
+		list.add(props.createGcovFile(
+			     props.getCoverageFilePath(origin, s.getPath())));
+	    }
+	}
+	if (shards != null) {
+	    list.add(props.createOutputFile(origin.getXMLFilePath()));
+	}
+	if (props.isJsonEnabled()) {
+	    list.add(props.createJsonFile(origin.getIntermediateFilePath()));
+	}
+	return list;
+    }
+
+    /**
+       処理を完了したgcnoファイルをジャーナルに記録します。
+
+       XMLをノート毎のファイルに出力しない場合は、ノートのXMLを断片
+       のファイルに出力して、一緒に記録します。gcdaファイルがない場合
+       や、出力したはずのファイルがない場合は記録しませんが、断片のファ
+       イルは標準出力に出力するXMLのために出力します。
+
+       @param name gcnoファイルのパス
+       @param note ノート
+       @throws IOException 入出力エラー
+    */
+    private void record(final String name, final Note note)
+	throws IOException {
+	Origin origin = note.getOrigin();
+	File fragment = null;
+	if (shards == null) {
+	    fragment = createFragment(note);
+	    fragments.put(origin, fragment);
+	}
+	File dataFile = origin.getDataFile();
+	if (!dataFile.isFile()) {
+	    return;
+	}
+	JournalEntry e = new JournalEntry(name);
+	e.add(FileStamp.input(origin.getNoteFile()));
+	e.add(FileStamp.input(dataFile));
+	for (File file : getOutputFiles(note)) {
+	    if (!file.isFile()) {
+		return;
+	    }
+	    e.add(FileStamp.output(file));
+	}
+	if (fragment != null) {
+	    e.add(FileStamp.output(fragment));
+	    e.setFragment(fragment);
+	}
+	journal.record(e);
+    }
+
+    /**
+       ノートのXMLを断片のファイルに出力します。
+
+       @param note ノート
+       @return 断片のファイル
+       @throws IOException 入出力エラー
+    */
+    private File createFragment(final Note note) throws IOException {
+	File fragment = journal.createFragmentFile(note.getOrigin());
+	PrintWriter out = new PrintWriter(
+	    new BufferedWriter(new FileWriter(fragment)));
+	try {
+	    printXML(out, note);
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(fragment.getPath() + ": write error.");
+	}
+	return fragment;
+    }
+
+    /**
+       処理を完了したgcnoファイルを記録するかどうかを取得します。
+
+       @return ジャーナルに記録する場合はtrue
+    */
+    protected final boolean isJournaled() {
+	return journal != null;
+    }
+
+    /**
+       処理した、またはジャーナルから再開したgcnoファイルのXMLの断
+       片を出力します。
+
+       @param out 出力先
+       @param name gcnoファイルのパス
+       @throws IOException 入出力エラー
+    */
+    protected final void printFragment(final PrintWriter out,
+				       final String name) throws IOException {
+	File fragment = fragments.get(new Origin(name));
+	if (fragment == null) {
+	    return;
+	}
+	printFragment(out, fragment);
+    }
+
+    /**
+       XMLの断片のファイルの内容を出力します。
 
-       @param note Ρ
+       @param out 出力先
+       @param fragment 断片のファイル
+       @throws IOException 入出力エラー
     */
-    protected final void createSourceList(final Note note) {
+    private static void printFragment(final PrintWriter out,
+				      final File fragment)
+	throws IOException {
+	Reader in = new BufferedReader(new FileReader(fragment));
+	try {
+	    char[] b = new char[FRAGMENT_BUFFER_SIZE];
+	    int n;
+	    while ((n = in.read(b)) > 0) {
+		out.write(b, 0, n);
+	    }
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+       処理した、またはジャーナルから再開したすべてのgcnoファイルの
+       XMLの断片を、gcnoファイルのパスの順に出力します。
+
+       @param out 出力先
+       @throws IOException 入出力エラー
+    */
+    protected final void printFragments(final PrintWriter out)
+	throws IOException {
+	for (File fragment : fragments.values()) {
+	    printFragment(out, fragment);
+	}
+    }
+
+    /**
+       ノートからgcovファイル、gcovの中間形式（JSON）のファイル、ノー
+       ト毎のXMLファイルを生成します。
+
+       @param note ノート
+       @param recorder 統計のレコーダ、またはnull
+       @throws IOException 入出力エラー
+    */
+    private void outputFiles(final Note note,
+			     final StatisticsRecorder recorder)
+	throws IOException {
 	if (props.isGcovEnabled()) {
 	    note.createSourceList(props);
+	    lap(recorder, Phase.GCOV);
+	}
+	if (shards != null) {
+	    shards.put(note.getOrigin(), note.createXMLFile(props));
+	    lap(recorder, Phase.XML);
+	}
+	if (props.isJsonEnabled()) {
+	    note.createJsonFile(props);
+	}
+    }
+
+    /**
+       更新されたgcnoファイルをパースし直して、gcovファイル、gcovの
+       中間形式（JSON）のファイル、ノート毎のXMLファイルを出力し直し
+       ます。
+
+       標準出力のXML、LCOVのトレースファイル、Cobertura形式のXMLファ
+       イル、統合した関数は、すべてのノートから生成するので更新しませ
+       ん。run(String[], String)の後に呼び出す必要があります。
+
+       @param names gcnoファイルのパスのコレクション
+       @throws IOException 入出力エラー
+    */
+    public final void update(final Collection<String> names)
+	throws IOException {
+	for (String name : names) {
+	    Note note = parseNote(name);
+	    if (note != null) {
+		outputFiles(note, null);
+	    }
+	}
+    }
+
+    /**
+       処理したgcnoファイルとgcdaファイルの更新を監視し、更新された
+       ファイルを処理し直します。割り込まれるまで戻りません。
+
+       run(String[], String)の後に呼び出す必要があります。
+
+       @throws IOException 入出力エラー
+       @see Watcher
+    */
+    public final void watch() throws IOException {
+	new Watcher(this, props, watchedNotes).run();
+    }
+
+    /**
+       統計を集計する場合は、前回の計測からの経過時間を段階の処理時間
+       に加算します。
+
+       @param recorder 統計のレコーダ、またはnull
+       @param phase 段階
+    */
+    private static void lap(final StatisticsRecorder recorder,
+			    final Phase phase) {
+	if (recorder != null) {
+	    recorder.lap(phase);
+	}
+    }
+
+    /**
+       ノートをXML形式で出力します。同じ関数を統合する場合は、関数グ
+       ラフを出力しません。
+
+       統計を集計する場合は、出力の時間をXMLの段階に加算します。
+
+       @param out 出力先
+       @param note ノート
+    */
+    protected final void printXML(final PrintWriter out, final Note note) {
+	StatisticsRecorder recorder = props.getStatisticsRecorder();
+	if (recorder != null) {
+	    recorder.start();
+	}
+	note.printXML(out, aggregator == null);
+	lap(recorder, Phase.XML);
+    }
+
+    /**
+       同じ関数を統合する場合は、統合した関数をXML形式で出力します。
+
+       @param out 出力先
+    */
+    protected final void printMergedFunctions(final PrintWriter out) {
+	if (aggregator != null) {
+	    aggregator.printXML(out);
+	}
+    }
+
+    /**
+       統合した関数を、出力ディレクトリのファイルに出力します。
+
+       @throws IOException 入出力エラー
+    */
+    private void writeMergedFunctions() throws IOException {
+	File file = props.createOutputFile(MERGED_FUNCTIONS_FILE);
+	PrintWriter out = new PrintWriter(
+	    new BufferedWriter(new FileWriter(file)));
+	try {
+	    aggregator.printXML(out);
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+	if (props.isVerbose()) {
+	    props.getMessageStream().printf("%s: created.%n", file.getPath());
 	}
     }
 
     /**
-       ե뤫gcnoե̾ΥꥹȤϤgcnoե
-       ޤ
+       ファイルからgcnoファイル名のリストを入力し、そのgcnoファイルを
+       処理します。
 
-       ե̾ϥեξϡɸϤե̾ΥꥹȤ
-       Ϥޤ
+       ファイル名がハイフンの場合は、標準入力からファイル名のリストを
+       入力します。
 
-       @param inputFile ϤꥹȤΥե̾ޤϥϥե
-       @throws IOException ϥ顼
+       @param inputFile 入力するリストのファイル名、またはハイフン
+       @throws IOException 入出力エラー
     */
     private void processFileList(final String inputFile)
 	throws IOException {
@@ -77,55 +660,149 @@ public abstract class Processor {
 	    BufferedReader rd = new BufferedReader(in);
 	    String name;
 	    while ((name = rd.readLine()) != null) {
-		processFile(name);
+		processSelectedFile(name);
 	    }
 	} catch (FileNotFoundException e) {
-	    System.err.printf("%s: not found: %s%n",
-			      inputFile, e.getMessage());
-	    System.exit(1);
+	    props.getMessageStream().printf("%s: not found: %s%n",
+					    inputFile, e.getMessage());
+	    throw new ExitException(1);
 	}
     }
 
     /**
-       gcnoեҤȤĽޤ
+       逆引きインデックスと変更された行の集合から、処理するgcnoファイ
+       ルを選択します。
+    */
+    private void selectNotes() {
+	SourceIndex index = props.getSourceIndex();
+	ChangeSet changeSet = props.getChangeSet();
+	if (index == null || changeSet == null) {
+	    return;
+	}
+	selectedNotes = index.getNotes(changeSet);
+    }
+
+    /**
+       gcnoファイルが逆引きインデックスで選択されていれば処理します。
+
+       逆引きインデックスが扱えないgcnoファイルは常に処理します。
+
+       @param name 入力するgcnoファイルのファイル名
+       @throws IOException 入出力エラー
+    */
+    private void processSelectedFile(final String name) throws IOException {
+	if (selectedNotes != null
+	    && !selectedNotes.contains(name)
+	    && props.getSourceIndex().covers(name)) {
+	    if (props.isVerbose()) {
+		props.getMessageStream().printf(
+		    "%s: skipped: not selected by index.%n", name);
+	    }
+	    return;
+	}
+	processFile(name);
+    }
+
+    /**
+       gcnoファイルをひとつ処理します。
 
-       @param name ϤgcnoեΥե̾
-       @throws IOException ϥ顼
+       @param name 入力するgcnoファイルのファイル名
+       @throws IOException 入出力エラー
     */
     protected abstract void processFile(final String name) throws IOException;
 
     /**
-       gcnoե˸ƤӽФޤ
+       gcnoファイルを処理する前に呼び出します。
 
-       @throws IOException ϥ顼
+       @throws IOException 入出力エラー
     */
     protected abstract void pre() throws IOException;
 
     /**
-       gcnoե˸ƤӽФޤ
+       gcnoファイルを処理した後に呼び出します。
 
-       @throws IOException ϥ顼
+       @throws IOException 入出力エラー
     */
     protected abstract void post() throws IOException;
 
     /**
-       gcnoեޤ
+       gcnoファイルを処理します。
 
-       @param files ե̾
-       @param inputFile ϤꥹȤΥե̾ϥե󡢤ޤnull
-       @throws IOException ϥ顼
+       ファイル名の配列が空で、リストのファイル名がnullの場合は、逆引
+       きインデックスで選択したgcnoファイルを処理します。
+
+       @param files ファイル名の配列
+       @param inputFile 入力するリストのファイル名かハイフン、またはnull
+       @throws IOException 入出力エラー
     */
     public final void run(final String[] files,
 			  final String inputFile) throws IOException {
 	verifyHeapSize();
+	Statistics stats = props.getStatistics();
+	if (stats != null) {
+	    stats.start();
+	}
+	selectNotes();
+	File lcovFile = props.getLcovFile();
+	if (lcovFile != null) {
+	    lcovWriter = new LcovWriter(lcovFile);
+	}
+	File coberturaFile = props.getCoberturaFile();
+	if (coberturaFile != null) {
+	    coberturaWriter = new CoberturaWriter(coberturaFile);
+	}
+	if (props.isShardEnabled()) {
+	    shards = new ConcurrentSkipListMap<Origin, String>();
+	}
+	if (props.isFunctionMergingEnabled()) {
+	    aggregator = new FunctionAggregator();
+	}
+	if (props.getSlowFileCount() > 0) {
+	    slowFiles = new SlowFileReport(props.getSlowFileCount());
+	}
+	if (props.isWatchEnabled()) {
+	    watchedNotes = new ConcurrentSkipListSet<String>();
+	}
+	if (props.getJournalFile() != null) {
+	    journal = new Journal(props);
+	    fragments = new ConcurrentSkipListMap<Origin, File>();
+	}
 	pre();
 	for (String arg : files) {
-	    processFile(arg);
+	    processSelectedFile(arg);
 	}
 	if (inputFile != null) {
 	    processFileList(inputFile);
 	}
+	if (files.length == 0 && inputFile == null && selectedNotes != null) {
+	    for (String name : selectedNotes) {
+		processFile(name);
+	    }
+	}
 	post();
+	if (journal != null) {
+	    journal.close();
+	}
+	if (shards != null) {
+	    writeManifest();
+	    if (aggregator != null) {
+		writeMergedFunctions();
+	    }
+	}
+	if (lcovWriter != null) {
+	    lcovWriter.close();
+	}
+	if (coberturaWriter != null) {
+	    coberturaWriter.close();
+	}
+	if (stats != null) {
+	    stats.stop();
+	    printStatistics(stats);
+	}
+	if (slowFiles != null) {
+	    slowFiles.print(props.getMessageStream());
+	}
+	printPathEscaperStatistics();
 	verifyHeapSize();
     }
 }
@@ -4,17 +4,17 @@ import java.io.IOException;
 import java.io.PrintWriter;
 
 /**
-   ñ˥ե륯饹Ǥ
+   単純にファイルを処理するクラスです。
 */
 public final class SimpleProcessor extends Processor {
 
-    /** ϥȥ꡼Ǥ */
+    /** 出力ストリーム、またはノート毎にXMLファイルを出力する場合はnullです。 */
     private PrintWriter out;
 
     /**
-       󥹥󥹤ޤ
+       インスタンスを生成します。
 
-       @param props ϥץѥƥ
+       @param props 入出力プロパティ
     */
     public SimpleProcessor(final IOProperties props) {
 	super(props);
@@ -22,24 +22,35 @@ public final class SimpleProcessor extends Processor {
 
     /** {@inheritDoc} */
     protected void processFile(final String name) throws IOException {
-	Note note = Note.parse(name);
-	if (note == null) {
+	Note note = processNote(name);
+	if (out == null) {
 	    return;
 	}
-	createSourceList(note);
-	note.printXML(out);
+	if (isJournaled()) {
+	    printFragment(out, name);
+	    return;
+	}
+	if (note != null) {
+	    printXML(out, note);
+	}
     }
 
     /** {@inheritDoc} */
     protected void pre() throws IOException {
 	makeOutputDir();
-
-	out = new PrintWriter(System.out);
+	if (isSharded()) {
+	    return;
+	}
+	out = createXMLWriter();
 	out.print("<gcno>\n");
     }
 
     /** {@inheritDoc} */
     protected void post() throws IOException {
+	if (out == null) {
+	    return;
+	}
+	printMergedFunctions(out);
 	out.print("</gcno>\n");
 	out.close();
     }
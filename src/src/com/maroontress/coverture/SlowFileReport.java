@@ -0,0 +1,72 @@
+package com.maroontress.coverture;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+   処理時間が長いgcnoファイルの上位N件を保持します。
+
+   処理時間が最も短いものを先頭とするN件のヒープで保持するので、処
+   理したファイルの個数によらずメモリはO(N)です。複数のスレッドから
+   同時に追加できます。
+*/
+public final class SlowFileReport {
+
+    /** 保持する件数です。 */
+    private int capacity;
+
+    /** 処理時間が最も短いものを先頭とするヒープです。 */
+    private PriorityQueue<FileProfile> heap;
+
+    /**
+       インスタンスを生成します。
+
+       @param capacity 保持する件数（1以上）
+    */
+    public SlowFileReport(final int capacity) {
+	this.capacity = capacity;
+	heap = new PriorityQueue<FileProfile>(capacity);
+    }
+
+    /**
+       上位N件に入る場合は、処理時間と特徴を追加します。
+
+       @param note ノート
+       @param time 処理時間（ナノ秒）
+    */
+    public void add(final Note note, final long time) {
+	synchronized (heap) {
+	    if (heap.size() == capacity && heap.peek().getTime() >= time) {
+		return;
+	    }
+	}
+	FileProfile p = new FileProfile(note, time);
+	synchronized (heap) {
+	    heap.add(p);
+	    if (heap.size() > capacity) {
+		heap.poll();
+	    }
+	}
+    }
+
+    /**
+       処理時間が長い順に出力します。
+
+       @param out 出力先
+    */
+    public void print(final PrintStream out) {
+	List<FileProfile> list;
+	synchronized (heap) {
+	    list = new ArrayList<FileProfile>(heap);
+	}
+	Collections.sort(list, Collections.reverseOrder());
+	out.printf("slowest %d files:%n", list.size());
+	FileProfile.printHeader(out);
+	for (FileProfile p : list) {
+	    p.print(out);
+	}
+    }
+}
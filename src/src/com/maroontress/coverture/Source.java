@@ -1,35 +1,46 @@
 package com.maroontress.coverture;
 
 import com.maroontress.gcovparser.Origin;
+import com.maroontress.gcovparser.ProfilingEvent;
+import com.maroontress.gcovparser.ProfilingEvents;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.LineNumberReader;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.TreeSet;
 
 /**
-   Хå륽եޤ
+   ガバレッジするソースファイルを管理します。
 */
 public final class Source {
-    /** ѡȤѴ뤿ηǤ */
+    /** パーセントに変換するための係数です。 */
     private static final double PERCENT = 100;
 
-    /** ХåоݤΥեΥѥǤ */
+    /** gcovファイルの実行回数の欄の幅です。 */
+    private static final int COUNT_WIDTH = 9;
+
+    /** gcovファイルの行番号の欄の幅です。 */
+    private static final int LINE_NUMBER_WIDTH = 5;
+
+    /** gcov形式のパーセントの上限です。 */
+    private static final int PERCENT_LIMIT = 100;
+
+    /** ガバレッジ対象のソースファイルのパスです。 */
     private String sourceFile;
 
-    /** ֹȹԾΥޥåפǤ */
+    /** 行番号と行情報のマップです。 */
     private HashMap<Integer, LineInfo> map;
 
-    /** ե˴ޤޤؿδؿդΥåȤǤ */
+    /** ソースファイルに含まれる関数の関数グラフのセットです。 */
     private TreeSet<FunctionGraph> functions;
 
     /**
-       ޤ
+       ソースを生成します。
 
-       @param sourceFile եΥѥ
+       @param sourceFile ソースファイルのパス
     */
     public Source(final String sourceFile) {
 	this.sourceFile = sourceFile;
@@ -39,19 +50,19 @@ public final class Source {
     }
 
     /**
-       Υ˴ޤޤؿդɲäޤ
+       このソースに含まれる関数グラフを追加します。
 
-       @param fg ؿ
+       @param fg 関数グラフ
     */
     public void addFunctionGraph(final FunctionGraph fg) {
 	functions.add(fg);
     }
 
     /**
-       ¹ԲǽʹֹΤιֹμ¹Բûޤ
+       実行可能な行番号を通知し、その行番号の実行回数を加算します。
 
-       @param lineNuber ֹ
-       @param delta ¹Բ
+       @param lineNuber 行番号
+       @param delta 実行回数
     */
     public void addLineCount(final int lineNuber, final long delta) {
 	LineInfo info = map.get(lineNuber);
@@ -63,12 +74,65 @@ public final class Source {
     }
 
     /**
-       ֹμ¹Բޤ
+       行番号の行で終わる基本ブロックを追加します。
+
+       @param lineNuber 行番号
+       @param block 基本ブロック
+    */
+    public void addBlock(final int lineNuber, final Block block) {
+	LineInfo info = map.get(lineNuber);
+	if (info == null) {
+	    info = new LineInfo();
+	    map.put(lineNuber, info);
+	}
+	info.addBlock(block);
+    }
 
-       ιֹ椬¹ԲǽǤʤ-1֤ޤ
+    /**
+       実行可能な行番号を昇順にソートした配列を取得します。
 
-       @param lineNuber ֹ
-       @return ¹Բ
+       @return 行番号の配列
+    */
+    public int[] getSortedLineNumbers() {
+	int[] nums = new int[map.size()];
+	int k = 0;
+	for (int num : map.keySet()) {
+	    nums[k] = num;
+	    ++k;
+	}
+	Arrays.sort(nums);
+	return nums;
+    }
+
+    /**
+       行番号の行情報を取得します。
+
+       指定の行番号が実行可能でない場合はnullを返します。
+
+       @param lineNuber 行番号
+       @return 行情報、またはnull
+    */
+    public LineInfo getLineInfo(final int lineNuber) {
+	return map.get(lineNuber);
+    }
+
+    /**
+       このソースに含まれる関数グラフのコレクションを取得します。関数
+       グラフは関数が始まる行番号の順に並びます。
+
+       @return 関数グラフのコレクション
+    */
+    public Collection<FunctionGraph> getFunctionGraphs() {
+	return functions;
+    }
+
+    /**
+       行番号の実行回数を取得します。
+
+       指定の行番号が実行可能でない場合は-1を返します。
+
+       @param lineNuber 行番号
+       @return 実行回数
     */
     public long getLineCount(final int lineNuber) {
 	LineInfo info = map.get(lineNuber);
@@ -79,9 +143,9 @@ public final class Source {
     }
 
     /**
-       ¹ԤԿޤ
+       実行した行数を取得します。
 
-       @return ¹ԤԿ
+       @return 実行した行数
     */
     public int getExecutedLines() {
 	Collection<LineInfo> all = map.values();
@@ -95,29 +159,29 @@ public final class Source {
     }
 
     /**
-       ¹ԲǽʹԿޤ
+       実行可能な行数を取得します。
 
-       @return ¹ԲǽʹԿ
+       @return 実行可能な行数
     */
     public int getExecutableLines() {
 	return map.size();
     }
 
     /**
-       եΥѥޤ
+       ソースファイルのパスを取得します。
 
-       @return եΥѥ
+       @return ソースファイルのパス
     */
     public String getPath() {
 	return sourceFile;
     }
 
     /**
-       ΨѡȤ׻ޤʬ줬0ΤȤ0֤ޤ
+       比率からパーセントを計算します。分母が0のときは0を返します。
 
-       @param n ʬ
-       @param m ʬ
-       @return n/mΥѡ
+       @param n 分子
+       @param m 分母
+       @return n/mのパーセント
     */
     private int percent(final long n, final long m) {
 	if (m == 0) {
@@ -127,18 +191,223 @@ public final class Source {
     }
 
     /**
-       gcovߴΥХå̤Ϥޤ
+       比率からgcovの形式でパーセントを計算します。分母が0のときは0を
+       返します。
+
+       gcovと同様に、分子が0でなければ1以上、分子と分母が異なれば99以
+       下に丸めます。
+
+       @param n 分子
+       @param m 分母
+       @return n/mのパーセント
+    */
+    private static int gcovPercent(final long n, final long m) {
+	if (m == 0) {
+	    return 0;
+	}
+	int p = (int) Math.round(PERCENT * n / m);
+	if (p <= 0 && n != 0) {
+	    return 1;
+	}
+	if (p >= PERCENT_LIMIT && n != m) {
+	    return PERCENT_LIMIT - 1;
+	}
+	return p;
+    }
+
+    /**
+       gcov -bと同様に、アークの分岐の結果を出力します。
+
+       unconditionalがtrueの場合は、gcov -uと同様に無条件分岐の結果も
+       出力します。
+
+       @param out 出力先
+       @param index 行の中での分岐の番号
+       @param arc アーク
+       @param unconditional 無条件分岐の結果も出力する場合はtrue
+       @return 出力した場合は1、そうでなければ0
+       @throws IOException 入出力エラー
+    */
+    private static int outputBranchCount(final GcovPrinter out,
+					 final int index, final Arc arc,
+					 final boolean unconditional)
+	throws IOException {
+	long count = arc.getStart().getCount();
+	if (arc.isCallNonReturn()) {
+	    if (count == 0) {
+		out.printf("call   %2d never executed\n", index);
+	    } else {
+		out.printf("call   %2d returned %d%%\n", index,
+			   gcovPercent(count - arc.getCount(), count));
+	    }
+	} else if (!arc.isUnconditional()) {
+	    if (count == 0) {
+		out.printf("branch %2d never executed\n", index);
+	    } else {
+		out.printf("branch %2d taken %d%%%s\n", index,
+			   gcovPercent(arc.getCount(), count),
+			   arc.isFallThrough() ? " (fallthrough)" : "");
+	    }
+	} else if (unconditional && !arc.getEnd().isCallReturn()) {
+	    if (count == 0) {
+		out.printf("unconditional %2d never executed\n", index);
+	    } else {
+		out.printf("unconditional %2d taken %d%%\n", index,
+			   gcovPercent(arc.getCount(), count));
+	    }
+	} else {
+	    return 0;
+	}
+	return 1;
+    }
+
+    /**
+       LCOVのトレースファイルの形式でカバレッジ結果を出力します。
 
-       @param out 
-       @param in եΥ꡼
-       @throws IOException ϥ顼
+       @param out 出力先
     */
-    private void outputGcovFile(final PrintWriter out,
-				final LineNumberReader in) throws IOException {
-	String line;
+    public void printLcov(final PrintWriter out) {
+	out.printf("TN:\nSF:%s\n", sourceFile);
+	for (FunctionGraph fg : functions) {
+	    out.printf("FN:%d,%s\n", fg.getLineNumber(), fg.getFunctionName());
+	}
+	int hitFunctions = 0;
+	for (FunctionGraph fg : functions) {
+	    long calledCount = fg.getCalledCount();
+	    if (calledCount > 0) {
+		++hitFunctions;
+	    }
+	    out.printf("FNDA:%d,%s\n", calledCount, fg.getFunctionName());
+	}
+	out.printf("FNF:%d\nFNH:%d\n", functions.size(), hitFunctions);
+
+	int[] nums = getSortedLineNumbers();
+	int branches = 0;
+	int takenBranches = 0;
+	for (int num : nums) {
+	    for (Block b : map.get(num).getBlocks()) {
+		long blockCount = b.getCount();
+		int k = 0;
+		for (Arc arc : b.getOutArcs()) {
+		    if (!arc.isBranch()) {
+			continue;
+		    }
+		    long c = arc.getCount();
+		    if (blockCount == 0) {
+			out.printf("BRDA:%d,%d,%d,-\n", num, b.getId(), k);
+		    } else {
+			out.printf("BRDA:%d,%d,%d,%d\n", num, b.getId(), k, c);
+		    }
+		    ++k;
+		    if (c > 0) {
+			++takenBranches;
+		    }
+		}
+		branches += k;
+	    }
+	}
+	out.printf("BRF:%d\nBRH:%d\n", branches, takenBranches);
+
+	int executedLines = 0;
+	for (int num : nums) {
+	    long count = map.get(num).getCount();
+	    if (count > 0) {
+		++executedLines;
+	    }
+	    out.printf("DA:%d,%d\n", num, count);
+	}
+	out.printf("LF:%d\nLH:%d\nend_of_record\n", nums.length, executedLines);
+    }
+
+    /**
+       gcovの中間形式（JSON）でカバレッジ結果を出力します。
+
+       @param out 出力先
+    */
+    public void printJson(final PrintWriter out) {
+	out.printf("{\"file\":\"%s\",\"functions\":[",
+		   JSON.escape(sourceFile));
+	String sep = "";
+	for (FunctionGraph fg : functions) {
+	    String name = JSON.escape(fg.getFunctionName());
+	    out.printf("%s{\"name\":\"%s\",\"demangled_name\":\"%s\","
+		       + "\"start_line\":%d,\"start_column\":0,"
+		       + "\"end_line\":%d,\"end_column\":0,"
+		       + "\"blocks\":%d,\"blocks_executed\":%d,"
+		       + "\"execution_count\":%d}",
+		       sep, name, name, fg.getLineNumber(),
+		       fg.getEndLineNumber(), fg.getBlockCount(),
+		       fg.getExecutedBlockCount(), fg.getCalledCount());
+	    sep = ",";
+	}
+	out.printf("],\"lines\":[");
+	sep = "";
+	int[] nums = getSortedLineNumbers();
+	for (int num : nums) {
+	    LineInfo info = map.get(num);
+	    boolean unexecutedBlock = false;
+	    for (Block b : info.getBlocks()) {
+		if (b.getCount() == 0) {
+		    unexecutedBlock = true;
+		}
+	    }
+	    out.printf("%s{\"line_number\":%d,\"count\":%d,"
+		       + "\"unexecuted_block\":%b,\"branches\":[",
+		       sep, num, info.getCount(), unexecutedBlock);
+	    String branchSep = "";
+	    for (Block b : info.getBlocks()) {
+		for (Arc arc : b.getOutArcs()) {
+		    if (!arc.isBranch()) {
+			continue;
+		    }
+		    out.printf("%s{\"count\":%d,\"fallthrough\":%b,"
+			       + "\"throw\":%b}",
+			       branchSep, arc.getCount(), arc.isFallThrough(),
+			       arc.isFake());
+		    branchSep = ",";
+		}
+	    }
+	    out.printf("]}");
+	    sep = ",";
+	}
+	out.printf("]}");
+    }
+
+    /**
+       実行回数の欄を出力します。
+
+       @param out 出力先
+       @param count 実行回数
+       @param zeroMark 実行回数が0のときに出力する文字列
+       @throws IOException 入出力エラー
+    */
+    private static void putCount(final GcovPrinter out, final long count,
+				 final String zeroMark) throws IOException {
+	if (count == 0) {
+	    out.put(zeroMark, COUNT_WIDTH);
+	} else {
+	    out.put(count, COUNT_WIDTH);
+	}
+    }
+
+    /**
+       gcov互換のカバレッジ結果を出力します。
+
+       @param out 出力先
+       @param in ソースファイルのリーダ
+       @param prop 入出力プロパティ
+       @throws IOException 入出力エラー
+    */
+    private void outputGcovFile(final GcovPrinter out,
+				final SourceLineReader in,
+				final IOProperties prop) throws IOException {
+	boolean branches = prop.isBranchProbabilitiesEnabled();
+	boolean blocks = prop.isAllBlocksEnabled();
+	boolean unconditional = prop.isUnconditionalBranchesEnabled();
 	Traverser<FunctionGraph> tr = new Traverser<FunctionGraph>(functions);
-	while ((line = in.readLine()) != null) {
-	    int num = in.getLineNumber();
+	int num = 0;
+	while (in.readLine()) {
+	    ++num;
 	    while (tr.peek() != null && tr.peek().getLineNumber() == num) {
 		FunctionGraph fg = tr.poll();
 		long calledCount = fg.getCalledCount();
@@ -153,64 +422,85 @@ public final class Source {
 	    }
 
 	    LineInfo info = map.get(num);
-	    long count;
-	    String mark;
 	    if (info == null) {
-		mark = "-";
-	    } else if ((count = info.getCount()) == 0) {
-		mark = "#####";
+		out.put("-", COUNT_WIDTH);
 	    } else {
-		mark = String.valueOf(count);
+		putCount(out, info.getCount(), "#####");
+	    }
+	    out.put(':');
+	    out.put(num, LINE_NUMBER_WIDTH);
+	    out.put(':');
+	    in.printLine(out);
+	    out.put('\n');
+	    if (info == null) {
+		continue;
+	    }
+	    int ix = 0;
+	    int jx = 0;
+	    for (Block b : info.getBlocks()) {
+		if (blocks && !b.isCallReturn()) {
+		    putCount(out, b.getCount(), "$$$$$");
+		    out.put(':');
+		    out.put(num, LINE_NUMBER_WIDTH);
+		    out.printf("-block %2d\n", ix);
+		    ++ix;
+		}
+		if (!branches) {
+		    continue;
+		}
+		for (Arc arc : b.getOutArcs()) {
+		    jx += outputBranchCount(out, jx, arc, unconditional);
+		}
 	    }
-	    out.printf("%9s:%5d:%s\n", mark, num, line);
 	}
     }
 
     /**
-       gcovߴΥХå̤Ϥޤ
+       gcov互換のカバレッジ結果を出力します。
 
-       @param out 
-       @param origin gcnoեΥꥸ
-       @param prop ϥץѥƥ
-       @throws IOException ϥ顼
+       @param out 出力先
+       @param origin gcnoファイルのオリジン
+       @param prop 入出力プロパティ
+       @throws IOException 入出力エラー
     */
-    private void outputLines(final PrintWriter out, final Origin origin,
+    private void outputLines(final GcovPrinter out, final Origin origin,
 			     final IOProperties prop) throws IOException {
 	File file = new File(sourceFile);
 	if (file.lastModified() > origin.getNoteFile().lastModified()) {
-	    System.err.printf("%s: source file is newer than gcno file%n",
-			      sourceFile);
+	    prop.report(new Problem(ProblemKind.WARNING, sourceFile,
+				    "source file is newer than gcno file"));
 	    out.printf("%9s:%5d:Source is newer than gcno file\n", "-", 0);
 	}
-	LineNumberReader in
-	    = new LineNumberReader(prop.createSourceFileReader(file));
+	SourceLineReader in = prop.createSourceLineReader(file);
 	try {
-	    outputGcovFile(out, in);
+	    outputGcovFile(out, in, prop);
 	} finally {
 	    in.close();
 	}
     }
 
     /**
-       Хåեޤ
+       カバレッジファイルを生成します。
 
-       @param origin gcnoեΥꥸ
-       @param runs ץμ¹Բ
-       @param programs ץο
-       @param prop ϥץѥƥ
-       @throws IOException ϥ顼
+       @param origin gcnoファイルのオリジン
+       @param runs プログラムの実行回数
+       @param programs プログラムの数
+       @param prop 入出力プロパティ
+       @throws IOException 入出力エラー
     */
     public void outputFile(final Origin origin, final int runs,
 			   final int programs, final IOProperties prop)
 	throws IOException {
-	String path = origin.getCoverageFilePath(sourceFile);
-	PrintWriter out;
+	String path = prop.getCoverageFilePath(origin, sourceFile);
+	ProfilingEvent event = ProfilingEvents.begin(ProfilingEvents.GCOV,
+						     sourceFile);
+	GcovPrinter out;
 	try {
-	    out = new PrintWriter(prop.createGcovWriter(path));
+	    out = prop.createGcovPrinter(path);
 	} catch (FileNotFoundException e) {
-	    File gcov = prop.createOutputFile(path);
-	    System.err.printf("%s: can't open: %s%n",
-			      gcov.getPath(), e.getMessage());
+	    File gcov = prop.createGcovFile(path);
+	    prop.report(new Problem(ProblemKind.CANT_OPEN, gcov.getPath(),
+				    "can't open: " + e.getMessage(), e));
 	    return;
 	}
 	try {
@@ -225,9 +515,15 @@ public final class Source {
 	} finally {
 	    out.close();
 	}
+	StatisticsRecorder recorder = prop.getStatisticsRecorder();
+	if (recorder != null) {
+	    recorder.addBytesWritten(out.getBytesWritten());
+	}
+	event.setSize(out.getBytesWritten());
+	event.commit();
 	if (prop.isVerbose()) {
-	    File gcov = prop.createOutputFile(path);
-	    System.err.printf("%s: created.%n", gcov.getPath());
+	    File gcov = prop.createGcovFile(path);
+	    prop.getMessageStream().printf("%s: created.%n", gcov.getPath());
 	}
     }
 }
@@ -0,0 +1,162 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+   ソースファイルからgcnoファイルを引く逆引きインデックスです。
+
+   ソースファイルのパス毎に、そのソースファイルを参照するgcnoファイ
+   ルのパスのリストを保持します。インデックスファイルは次の形式のテ
+   キストファイルです。
+
+   # コメント
+   ソースファイルのパス
+   TAB gcnoファイルのパス
+   ...
+*/
+public final class SourceIndex {
+
+    /** インデックスファイルの文字集合の名前です。 */
+    private static final String CHARSET = "UTF-8";
+
+    /** ソースファイルのパスとgcnoファイルのパスのセットのマップです。 */
+    private TreeMap<String, TreeSet<String>> map;
+
+    /** インデックスに含まれるすべてのgcnoファイルのパスのセットです。 */
+    private TreeSet<String> notes;
+
+    /** インデックスを生成した時刻です。 */
+    private long lastModified;
+
+    /**
+       空のインデックスを生成します。
+    */
+    public SourceIndex() {
+	map = new TreeMap<String, TreeSet<String>>();
+	notes = new TreeSet<String>();
+	lastModified = Long.MAX_VALUE;
+    }
+
+    /**
+       gcnoファイルと、それが参照するソースファイルを追加します。
+
+       @param note gcnoファイルのパス
+       @param sources ソースファイルのパスのコレクション
+    */
+    public void add(final String note, final Collection<String> sources) {
+	notes.add(note);
+	for (String s : sources) {
+	    TreeSet<String> set = map.get(s);
+	    if (set == null) {
+		set = new TreeSet<String>();
+		map.put(s, set);
+	    }
+	    set.add(note);
+	}
+    }
+
+    /**
+       gcnoファイルをインデックスが扱えるかどうかを取得します。
+
+       インデックスに含まれないgcnoファイルや、インデックスを生成した
+       後に更新されたgcnoファイルは扱えません。
+
+       @param note gcnoファイルのパス
+       @return インデックスが扱える場合はtrue、そうでなければfalse
+    */
+    public boolean covers(final String note) {
+	return notes.contains(note)
+	    && new File(note).lastModified() <= lastModified;
+    }
+
+    /**
+       変更されたソースファイルを参照するgcnoファイルのパスのセットを
+       取得します。
+
+       @param changeSet 変更された行の集合
+       @return gcnoファイルのパスのセット
+    */
+    public Set<String> getNotes(final ChangeSet changeSet) {
+	TreeSet<String> set = new TreeSet<String>();
+	for (Map.Entry<String, TreeSet<String>> e : map.entrySet()) {
+	    if (changeSet.getRanges(e.getKey()) != null) {
+		set.addAll(e.getValue());
+	    }
+	}
+	return set;
+    }
+
+    /**
+       インデックスをファイルに出力します。
+
+       @param file インデックスファイル
+       @throws IOException 入出力エラー
+    */
+    public void write(final File file) throws IOException {
+	PrintWriter out = new PrintWriter(new OutputStreamWriter(
+	    new FileOutputStream(file), CHARSET));
+	try {
+	    out.print("# coverture source index\n");
+	    for (Map.Entry<String, TreeSet<String>> e : map.entrySet()) {
+		out.printf("%s\n", e.getKey());
+		for (String note : e.getValue()) {
+		    out.printf("\t%s\n", note);
+		}
+	    }
+	} finally {
+	    out.close();
+	}
+	if (out.checkError()) {
+	    throw new IOException(file.getPath() + ": write error.");
+	}
+    }
+
+    /**
+       ファイルからインデックスを入力します。
+
+       @param file インデックスファイル
+       @return インデックス
+       @throws IOException 入出力エラー
+    */
+    public static SourceIndex read(final File file) throws IOException {
+	SourceIndex index = new SourceIndex();
+	index.lastModified = file.lastModified();
+	BufferedReader in = new BufferedReader(new InputStreamReader(
+	    new FileInputStream(file), CHARSET));
+	try {
+	    String line;
+	    TreeSet<String> set = null;
+	    while ((line = in.readLine()) != null) {
+		if (line.length() == 0 || line.startsWith("#")) {
+		    continue;
+		}
+		if (!line.startsWith("\t")) {
+		    set = new TreeSet<String>();
+		    index.map.put(line, set);
+		    continue;
+		}
+		if (set == null) {
+		    throw new IOException(file.getPath() + ": invalid format.");
+		}
+		String note = line.substring(1);
+		set.add(note);
+		index.notes.add(note);
+	    }
+	} finally {
+	    in.close();
+	}
+	return index;
+    }
+}
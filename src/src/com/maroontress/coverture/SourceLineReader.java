@@ -0,0 +1,37 @@
+package com.maroontress.coverture;
+
+import java.io.IOException;
+
+/**
+   ソースファイルを1行ずつ読み込んで、gcovファイルに書き込むインタ
+   フェイスです。
+
+   行の終わりは改行文字、復帰文字、または復帰文字に続く改行文字のい
+   ずれかです。行の終わりの文字は書き込みません。
+*/
+public interface SourceLineReader {
+
+    /**
+       次の行を読み込みます。
+
+       @return 行を読み込んだ場合はtrue、ファイルの終わりに達した場合
+       はfalse
+       @throws IOException 入出力エラー
+    */
+    boolean readLine() throws IOException;
+
+    /**
+       最後に読み込んだ行を書き込みます。
+
+       @param out 出力先
+       @throws IOException 入出力エラー
+    */
+    void printLine(GcovPrinter out) throws IOException;
+
+    /**
+       ソースファイルを閉じます。
+
+       @throws IOException 入出力エラー
+    */
+    void close() throws IOException;
+}
@@ -7,28 +7,28 @@ import java.util.Collection;
 import java.util.HashMap;
 
 /**
-   ҤȤĤgcnoե뤬Ȥ륽եΥꥹȤǤ
+   ひとつのgcnoファイルが参照するソースファイルのリストです。
 */
 public final class SourceList {
 
-    /** ѡȤѴ뤿ηǤ */
+    /** パーセントに変換するための係数です。 */
     private static final double PERCENT = 100;
 
-    /** եΥѥȥΥޥåפǤ */
+    /** ソースファイルのパスとソースのマップです。 */
     private HashMap<String, Source> map;
 
     /**
-       ꥹȤޤ
+       ソースリストを生成します。
     */
     public SourceList() {
 	map = new HashMap<String, Source>();
     }
 
     /**
-       եΥѥб륽ޤ
+       ソースファイルのパスに対応するソースを取得します。
 
-       @param sourceFile եΥѥ
-       @return 
+       @param sourceFile ソースファイルのパス
+       @return ソース
     */
     public Source getSource(final String sourceFile) {
 	Source source = map.get(sourceFile);
@@ -40,12 +40,21 @@ public final class SourceList {
     }
 
     /**
-       ٤ƤΥХåեޤ
+       すべてのソースのコレクションを取得します。
 
-       @param origin gcnoեΥꥸ
-       @param runs ץμ¹Բ
-       @param programs ץο
-       @param prop ϥץѥƥ
+       @return ソースのコレクション
+    */
+    public Collection<Source> getSources() {
+	return map.values();
+    }
+
+    /**
+       すべてのカバレッジファイルを生成します。
+
+       @param origin gcnoファイルのオリジン
+       @param runs プログラムの実行回数
+       @param programs プログラムの数
+       @param prop 入出力プロパティ
     */
     public void outputFiles(final Origin origin, final int runs,
 			    final int programs, final IOProperties prop) {
@@ -54,15 +63,45 @@ public final class SourceList {
 	    try {
 		s.outputFile(origin, runs, programs, prop);
 	    } catch (IOException e) {
-		e.printStackTrace();
+		prop.report(new Problem(ProblemKind.IO_ERROR, s.getPath(),
+					String.valueOf(e.getMessage()), e));
 	    }
 	}
     }
 
     /**
-       եΥꥹȤΥޥXMLǽϤޤ
+       すべてのソースのカバレッジ結果をLCOVのトレースファイルの形式で
+       出力します。
+
+       @param out 出力先
+    */
+    public void printLcov(final PrintWriter out) {
+	Collection<Source> all = map.values();
+	for (Source s : all) {
+	    s.printLcov(out);
+	}
+    }
+
+    /**
+       すべてのソースのカバレッジ結果を、gcovの中間形式（JSON）の
+       files配列の要素として出力します。
+
+       @param out 出力先
+    */
+    public void printJson(final PrintWriter out) {
+	Collection<Source> all = map.values();
+	String sep = "";
+	for (Source s : all) {
+	    out.print(sep);
+	    s.printJson(out);
+	    sep = ",";
+	}
+    }
+
+    /**
+       ソースファイルのリストのサマリをXML形式で出力します。
 
-       @param out 
+       @param out 出力先
     */
     public void printXML(final PrintWriter out) {
 	out.printf("<sourceList>\n");
@@ -0,0 +1,103 @@
+package com.maroontress.coverture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+   SpillSorterが一時ファイルに書き出したランを先頭から読み込むリーダ
+   です。
+
+   ランは、gcnoファイルのパス（修正UTF-8）、XMLのバイト数、UTF-8で
+   エンコードしたXMLのレコードをgcnoファイルのパスの順に並べたもので
+   す。現在のレコードのgcnoファイルで、他のリーダと比較できます。
+*/
+public final class SpillRun implements Comparable<SpillRun> {
+
+    /** ランのファイルです。 */
+    private File file;
+
+    /** ランの入力ストリームです。 */
+    private DataInputStream in;
+
+    /** 現在のレコードのgcnoファイルです。 */
+    private File noteFile;
+
+    /** 現在のレコードのXMLです。 */
+    private String xml;
+
+    /**
+       ランのファイルを開きます。
+
+       @param file ランのファイル
+       @throws IOException 入出力エラー
+    */
+    public SpillRun(final File file) throws IOException {
+	this.file = file;
+	in = new DataInputStream(
+	    new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /**
+       次のレコードを読み込みます。
+
+       @return 次のレコードがある場合はtrue、ランの終わりに達した場
+       合はfalse
+       @throws IOException 入出力エラー
+    */
+    public boolean next() throws IOException {
+	String path;
+	try {
+	    path = in.readUTF();
+	} catch (EOFException e) {
+	    return false;
+	}
+	byte[] b = new byte[in.readInt()];
+	in.readFully(b);
+	noteFile = new File(path);
+	xml = new String(b, SpillSorter.CHARSET);
+	return true;
+    }
+
+    /**
+       現在のレコードのgcnoファイルを取得します。
+
+       @return gcnoファイル
+    */
+    public File getNoteFile() {
+	return noteFile;
+    }
+
+    /**
+       現在のレコードのXMLを取得します。
+
+       @return XML
+    */
+    public String getXML() {
+	return xml;
+    }
+
+    /**
+       ランのファイルを閉じて削除します。
+
+       @throws IOException 入出力エラー
+    */
+    public void close() throws IOException {
+	in.close();
+	file.delete();
+    }
+
+    /**
+       現在のレコードのgcnoファイルのパスで、2つのリーダを比較します。
+
+       @param run このリーダと比較されるリーダ
+       @return 現在のレコードのgcnoファイルのパスの比較結果
+       @see java.io.File#compareTo(File)
+    */
+    public int compareTo(final SpillRun run) {
+	return noteFile.compareTo(run.noteFile);
+    }
+}
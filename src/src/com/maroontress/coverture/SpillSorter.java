@@ -0,0 +1,183 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.Origin;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+   ノートのXMLを、ヒープの上限を超えないようにgcnoファイルのパスの
+   順に並べ替えるクラスです。
+
+   追加されたXMLはgcnoファイルのオリジンの順に保持し、保持している
+   XMLの大きさが上限を超えると、並べ替えたランとして一時ファイルに書
+   き出して破棄します。出力するときは、すべてのランをマージしながら
+   出力します。同じgcnoファイルのXMLは最初のものだけを出力します。
+
+   add(Origin, String)は複数のスレッドから同時に呼び出すことができ
+   ます。
+*/
+public final class SpillSorter {
+
+    /** ランのXMLの文字集合です。 */
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /** 文字列が1文字あたりに使用するヒープのバイト数です。 */
+    private static final int CHAR_BYTES = 2;
+
+    /** 一時ファイルの接頭辞です。 */
+    private static final String PREFIX = "coverture";
+
+    /** 一時ファイルの接尾辞です。 */
+    private static final String SUFFIX = ".run";
+
+    /** 保持するXMLの大きさの上限（バイト）です。 */
+    private long budget;
+
+    /** 一時ファイルを生成するディレクトリ、またはnullです。 */
+    private File tempDir;
+
+    /** gcnoファイルのオリジンとXMLのマップです。 */
+    private TreeMap<Origin, String> buffer;
+
+    /** 保持しているXMLの大きさ（バイト）です。 */
+    private long size;
+
+    /** 書き出したランのファイルのリストです。 */
+    private List<File> runs;
+
+    /**
+       インスタンスを生成します。
+
+       @param budget 保持するXMLの大きさの上限（バイト）
+       @param tempDir 一時ファイルを生成するディレクトリ、またはシス
+       テムのデフォルトを使用する場合はnull
+    */
+    public SpillSorter(final long budget, final File tempDir) {
+	this.budget = budget;
+	this.tempDir = tempDir;
+	buffer = new TreeMap<Origin, String>();
+	size = 0;
+	runs = new ArrayList<File>();
+    }
+
+    /**
+       ノートのXMLを追加します。保持しているXMLの大きさが上限を超えた
+       場合は、ランを書き出します。
+
+       @param origin gcnoファイルのオリジン
+       @param xml XML
+       @throws IOException 入出力エラー
+    */
+    public synchronized void add(final Origin origin, final String xml)
+	throws IOException {
+	if (buffer.containsKey(origin)) {
+	    return;
+	}
+	buffer.put(origin, xml);
+	size += (long) xml.length() * CHAR_BYTES;
+	if (size > budget) {
+	    spill();
+	}
+    }
+
+    /**
+       保持しているXMLを並べ替えたランとして一時ファイルに書き出して、
+       破棄します。
+
+       @throws IOException 入出力エラー
+    */
+    private void spill() throws IOException {
+	File file = File.createTempFile(PREFIX, SUFFIX, tempDir);
+	file.deleteOnExit();
+	runs.add(file);
+	DataOutputStream out = new DataOutputStream(
+	    new BufferedOutputStream(new FileOutputStream(file)));
+	try {
+	    for (Map.Entry<Origin, String> e : buffer.entrySet()) {
+		byte[] b = e.getValue().getBytes(CHARSET.name());
+		out.writeUTF(e.getKey().getNoteFile().getPath());
+		out.writeInt(b.length);
+		out.write(b);
+	    }
+	} finally {
+	    out.close();
+	}
+	buffer.clear();
+	size = 0;
+    }
+
+    /**
+       書き出したランの個数を取得します。
+
+       @return ランの個数
+    */
+    public synchronized int getRunCount() {
+	return runs.size();
+    }
+
+    /**
+       すべてのXMLをgcnoファイルのパスの順に出力します。ランを書き出
+       していた場合は、残りのXMLもランとして書き出してから、すべての
+       ランをマージして出力し、一時ファイルを削除します。
+
+       @param out 出力先
+       @throws IOException 入出力エラー
+    */
+    public synchronized void print(final PrintWriter out)
+	throws IOException {
+	if (runs.isEmpty()) {
+	    for (String xml : buffer.values()) {
+		out.print(xml);
+	    }
+	    buffer.clear();
+	    return;
+	}
+	if (!buffer.isEmpty()) {
+	    spill();
+	}
+	PriorityQueue<SpillRun> queue = new PriorityQueue<SpillRun>(
+	    runs.size());
+	try {
+	    for (File file : runs) {
+		SpillRun r = new SpillRun(file);
+		if (r.next()) {
+		    queue.add(r);
+		} else {
+		    r.close();
+		}
+	    }
+	    File last = null;
+	    while (!queue.isEmpty()) {
+		SpillRun r = queue.poll();
+		File noteFile = r.getNoteFile();
+		if (last == null || !last.equals(noteFile)) {
+		    out.print(r.getXML());
+		}
+		last = noteFile;
+		if (r.next()) {
+		    queue.add(r);
+		} else {
+		    r.close();
+		}
+	    }
+	} finally {
+	    for (SpillRun r : queue) {
+		r.close();
+	    }
+	    for (File file : runs) {
+		file.delete();
+	    }
+	    runs.clear();
+	}
+    }
+}
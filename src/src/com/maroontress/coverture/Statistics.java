@@ -0,0 +1,222 @@
+package com.maroontress.coverture;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+   処理の段階毎の時間と、スループットの統計です。
+
+   スレッド毎にStatisticsRecorderを生成して記録するので、記録のため
+   の同期はありません。集計と出力は、すべてのスレッドの処理が完了し
+   た後に行います。
+*/
+public final class Statistics {
+
+    /** ナノ秒をミリ秒に変換する除数です。 */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** ナノ秒を秒に変換する除数です。 */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** バイトをMバイトに変換する除数です。 */
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+
+    /** パーセントの乗数です。 */
+    private static final double PERCENT = 100;
+
+    /** スレッド毎のレコーダのリストです。 */
+    private List<StatisticsRecorder> recorders;
+
+    /** スレッド毎のレコーダです。 */
+    private ThreadLocal<StatisticsRecorder> local;
+
+    /** 処理を開始した時刻（ナノ秒）です。 */
+    private long startTime;
+
+    /** 処理を終了した時刻（ナノ秒）です。 */
+    private long endTime;
+
+    /**
+       インスタンスを生成します。
+    */
+    public Statistics() {
+	recorders = new ArrayList<StatisticsRecorder>();
+	local = new ThreadLocal<StatisticsRecorder>() {
+	    protected StatisticsRecorder initialValue() {
+		StatisticsRecorder r = new StatisticsRecorder(
+		    Thread.currentThread().getName());
+		synchronized (recorders) {
+		    recorders.add(r);
+		}
+		return r;
+	    }
+	};
+    }
+
+    /**
+       現在のスレッドのレコーダを取得します。
+
+       @return レコーダ
+    */
+    public StatisticsRecorder getRecorder() {
+	return local.get();
+    }
+
+    /**
+       処理を開始した時刻を記録します。
+    */
+    public void start() {
+	startTime = System.nanoTime();
+    }
+
+    /**
+       処理を終了した時刻を記録します。
+    */
+    public void stop() {
+	endTime = System.nanoTime();
+    }
+
+    /**
+       すべてのスレッドの記録を合計したレコーダを生成します。
+
+       @return 合計したレコーダ
+    */
+    private StatisticsRecorder getTotal() {
+	StatisticsRecorder total = new StatisticsRecorder("total");
+	synchronized (recorders) {
+	    for (StatisticsRecorder r : recorders) {
+		total.addMeasurement(r);
+	    }
+	}
+	return total;
+    }
+
+    /**
+       スレッド毎のレコーダのリストのコピーを取得します。
+
+       @return レコーダのリスト
+    */
+    private List<StatisticsRecorder> getRecorders() {
+	synchronized (recorders) {
+	    return new ArrayList<StatisticsRecorder>(recorders);
+	}
+    }
+
+    /**
+       経過時間を取得します。
+
+       @return 経過時間（ナノ秒）
+    */
+    private long getElapsedTime() {
+	return Math.max(endTime - startTime, 1);
+    }
+
+    /**
+       ナノ秒をミリ秒に変換します。
+
+       @param nanos ナノ秒
+       @return ミリ秒
+    */
+    private static double toMillis(final long nanos) {
+	return nanos / NANOS_PER_MILLI;
+    }
+
+    /**
+       統計を表の形式で出力します。
+
+       @param out 出力先
+    */
+    public void print(final PrintStream out) {
+	StatisticsRecorder total = getTotal();
+	long elapsed = getElapsedTime();
+	double seconds = elapsed / NANOS_PER_SECOND;
+	long sum = 0;
+	for (Phase p : Phase.values()) {
+	    sum += total.getTime(p);
+	}
+	sum = Math.max(sum, 1);
+	out.printf("%-8s %12s %7s%n", "phase", "time(ms)", "share");
+	for (Phase p : Phase.values()) {
+	    long t = total.getTime(p);
+	    out.printf("%-8s %12.1f %6.1f%%%n", p.getLabel(), toMillis(t),
+		       PERCENT * t / sum);
+	}
+	out.printf("elapsed: %.1f ms%n", toMillis(elapsed));
+	out.printf("files: %d (%.1f files/s)%n",
+		   total.getFiles(), total.getFiles() / seconds);
+	out.printf("read: %d bytes (%.1f MB/s)%n", total.getBytesRead(),
+		   total.getBytesRead() / BYTES_PER_MEGABYTE / seconds);
+	out.printf("written: %d bytes (%.1f MB/s)%n", total.getBytesWritten(),
+		   total.getBytesWritten() / BYTES_PER_MEGABYTE / seconds);
+	Runtime t = Runtime.getRuntime();
+	out.printf("heap: %d used, %d max%n",
+		   t.totalMemory() - t.freeMemory(), t.maxMemory());
+
+	out.printf("%n%-20s %7s", "thread", "files");
+	for (Phase p : Phase.values()) {
+	    out.printf(" %9s", p.getLabel());
+	}
+	out.printf("%n");
+	for (StatisticsRecorder r : getRecorders()) {
+	    out.printf("%-20s %7d", r.getThreadName(), r.getFiles());
+	    for (Phase p : Phase.values()) {
+		out.printf(" %9.1f", toMillis(r.getTime(p)));
+	    }
+	    out.printf("%n");
+	}
+    }
+
+    /**
+       レコーダの記録をJSONのオブジェクトのメンバとして出力します。
+
+       @param out 出力先
+       @param r レコーダ
+    */
+    private static void printJsonMembers(final PrintWriter out,
+					 final StatisticsRecorder r) {
+	out.printf(Locale.ROOT,
+		   "\"files\":%d,\"bytes_read\":%d,\"bytes_written\":%d,"
+		   + "\"phases\":{", r.getFiles(), r.getBytesRead(),
+		   r.getBytesWritten());
+	String separator = "";
+	for (Phase p : Phase.values()) {
+	    out.printf(Locale.ROOT, "%s\"%s\":%.3f", separator,
+		       JSON.escape(p.getLabel()), toMillis(r.getTime(p)));
+	    separator = ",";
+	}
+	out.printf("}");
+    }
+
+    /**
+       統計をJSONで出力します。時間の単位はミリ秒です。
+
+       数値はデフォルトのロケールによらず、小数点に「.」を使って出力
+       します。
+
+       @param out 出力先
+    */
+    public void printJson(final PrintWriter out) {
+	StatisticsRecorder total = getTotal();
+	long elapsed = getElapsedTime();
+	double seconds = elapsed / NANOS_PER_SECOND;
+	Runtime t = Runtime.getRuntime();
+	out.printf(Locale.ROOT, "{\"elapsed\":%.3f,\"files_per_second\":%.1f,"
+		   + "\"heap_used\":%d,\"heap_max\":%d,",
+		   toMillis(elapsed), total.getFiles() / seconds,
+		   t.totalMemory() - t.freeMemory(), t.maxMemory());
+	printJsonMembers(out, total);
+	out.printf(",\"threads\":[");
+	String separator = "";
+	for (StatisticsRecorder r : getRecorders()) {
+	    out.printf("%s{\"name\":\"%s\",", separator,
+		       JSON.escape(r.getThreadName()));
+	    printJsonMembers(out, r);
+	    out.printf("}");
+	    separator = ",";
+	}
+	out.printf("]}\n");
+    }
+}
@@ -0,0 +1,142 @@
+package com.maroontress.coverture;
+
+/**
+   ひとつのスレッドの処理時間、ファイル数、バイト数を記録します。
+
+   インスタンスは、それを生成したスレッドだけが更新します。他のスレッ
+   ドは、そのスレッドの処理が完了したことを確認した後にだけ参照でき
+   ます。
+*/
+public final class StatisticsRecorder {
+
+    /** スレッドの名前です。 */
+    private String threadName;
+
+    /** 段階毎の処理時間（ナノ秒）です。 */
+    private long[] times;
+
+    /** 最後に時間を計測した時刻（ナノ秒）です。 */
+    private long last;
+
+    /** 処理したgcnoファイルの個数です。 */
+    private int files;
+
+    /** 入力したバイト数です。 */
+    private long bytesRead;
+
+    /** 出力したバイト数です。 */
+    private long bytesWritten;
+
+    /**
+       インスタンスを生成します。
+
+       @param threadName スレッドの名前
+    */
+    public StatisticsRecorder(final String threadName) {
+	this.threadName = threadName;
+	times = new long[Phase.values().length];
+    }
+
+    /**
+       時間の計測を開始します。
+    */
+    public void start() {
+	last = System.nanoTime();
+    }
+
+    /**
+       前回の計測からの経過時間を段階の処理時間に加算します。
+
+       @param phase 段階
+    */
+    public void lap(final Phase phase) {
+	long now = System.nanoTime();
+	times[phase.ordinal()] += now - last;
+	last = now;
+    }
+
+    /**
+       処理したgcnoファイルの個数をひとつ増やします。
+    */
+    public void addFile() {
+	++files;
+    }
+
+    /**
+       入力したバイト数を加算します。
+
+       @param size バイト数
+    */
+    public void addBytesRead(final long size) {
+	bytesRead += size;
+    }
+
+    /**
+       出力したバイト数を加算します。
+
+       @param size バイト数
+    */
+    public void addBytesWritten(final long size) {
+	bytesWritten += size;
+    }
+
+    /**
+       他のレコーダの記録を加算します。
+
+       @param r レコーダ
+    */
+    public void addMeasurement(final StatisticsRecorder r) {
+	for (int k = 0; k < times.length; ++k) {
+	    times[k] += r.times[k];
+	}
+	files += r.files;
+	bytesRead += r.bytesRead;
+	bytesWritten += r.bytesWritten;
+    }
+
+    /**
+       スレッドの名前を取得します。
+
+       @return スレッドの名前
+    */
+    public String getThreadName() {
+	return threadName;
+    }
+
+    /**
+       段階の処理時間を取得します。
+
+       @param phase 段階
+       @return 処理時間（ナノ秒）
+    */
+    public long getTime(final Phase phase) {
+	return times[phase.ordinal()];
+    }
+
+    /**
+       処理したgcnoファイルの個数を取得します。
+
+       @return gcnoファイルの個数
+    */
+    public int getFiles() {
+	return files;
+    }
+
+    /**
+       入力したバイト数を取得します。
+
+       @return バイト数
+    */
+    public long getBytesRead() {
+	return bytesRead;
+    }
+
+    /**
+       出力したバイト数を取得します。
+
+       @return バイト数
+    */
+    public long getBytesWritten() {
+	return bytesWritten;
+    }
+}
@@ -3,22 +3,22 @@ package com.maroontress.coverture;
 import java.util.Iterator;
 
 /**
-   ǤȥСޤ
+   要素をトラバースします。
 
-   @param <E> 
+   @param <E> 要素
 */
 public final class Traverser<E> {
 
-    /** ǤȿҤǤ */
+    /** 要素の反復子です。 */
     private Iterator<E> iterator;
 
-    /** ȥС֤ǤǤ */
+    /** トラバース位置の要素です。 */
     private E element;
 
     /**
-       ȥСޤ
+       トラバーサーを生成します。
 
-       @param i ȿǽʥ󥹥
+       @param i 反復可能なインスタンス
     */
     public Traverser(final Iterable<E> i) {
 	iterator = i.iterator();
@@ -26,29 +26,29 @@ public final class Traverser<E> {
     }
 
     /**
-       ȥС֤Ǥ򹹿ޤ
+       トラバース位置の要素を更新します。
     */
     private void updateElement() {
 	element = (iterator.hasNext()) ? iterator.next() : null;
     }
 
     /**
-       ȥСΰ֤ǤޤȥСΰ֤ѹޤ
+       トラバースの位置の要素を取得します。トラバースの位置は変更しません。
 
-       ȥСΰ֤üãƤnull֤ޤ
+       トラバースの位置が終端に達している場合はnullを返します。
 
-       @return ȥСΰ֤ǡޤnull
+       @return トラバースの位置の要素、またはnull
     */
     public E peek() {
 	return element;
     }
 
     /**
-       ȥСΰ֤ǤޤȥСΰ֤ҤȤĿʤޤ
+       トラバースの位置の要素を取得します。トラバースの位置をひとつ進めます。
 
-       ȥСΰ֤üãƤnull֤ޤ
+       トラバースの位置が終端に達している場合はnullを返します。
 
-       @return ȥСΰ֤ǡޤnull
+       @return トラバースの位置の要素、またはnull
     */
     public E poll() {
 	E e = element;
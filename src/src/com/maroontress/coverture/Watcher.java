@@ -0,0 +1,174 @@
+package com.maroontress.coverture;
+
+import com.maroontress.gcovparser.Origin;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+   gcnoファイルとgcdaファイルの更新を監視して、更新されたファイルを
+   処理し直すクラスです。
+
+   ファイルを含むディレクトリをWatchServiceに登録し、ファイルの生成
+   と変更を待ちます。テストの実行中はgcdaファイルが続けて更新される
+   ので、最後の更新から一定時間（入出力プロパティの監視の遅延時間）
+   だけ他の更新がなくなるまで待ってから、更新されたファイルをまとめ
+   て処理します。
+
+   処理はProcessor#update(Collection)で行うので、出力し直すのは更新
+   されたノートのgcovファイル、gcovの中間形式（JSON）のファイル、ノー
+   ト毎のXMLファイルだけです。入出力プロパティにノートレコードのキャッ
+   シュを設定しておくと、更新されていないgcnoファイルはデコードし直
+   しません。
+
+   WatchServiceを使用するので、Java 7以降が必要です。
+*/
+public final class Watcher {
+
+    /** 処理し直すプロセッサです。 */
+    private Processor processor;
+
+    /** 入出力プロパティです。 */
+    private IOProperties props;
+
+    /** ファイルの更新を監視するサービスです。 */
+    private WatchService service;
+
+    /**
+       監視キーと、そのディレクトリのファイル名とgcnoファイルのパス
+       のマップのマップです。
+    */
+    private Map<WatchKey, Map<String, String>> keys;
+
+    /** 監視するファイルの個数です。 */
+    private int fileCount;
+
+    /**
+       インスタンスを生成し、gcnoファイルとgcdaファイルを含むディレ
+       クトリを監視するサービスに登録します。存在しないディレクトリは
+       監視しません。
+
+       @param processor 処理し直すプロセッサ
+       @param props 入出力プロパティ
+       @param notes 監視するgcnoファイルのパスのコレクション
+       @throws IOException 入出力エラー
+    */
+    public Watcher(final Processor processor, final IOProperties props,
+		   final Collection<String> notes) throws IOException {
+	this.processor = processor;
+	this.props = props;
+	service = FileSystems.getDefault().newWatchService();
+	keys = new HashMap<WatchKey, Map<String, String>>();
+	for (String name : notes) {
+	    Origin origin = new Origin(name);
+	    register(origin.getNoteFile(), name);
+	    register(origin.getDataFile(), name);
+	}
+    }
+
+    /**
+       ファイルを含むディレクトリを監視するサービスに登録します。
+
+       @param file 監視するファイル
+       @param name 更新されたときに処理するgcnoファイルのパス
+       @throws IOException 入出力エラー
+    */
+    private void register(final File file, final String name)
+	throws IOException {
+	File abs = file.getAbsoluteFile();
+	File dir = abs.getParentFile();
+	if (!dir.isDirectory()) {
+	    if (props.isVerbose()) {
+		props.getMessageStream().printf(
+		    "%s: not watched: no such directory.%n", dir.getPath());
+	    }
+	    return;
+	}
+	WatchKey key = dir.toPath().register(
+	    service, StandardWatchEventKinds.ENTRY_CREATE,
+	    StandardWatchEventKinds.ENTRY_MODIFY);
+	Map<String, String> map = keys.get(key);
+	if (map == null) {
+	    map = new HashMap<String, String>();
+	    keys.put(key, map);
+	}
+	map.put(abs.getName(), name);
+	++fileCount;
+    }
+
+    /**
+       監視キーに通知されたイベントから、処理し直すgcnoファイルのパス
+       を集めます。監視キーは再び通知を受けられるようにリセットします。
+
+       @param key 監視キー
+       @param changed 処理し直すgcnoファイルのパスを追加するセット
+    */
+    private void collect(final WatchKey key, final Set<String> changed) {
+	Map<String, String> map = keys.get(key);
+	for (WatchEvent<?> e : key.pollEvents()) {
+	    if (e.kind() == StandardWatchEventKinds.OVERFLOW) {
+		for (Map<String, String> m : keys.values()) {
+		    changed.addAll(m.values());
+		}
+		continue;
+	    }
+	    String name = map.get(((Path) e.context()).toString());
+	    if (name != null) {
+		changed.add(name);
+	    }
+	}
+	if (!key.reset()) {
+	    keys.remove(key);
+	    if (props.isVerbose()) {
+		props.getMessageStream().printf("%s: no longer watched.%n",
+						key.watchable());
+	    }
+	}
+    }
+
+    /**
+       ファイルの更新を監視し、更新されたファイルを処理し直します。割
+       り込まれるか、監視するディレクトリがなくなるまで戻りません。
+
+       @throws IOException 入出力エラー
+    */
+    public void run() throws IOException {
+	long delay = props.getWatchDelay();
+	try {
+	    props.getMessageStream().printf(
+		"watching %d files in %d directories.%n",
+		fileCount, keys.size());
+	    while (!keys.isEmpty()) {
+		Set<String> changed = new TreeSet<String>();
+		WatchKey key = service.take();
+		while (key != null) {
+		    collect(key, changed);
+		    key = service.poll(delay, TimeUnit.MILLISECONDS);
+		}
+		if (changed.isEmpty()) {
+		    continue;
+		}
+		long start = System.nanoTime();
+		processor.update(changed);
+		props.getMessageStream().printf(
+		    "%d files updated in %.1f ms.%n", changed.size(),
+		    (System.nanoTime() - start) / 1e6);
+	    }
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	} finally {
+	    service.close();
+	}
+    }
+}
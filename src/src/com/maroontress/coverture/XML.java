@@ -3,11 +3,11 @@ package com.maroontress.coverture;
 import java.util.HashMap;
 
 /**
-   XMLϤΤΥ桼ƥƥǤ
+   XML出力のためのユーティリティです。
 */
 public final class XML {
 
-    /** פʸȥ׸ʸΥޥå */
+    /** エスケープする文字とエスケープ後の文字列のマップ */
     private static HashMap<Character, String> map;
 
     static {
@@ -20,16 +20,16 @@ public final class XML {
     }
 
     /**
-       󥹥ȥ饯Ǥ
+       コンストラクタです。
     */
     private XML() {
     }
 
     /**
-       XMLǽϤǤ褦˥פʸޤ
+       XMLで出力できるようにエスケープした文字列を取得します。
 
-       @param s ʸ
-       @return פʸ
+       @param s 文字列
+       @return エスケープした文字列
     */
     public static String escape(final String s) {
         StringBuilder b = new StringBuilder();
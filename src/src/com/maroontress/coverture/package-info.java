@@ -1,4 +1,4 @@
 /**
-   Covertureޥɤμ󶡤ѥåǤ
+   Covertureコマンドの実装を提供するパッケージです。
 */
 package com.maroontress.coverture;
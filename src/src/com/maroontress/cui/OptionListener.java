@@ -1,18 +1,18 @@
 package com.maroontress.cui;
 
 /**
-   ޥɥ饤󥪥ץ򸡽ФȤ˸ƤӽФꥹʤǤ
+   コマンドラインオプションを検出したときに呼び出すリスナです。
 */
 public interface OptionListener {
 
     /**
-       ץ򸡽ФȤ˸ƤӽФޤ
+       オプションを検出したときに呼び出されます。
 
-       ʤΥץξ硢argnullˤʤޤ
+       引数なしのオプションの場合、argはnullになります。
 
-       @param name ץ̾
-       @param arg ץΰޤnull
-       @throws OptionsParsingException ץͤ
+       @param name オプションの名前
+       @param arg オプションの引数、またはnull
+       @throws OptionsParsingException オプションの値が不正
     */
     void run(final String name,
 	     final String arg) throws OptionsParsingException;
@@ -9,32 +9,32 @@ import java.util.Set;
 import java.util.TreeMap;
 
 /**
-   ޥɥ饤󥪥ץǤ
+   コマンドラインオプションの定義です。
 */
 public final class Options {
-    /** إץåΥǥκǾͤǤ */
+    /** ヘルプメッセージのインデント幅の最小値です。 */
     private static final int MIN_INDENT_WIDTH = 4;
 
-    /** ʤΥץΥåȤǤ */
+    /** 引数なしのオプションのセットです。 */
     private Set<String> options;
 
-    /** ΥץΥåȤǤ */
+    /** 引数ありのオプションのセットです。 */
     private Set<String> argOptions;
 
     /**
-       ޥɥ饤󥪥ץ̾ȰͤΥޥåפǤʤ
-       ΥץǤϡͤnullˤʤޤ
+       コマンドラインオプションの名前と引数の値のマップです。引数なし
+       のオプションでは、引数の値はnullになります。
     */
     private Map<String, String> valueMap;
 
-    /** ץȤ˸ƤӽФꥹʤΥޥåפǤ */
+    /** オプションに遭遇したときに呼び出すリスナのマップです。 */
     private Map<String, OptionListener> listenerMap;
 
-    /** ץΥإץåΥޥåפǤ */
+    /** オプションのヘルプメッセージのマップです。 */
     private Map<String, String> helpMap;
 
     /**
-       ޥɥ饤󥪥ץޤ
+       コマンドラインオプションの定義を生成します。
     */
     public Options() {
 	options = new HashSet<String>();
@@ -45,22 +45,22 @@ public final class Options {
     }
 
     /**
-       إץåΥޥåפޤޥåפΥϥץ
-       ̾ͤϥإץåˤʤޤΥץǤϡ
-       ץ̾ϡ̾=̾פˤʤޤ
+       ヘルプメッセージのマップを取得します。マップのキーはオプション
+       名、値はヘルプメッセージになります。引数ありのオプションでは、
+       オプション名は「名前=引数名」になります。
 
-       @return إץåΥޥå
+       @return ヘルプメッセージのマップ
     */
     public Map<String, String> getHelpMap() {
 	return helpMap;
     }
 
     /**
-       ʤΥץɲäޤ
+       引数なしのオプションの定義を追加します。
 
-       @param name ץ̾
-       @param listener ץꥹ
-       @param help إץå
+       @param name オプション名
+       @param listener オプションリスナ
+       @param help ヘルプメッセージ
     */
     public void add(final String name,
 		    final OptionListener listener,
@@ -70,10 +70,10 @@ public final class Options {
     }
 
     /**
-       ʤΥץɲäޤ
+       引数なしのオプションの定義を追加します。
 
-       @param name ץ̾
-       @param help إץå
+       @param name オプション名
+       @param help ヘルプメッセージ
     */
     public void add(final String name,
 		    final String help) {
@@ -82,12 +82,12 @@ public final class Options {
     }
 
     /**
-       Υץɲäޤ
+       引数ありのオプションの定義を追加します。
 
-       @param name ץ̾
-       @param listener ץꥹ
-       @param argName ̾
-       @param help إץå
+       @param name オプション名
+       @param listener オプションリスナ
+       @param argName 引数の名前
+       @param help ヘルプメッセージ
     */
     public void add(final String name,
 		    final OptionListener listener,
@@ -98,11 +98,11 @@ public final class Options {
     }
 
     /**
-       Υץɲäޤ
+       引数ありのオプションの定義を追加します。
 
-       @param name ץ̾
-       @param argName ̾
-       @param help إץå
+       @param name オプション名
+       @param argName 引数の名前
+       @param help ヘルプメッセージ
     */
     public void add(final String name,
 		    final String argName,
@@ -112,21 +112,21 @@ public final class Options {
     }
 
     /**
-       ʸ󤬥ץ󤫤ɤޤ
+       文字列がオプションかどうかを取得します。
 
-       @param s ʸ
-       @return sץξtrue
+       @param s 文字列
+       @return sがオプションの場合はtrue
     */
     private boolean isOption(final String s) {
 	return s.startsWith("--");
     }
 
     /**
-       ץѡޤ
+       オプションをパースします。
 
-       @param s ץ
-       @throws OptionsParsingException ץΥѡ˼Ԥ
-       ˥ޤ
+       @param s オプション
+       @throws OptionsParsingException オプションのパースに失敗したと
+       きにスローします。
     */
     private void parseOption(final String s) throws OptionsParsingException {
 	String argName;
@@ -153,15 +153,15 @@ public final class Options {
     }
 
     /**
-       ޥɥ饤ΰѡޤ
+       コマンドラインの引数をパースします。
 
-       --ǻϤޤ򥪥ץȤƲᤷޤʳΰ
-       ʳǥѡλޤ
+       --で始まる引数をオプションとして解釈します。それ以外の引数が出
+       現した段階でパースを終了します。
 
-       @param av ޥɥ饤ΰ
-       @return ޥɥ饤ΰΤǽ˽и󥪥ץ
-       ΰǸΰޤǤ
-       @throws OptionsParsingException ʥץλ
+       @param av コマンドラインの引数の配列
+       @return コマンドラインの引数のうち、最初に出現した非オプション
+       の引数から最後の引数までの配列
+       @throws OptionsParsingException 不正なオプションの指定
     */
     public String[] parseFore(final String[] av)
 	throws OptionsParsingException {
@@ -175,14 +175,14 @@ public final class Options {
     }
 
     /**
-       ޥɥ饤ΰѡޤ
+       コマンドラインの引数をパースします。
 
-       --ǻϤޤ򥪥ץȤƲᤷޤʳΰϥ
-       ץȤƲ᤻åפޤ
+       --で始まる引数をオプションとして解釈します。それ以外の引数はオ
+       プションとして解釈せず、スキップします。
 
-       @param av ޥɥ饤ΰ
-       @return ץǤϤʤ
-       @throws OptionsParsingException ʥץλ
+       @param av コマンドラインの引数の配列
+       @return オプションではない引数の配列
+       @throws OptionsParsingException 不正なオプションの指定
     */
     public String[] parse(final String[] av) throws OptionsParsingException {
 	ArrayList<String> args = new ArrayList<String>();
@@ -198,35 +198,35 @@ public final class Options {
     }
 
     /**
-       ץΰͤޤץѡ˸
-       ӽФɬפޤ
+       オプションの引数の値を取得します。オプションをパースした後に呼
+       び出す必要があります。
 
-       ץ󤬻ꤵʤʤΥץξϡnull
-       ֤ޤ
+       オプションが指定されないか、引数なしのオプションの場合は、null
+       を返します。
 
-       @param name ץ̾
-       @return ץ͡ޤnull
+       @param name オプションの名前
+       @return オプションの値、またはnull
     */
     public String getValue(final String name) {
 	return valueMap.get(name);
     }
 
     /**
-       ץλ̵ͭޤץѡ
-       ƤӽФɬפޤ
+       オプションの指定の有無を取得します。オプションをパースした後に
+       呼び出す必要があります。
 
-       @param name ץ̾
-       @return ץ󤬻ꤵƤtrueǤʤfalse
+       @param name オプションの名前
+       @return オプションが指定されていればtrue、そうでなければfalse
     */
     public boolean specified(final String name) {
 	return valueMap.containsKey(name);
     }
 
     /**
-       ץޤ
+       オプションの説明を取得します。
 
-       @param indentWidth ץΥǥ
-       @return 
+       @param indentWidth オプションの説明のインデント幅
+       @return 説明
     */
     public String getHelpMessage(final int indentWidth) {
 	int width = Math.max(MIN_INDENT_WIDTH, indentWidth);
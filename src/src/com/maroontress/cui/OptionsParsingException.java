@@ -1,21 +1,21 @@
 package com.maroontress.cui;
 
 /**
-   ޥɥ饤󥪥ץΥѡ˴ؤ㳰Ǥ
+   コマンドラインオプションのパースに関する例外です。
 */
 public class OptionsParsingException extends Exception {
 
     /**
-       ޥɥ饤󥪥ץΥѡ˴ؤ㳰ޤ
+       コマンドラインオプションのパースに関する例外を生成します。
     */
     public OptionsParsingException() {
 	super();
     }
 
     /**
-       ޥɥ饤󥪥ץΥѡ˴ؤ㳰ޤ
+       コマンドラインオプションのパースに関する例外を生成します。
 
-       @param m ܺ٥å
+       @param m 詳細メッセージ
     */
     public OptionsParsingException(final String m) {
 	super(m);
@@ -1,4 +1,4 @@
 /**
-   CUIΥץ᤹뤿ΥѥåǤ
+   CUIのオプションを解釈するためのパッケージです。
 */
 package com.maroontress.cui;
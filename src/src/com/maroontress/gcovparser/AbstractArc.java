@@ -1,53 +1,53 @@
 package com.maroontress.gcovparser;
 
 /**
-   ؿդΥåȤʤ륢ݥ饹Ǥˤϸ
-   ꡢϥ֥åФƽλ֥åޤ
+   関数グラフのエッジとなるアークの抽象クラスです。アークには向きがあ
+   り、開始ブロックから出て終了ブロックに入ります。
 
-   @param <T> ֥åζݥ饹
-   @param <U> ζݥ饹
+   @param <T> ブロックの具象クラス
+   @param <U> アークの具象クラス
 */
 public abstract class AbstractArc<T extends AbstractBlock<T, U>,
 				  U extends AbstractArc<T, U>> {
 
     /**
-       ѥ˥󥰥ĥ꡼륢ɽե饰Ǥ
+       スパニングツリーを構成するアークを表すフラグです。
     */
     private static final int FLAG_ON_TREE = 0x1;
 
     /**
-       Υɽե饰ǤΥϡ㳰longjmp()ˤ
-       ơߤδؿȴ䡢exit()ʤɤΤ褦ʤؿ
-       θƤӽФηϩɽޤ
+       偽のアークを表すフラグです。偽のアークは、例外やlongjmp()によっ
+       て、現在の関数から抜ける場合や、exit()などのような戻らない関数
+       の呼び出しの経路を表します。
     */
     private static final int FLAG_FAKE = 0x2;
 
     /**
-       ʬʤäϩǤ뤳Ȥɽե饰Ǥ
+       アークが分岐しなかった経路であることを表すフラグです。
     */
     private static final int FLAG_FALL_THROUGH = 0x4;
 
-    /** ϥ֥åǤ */
+    /** 開始ブロックです。 */
     private T start;
 
-    /** λ֥åǤ */
+    /** 終了ブロックです。 */
     private T end;
 
     /**
-       Υե饰ǤFLAG_ON_TREE, FLAG_FAKE, FLAG_FALL_THROUGH
-       ¤ˤʤޤ
+       アークのフラグです。FLAG_ON_TREE, FLAG_FAKE, FLAG_FALL_THROUGH
+       の論理和になります。
     */
     private int flags;
 
     /**
-       Arc is for a function that abnormally returns: Υ
-       ؿθƤӽФʤȤ򼨤ޤ
+       Arc is for a function that abnormally returns: 偽のアークが
+       関数の呼び出しから戻らないことを示します。
     */
     private boolean callNonReturn;
 
     /**
-       Arc is for catch/setjmp: ΥιԤ褬catchޤ
-       setjmp()Ǥ뤳Ȥ򼨤ޤ
+       Arc is for catch/setjmp: 偽のアークの行き先がcatchまたは
+       setjmp()であることを示します。
     */
     private boolean nonLocalReturn;
 
@@ -56,16 +56,16 @@ public abstract class AbstractArc<T extends AbstractBlock<T, U>,
     */
     private boolean unconditional;
 
-    /** μ¹ԲǤ */
+    /** アークの実行回数です。 */
     private long count;
 
     /**
-       ޤ󥹥󥹤ϳϥ֥åΡֽФ
-       סλ֥åΡ륢פɲäޤ
+       アークを生成します。生成したインスタンスは開始ブロックの「出る
+       アーク」、終了ブロックの「入るアーク」に追加されます。
 
-       @param start ϥ֥å
-       @param end λ֥å
-       @param flags ե饰
+       @param start 開始ブロック
+       @param end 終了ブロック
+       @param flags フラグ
     */
     protected AbstractArc(final T start, final T end, final int flags) {
 	this.start = start;
@@ -92,9 +92,9 @@ public abstract class AbstractArc<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ѥ˥󥰥ĥ꡼뤫ɤޤ
+       アークがスパニングツリーを構成するかどうか取得します。
 
-       @return ѥ˥󥰥ĥ꡼trueǤʤ
+       @return スパニングツリーを構成する場合はtrue、そうでなければ
        false
     */
     public final boolean isOnTree() {
@@ -102,18 +102,18 @@ public abstract class AbstractArc<T extends AbstractBlock<T, U>,
     }
 
     /**
-       Υɤޤ
+       アークが偽のアークかどうか取得します。
 
-       @return ΥξtrueǤʤfalse
+       @return 偽のアークの場合はtrue、そうでなければfalse
     */
     public final boolean isFake() {
 	return (flags & FLAG_FAKE) != 0;
     }
 
     /**
-       ʬʤäϩǤ뤫ɤޤ
+       アークが分岐しなかった経路であるかどうか取得します。
 
-       @return ʬʤäϩξtrueǤʤ
+       @return アークが分岐しなかった経路の場合はtrue、そうでなければ
        false
     */
     public final boolean isFallThrough() {
@@ -121,83 +121,83 @@ public abstract class AbstractArc<T extends AbstractBlock<T, U>,
     }
 
     /**
-       exit()ʤɤΤ褦ʤؿθƤӽФǤ뤫ɤ
-       ޤ
+       アークがexit()などのような戻らない関数の呼び出しであるかどうか
+       取得します。
 
-       @return ʤؿθƤӽФξtrueǤʤfalse
+       @return 戻らない関数の呼び出しの場合はtrue、そうでなければfalse
     */
     public final boolean isCallNonReturn() {
 	return callNonReturn;
     }
 
     /**
-       ιԤ褬catchޤsetjmp()Ǥ뤫ɤޤ
+       アークの行き先がcatchまたはsetjmp()であるかどうかを取得します。
 
-       @return ιԤ褬catchޤsetjmp()Ǥtrue
-       Ǥʤfalse
+       @return アークの行き先がcatchまたはsetjmp()である場合はtrue、そ
+       うでなければfalse
     */
     public final boolean isNonLocalReturn() {
 	return nonLocalReturn;
     }
 
     /**
-       γϥ֥åޤ
+       アークの開始ブロックを取得します。
 
-       @return ϥ֥å
+       @return 開始ブロック
     */
     public final T getStart() {
 	return start;
     }
 
     /**
-       νλ֥åޤ
+       アークの終了ブロックを取得します。
 
-       @return λ֥å
+       @return 終了ブロック
     */
     public final T getEnd() {
 	return end;
     }
 
     /**
-       ¹Բɲäޤ
+       実行回数を追加します。
 
-       @param delta ɲä¹Բ
+       @param delta 追加する実行回数
     */
     public final void addCount(final long delta) {
 	count += delta;
     }
 
     /**
-       ¹Բꤷޤ
+       実行回数を設定します。
 
-       @param count ¹Բ
+       @param count 実行回数
     */
     public final void setCount(final long count) {
 	this.count = count;
     }
 
     /**
-       ¹Բޤ
+       実行回数を取得します。
 
-       @return ¹Բ
+       @return 実行回数
     */
     public final long getCount() {
 	return count;
     }
 
     /**
-       ̵ʬɤꤷޤ
+       無条件分岐かどうかを設定します。
 
-       @param b ̵ʬʤtrueǤʤfalse
+       @param b 無条件分岐ならtrue、そうでなければfalse
     */
     public final void setUnconditional(final boolean b) {
 	unconditional = b;
     }
 
     /**
-       ̵ʬɤޤ
+       無条件分岐かどうかを取得します。
 
-       @return ̵ʬʤtrueǤʤfalse
+       @return 無条件分岐ならtrue、そうでなければfalse
     */
     public final boolean isUnconditional() {
 	return unconditional;
@@ -6,67 +6,67 @@ import java.util.Collection;
 import java.util.TreeMap;
 
 /**
-   ؿդΥΡɤȤʤܥ֥åݥ饹Ǥ
+   関数グラフのノードとなる基本ブロックの抽象クラスです。
 
-   @param <T> ֥åζݥ饹
-   @param <U> ζݥ饹
+   @param <T> ブロックの具象クラス
+   @param <U> アークの具象クラス
 */
 public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
 				    U extends AbstractArc<T, U>> {
 
-    /** ֥åμ̻ҤǤ */
+    /** ブロックの識別子です。 */
     private int id;
 
-    /** ֥åΥե饰Ǥ */
+    /** ブロックのフラグです。 */
     private int flags;
 
-    /** 륢פΥꥹȤǤ */
+    /** 「入るアーク」のリストです。 */
     private ArrayList<U> inArcs;
 
-    /** ¹ԲȽ륢פνǤ */
+    /** 実行回数が判明した「入るアーク」の集合です。 */
     private ArrayDeque<U> solvedInArcs;
 
-    /** ¹Բʡ륢פνǤ */
+    /** 実行回数が不明な「入るアーク」の集合です。 */
     private ArrayDeque<U> unsolvedInArcs;
 
-    /** ֽФ륢פΥꥹȤǤ */
+    /** 「出るアーク」のリストです。 */
     private ArrayList<U> outArcs;
 
-    /** ¹ԲȽֽФ륢פΥꥹȤǤ */
+    /** 実行回数が判明した「出るアーク」のリストです。 */
     private ArrayDeque<U> solvedOutArcs;
 
-    /** ¹ԲʡֽФ륢פΥꥹȤǤ */
+    /** 実行回数が不明な「出るアーク」のリストです。 */
     private ArrayDeque<U> unsolvedOutArcs;
 
-    /** ֥åμ¹ԲǤ */
+    /** ブロックの実行回数です。 */
     private long count;
 
     /**
-       Block is a call instrumenting site; does the call: ؿƤӽФ
-       ¬֥åʥˤǤ뤳Ȥ򼨤ޤ
+       Block is a call instrumenting site; does the call: 関数呼び出し
+       計測ブロック（コール）であることを示します。
     */
     private boolean callSite;
 
     /**
-       Block is a call instrumenting site; is the return: ؿƤӽФ
-       ¬֥åʥ꥿ˤɤޤ
+       Block is a call instrumenting site; is the return: 関数呼び出し
+       計測ブロック（リターン）かどうかを取得します。
     */
     private boolean callReturn;
 
     /**
-       Block is a landing pad for longjmp or throw: longjmp()ޤ
-       throwǤsetjmp()ޤcatchǤˤȤ򼨤ޤ
+       Block is a landing pad for longjmp or throw: longjmp()または
+       throwの着地点である（setjmp()またはcatchである）ことを示します。
     */
     private boolean nonLocalReturn;
 
-    /** ֥åб륽ɤιԥȥǤ */
+    /** ブロックに対応するソースコードの行エントリの配列です。 */
     private LineEntry[] lines;
 
     /**
-       ֥åޤ
+       ブロックを生成します。
 
-       @param id ֥åμ̻
-       @param flags ֥åΥե饰
+       @param id ブロックの識別子
+       @param flags ブロックのフラグ
     */
     protected AbstractBlock(final int id, final int flags) {
 	this.id = id;
@@ -81,59 +81,59 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ȤޤȤͭǤʤȤ0֤ޤ
+       カウントを取得します。カウントが有効でないときは0を返します。
 
-       @return 
+       @return カウント
     */
     public final long getCount() {
 	return (count < 0) ? 0 : count;
     }
 
     /**
-       Ȥͭޤ
+       カウントの有効性を取得します。
 
-       @return ȤͭʤtrueǤʤfalse
+       @return カウントが有効ならtrue、そうでなければfalse
     */
     public final boolean getCountValid() {
 	return (count >= 0);
     }
 
     /**
-       ؿƤӽФ¬֥åʥˤɤꤷޤ
+       関数呼び出し計測ブロック（コール）かどうかを設定します。
 
-       @param b ؿƤӽФ¬֥åʥˤξtrue
-       ʤfalse
+       @param b 関数呼び出し計測ブロック（コール）の場合はtrue、そうで
+       なければfalse
     */
     public final void setCallSite(final boolean b) {
 	callSite = b;
     }
 
     /**
-       catchޤsetjmp()ޤ֥åɤꤷޤ
+       catchまたはsetjmp()を含むブロックかどうかを設定します。
 
-       @param b catchޤsetjmp()ޤ֥åξtrue
-       ʤfalse
+       @param b catchまたはsetjmp()を含むブロックの場合はtrue、そうで
+       なければfalse
     */
     public final void setNonLocalReturn(final boolean b) {
 	nonLocalReturn = b;
     }
 
     /**
-       ԥȥޤ
+       行エントリの配列を取得します。
 
-       @return ԥȥ
+       @return 行エントリの配列
     */
     public final LineEntry[] getLines() {
 	return lines;
     }
 
     /**
-       Υ֥å˥ɲäޤ
+       このブロックにアークを追加します。
 
-       @param arcs Υꥹ
-       @param unsolvedArcs ¹Բʥν
-       @param solvedArcs ¹ԲȽ륢ν
-       @param arc 
+       @param arcs アークのリスト
+       @param unsolvedArcs 実行回数が不明なアークの集合
+       @param solvedArcs 実行回数が判明するアークの集合
+       @param arc アーク
     */
     private void addArc(final ArrayList<U> arcs,
 			final ArrayDeque<U> unsolvedArcs,
@@ -148,105 +148,105 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       Υ֥å륢ɲäޤ
+       このブロックに入るアークを追加します。
 
-       @param arc 
+       @param arc アーク
     */
     public final void addInArc(final U arc) {
 	addArc(inArcs, unsolvedInArcs, solvedInArcs, arc);
     }
 
     /**
-       Υ֥åФ륢ɲäޤ
+       このブロックから出るアークを追加します。
 
-       @param arc 
+       @param arc アーク
     */
     public final void addOutArc(final U arc) {
 	addArc(outArcs, unsolvedOutArcs, solvedOutArcs, arc);
     }
 
     /**
-       Υ֥åιԥȥꤷޤ
+       このブロックの行エントリの配列を設定します。
 
-       @param lines ԥȥ
+       @param lines 行エントリの配列
     */
     public final void setLines(final LineEntry[] lines) {
 	this.lines = lines;
     }
 
     /**
-       ̻Ҥޤ
+       識別子を取得します。
 
-       @return ̻
+       @return 識別子
     */
     public final int getId() {
 	return id;
     }
 
     /**
-       륢פΥꥹȤޤ
+       「入るアーク」のリストを取得します。
 
-       @return 륢פΥꥹ
+       @return 「入るアーク」のリスト
     */
     public final ArrayList<U> getInArcs() {
 	return inArcs;
     }
 
     /**
-       ֽФ륢פΥꥹȤޤ
+       「出るアーク」のリストを取得します。
 
-       @return ֽФ륢פΥꥹ
+       @return 「出るアーク」のリスト
     */
     public final ArrayList<U> getOutArcs() {
 	return outArcs;
     }
 
     /**
-       ե饰ޤ
+       フラグを取得します。
 
-       @return ե饰
+       @return フラグ
     */
     public final int getFlags() {
 	return flags;
     }
 
     /**
-       ؿƤӽФ¬֥åʥˤɤޤ
+       関数呼び出し計測ブロック（コール）かどうかを取得します。
 
-       @return ؿƤӽФ¬֥åʥˤξtrue
-       ʤfalse
+       @return 関数呼び出し計測ブロック（コール）の場合はtrue、そうで
+       なければfalse
     */
     public final boolean isCallSite() {
 	return callSite;
     }
 
     /**
-       ؿƤӽФ¬֥åʥ꥿ˤɤޤ
+       関数呼び出し計測ブロック（リターン）かどうかを取得します。
 
-       @return ؿƤӽФ¬֥åʥ꥿ˤξtrue
-       Ǥʤfalse
+       @return 関数呼び出し計測ブロック（リターン）の場合はtrue、そう
+       でなければfalse
     */
     public final boolean isCallReturn() {
 	return callReturn;
     }
 
     /**
-       Υ֥ålongjmp()ޤthrowǤsetjmp()ޤ
-       catchǤˤɤޤ
+       このブロックがlongjmp()またはthrowの着地点である（setjmp()また
+       はcatchである）かどうかを取得します。
 
-       @return Υ֥ålongjmp()ޤthrowǤ
-       trueǤʤfalse
+       @return このブロックがlongjmp()またはthrowの着地点である場合は
+       true、そうでなければfalse
     */
     public final boolean isNonLocalReturn() {
 	return nonLocalReturn;
     }
 
     /**
-       եդ򤯤ν򤷤ޤ
+       フローグラフを解くための準備をします。
 
-       ֥åФ뵶Ǥʤ1Ĥʤ硢Υ̵
-       ʬꤷޤˡΥ֥åָƤ
-       ФפǤ뤫ɤꤷޤ
+       ブロックから出る偽でないアークが1つしかない場合、そのアークを無
+       条件分岐に設定します。さらに、そのアークが入るブロックが「呼び
+       出しからの戻り」であるかどうかを設定します。
     */
     public final void presolve() {
 	int nonFakeArcs = 0;
@@ -284,8 +284,8 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ֽФ륢פΥꥹȤ򤽤νλ֥åμ̻ҽ˥Ȥ
-       
+       「出るアーク」のリストをその終了ブロックの識別子順にソートしま
+       す。
     */
     public final void sortOutArcs() {
 	TreeMap<Integer, U> map = new TreeMap<Integer, U>();
@@ -297,10 +297,10 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ν礫¹Բޤ
+       アークの集合から実行回数を求めます。
 
-       @param arcs ν
-       @return ¹Բ
+       @param arcs アークの集合
+       @return 総実行回数
     */
     private long sumCount(final Collection<U> arcs) {
 	long total = 0;
@@ -311,11 +311,11 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ¹Բޤ
+       実行回数を求めます。
 
-       @param arcs Υꥹ
-       @param unsolvedArcs ¹ԲʥΥꥹ
-       @return ¹ԲޤätrueǤʤfalse
+       @param arcs アークのリスト
+       @param unsolvedArcs 実行回数が不明なアークのリスト
+       @return 実行回数が求まった時はtrue、そうでなければfalse
     */
     private boolean validateCount(final ArrayList<U> arcs,
 				  final ArrayDeque<U> unsolvedArcs) {
@@ -327,16 +327,16 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ¹Բޤ
+       実行回数を求めます。
 
-       륢פμ¹Բ٤ƵޤäƤ뤫ֽФ륢
-       μ¹Բ٤ƵޤäƤ硢¤֥åμ
-       ԲȤƷ׻֥å򥽥Фɲäޤ
+       「入るアーク」の実行回数がすべて求まっているか、「出るアーク」
+       の実行回数がすべて求まっている場合、それらの総和をブロックの実
+       行回数として計算し、ブロックをソルバに追加します。
 
-       륢פȡֽФ륢פΤɤ¹ԲޤäƤ
-       ϲ⤷ޤ
+       「入るアーク」と「出るアーク」のどちらも実行回数が求まっていな
+       い場合は何もしません。
 
-       @param s եե
+       @param s フローグラフソルバ
     */
     public final void validate(final Solver s) {
 	if (validateCount(inArcs, unsolvedInArcs)
@@ -346,102 +346,102 @@ public abstract class AbstractBlock<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ֽФ륢פμ¹ԲȽȤ˸ƤӽФޤ
+       「出るアーク」の実行回数が判明したときに呼び出されます。
 
-       ֥åμ¹ԲȽƤϡ֥åֽФ
-       פΤ¹ԲȽƤʤμ¹Բǽ
-       ʤޤ
+       ブロックの実行回数が既に判明していた場合は、ブロックから「出る
+       アーク」のうち、実行回数が判明していないアークの実行回数を可能
+       なら求めます。
 
-       ֥åμ¹Բʾϡ֥åμ¹Բǽʤ
-       ޤη̤ȶ˥Ф˥֥åɲäޤ
+       ブロックの実行回数が不明な場合は、ブロックの実行回数を可能なら
+       求めます。その結果と共にソルバにブロックを追加します。
 
-       @param s եե
-       @param arc ¹ԲȽ
+       @param s フローグラフソルバ
+       @param arc 実行回数が判明したアーク
     */
     private void validateInSideBlock(final Solver s, final U arc) {
 	unsolvedOutArcs.remove(arc);
 	solvedOutArcs.add(arc);
 	if (inArcs.size() > 0 && unsolvedInArcs.size() == 0) {
-	    /* ˼¹ԲȽƤ */
+	    /* 既に実行回数が判明していた */
 	    if (unsolvedOutArcs.size() == 1) {
 		validateOutSide(s);
 	    }
 	} else {
-	    /* ޤ¹Բ */
+	    /* まだ実行回数が不明 */
 	    s.add(this, validateCount(outArcs, unsolvedOutArcs));
 	}
     }
 
     /**
-       ¹Բʡ륢פ1ĤǤꡢĥ֥åμ
-       ԲȽȤ˸ƤӽФ졢٤ƤΡ륢פμ¹
-       Ƚޤ
+       実行回数の不明な「入るアーク」が1つだけであり、かつブロックの実
+       行回数が判明したときに呼び出され、すべての「入るアーク」の実行
+       回数が判明します。
 
-       ¹ԲȽγϥ֥åˤĤơƵŪ˼¹Բ
-       ޤ
+       実行回数が判明したアークの開始ブロックについて、再帰的に実行回
+       数を求めます。
 
-       @param s եե
+       @param s フローグラフソルバ
     */
     private void validateInSide(final Solver s) {
 	U arc = unsolvedInArcs.remove();
 	arc.setCount(count - sumCount(solvedInArcs));
 	solvedInArcs.add(arc);
-	/* arcФ֥åˤĤƤν */
+	/* arcが出るブロックについての処理 */
 	arc.getStart().validateInSideBlock(s, arc);
     }
 
     /**
-       륢פμ¹ԲȽȤ˸ƤӽФޤ
+       「入るアーク」の実行回数が判明したときに呼び出されます。
 
-       ֥åμ¹ԲȽƤϡ֥åˡ륢
-       פΤ¹ԲȽƤʤμ¹Բǽʤ
-       ޤ
+       ブロックの実行回数が既に判明していた場合は、ブロックに「入るアー
+       ク」のうち、実行回数が判明していないアークの実行回数を可能なら
+       求めます。
 
-       ֥åμ¹Բʾϡ֥åμ¹Բǽʤ
-       ޤη̤ȶ˥Ф˥֥åɲäޤ
+       ブロックの実行回数が不明な場合は、ブロックの実行回数を可能なら
+       求めます。その結果と共にソルバにブロックを追加します。
 
-       @param s եե
-       @param arc ¹ԲȽ
+       @param s フローグラフソルバ
+       @param arc 実行回数が判明したアーク
     */
     private void validateOutSideBlock(final Solver s, final U arc) {
 	unsolvedInArcs.remove(arc);
 	solvedInArcs.add(arc);
 	if (outArcs.size() > 0 && unsolvedOutArcs.size() == 0) {
-	    /* ˼¹ԲȽƤ */
+	    /* 既に実行回数が判明していた */
 	    if (unsolvedInArcs.size() == 1) {
 		validateInSide(s);
 	    }
 	} else {
-	    /* ޤ¹Բ */
+	    /* まだ実行回数が不明 */
 	    s.add(this, validateCount(inArcs, unsolvedInArcs));
 	}
     }
 
     /**
-       ¹ԲʡֽФ륢פ1ĤǤꡢĥ֥åμ
-       ԲȽȤ˸ƤӽФ졢٤ƤΡֽФ륢פμ¹
-       Ƚޤ
+       実行回数の不明な「出るアーク」が1つだけであり、かつブロックの実
+       行回数が判明したときに呼び出され、すべての「出るアーク」の実行
+       回数が判明します。
 
-       ¹ԲȽνλ֥åˤĤơƵŪ˼¹Բ
-       ޤ
+       実行回数が判明したアークの終了ブロックについて、再帰的に実行回
+       数を求めます。
 
-       @param s եե
+       @param s フローグラフソルバ
     */
     private void validateOutSide(final Solver s) {
 	U arc = unsolvedOutArcs.remove();
 	arc.setCount(count - sumCount(solvedOutArcs));
 	solvedOutArcs.add(arc);
-	/* arc֥åˤĤƤν */
+	/* arcが入るブロックについての処理 */
 	arc.getEnd().validateOutSideBlock(s, arc);
     }
 
     /**
-       ֥å륢Ф륢줾ˤĤơ¹Բ
-       ʤΤ1Ĥʤ顢μ¹Բޤ
+       ブロックに入るアーク、出るアークそれぞれについて、実行回数が不
+       明なものが1つだけなら、それの実行回数を求めます。
 
-       ֥åϴ˼¹ԲȽƤɬפޤ
+       ブロックは既に実行回数が判明している必要があります。
 
-       @param s եե
+       @param s フローグラフソルバ
     */
     public final void validateSides(final Solver s) {
 	if (unsolvedInArcs.size() == 1) {
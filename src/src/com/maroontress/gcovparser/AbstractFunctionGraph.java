@@ -10,99 +10,108 @@ import com.maroontress.gcovparser.gcno.LinesRecord;
 import java.util.ArrayList;
 
 /**
-   ؿդΥ֥ȥ饯ȼǤ
+   関数グラフのアブストラクト実装です。
 
-   @param <T> ֥åζݥ饹
-   @param <U> ζݥ饹
+   @param <T> ブロックの具象クラス
+   @param <U> アークの具象クラス
 */
 public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
 					    U extends AbstractArc<T, U>> {
 
-    /** ̻ҤǤ */
+    /** 識別子です。 */
     private int id;
 
-    /** ؿΥåǤ */
+    /** 関数のチェックサムです。 */
     private int checksum;
 
-    /** ؿ̾Ǥ */
+    /** 関数名です。 */
     private String functionName;
 
-    /** ɤΥե̾Ǥ */
+    /** ソースコードのファイル名です。 */
     private String sourceFile;
 
-    /** ؿи륽ɤιԿǤ */
+    /** 関数が出現するソースコードの行数です。 */
     private int lineNumber;
 
-    /** ؿܥ֥åΥꥹȤǤ */
+    /** 関数を構成する基本ブロックのリストです。 */
     private ArrayList<T> blocks;
 
-    /** ٤ƤΥθĿǤ */
+    /** すべてのアークの個数です。 */
     private int totalArcCount;
 
+    /** フローグラフを解いたときのソルバの反復回数です。 */
+    private int solverRounds;
+
     /**
-       ʣ٤׻̵Ǥ뵶ΥθĿǤ
-
-       ʣ٤׻̵Ǥ륢ϡǽ֥å˸
-       ΥǤΥϡ㳰longjmp()ˤäơߤδ
-       ȴϩбޤΤᡢʣ٤׻
-       ΥƷ׻ɬפޤȤC++
-       try-catch֥å㳰ª硢ǽ֥åǤϤʤ֥
-       ˸Υ¸ߤޤäơΥ
-       ΤǤϤʤǽŪ֥å˸Υ
-       ɬפޤ
+       複雑度を計算する場合に無視できる偽のアークの個数です。
+
+       複雑度を計算する場合に無視できるアークは、最終ブロックに向かう
+       偽のアークです。偽のアークは、例外やlongjmp()によって、現在の関
+       数から抜ける経路に対応します。そのため、複雑度を計算する場合は
+       偽のアークを除外して計算する必要があります。ところが、C++の
+       try-catchブロックで例外を捕捉する場合、最終ブロックではないブロッ
+       クに向かう偽のアークが存在します。したがって、ただ偽のアークを
+       除外するのではなく、最終的ブロックに向かう偽のアークだけを除外
+       する必要があります。
     */
     private int ignorableArcCount;
 
-    /** ¹ԲȽƤ륢ΥꥹȤǤ */
+    /** 実行回数が判明しているアークのリストです。 */
     private ArrayList<U> solvedArcs;
 
-    /** ¹ԲʥΥꥹȤǤ */
+    /** 実行回数が不明なアークのリストです。 */
     private ArrayList<U> unsolvedArcs;
 
-    /** ƤӽФ줿Ǥ */
+    /** 呼び出された回数です。 */
     private long calledCount;
 
-    /** äǤ */
+    /** 戻った回数です。 */
     private long returnedCount;
 
-    /** ¹Ԥ줿֥åȽиˤθĿǤ */
+    /** 実行されたブロック（入口と出口を除く）の個数です。 */
     private int executedBlockCount;
 
-    /** եդ褷Ƥ뤫ɤɽޤ */
+    /** フローグラフが解決しているかどうかを表します。 */
     private boolean solved;
 
+    /** ソースファイルのフィルタ、またはnullです。 */
+    private SourceFilter filter;
+
+    /** 関数のソースファイルをフィルタが受け入れるかどうかを表します。 */
+    private boolean sourceFileAccepted;
+
     /**
-       ֥åޤ
+       ブロックを生成します。
 
-       @param id ̻
-       @param flags ե饰
-       @return ֥å
+       @param id 識別子
+       @param flags フラグ
+       @return ブロック
     */
     protected abstract T createBlock(int id, int flags);
 
     /**
-       ޤ
+       アークを生成します。
 
-       @param start ϥ֥å
-       @param end λ֥å
-       @param flags ե饰
-       @return 
+       @param start 開始ブロック
+       @param end 終了ブロック
+       @param flags フラグ
+       @return アーク
     */
     protected abstract U createArc(T start, T end, int flags);
 
     /**
-       ֥åIterableޤ
+       ブロックのIterableを取得します。
 
-       @return ֥åIterable
+       @return ブロックのIterable
     */
     public final Iterable<T> getBlocks() {
 	return blocks;
     }
 
     /**
-       Iterableޤ
+       アークのIterableを取得します。
 
-       @return Iterable
+       @return アークのIterable
     */
     public final Iterable<U> getArcs() {
 	ArrayList<U> arcs = new ArrayList<U>();
@@ -112,64 +121,91 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
     }
 
     /**
-       åޤ
+       チェックサムを取得します。
 
-       @return å
+       @return チェックサム
     */
     public final int getChecksum() {
 	return checksum;
     }
 
     /**
-       ɤΥե̾ޤ
+       ソースコードのファイル名を取得します。
 
-       @return ɤΥե̾
+       @return ソースコードのファイル名
     */
     public final String getSourceFile() {
 	return sourceFile;
     }
 
     /**
-       ʣ٤ޤ
+       複雑度を取得します。
 
-       @return ʣ
+       @return 複雑度
     */
     public final int getComplexity() {
 	return getComplexityWithFake() - ignorableArcCount;
     }
 
     /**
-       եΥθʣ٤ޤ
+       フェイクのアークを考慮した複雑度を取得します。
 
-       @return եΥθʣ
+       @return フェイクのアークを考慮した複雑度
     */
     protected final int getComplexityWithFake() {
 	return totalArcCount - blocks.size() + 2;
     }
 
     /**
-       եդ򤤤ɤޤ
+       フローグラフを解いたかどうかを取得します。
 
-       @return եդ򤤤true
+       @return フローグラフを解いた場合はtrue
     */
     protected final boolean isSolved() {
 	return solved;
     }
 
     /**
-       ؿե쥳ɤ饤󥹥󥹤ޤ
+       関数のソースファイルをフィルタが受け入れるかどうかを取得します。
 
-       @param rec ؿե쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @return 受け入れる場合はtrue、そうでなければfalse
+    */
+    public final boolean isSourceFileAccepted() {
+	return sourceFileAccepted;
+    }
+
+    /**
+       関数グラフレコードからインスタンスを生成します。
+
+       @param rec 関数グラフレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     protected AbstractFunctionGraph(final FunctionGraphRecord rec)
 	throws CorruptedFileException {
+	this(rec, null);
+    }
+
+    /**
+       関数グラフレコードからインスタンスを生成します。
+
+       フィルタが受け入れないソースファイルの行番号は、行エントリに含
+       めません。
+
+       @param rec 関数グラフレコード
+       @param filter ソースファイルのフィルタ、またはnull
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    protected AbstractFunctionGraph(final FunctionGraphRecord rec,
+				    final SourceFilter filter)
+	throws CorruptedFileException {
+	this.filter = filter;
 	AnnounceFunctionRecord announce = rec.getAnnounce();
 	id = announce.getId();
 	checksum = announce.getChecksum();
 	functionName = announce.getFunctionName();
 	sourceFile = announce.getSourceFile();
 	lineNumber = announce.getLineNumber();
+	sourceFileAccepted = (filter == null || filter.accept(sourceFile));
 	solvedArcs = new ArrayList<U>();
 	unsolvedArcs = new ArrayList<U>();
 
@@ -207,10 +243,10 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ARCS쥳ɤ饢ơؿդɲäޤ
+       ARCSレコードからアークを生成して、関数グラフに追加します。
 
-       @param arcsRecord ARCS쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param arcsRecord ARCSレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private void addArcsRecord(final ArcsRecord arcsRecord)
 	throws CorruptedFileException {
@@ -235,17 +271,17 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
 	    end.addInArc(arc);
 	    if (!arc.isOnTree()) {
 		/*
-		  ѥ˥󥰥ĥ꡼ǤϤʤgcdaեˤϤ
-		  б¹ԲϿ롣μ¹Բ
-		  ºݤ˲褹ΤsetFunctionDataRecord()᥽
-		  ɤƤФ줿Ȥ
+		  スパニングツリーではないアーク。gcdaファイルにはこの
+		  アークに対応する実行回数が記録される。アークの実行回
+		  数が実際に解決するのはsetFunctionDataRecord()メソッ
+		  ドが呼ばれたとき。
 		*/
 		solvedArcs.add(arc);
 	    } else {
 		/*
-		  ѥ˥󥰥ĥ꡼Υμ¹Բgcdaե
-		  뤫ǤʤΤǡեդ򤯤Ȥǥ
-		  μ¹ԲʤФʤʤ
+		  スパニングツリーのアーク。アークの実行回数はgcdaファ
+		  イルから取得できないので、フローグラフを解くことでアー
+		  クの実行回数を求めなければならない。
 		*/
 		unsolvedArcs.add(arc);
 	    }
@@ -258,11 +294,11 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
     }
 
     /**
-       LINES쥳ɤԥȥΥꥹȤơؿդɲ
-       ޤ
+       LINESレコードから行エントリのリストを生成して、関数グラフに追加
+       します。
 
-       @param linesRecord LINES쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param linesRecord LINESレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private void addLinesRecord(final LinesRecord linesRecord)
 	throws CorruptedFileException {
@@ -271,7 +307,7 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
 	if (blockIndex >= blocks.size()) {
 	    throw new CorruptedFileException();
 	}
-	LineEntryList entryList = new LineEntryList(sourceFile);
+	LineEntryList entryList = new LineEntryList(sourceFile, filter);
 	for (LineRecord rec : list) {
 	    int number = rec.getNumber();
 	    if (number == 0) {
@@ -284,9 +320,9 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
     }
 
     /**
-       եդ򤭤ޤ
+       フローグラフを解きます。
 
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private void solveFlowGraph() throws CorruptedFileException {
 	Solver s = new Solver();
@@ -294,14 +330,14 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
 	    e.sortOutArcs();
 	    s.addInvalid(e);
 	}
-	s.solve();
+	solverRounds = s.solve();
     }
 
     /**
-       ؿθƤӽФ¹Ԥ줿֥åȽи
-       ˤ׻ޤ
+       関数の呼び出し回数、戻り回数、実行されたブロック数（入口と出口
+       を除く）を計算します。
 
-       calledCount, returnedCount, executedBlockCountͭˤʤޤ
+       calledCount, returnedCount, executedBlockCountが有効になります。
     */
     private void countCallSummary() {
 	calledCount = blocks.get(0).getCount();
@@ -330,10 +366,10 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
     }
 
     /**
-       ؿǡ쥳ɤؿդɲäޤ
+       関数データレコードを関数グラフに追加します。
 
-       @param rec ؿǡ쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param rec 関数データレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     public final void setFunctionDataRecord(final FunctionDataRecord rec)
 	throws CorruptedFileException {
@@ -348,90 +384,115 @@ public abstract class AbstractFunctionGraph<T extends AbstractBlock<T, U>,
 				     functionName);
 	    throw new CorruptedFileException(m);
 	}
+	ProfilingEvent event = ProfilingEvents.begin(ProfilingEvents.SOLVE,
+						     functionName);
 	for (int k = 0; k < arcCounts.length; ++k) {
 	    solvedArcs.get(k).addCount(arcCounts[k]);
 	}
 	solveFlowGraph();
 	countCallSummary();
 	solved = true;
+	event.setFunctionCount(1);
+	event.setBlockCount(getBlockCount());
+	event.setArcCount(totalArcCount);
+	event.commit();
     }
 
     /**
-       ̻Ҥޤ
+       識別子を取得します。
 
-       @return ̻
+       @return 識別子
     */
     public final int getId() {
 	return id;
     }
 
     /**
-       ؿϤޤֹޤ
+       関数が始まる行番号を取得します。
 
-       @return ؿϤޤֹ
+       @return 関数が始まる行番号
     */
     public final int getLineNumber() {
 	return lineNumber;
     }
 
     /**
-       ؿ̾ޤ
+       関数名を取得します。
 
-       @return ؿ̾
+       @return 関数名
     */
     public final String getFunctionName() {
 	return functionName;
     }
 
     /**
-       ؿƤФ줿ޤ
+       関数が呼ばれた回数を取得します。
 
-       setFunctionDataRecord()Ǵؿǡ쥳ɤꤵƤ
-       ɬפޤ
+       事前にsetFunctionDataRecord()で関数データレコードが設定されてい
+       る必要があります。
 
-       @return ؿƤФ줿
+       @return 関数が呼ばれた回数
     */
     public final long getCalledCount() {
 	return calledCount;
     }
 
     /**
-       ؿäޤ
+       関数から戻った回数を取得します。
 
-       setFunctionDataRecord()Ǵؿǡ쥳ɤꤵƤ
-       ɬפޤ
+       事前にsetFunctionDataRecord()で関数データレコードが設定されてい
+       る必要があります。
 
-       @return ؿä
+       @return 関数から戻った回数
     */
     public final long getReturnedCount() {
 	return returnedCount;
     }
 
     /**
-       и¹Ԥ줿֥åޤ
+       入口、出口を除く実行されたブロック数を取得します。
 
-       setFunctionDataRecord()Ǵؿǡ쥳ɤꤵƤ
-       ɬפޤ
+       事前にsetFunctionDataRecord()で関数データレコードが設定されてい
+       る必要があります。
 
-       @return ¹Ԥ줿֥åи
+       @return 実行されたブロック数（入口、出口を除く）
     */
     public final int getExecutedBlockCount() {
 	return executedBlockCount;
     }
 
     /**
-       и֥åޤ
+       入口、出口を除くブロック数を取得します。
 
-       @return ֥åи
+       @return ブロック数（入口、出口を除く）
     */
     public final int getBlockCount() {
 	return blocks.size() - 2;
     }
 
     /**
-       иȤʤ֥åޤ
+       フェイクのアークを含むアーク数を取得します。
+
+       @return アーク数
+    */
+    public final int getArcCount() {
+	return totalArcCount;
+    }
+
+    /**
+       フローグラフを解いたときのソルバの反復回数を取得します。フロー
+       グラフを解いていない場合は0です。
+
+       @return ソルバの反復回数
+    */
+    public final int getSolverRounds() {
+	return solverRounds;
+    }
+
+    /**
+       出口となるブロックを取得します。
 
-       @return ֥åи
+       @return ブロック数（入口、出口を除く）
     */
     public final T getExitBlock() {
 	return blocks.get(blocks.size() - 1);
@@ -13,111 +13,154 @@ import java.util.Collection;
 import java.util.TreeMap;
 
 /**
-   gcnoեѡ̤ݻޤ
+   gcnoファイルをパースした結果を保持します。
 
-   @param <T> ؿ
+   @param <T> 関数グラフ
 */
 public abstract class AbstractNote<T extends AbstractFunctionGraph> {
 
-    /** gcnoեΥꥸǤ */
+    /** gcnoファイルのオリジンです。 */
     private Origin origin;
 
-    /** gcnoեΥСֹǤ */
+    /** gcnoファイルのバージョン番号です。 */
     private int version;
 
     /**
-       gcnoեΥॹפǤgcdaեƱȤƤ
-       뤳Ȥǧ뤿˻Ѥޤ
+       gcnoファイルのタイムスタンプです。gcdaファイルと同期がとれてい
+       ることを確認するために使用されます。
     */
     private int stamp;
 
-    /** ؿդȤμ̻ҤΥޥåפǤ */
+    /** 関数グラフとその識別子のマップです。 */
     private TreeMap<Integer, T> map;
 
-    /** ץμ¹ԲǤ */
+    /** プログラムの実行回数です。 */
     private int runs;
 
-    /** ץοǤ */
+    /** プログラムの数です。 */
     private int programs;
 
     /**
-       󥹥󥹤ޤ
+       インスタンスを生成します。
 
-       @param path gcnoեΥѥ
+       @param path gcnoファイルのパス
     */
     public AbstractNote(final String path) {
 	origin = new Origin(path);
     }
 
     /**
-       ؿե쥳ɤؿդޤ
+       関数グラフレコードから関数グラフを生成します。
 
-       @param e ؿե쥳
-       @return ؿ
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param e 関数グラフレコード
+       @return 関数グラフ
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     protected abstract T createFunctionGraph(
 	FunctionGraphRecord e) throws CorruptedFileException;
 
     /**
-       ꥸޤ
+       ファイルを処理できるが、結果が正確ではない可能性がある場合に呼
+       び出します。デフォルトの実装は、gcnoファイルのパスとメッセージ
+       を標準エラー出力に表示します。
 
-       @return ꥸ
+       @param message メッセージ
+    */
+    protected void warning(final String message) {
+	System.err.printf("%s: %s%n", origin.getNoteFile().getPath(),
+			  message);
+    }
+
+    /**
+       gcnoファイル、またはgcdaファイルをマップした後に呼び出します。
+       デフォルトの実装は何もしません。
+
+       @param file マップしたファイル
+       @param size ファイルのバイト数
+    */
+    protected void fileMapped(final File file, final long size) {
+    }
+
+    /**
+       gcnoファイルをデコードして、関数グラフを生成した後に呼び出しま
+       す。デフォルトの実装は何もしません。
+    */
+    protected void noteDecoded() {
+    }
+
+    /**
+       gcdaファイルをデコードした後、アークカウンタを関数グラフに追加
+       する前に呼び出します。デフォルトの実装は何もしません。
+    */
+    protected void dataDecoded() {
+    }
+
+    /**
+       アークカウンタを関数グラフに追加して、フローグラフを解決した後
+       に呼び出します。デフォルトの実装は何もしません。
+    */
+    protected void flowGraphsSolved() {
+    }
+
+    /**
+       オリジンを取得します。
+
+       @return オリジン
     */
     public final Origin getOrigin() {
 	return origin;
     }
 
     /**
-       gcnoեΥСޤ
+       gcnoファイルのバージョンを取得します。
 
-       @return gcnoեΥС
+       @return gcnoファイルのバージョン
     */
     protected final int getVersion() {
 	return version;
     }
 
     /**
-       gcnoեΥॹפޤ
+       gcnoファイルのタイムスタンプを取得します。
 
-       @return gcnoեΥॹ
+       @return gcnoファイルのタイムスタンプ
     */
     protected final int getStamp() {
 	return stamp;
     }
 
     /**
-       ץμ¹Բޤ
+       プログラムの実行回数を取得します。
 
-       @return ץμ¹Բ
+       @return プログラムの実行回数
     */
     protected final int getRuns() {
 	return runs;
     }
 
     /**
-       ץοޤ
+       プログラムの数を取得します。
 
-       @return ץο
+       @return プログラムの数
     */
     protected final int getPrograms() {
 	return programs;
     }
 
     /**
-       ؿդΥ쥯ޤ
+       関数グラフのコレクションを取得します。
 
-       @return ؿդΥ쥯
+       @return 関数グラフのコレクション
     */
     public final Collection<T> getFunctionGraphCollection() {
 	return map.values();
     }
 
     /**
-       Ρȥ쥳ɤꤷޤ
+       ノートレコードを設定します。
 
-       @param rec Ρȥ쥳
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param rec ノートレコード
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private void setNoteRecord(final NoteRecord rec)
 	throws CorruptedFileException {
@@ -133,33 +176,99 @@ public abstract class AbstractNote<T extends AbstractFunctionGraph> {
     }
 
     /**
-       gcnoեѡơΡȤޤͥޥå
-       Τǡ2GХȤĶեϰޤ
+       イベントを記録する場合は、関数グラフの個数とブロックとアークの
+       総数をイベントに設定します。
 
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param event イベント
+    */
+    protected final void setGraphCounts(final ProfilingEvent event) {
+	if (!event.shouldCommit() || map == null) {
+	    return;
+	}
+	int blocks = 0;
+	int arcs = 0;
+	for (T g : map.values()) {
+	    blocks += g.getBlockCount();
+	    arcs += g.getArcCount();
+	}
+	event.setFunctionCount(map.size());
+	event.setBlockCount(blocks);
+	event.setArcCount(arcs);
+    }
+
+    /**
+       gcnoファイルをパースして、ノートを生成します。チャネルをマップ
+       するので、2Gバイトを超えるファイルは扱えません。
+
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     protected final void parseNote() throws IOException,
 	CorruptedFileException {
+	parseNote(null);
+    }
+
+    /**
+       gcnoファイルをパースして、ノートを生成します。チャネルをマップ
+       するので、2Gバイトを超えるファイルは扱えません。
+
+       キャッシュを指定した場合は、gcnoファイルが更新されていなければ
+       キャッシュのノートレコードから関数グラフを生成し、そうでなけれ
+       ばデコードしたノートレコードをキャッシュに追加します。
+
+       @param cache ノートレコードのキャッシュ、またはnull
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    protected final void parseNote(final FileCache<NoteRecord> cache)
+	throws IOException, CorruptedFileException {
 	File noteFile = origin.getNoteFile();
+	ProfilingEvent event = ProfilingEvents.begin(
+	    ProfilingEvents.NOTE_FILE, noteFile.getPath());
+	NoteRecord noteRecord = (cache == null) ? null : cache.get(noteFile);
+	if (noteRecord == null) {
+	    noteRecord = decodeNote(noteFile, event);
+	    if (cache != null) {
+		cache.put(noteFile, noteRecord);
+	    }
+	}
+	setNoteRecord(noteRecord);
+	noteDecoded();
+	setGraphCounts(event);
+	event.commit();
+    }
+
+    /**
+       gcnoファイルをマップして、ノートレコードにデコードします。
+
+       @param noteFile gcnoファイル
+       @param event プロファイリングのイベント
+       @return ノートレコード
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    private NoteRecord decodeNote(final File noteFile,
+				  final ProfilingEvent event)
+	throws IOException, CorruptedFileException {
 	RandomAccessFile file = new RandomAccessFile(noteFile, "r");
 	FileChannel ch = file.getChannel();
 	try {
 	    ByteBuffer bb = ch.map(FileChannel.MapMode.READ_ONLY,
 				   0, ch.size());
-	    NoteRecord noteRecord = new NoteRecord(bb);
-	    setNoteRecord(noteRecord);
+	    fileMapped(noteFile, bb.capacity());
+	    event.setSize(bb.capacity());
+	    return new NoteRecord(bb);
 	} finally {
 	    file.close();
 	}
     }
 
     /**
-       ǡ쥳ɤꤷޤ
+       データレコードを設定します。
 
-       @param rec ǡ쥳
-       @param file gcdaե
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param rec データレコード
+       @param file gcdaファイル
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private void setDataRecord(final DataRecord rec, final File file)
 	throws CorruptedFileException {
@@ -171,16 +280,15 @@ public abstract class AbstractNote<T extends AbstractFunctionGraph> {
 	    throw new CorruptedFileException(path + ": timestamp mismatch.");
 	}
 	if (origin.getNoteFile().lastModified() > file.lastModified()) {
-	    System.err.printf(
-		"%s: warning: gcno file is newer than gcda file.%n", path);
+	    warning("warning: gcno file is newer than gcda file.");
 	}
 	FunctionDataRecord[] list = rec.getList();
 	for (FunctionDataRecord e : list) {
 	    int id = e.getId();
 	    T g = map.get(id);
 	    if (g == null) {
-		System.err.printf(
-		    "%s: warning: unknown function id '%d'.%n", path, id);
+		warning(String.format("warning: unknown function id '%d'.",
+				      id));
 		continue;
 	    }
 	    g.setFunctionDataRecord(e);
@@ -190,24 +298,32 @@ public abstract class AbstractNote<T extends AbstractFunctionGraph> {
     }
 
     /**
-       gcdaեѡơΡȤ˥󥿤ɲäޤ
-       ͥޥåפΤǡ2GХȤĶեϰޤ
+       gcdaファイルをパースして、ノートにアークカウンタを追加します。
+       チャネルをマップするので、2Gバイトを超えるファイルは扱えません。
 
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     protected final void parseData() throws IOException,
 	CorruptedFileException {
 	File dataFile = origin.getDataFile();
+	ProfilingEvent event = ProfilingEvents.begin(
+	    ProfilingEvents.DATA_FILE, dataFile.getPath());
 	RandomAccessFile file = new RandomAccessFile(dataFile, "r");
 	FileChannel ch = file.getChannel();
 	try {
 	    ByteBuffer bb = ch.map(FileChannel.MapMode.READ_ONLY,
 				   0, ch.size());
+	    fileMapped(dataFile, bb.capacity());
+	    event.setSize(bb.capacity());
 	    DataRecord dataRecord = new DataRecord(bb);
+	    dataDecoded();
+	    event.setFunctionCount(dataRecord.getList().length);
 	    setDataRecord(dataRecord, dataFile);
+	    flowGraphsSolved();
 	} finally {
 	    file.close();
 	}
+	event.commit();
     }
 }
@@ -1,21 +1,21 @@
 package com.maroontress.gcovparser;
 
 /**
-   ե뤬Ƥ뤳Ȥ򼨤㳰Ǥ
+   ファイルが壊れていることを示す例外です。
 */
 public class CorruptedFileException extends Exception {
 
     /**
-       ե뤬Ƥ뤳Ȥ򼨤㳰ޤ
+       ファイルが壊れていることを示す例外を生成します。
     */
     public CorruptedFileException() {
 	super();
     }
 
     /**
-       ե뤬Ƥ뤳Ȥ򼨤㳰ޤ
+       ファイルが壊れていることを示す例外を生成します。
 
-       @param m ܺ٥å
+       @param m 詳細メッセージ
     */
     public CorruptedFileException(final String m) {
 	super(m);
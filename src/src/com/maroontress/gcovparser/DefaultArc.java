@@ -1,17 +1,17 @@
 package com.maroontress.gcovparser;
 
 /**
-   ؿդΥåȤʤ륢ΥǥեȼǤ
+   関数グラフのエッジとなるアークのデフォルト実装です。
 */
 public final class DefaultArc extends AbstractArc<DefaultBlock, DefaultArc> {
 
     /**
-       ޤ󥹥󥹤ϳϥ֥åΡֽФ
-       סλ֥åΡ륢פɲäޤ
+       アークを生成します。生成したインスタンスは開始ブロックの「出る
+       アーク」、終了ブロックの「入るアーク」に追加されます。
 
-       @param start ϥ֥å
-       @param end λ֥å
-       @param flags ե饰
+       @param start 開始ブロック
+       @param end 終了ブロック
+       @param flags フラグ
     */
     public DefaultArc(final DefaultBlock start, final DefaultBlock end,
 		      final int flags) {
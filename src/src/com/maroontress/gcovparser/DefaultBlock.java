@@ -1,16 +1,16 @@
 package com.maroontress.gcovparser;
 
 /**
-   ؿդΥΡɤȤʤܥ֥åΥǥեȼǤ
+   関数グラフのノードとなる基本ブロックのデフォルト実装です。
 */
 public final class DefaultBlock
     extends AbstractBlock<DefaultBlock, DefaultArc> {
 
     /**
-       ֥åޤ
+       ブロックを生成します。
 
-       @param id ֥åμ̻
-       @param flags ֥åΥե饰
+       @param id ブロックの識別子
+       @param flags ブロックのフラグ
     */
     public DefaultBlock(final int id, final int flags) {
 	super(id, flags);
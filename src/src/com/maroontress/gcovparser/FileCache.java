@@ -0,0 +1,115 @@
+package com.maroontress.gcovparser;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+   ファイルの内容から生成した値のキャッシュです。
+
+   ファイルのパスをキーとし、値を追加したときのファイルの更新時刻と
+   長さが変わっていない場合だけ値を返します。最も長い間参照されてい
+   ない値から破棄して、指定した個数を超えないようにします。複数のス
+   レッドから同時に使用できます。
+
+   @param <T> 値のクラス
+*/
+public final class FileCache<T> {
+
+    /** マップの初期容量です。 */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** マップの負荷係数です。 */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** 値を保持する個数の最大値です。 */
+    private final int capacity;
+
+    /** ファイルのパスとエントリのマップです。 */
+    private LinkedHashMap<String, FileCacheEntry<T>> map;
+
+    /** キャッシュにヒットした回数です。 */
+    private long hits;
+
+    /** キャッシュにヒットしなかった回数です。 */
+    private long misses;
+
+    /**
+       インスタンスを生成します。
+
+       @param capacity 値を保持する個数の最大値
+    */
+    public FileCache(final int capacity) {
+	this.capacity = capacity;
+	map = new LinkedHashMap<String, FileCacheEntry<T>>(
+	    INITIAL_CAPACITY, LOAD_FACTOR, true) {
+	    private static final long serialVersionUID = 1L;
+
+	    @Override protected boolean removeEldestEntry(
+		final Map.Entry<String, FileCacheEntry<T>> eldest) {
+		return size() > FileCache.this.capacity;
+	    }
+	};
+    }
+
+    /**
+       ファイルに対応する値を取得します。
+
+       @param file ファイル
+       @return 値、またはキャッシュにないかファイルが更新された場合は
+       null
+    */
+    public T get(final File file) {
+	String key = file.getPath();
+	FileCacheEntry<T> e;
+	synchronized (map) {
+	    e = map.get(key);
+	}
+	if (e == null || !e.isFresh(file)) {
+	    synchronized (map) {
+		++misses;
+	    }
+	    return null;
+	}
+	synchronized (map) {
+	    ++hits;
+	}
+	return e.getValue();
+    }
+
+    /**
+       ファイルに対応する値を追加します。ファイルの更新時刻と長さは、
+       このメソッドを呼び出した時点の値を記録します。
+
+       @param file ファイル
+       @param value 値
+    */
+    public void put(final File file, final T value) {
+	FileCacheEntry<T> e = new FileCacheEntry<T>(file, value);
+	synchronized (map) {
+	    map.put(file.getPath(), e);
+	}
+    }
+
+    /**
+       キャッシュにヒットした回数を取得します。
+
+       @return ヒットした回数
+    */
+    public long getHits() {
+	synchronized (map) {
+	    return hits;
+	}
+    }
+
+    /**
+       キャッシュにヒットしなかった回数を取得します。
+
+       @return ヒットしなかった回数
+    */
+    public long getMisses() {
+	synchronized (map) {
+	    return misses;
+	}
+    }
+}
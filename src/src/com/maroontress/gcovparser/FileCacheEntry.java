@@ -0,0 +1,53 @@
+package com.maroontress.gcovparser;
+
+import java.io.File;
+
+/**
+   FileCacheのエントリです。値と、値を追加したときのファイルの更新
+   時刻と長さを保持します。
+
+   @param <T> 値のクラス
+*/
+public final class FileCacheEntry<T> {
+
+    /** ファイルの更新時刻です。 */
+    private long lastModified;
+
+    /** ファイルの長さです。 */
+    private long length;
+
+    /** 値です。 */
+    private T value;
+
+    /**
+       エントリを生成します。
+
+       @param file ファイル
+       @param value 値
+    */
+    FileCacheEntry(final File file, final T value) {
+	lastModified = file.lastModified();
+	length = file.length();
+	this.value = value;
+    }
+
+    /**
+       ファイルが更新されていないかどうかを取得します。
+
+       @param file ファイル
+       @return 更新されていない場合はtrue
+    */
+    boolean isFresh(final File file) {
+	return file.lastModified() == lastModified
+	    && file.length() == length;
+    }
+
+    /**
+       値を取得します。
+
+       @return 値
+    */
+    T getValue() {
+	return value;
+    }
+}
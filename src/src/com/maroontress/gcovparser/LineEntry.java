@@ -3,21 +3,21 @@ package com.maroontress.gcovparser;
 import java.util.ArrayList;
 
 /**
-   ԥȥϹñ̤ɽ줿ҤȤĤΥեʬǤ
+   行エントリは行単位で表された、ひとつのソースファイルの部分集合です。
 */
 public final class LineEntry {
 
-    /** ե̾ */
+    /** ソースファイルの名前 */
     private String fileName;
 
-    /** ֹΥꥹ */
+    /** 行番号のリスト */
     private ArrayList<Integer> lines;
 
     /**
-       ԥȥޤ󥹥󥹤ˤϹֹ椬ޤޤ
-       ޤ
+       行エントリを生成します。生成したインスタンスには行番号が含まれ
+       ません。
 
-       @param name ե̾
+       @param name ソースファイルの名前
     */
     public LineEntry(final String name) {
 	fileName = name;
@@ -25,27 +25,27 @@ public final class LineEntry {
     }
 
     /**
-       ԥȥ˹ֹɲäޤ
+       行エントリに行番号を追加します。
 
-       @param num ֹ
+       @param num 行番号
     */
     public void add(final int num) {
 	lines.add(num);
     }
 
     /**
-       ԥȥ꤫饽ե̾ޤ
+       行エントリからソースファイルの名前を取得します。
 
-       @return ե̾
+       @return ソースファイルの名前
     */
     public String getFileName() {
 	return fileName;
     }
 
     /**
-       ԥȥֹ꤫ޤ
+       行エントリから行番号の配列を取得します。
 
-       @return ֹ
+       @return 行番号の配列
     */
     public int[] getLines() {
 	int[] nums = new int[lines.size()];
@@ -3,47 +3,76 @@ package com.maroontress.gcovparser;
 import java.util.ArrayList;
 
 /**
-   ԥȥΥꥹȤǤҤȤĤδܥ֥åб륽
-   νǤ
+   行エントリのリストです。ひとつの基本ブロックに対応するソースコード
+   の集合です。
 */
 public final class LineEntryList {
 
-    /** ԥȥΥꥹȤǤ */
+    /** 行エントリのリストです。 */
     private ArrayList<LineEntry> list;
 
+    /** 行番号を追加する行エントリ、またはnullです。 */
+    private LineEntry current;
+
+    /** ソースファイルのフィルタ、またはnullです。 */
+    private SourceFilter filter;
+
     /**
-       ԥȥΥꥹȤޤ󥹥󥹤ϥǥե
-       Ȥιԥȥ1ĥꥹȤ˴ޤߤޤ
+       行エントリのリストを生成します。生成したインスタンスはデフォル
+       トの行エントリを1つリストに含みます。
 
-       @param name ǥեȤΥե̾
+       @param name デフォルトのファイル名
     */
     public LineEntryList(final String name) {
+	this(name, null);
+    }
+
+    /**
+       行エントリのリストを生成します。生成したインスタンスはデフォル
+       トの行エントリを1つリストに含みます。
+
+       フィルタが受け入れないファイル名の行エントリは生成せず、その行
+       番号は無視します。
+
+       @param name デフォルトのファイル名
+       @param filter ソースファイルのフィルタ、またはnull
+    */
+    public LineEntryList(final String name, final SourceFilter filter) {
+	this.filter = filter;
 	list = new ArrayList<LineEntry>();
-	list.add(new LineEntry(name));
+	changeFileName(name);
     }
 
     /**
-       ꥹȤκǸǤǤԥȥ˹ֹɲäޤ
+       リストの最後の要素である行エントリに行番号を追加します。
 
-       @param num ֹ
+       @param num 行番号
     */
     public void addLineNumber(final int num) {
-	list.get(list.size() - 1).add(num);
+	if (current == null) {
+	    return;
+	}
+	current.add(num);
     }
 
     /**
-       ԥȥꥹȤκǸɲäޤ
+       新しい行エントリをリストの最後に追加します。
 
-       @param name ե̾
+       @param name ファイル名
     */
     public void changeFileName(final String name) {
-	list.add(new LineEntry(name));
+	if (filter != null && !filter.accept(name)) {
+	    current = null;
+	    return;
+	}
+	current = new LineEntry(name);
+	list.add(current);
     }
 
     /**
-       ԥȥΥꥹȤȤƼޤ
+       行エントリのリストを配列として取得します。
 
-       @return ԥȥ
+       @return 行エントリの配列
     */
     public LineEntry[] getLineEntries() {
 	return list.toArray(new LineEntry[list.size()]);
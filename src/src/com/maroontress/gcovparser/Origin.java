@@ -1,30 +1,38 @@
 package com.maroontress.gcovparser;
 
 import java.io.File;
-import java.util.ArrayList;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
-   gcnoե˴طѥޤ
+   gcnoファイルに関係するパスを管理します。
 */
 public final class Origin implements Comparable<Origin> {
 
-    /** gcnoեǤ */
+    /** ハッシュを使ったパスのサブディレクトリ名の長さです。 */
+    private static final int SUBDIRECTORY_LENGTH = 2;
+
+    /** バイトを符号なしの整数に変換するマスクです。 */
+    private static final int BYTE_MASK = 0xff;
+
+    /** gcnoファイルです。 */
     private File gcnoFile;
 
-    /** бgcdaեǤ */
+    /** 対応するgcdaファイルです。 */
     private File gcdaFile;
 
     /**
-       basePath򥨥פʸǤ
+       basePathをエスケープした文字列です。
     */
     private String pathPrefix;
 
     /**
-       ꥸޤ
+       オリジンを生成します。
 
-       pathγĥҤ.gcnoǤʤФʤޤ
+       pathの拡張子は.gcnoでなければなりません。
 
-       @param path gcnoեΥѥ
+       @param path gcnoファイルのパス
     */
     public Origin(final String path) {
 	if (!path.endsWith(".gcno")) {
@@ -38,79 +46,133 @@ public final class Origin implements Comparable<Origin> {
     }
 
     /**
-       ѥgcovΥǥפޤ
+       パスをgcovのスタイルでエスケープします。
 
-       @param path ѥ
-       @return פѥ
+       @param path パス
+       @return エスケープしたパス
+       @see PathEscaper#escapeGcov(String)
     */
-    private String escapeGcov(final String path) {
-	String[] allComp = path.replace(File.separatorChar, '#').split("#+");
-	ArrayList<String> list = new ArrayList<String>();
-	for (String comp : allComp) {
-	    if (comp.equals(".")) {
-		continue;
-	    }
-	    if (comp.equals("..")) {
-		comp = "^";
-	    }
-	    list.add(comp);
-	}
-	int n = list.size();
-	if (n == 0) {
-	    return "";
-	}
-	StringBuilder b = new StringBuilder(list.get(0));
-	for (int k = 1; k < n; ++k) {
-	    b.append("#");
-	    b.append(list.get(k));
-	}
-	return b.toString();
+    private static String escapeGcov(final String path) {
+	return PathEscaper.getInstance().escape(path);
     }
 
     /**
-       gcnoեޤ
+       gcnoファイルを取得します。
 
-       @return gcnoե
+       @return gcnoファイル
     */
     public File getNoteFile() {
 	return gcnoFile;
     }
 
     /**
-       gcdaեޤ
+       gcdaファイルを取得します。
 
-       @return gcdaե
+       @return gcdaファイル
     */
     public File getDataFile() {
 	return gcdaFile;
     }
 
     /**
-       ХåեΥѥޤ
+       カバレッジファイルのパスを取得します。
 
-       ѥϡgcnoեΥѥĥҤΤˡХ
-       оݤΥեΥѥ "##" Ϣ뤷塢Υ롼
-       Ѵʸˤʤޤ
+       パスは、gcnoファイルのパスから拡張子を取り除いたものに、カバレッ
+       ジ対象のソースファイルのパスを "##" で連結した後、次のルールで
+       変換した文字列になります。
 
-       - ѥݡͥȤζڤʸ#פѴ
-       - ѥݡͥȤ.פξϺ
-       - ѥݡͥȤ..פξϡ^פѴ
+       - パスコンポーネントの区切り文字を「#」に変換
+       - パスコンポーネントが「.」の場合は削除
+       - パスコンポーネントが「..」の場合は「^」に変換
 
-       @param sourceFile ХåоݤΥեΥѥ
-       @return ХåեΥѥ
+       @param sourceFile カバレッジ対象のソースファイルのパス
+       @return カバレッジファイルのパス
     */
     public String getCoverageFilePath(final String sourceFile) {
 	return pathPrefix + "##" + escapeGcov(sourceFile) + ".gcov";
     }
 
     /**
-       Τ˻ѤgcnoեΥѥǡ2ĤΥꥸŪ
-       Ӥޤ
+       ハッシュを使ったカバレッジファイルのパスを取得します。
+
+       パスは、カバレッジ対象のソースファイルのベース名に、
+       getCoverageFilePath()が返すパスのMD5ダイジェストの16進数表記を
+       "##" で連結して、".gcov"を連結したものになります。
+
+       subdirectoryがtrueの場合は、ダイジェストの先頭の2文字をサブディ
+       レクトリ名としてパスの前に付けます。
+
+       @param sourceFile カバレッジ対象のソースファイルのパス
+       @param subdirectory サブディレクトリに振り分ける場合はtrue
+       @return カバレッジファイルのパス
+    */
+    public String getHashedCoverageFilePath(final String sourceFile,
+					    final boolean subdirectory) {
+	String digest = md5(getCoverageFilePath(sourceFile));
+	String path = new File(sourceFile).getName() + "##" + digest + ".gcov";
+	if (!subdirectory) {
+	    return path;
+	}
+	return digest.substring(0, SUBDIRECTORY_LENGTH) + "/" + path;
+    }
+
+    /**
+       文字列のMD5ダイジェストを16進数表記で取得します。
+
+       @param s 文字列
+       @return ダイジェストの16進数表記
+    */
+    private static String md5(final String s) {
+	byte[] digest;
+	try {
+	    MessageDigest md = MessageDigest.getInstance("MD5");
+	    digest = md.digest(s.getBytes("UTF-8"));
+	} catch (NoSuchAlgorithmException e) {
+	    throw new RuntimeException("internal error.", e);
+	} catch (UnsupportedEncodingException e) {
+	    throw new RuntimeException("internal error.", e);
+	}
+	StringBuilder b = new StringBuilder();
+	for (byte d : digest) {
+	    b.append(String.format("%02x", d & BYTE_MASK));
+	}
+	return b.toString();
+    }
+
+    /**
+       gcovの中間形式（JSON）のファイルのパスを取得します。
+
+       パスは、gcnoファイルのパスから拡張子を取り除いたものを
+       getCoverageFilePath()と同じルールで変換した文字列に、
+       ".gcov.json"を連結したものになります。
+
+       @return 中間形式のファイルのパス
+    */
+    public String getIntermediateFilePath() {
+	return pathPrefix + ".gcov.json";
+    }
+
+    /**
+       ノート毎のXMLファイルのパスを取得します。
+
+       パスは、gcnoファイルのパスから拡張子を取り除いたものを
+       getCoverageFilePath()と同じルールで変換した文字列に、".xml"を
+       連結したものになります。
+
+       @return XMLファイルのパス
+    */
+    public String getXMLFilePath() {
+	return pathPrefix + ".xml";
+    }
+
+    /**
+       生成するのに使用したgcnoファイルのパスで、2つのオリジンを語彙的
+       に比較します。
 
-       @param origin ΥꥸӤ륪ꥸ
-       @return Υꥸ0Υꥸ󤬰
-       Ū˾͡Υꥸ󤬰Ū
-       
+       @param origin このオリジンと比較されるオリジン
+       @return 引数がこのオリジンと等しい場合は0。このオリジンが引数よ
+       り語彙的に小さい場合は負の値。このオリジンが引数より語彙的に大
+       きい場合は正の値
        @see java.io.File#compareTo(File)
     */
     public int compareTo(final Origin origin) {
@@ -5,32 +5,32 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 /**
-   gcno/gcdaեѡ뤿Υ桼ƥƥ饹Ǥ
+   gcno/gcdaファイルをパースするためのユーティリティクラスです。
 */
 public final class Parser {
 
-    /** INT32ΥХȥǤ */
+    /** INT32のバイトサイズです。 */
     public static final int SIZE_INT32 = 4;
 
-    /** ʸåȤǤ */
+    /** 文字セットです。 */
     private static final Charset CHARSET = Charset.defaultCharset();
 
     /**
-       󥹥ȥ饯Ǥ
+       コンストラクタです。
     */
     private Parser() {
     }
 
     /**
-       ХȥХåե64ӥåͤϤ֤ͤޤХ
-       Хåեΰ֤8Хȿʤߤޤ
+       バイトバッファから64ビット値を入力し、その値を返します。バイト
+       バッファの位置は8バイト進みます。
 
-       gcovλͤˤ64ӥåͤϡ32ӥåȡ32ӥåȤν
-       ¤Ǥޤ
+       gcovの仕様により64ビット値は、下位32ビット、上位32ビットの順に
+       並んでいます。
 
-       @param bb ХȥХåե
-       @return 64ӥå
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @return 64ビット値
+       @throws IOException 入出力エラー
     */
     public static long getInt64(final ByteBuffer bb) throws IOException {
 	long low = bb.getInt();
@@ -43,17 +43,17 @@ public final class Parser {
     }
 
     /**
-       ХȥХåեʸϤΥ󥹥󥹤֤ޤ
-       ʸĹ0ΤȤnull֤ޤ̥륿ߥ͡ȤΤ
-       0ӥѥǥ󥰤0ϥåפ졢ХȥХåեΰ֤ʸ
-       μΰ֤˿ʤߤޤ
+       バイトバッファから文字列を入力し、そのインスタンスを返します。
+       文字列の長さが0のときはnullを返します。ヌルターミネートのための
+       0、およびパディングの0はスキップされ、バイトバッファの位置は文
+       字列の次の位置に進みます。
 
        string: int32:0 | int32:length char* char:0 padding
        padding: | char:0 | char:0 char:0 | char:0 char:0 char:0
 
-       @param bb ХȥХåե
-       @return ʸ
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @return 文字列
+       @throws IOException 入出力エラー
     */
     public static String getString(final ByteBuffer bb) throws IOException {
 	int length = bb.getInt();
@@ -71,14 +71,14 @@ public final class Parser {
     }
 
     /**
-       ХȥХåեʸϤΥ󥹥󥹤֤ޤ
+       バイトバッファから文字列を入力し、そのインスタンスを返します。
 
-       󥹥󥹤Stirng.intern()֤ʸǤʳˤ
-       ƤParser.getString()Ʊͤˤʤޤ
+       インスタンスはStirng.intern()が返す文字列です。それ以外の点につ
+       いてはParser.getString()と同様になります。
 
-       @param bb ХȥХåե
-       @return ʸ
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @return 文字列
+       @throws IOException 入出力エラー
     */
     public static String getInternString(final ByteBuffer bb)
 	throws IOException {
@@ -0,0 +1,170 @@
+package com.maroontress.gcovparser;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+   パスをgcovのスタイルでエスケープするサービスです。
+
+   エスケープした結果をキャッシュするので、同じパスを何度もエスケー
+   プする場合に高速です。キャッシュのエントリ数が上限に達すると、キャッ
+   シュを空にします。複数のスレッドから同時に呼び出すことができます。
+*/
+public final class PathEscaper {
+
+    /** デフォルトのキャッシュのエントリ数の上限です。 */
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** パーセントに変換するための係数です。 */
+    private static final double PERCENT = 100;
+
+    /** すべてのオリジンで共有するインスタンスです。 */
+    private static final PathEscaper SHARED
+	= new PathEscaper(DEFAULT_CAPACITY);
+
+    /** パスとエスケープしたパスのキャッシュです。 */
+    private ConcurrentHashMap<String, String> cache;
+
+    /** キャッシュのエントリ数の上限です。 */
+    private int capacity;
+
+    /** キャッシュにヒットした回数です。 */
+    private AtomicLong hits;
+
+    /** キャッシュにヒットしなかった回数です。 */
+    private AtomicLong misses;
+
+    /**
+       キャッシュのエントリ数の上限を指定して、インスタンスを生成しま
+       す。
+
+       @param capacity キャッシュのエントリ数の上限
+    */
+    public PathEscaper(final int capacity) {
+	this.capacity = capacity;
+	cache = new ConcurrentHashMap<String, String>();
+	hits = new AtomicLong();
+	misses = new AtomicLong();
+    }
+
+    /**
+       すべてのオリジンで共有するインスタンスを取得します。
+
+       @return 共有するインスタンス
+    */
+    public static PathEscaper getInstance() {
+	return SHARED;
+    }
+
+    /**
+       パスをgcovのスタイルでエスケープします。
+
+       @param path パス
+       @return エスケープしたパス
+       @see #escapeGcov(String)
+    */
+    public String escape(final String path) {
+	String s = cache.get(path);
+	if (s != null) {
+	    hits.incrementAndGet();
+	    return s;
+	}
+	misses.incrementAndGet();
+	s = escapeGcov(path);
+	if (cache.size() >= capacity) {
+	    cache.clear();
+	}
+	cache.put(path, s);
+	return s;
+    }
+
+    /**
+       文字がパスコンポーネントの区切り文字かどうかを取得します。
+
+       @param c 文字
+       @return 区切り文字の場合はtrue
+    */
+    private static boolean isSeparator(final char c) {
+	return c == '#' || c == File.separatorChar;
+    }
+
+    /**
+       パスをgcovのスタイルでエスケープします。パスを1回走査するだけで、
+       次のルールで変換します。
+
+       - パスコンポーネントの区切り文字と「#」の並びを「#」に変換
+       - パスコンポーネントが「.」の場合は削除
+       - パスコンポーネントが「..」の場合は「^」に変換
+
+       @param path パス
+       @return エスケープしたパス
+    */
+    public static String escapeGcov(final String path) {
+	int n = path.length();
+	StringBuilder b = new StringBuilder(n);
+	boolean absolute = n > 0 && isSeparator(path.charAt(0));
+	boolean empty = true;
+	int k = 0;
+	while (k < n) {
+	    while (k < n && isSeparator(path.charAt(k))) {
+		++k;
+	    }
+	    if (k == n) {
+		break;
+	    }
+	    int start = k;
+	    while (k < n && !isSeparator(path.charAt(k))) {
+		++k;
+	    }
+	    int len = k - start;
+	    if (len == 1 && path.charAt(start) == '.') {
+		continue;
+	    }
+	    if (!empty || absolute) {
+		b.append('#');
+	    }
+	    if (len == 2 && path.charAt(start) == '.'
+		&& path.charAt(start + 1) == '.') {
+		b.append('^');
+	    } else {
+		b.append(path, start, k);
+	    }
+	    empty = false;
+	}
+	return b.toString();
+    }
+
+    /**
+       キャッシュにヒットした回数を取得します。
+
+       @return ヒットした回数
+    */
+    public long getHits() {
+	return hits.get();
+    }
+
+    /**
+       キャッシュにヒットしなかった回数を取得します。
+
+       @return ヒットしなかった回数
+    */
+    public long getMisses() {
+	return misses.get();
+    }
+
+    /**
+       キャッシュのヒット率をパーセントで取得します。一度もエスケープ
+       していない場合は0を返します。
+
+       @return ヒット率
+    */
+    public double getHitRate() {
+	long h = hits.get();
+	long total = h + misses.get();
+	if (total == 0) {
+	    return 0;
+	}
+	return PERCENT * h / total;
+    }
+}
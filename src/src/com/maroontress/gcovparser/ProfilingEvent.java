@@ -0,0 +1,51 @@
+package com.maroontress.gcovparser;
+
+/**
+   ファイルや関数の処理時間を記録するプロファイリングのイベントです。
+
+   イベントはProfilingEventsで生成した時点で計測を開始し、commitで記
+   録します。
+*/
+public interface ProfilingEvent {
+
+    /**
+       イベントを記録するかどうかを取得します。記録しない場合は、属性
+       を集計する必要はありません。
+
+       @return 記録する場合はtrue
+    */
+    boolean shouldCommit();
+
+    /**
+       ファイルのバイト数を設定します。
+
+       @param size バイト数
+    */
+    void setSize(long size);
+
+    /**
+       関数の個数を設定します。
+
+       @param count 関数の個数
+    */
+    void setFunctionCount(int count);
+
+    /**
+       ブロックの個数を設定します。
+
+       @param count ブロックの個数
+    */
+    void setBlockCount(int count);
+
+    /**
+       アークの個数を設定します。
+
+       @param count アークの個数
+    */
+    void setArcCount(int count);
+
+    /**
+       計測を終了して、イベントを記録します。
+    */
+    void commit();
+}
@@ -0,0 +1,19 @@
+package com.maroontress.gcovparser;
+
+/**
+   プロファイリングのイベントを生成するファクトリです。
+
+   実装クラスは、引数なしのpublicなコンストラクタを持たなければなり
+   ません。
+*/
+public interface ProfilingEventFactory {
+
+    /**
+       イベントを生成して、計測を開始します。
+
+       @param kind イベントの種類（ProfilingEventsの定数）
+       @param name ファイルのパス、または関数名
+       @return イベント、または記録しない場合はnull
+    */
+    ProfilingEvent begin(int kind, String name);
+}
@@ -0,0 +1,114 @@
+package com.maroontress.gcovparser;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+   プロファイリングのイベントを生成します。
+
+   システムプロパティcoverture.eventsで指定したクラス（デフォルトは
+   JDK Flight Recorderのイベントを生成する
+   com.maroontress.coverture.jfr.FlightRecorderEvents）をファクトリ
+   としてロードします。クラスが存在しない、またはJVMがサポートしない
+   場合は、何もしないイベントを返すので、処理のコストはほとんどあり
+   ません。
+*/
+public final class ProfilingEvents {
+
+    /** gcnoファイルとgcdaファイルからノートを生成するイベントです。 */
+    public static final int NOTE = 0;
+
+    /** gcnoファイルをパースするイベントです。 */
+    public static final int NOTE_FILE = 1;
+
+    /** gcdaファイルをパースするイベントです。 */
+    public static final int DATA_FILE = 2;
+
+    /** 関数のフローグラフを解決するイベントです。 */
+    public static final int SOLVE = 3;
+
+    /** gcovファイルを出力するイベントです。 */
+    public static final int GCOV = 4;
+
+    /** ファクトリのクラス名を指定するシステムプロパティの名前です。 */
+    private static final String FACTORY_PROPERTY = "coverture.events";
+
+    /** デフォルトのファクトリのクラス名です。 */
+    private static final String DEFAULT_FACTORY
+	= "com.maroontress.coverture.jfr.FlightRecorderEvents";
+
+    /** 何もしないイベントです。 */
+    private static final ProfilingEvent NOOP = new ProfilingEvent() {
+	public boolean shouldCommit() {
+	    return false;
+	}
+
+	public void setSize(final long size) {
+	}
+
+	public void setFunctionCount(final int count) {
+	}
+
+	public void setBlockCount(final int count) {
+	}
+
+	public void setArcCount(final int count) {
+	}
+
+	public void commit() {
+	}
+    };
+
+    /** ファクトリ、またはnullです。 */
+    private static final ProfilingEventFactory FACTORY = loadFactory();
+
+    /**
+       コンストラクタです。
+    */
+    private ProfilingEvents() {
+    }
+
+    /**
+       ファクトリをロードします。
+
+       @return ファクトリ、またはロードできない場合はnull
+    */
+    private static ProfilingEventFactory loadFactory() {
+	String name = System.getProperty(FACTORY_PROPERTY, DEFAULT_FACTORY);
+	if (name.length() == 0) {
+	    return null;
+	}
+	try {
+	    Class<?> c = Class.forName(name);
+	    return (ProfilingEventFactory) c.getDeclaredConstructor().newInstance();
+	} catch (ClassNotFoundException e) {
+	    return null;
+	} catch (InstantiationException e) {
+	    return null;
+	} catch (IllegalAccessException e) {
+	    return null;
+	} catch (NoSuchMethodException e) {
+	    return null;
+	} catch (InvocationTargetException e) {
+	    return null;
+	} catch (ClassCastException e) {
+	    return null;
+	} catch (LinkageError e) {
+	    return null;
+	}
+    }
+
+    /**
+       イベントを生成して、計測を開始します。
+
+       @param kind イベントの種類
+       @param name ファイルのパス、または関数名
+       @return イベント
+    */
+    public static ProfilingEvent begin(final int kind, final String name) {
+	if (FACTORY == null) {
+	    return NOOP;
+	}
+	ProfilingEvent e = FACTORY.begin(kind, name);
+	return (e == null) ? NOOP : e;
+    }
+}
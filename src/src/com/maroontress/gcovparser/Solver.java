@@ -4,17 +4,17 @@ import java.util.ArrayDeque;
 import java.util.Queue;
 
 /**
-   եդ褹뤿ΥФǤ
+   フローグラフを解決するためのソルバです。
 */
 public final class Solver {
-    /** ¹ԲȽȤ˥֥åɲä륭塼Ǥ */
+    /** 実行回数が判明したときにブロックを追加するキューです。 */
     private Queue<AbstractBlock> validBlocks;
 
-    /** ¹ԲʤȤ˥֥åɲä륭塼Ǥ */
+    /** 実行回数が不明なときにブロックを追加するキューです。 */
     private Queue<AbstractBlock> invalidBlocks;
 
     /**
-       󥹥󥹤ޤ
+       インスタンスを生成します。
     */
     public Solver() {
 	validBlocks = new ArrayDeque<AbstractBlock>();
@@ -22,41 +22,44 @@ public final class Solver {
     }
 
     /**
-       ¹ԲȽ֥åɲäޤ
+       実行回数が判明したブロックを追加します。
 
-       @param b ¹ԲΤΥ֥å
+       @param b 実行回数が既知のブロック
     */
     public void addValid(final AbstractBlock b) {
 	validBlocks.add(b);
     }
 
     /**
-       ¹Բʥ֥åɲäޤ
+       実行回数が不明なブロックを追加します。
 
-       @param b ¹ԲΥ֥å
+       @param b 実行回数が不明のブロック
     */
     public void addInvalid(final AbstractBlock b) {
 	invalidBlocks.add(b);
     }
 
     /**
-       ֥åɲäޤ
+       ブロックを追加します。
 
-       @param b ֥å
-       @param isValid ֥åμ¹ԲȽƤtrue
+       @param b ブロック
+       @param isValid ブロックの実行回数が判明している場合はtrue
     */
     public void add(final AbstractBlock b, final boolean isValid) {
 	(isValid ? validBlocks : invalidBlocks).add(b);
     }
 
     /**
-       եդ򤭤ޤ
+       フローグラフを解きます。
 
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @return 実行回数が不明なブロックを走査した回数
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
-    public void solve() throws CorruptedFileException {
+    public int solve() throws CorruptedFileException {
+	int rounds = 0;
 	int size = invalidBlocks.size();
 	while (size > 0) {
+	    ++rounds;
 	    AbstractBlock e;
 	    while ((e = invalidBlocks.poll()) != null) {
 		e.validate(this);
@@ -71,5 +74,6 @@ public final class Solver {
 	    }
 	    size = nextSize;
 	}
+	return rounds;
     }
 }
@@ -0,0 +1,17 @@
+package com.maroontress.gcovparser;
+
+/**
+   行エントリに含めるソースファイルを選択するフィルタです。
+
+   複数のスレッドから同時に呼び出されることがあります。
+*/
+public interface SourceFilter {
+
+    /**
+       ソースファイルを行エントリに含めるかどうかを判定します。
+
+       @param path ソースファイルのパス
+       @return 含める場合はtrue、そうでなければfalse
+    */
+    boolean accept(String path);
+}
@@ -0,0 +1,112 @@
+package com.maroontress.gcovparser;
+
+import com.maroontress.gcovparser.gcno.AnnounceFunctionRecord;
+import com.maroontress.gcovparser.gcno.LineRecord;
+import com.maroontress.gcovparser.gcno.LinesRecord;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+   gcnoファイルが参照するソースファイルを調べます。
+
+   FUNCTIONレコードとLINESレコードだけを解析し、BLOCKレコードと
+   ARCSレコードは読み飛ばすので、関数グラフを生成するよりも高速です。
+*/
+public final class SourceScanner {
+
+    /** マジックナンバーのバイト長です。 */
+    private static final int MAGIC_LENGTH = 4;
+
+    /** ビッグエンディアンのマジックナンバーです。 */
+    private static final byte[] MAGIC_BE = {'g', 'c', 'n', 'o'};
+
+    /** リトルエンディアンのマジックナンバーです。 */
+    private static final byte[] MAGIC_LE = {'o', 'n', 'c', 'g'};
+
+    /**
+       コンストラクタです。
+    */
+    private SourceScanner() {
+    }
+
+    /**
+       バイトバッファからgcnoファイルを走査して、参照するソースファイ
+       ルのパスをセットに追加します。バイトバッファの位置はバッファの
+       先頭でなければなりません。
+
+       @param bb バイトバッファ
+       @param set ソースファイルのパスのセット
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    public static void scan(final ByteBuffer bb, final Set<String> set)
+	throws IOException, CorruptedFileException {
+	byte[] magic = new byte[MAGIC_LENGTH];
+	bb.get(magic);
+	if (Arrays.equals(magic, MAGIC_BE)) {
+	    bb.order(ByteOrder.BIG_ENDIAN);
+	} else if (Arrays.equals(magic, MAGIC_LE)) {
+	    bb.order(ByteOrder.LITTLE_ENDIAN);
+	} else {
+	    throw new CorruptedFileException();
+	}
+	// version, stamp
+	bb.getInt();
+	bb.getInt();
+	while (bb.hasRemaining()) {
+	    int saved = bb.position();
+	    int tag = bb.getInt();
+	    switch (tag) {
+	    default:
+		int length = bb.getInt();
+		bb.position(bb.position() + Parser.SIZE_INT32 * length);
+		break;
+	    case Tag.FUNCTION:
+		bb.position(saved);
+		set.add(new AnnounceFunctionRecord(bb).getSourceFile());
+		break;
+	    case Tag.LINES:
+		LineRecord[] list = new LinesRecord(bb).getList();
+		for (LineRecord rec : list) {
+		    String name = rec.getFileName();
+		    if (name != null) {
+			set.add(name);
+		    }
+		}
+		break;
+	    }
+	}
+    }
+
+    /**
+       gcnoファイルを走査して、参照するソースファイルのパスのセットを
+       返します。チャネルをマップするので、2Gバイトを超えるファイルは
+       扱えません。
+
+       @param noteFile gcnoファイル
+       @return ソースファイルのパスのセット
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
+    */
+    public static Set<String> scan(final File noteFile)
+	throws IOException, CorruptedFileException {
+	Set<String> set = new TreeSet<String>();
+	RandomAccessFile file = new RandomAccessFile(noteFile, "r");
+	FileChannel ch = file.getChannel();
+	try {
+	    ByteBuffer bb = ch.map(FileChannel.MapMode.READ_ONLY,
+				   0, ch.size());
+	    scan(bb, set);
+	} finally {
+	    file.close();
+	}
+	return set;
+    }
+}
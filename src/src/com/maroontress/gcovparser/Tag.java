@@ -1,34 +1,34 @@
 package com.maroontress.gcovparser;
 
 /**
-   쥳ɤΥޤ
+   レコードのタグを定義します。
 */
 public final class Tag {
 
     /**
-       󥹥ȥ饯Ǥ
+       コンストラクタです。
     */
     private Tag() {
     }
 
-    /** FUNCTION쥳ɤ򼨤Ǥ */
+    /** FUNCTIONレコードを示すタグです。 */
     public static final int FUNCTION = 0x1000000;
 
-    /** BLOCK쥳ɤ򼨤Ǥ */
+    /** BLOCKレコードを示すタグです。 */
     public static final int BLOCK = 0x1410000;
 
-    /** ARCS쥳ɤ򼨤Ǥ */
+    /** ARCSレコードを示すタグです。 */
     public static final int ARCS = 0x1430000;
 
-    /** LINES쥳ɤ򼨤Ǥ */
+    /** LINESレコードを示すタグです。 */
     public static final int LINES = 0x1450000;
 
-    /** OBJECT_SUMMARY쥳ɤ򼨤Ǥ */
+    /** OBJECT_SUMMARYレコードを示すタグです。 */
     public static final int OBJECT_SUMMARY = 0xa1000000;
 
-    /** PROGRAM_SUMMARY쥳ɤ򼨤Ǥ */
+    /** PROGRAM_SUMMARYレコードを示すタグです。 */
     public static final int PROGRAM_SUMMARY = 0xa3000000;
 
-    /** ARC_COUNTS쥳ɤ򼨤Ǥ */
+    /** ARC_COUNTSレコードを示すタグです。 */
     public static final int ARC_COUNTS = 0x01a10000;
 }
@@ -1,14 +1,14 @@
 package com.maroontress.gcovparser;
 
 /**
-   ͽʤȤ򼨤㳰Ǥ
+   予期しないタグに遭遇したことを示す例外です。
 */
 public final class UnexpectedTagException extends CorruptedFileException {
 
     /**
-       ͽʤȤ򼨤㳰ޤ
+       予期しないタグに遭遇したことを示す例外を生成します。
 
-       @param m ܺ٥å
+       @param m 詳細メッセージ
     */
     public UnexpectedTagException(final String m) {
 	super(m);
@@ -10,56 +10,56 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
-   ǡ쥳ɤǤ
+   データレコードです。
 
    data: int32:magic int32:version int32:stamp
          {function-data* object-summary program-summary*}*
 */
 public final class DataRecord {
 
-    /** ޥåʥСΥХĹǤ */
+    /** マジックナンバーのバイト長です。 */
     private static final int MAGIC_LENGTH = 4;
 
-    /** ӥåǥΥޥåʥСǤ */
+    /** ビッグエンディアンのマジックナンバーです。 */
     private static final byte[] MAGIC_BE = {'g', 'c', 'd', 'a'};
 
-    /** ȥ륨ǥΥޥåʥСǤ */
+    /** リトルエンディアンのマジックナンバーです。 */
     private static final byte[] MAGIC_LE = {'a', 'd', 'c', 'g'};
 
     /**
-       gcdaեΥСֹǤ
+       gcdaファイルのバージョン番号です。
     */
     private int version;
 
     /**
-       gcdaեΥॹפǤgcnoեƱȤƤ
-       뤳Ȥǧ뤿˻Ѥޤ
+       gcdaファイルのタイムスタンプです。gcnoファイルと同期がとれてい
+       ることを確認するために使用されます。
     */
     private int stamp;
 
-    /** ؿǡ쥳ɤΥꥹȤǤ */
+    /** 関数データレコードのリストです。 */
     private ArrayList<FunctionDataRecord> list;
 
-    /** ֥ȤΥޥ쥳ɤǤ */
+    /** オブジェクトのサマリレコードです。 */
     private SummaryRecord objectSummary;
 
-    /** ץΥޥ쥳ɤΥꥹȤǤ */
+    /** プログラムのサマリレコードのリストです。 */
     private ArrayList<SummaryRecord> programSummaries;
 
     /**
-       ХȥХåեFUNCTION_DATA쥳ɤϤб륤
-       󥹤ơꥹȤɲäޤХȥХåեΰ֤
-       FUNCTION_DATA쥳ɤƬΰ֤ǤʤФʤޤ󡣥ХȥХ
-       եΰ֤FUNCTION_DATA쥳ɤμ˿ʤߤޤ
-
-       OBJECT_SUMMARYϤ-1֤ޤOBJECT_SUMMARY
-       ϤϥХȥХåեΰ֤OBJECT_SUMMARYľ
-       ˰ưޤ
-
-       @param bb ХȥХåե
-       @return FUNCTION_DATA쥳ɤϤ0Ǥʤ-1
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       バイトバッファからFUNCTION_DATAレコードを入力し、対応するインス
+       タンスを生成して、リストに追加します。バイトバッファの位置は
+       FUNCTION_DATAレコードの先頭の位置でなければなりません。バイトバッ
+       ファの位置はFUNCTION_DATAレコードの次に進みます。
+
+       OBJECT_SUMMARYタグを入力すると-1を返します。OBJECT_SUMMARYタグ
+       を入力した場合はバイトバッファの位置はOBJECT_SUMMARYタグの直後
+       に移動します。
+
+       @param bb バイトバッファ
+       @return FUNCTION_DATAレコードを入力した場合は0、そうでなければ-1
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private int parseFunctionData(final ByteBuffer bb)
 	throws IOException, CorruptedFileException {
@@ -79,13 +79,13 @@ public final class DataRecord {
     }
 
     /**
-       ХȥХåեgcdaեѡơǡ쥳ɤ
-       ޤХȥХåեΰ֤ϥХåեƬǤʤФʤ
-       ϥХȥХåեΰ֤Ͻü˰ưޤ
+       バイトバッファからgcdaファイルをパースして、データレコードを生
+       成します。バイトバッファの位置はバッファの先頭でなければなりま
+       せん。成功した場合はバイトバッファの位置は終端に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     public DataRecord(final ByteBuffer bb)
 	throws IOException, CorruptedFileException {
@@ -128,45 +128,45 @@ public final class DataRecord {
     }
 
     /**
-       Сޤ
+       バージョンを取得します。
 
-       @return С
+       @return バージョン
     */
     public int getVersion() {
 	return version;
     }
 
     /**
-       ॹפޤ
+       タイムスタンプを取得します。
 
-       @return ॹ
+       @return タイムスタンプ
     */
     public int getStamp() {
 	return stamp;
     }
 
     /**
-       ؿǡ쥳ɤޤ
+       関数データレコードの配列を取得します。
 
-       @return ؿǡ쥳ɤ
+       @return 関数データレコードの配列
     */
     public FunctionDataRecord[] getList() {
 	return list.toArray(new FunctionDataRecord[list.size()]);
     }
 
     /**
-       ֥ȤΥޥ쥳ɤޤ
+       オブジェクトのサマリレコードを取得します。
 
-       @return ֥ȤΥޥ쥳
+       @return オブジェクトのサマリレコード
     */
     public SummaryRecord getObjectSummary() {
 	return objectSummary;
     }
 
     /**
-       ץΥޥ쥳ɤޤ
+       プログラムのサマリレコードの配列を取得します。
 
-       @return ץΥޥ쥳ɤ
+       @return プログラムのサマリレコードの配列
     */
     public SummaryRecord[] getProgramSummaries() {
 	return programSummaries.toArray(
@@ -7,7 +7,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ؿǡ쥳ɤǤ
+   関数データレコードです。
 
    function-data: announce_function arc_counts
    announce_function: header int32:ident int32:checksum
@@ -15,24 +15,24 @@ import java.nio.ByteBuffer;
 */
 public final class FunctionDataRecord {
 
-    /** ̻ҤǤ */
+    /** 識別子です。 */
     private int id;
 
-    /** ؿΥåǤ */
+    /** 関数のチェックサムです。 */
     private int checksum;
 
-    /** ARCS쥳ɤΥꥹȤǤ */
+    /** ARCSレコードのリストです。 */
     private long[] arcCounts;
 
     /**
-       ХȥХåեFUNCTION_DATA쥳ɤϤƥ󥹥󥹤
-       ޤХȥХåեΰ֤FUNCTION_DATA쥳ɤΥ
-       Ϥľΰ֤ǤʤФʤޤϡХ
-       Хåեΰ֤FUNCTION_DATA쥳ɤμΰ֤˰ưޤ
-
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws UnexpectedTagException ͽʤ򸡽
+       バイトバッファからFUNCTION_DATAレコードを入力してインスタンスを
+       生成します。バイトバッファの位置はFUNCTION_DATAレコードのタグを
+       入力した直後の位置でなければなりません。成功した場合は、バイト
+       バッファの位置はFUNCTION_DATAレコードの次の位置に移動します。
+
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws UnexpectedTagException 予期しないタグを検出
     */
     public FunctionDataRecord(final ByteBuffer bb)
 	throws IOException, UnexpectedTagException {
@@ -59,27 +59,27 @@ public final class FunctionDataRecord {
     }
 
     /**
-       ̻Ҥޤ
+       識別子を取得します。
 
-       @return ̻
+       @return 識別子
     */
     public int getId() {
 	return id;
     }
 
     /**
-       ؿΥåޤ
+       関数のチェックサムを取得します。
 
-       @return ؿΥå
+       @return 関数のチェックサム
     */
     public int getChecksum() {
 	return checksum;
     }
 
     /**
-       Ȥޤ
+       アークカウントを取得します。
 
-       @return 
+       @return アークカウント
     */
     public long[] getArcCounts() {
 	return arcCounts;
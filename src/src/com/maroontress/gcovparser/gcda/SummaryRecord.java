@@ -5,23 +5,23 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ޥ쥳ɤǤ
+   サマリレコードです。
 
    summary: int32:checksum count-summary
    count-summary: int32:num int32:runs int64:sum int64:max int64:sum_max
 */
 public final class SummaryRecord {
 
-    /** åǤ */
+    /** チェックサムです。 */
     private int checksum;
 
-    /** 󥿿Ǥ */
+    /** カウンタ数です。 */
     private int num;
 
-    /** ¹ԲǤ */
+    /** 実行回数です。 */
     private int runs;
 
-    /** ٤ƤΥ󥿤ιפǤ */
+    /** すべてのカウンタの合計です。 */
     private long sumAll;
 
     /** maximum value on a single run. */
@@ -31,13 +31,13 @@ public final class SummaryRecord {
     private long sumMax;
 
     /**
-       ХȥХåե饵ޥ쥳ɤϤơ󥹥󥹤
-       ޤХȥХåեΰ֤ϥޥ쥳ɤΥϤľ
-       ܤǤʤФʤޤϡХȥХåեΰ֤
-       ޥ쥳ɤμΰ֤˿ʤߤޤ
+       バイトバッファからサマリレコードを入力して、インスタンスを生成
+       します。バイトバッファの位置はサマリレコードのタグを入力した直
+       接でなければなりません。成功した場合は、バイトバッファの位置は
+       サマリレコードの次の位置に進みます。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
     */
     public SummaryRecord(final ByteBuffer bb) throws IOException {
 	int length = bb.getInt();
@@ -54,9 +54,9 @@ public final class SummaryRecord {
     }
 
     /**
-       ¹Բޤ
+       実行回数を取得します。
 
-       @return ¹Բ
+       @return 実行回数
     */
     public int getRuns() {
 	return runs;
@@ -1,4 +1,4 @@
 /**
-   gcdaΥѡμ󶡤ѥåǤ
+   gcdaのパーサの実装を提供するパッケージです。
 */
 package com.maroontress.gcovparser.gcda;
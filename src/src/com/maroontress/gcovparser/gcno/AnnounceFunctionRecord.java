@@ -7,38 +7,38 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ؿΥ쥳ɤǤ
+   関数通知レコードです。
 
    announce_function: header int32:ident int32:checksum string:name
                       string:source int32:lineno
 */
 public final class AnnounceFunctionRecord {
 
-    /** ̻ҤǤ */
+    /** 識別子です。 */
     private int id;
 
-    /** ؿΥåǤ */
+    /** 関数のチェックサムです。 */
     private int checksum;
 
-    /** ؿ̾Ǥ */
+    /** 関数名です。 */
     private String functionName;
 
-    /** ɤΥե̾Ǥ */
+    /** ソースコードのファイル名です。 */
     private String sourceFile;
 
-    /** ؿи륽ɤιԿǤ */
+    /** 関数が出現するソースコードの行数です。 */
     private int lineNumber;
 
     /**
-       ХȥХåեANNOUNCE_FUNCTION쥳ɤϤ
-       ANNOUNCE_FUNCTION쥳ɤޤХȥХåեΰ֤
-       ANNOUNCE_FUNCTION쥳ɤƬΰ֤ǤʤФʤޤ
-       ϡХȥХåեΰ֤ANNOUNCE_FUNCTION쥳ɤμ
-       ΰ֤˰ưޤ
-
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws UnexpectedTagException ͽʤ򸡽
+       バイトバッファからANNOUNCE_FUNCTIONレコードを入力して
+       ANNOUNCE_FUNCTIONレコードを生成します。バイトバッファの位置は
+       ANNOUNCE_FUNCTIONレコードの先頭の位置でなければなりません。成功
+       した場合は、バイトバッファの位置はANNOUNCE_FUNCTIONレコードの次
+       の位置に移動します。
+
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws UnexpectedTagException 予期しないタグを検出
     */
     public AnnounceFunctionRecord(final ByteBuffer bb)
 	throws IOException, UnexpectedTagException {
@@ -59,45 +59,45 @@ public final class AnnounceFunctionRecord {
     }
 
     /**
-       ̻Ҥޤ
+       識別子を取得します。
 
-       @return ̻
+       @return 識別子
     */
     public int getId() {
 	return id;
     }
 
     /**
-       ؿΥåޤ
+       関数のチェックサムを取得します。
 
-       @return ؿΥå
+       @return 関数のチェックサム
     */
     public int getChecksum() {
 	return checksum;
     }
 
     /**
-       ؿ̾ޤ
+       関数名を取得します。
 
-       @return ؿ̾
+       @return 関数名
     */
     public String getFunctionName() {
 	return functionName;
     }
 
     /**
-       ɤΥե̾ޤ
+       ソースコードのファイル名を取得します。
 
-       @return ɤΥե̾
+       @return ソースコードのファイル名
     */
     public String getSourceFile() {
 	return sourceFile;
     }
 
     /**
-       ؿи륽ɤιԿޤ
+       関数が出現するソースコードの行数を取得します。
 
-       @return ؿи륽ɤιԿ
+       @return 関数が出現するソースコードの行数
     */
     public int getLineNumber() {
 	return lineNumber;
@@ -4,26 +4,26 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ARC쥳ɤǤ
+   ARCレコードです。
 
    arc:  int32:dest_block int32:flags
 */
 public final class ArcRecord {
 
-    /** Ȥʤ֥åμ̻ҤǤ */
+    /** 到着点となるブロックの識別子です。 */
     private int endIndex;
 
-    /** ե饰Ǥ */
+    /** フラグです。 */
     private int flags;
 
     /**
-       ХȥХåեARC쥳ɤϤARC쥳ɤޤ
-       ХȥХåեΰ֤ARC쥳ɤƬΰ֤ǤʤФʤޤ
-       ϡХȥХåեΰ֤ARC쥳ɤμΰ
-       ˰ưޤ
+       バイトバッファからARCレコードを入力してARCレコードを生成します。
+       バイトバッファの位置はARCレコードの先頭の位置でなければなりませ
+       ん。成功した場合は、バイトバッファの位置はARCレコードの次の位置
+       に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
     */
     public ArcRecord(final ByteBuffer bb) throws IOException {
 	endIndex = bb.getInt();
@@ -31,18 +31,18 @@ public final class ArcRecord {
     }
 
     /**
-       Ȥʤ֥åμ̻Ҥޤ
+       到着点となるブロックの識別子を取得します。
 
-       @return Ȥʤ֥åμ̻
+       @return 到着点となるブロックの識別子
     */
     public int getEndIndex() {
 	return endIndex;
     }
 
     /**
-       ե饰ޤ
+       フラグを取得します。
 
-       @return ե饰
+       @return フラグ
     */
     public int getFlags() {
 	return flags;
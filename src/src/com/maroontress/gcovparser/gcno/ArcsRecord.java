@@ -5,26 +5,26 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ARCS쥳ɤǤ
+   ARCSレコードです。
 
    arcs: header int32:block_no arc*
 */
 public final class ArcsRecord {
 
-    /** ȯȤʤ֥åμ̻ҤǤ */
+    /** 出発点となるブロックの識別子です。 */
     private int startIndex;
 
-    /** ARC쥳ɤΥꥹȤǤ */
+    /** ARCレコードのリストです。 */
     private ArcRecord[] list;
 
     /**
-       ХȥХåեARCS쥳ɤλĤϤARCS쥳ɤ
-       ޤХȥХåեΰ֤ARCS쥳ɤΥϤľ
-       ΰ֤ǤʤФʤޤϡХȥХåե
-       ֤ARCS쥳ɤμΰ֤˰ưޤ
+       バイトバッファからARCSレコードの残りを入力してARCSレコードを生
+       成します。バイトバッファの位置はARCSレコードのタグを入力した直
+       後の位置でなければなりません。成功した場合は、バイトバッファの
+       位置はARCSレコードの次の位置に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
     */
     public ArcsRecord(final ByteBuffer bb) throws IOException {
 	int length = bb.getInt();
@@ -39,18 +39,18 @@ public final class ArcsRecord {
     }
 
     /**
-       ȯȤʤ֥åμ̻Ҥޤ
+       出発点となるブロックの識別子を取得します。
 
-       @return ȯȤʤ֥åμ̻
+       @return 出発点となるブロックの識別子
     */
     public int getStartIndex() {
 	return startIndex;
     }
 
     /**
-       ARC쥳ɤ֤ޤ
+       ARCレコードの配列を返します。
 
-       @return ARC쥳ɤ
+       @return ARCレコードの配列
     */
     public ArcRecord[] getList() {
 	return list;
@@ -7,24 +7,24 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   ܥ֥å쥳ɤǤ
+   基本ブロックレコードです。
 
    basic_block: header int32:flags*
 */
 public final class BasicBlockRecord {
 
-    /** ե饰Ǥ */
+    /** フラグの配列です。 */
     private int[] flags;
 
     /**
-       ХȥХåեBASIC_BLOCK쥳ɤϤBASIC_BLOCK쥳
-       ɤޤХȥХåեΰ֤BASIC_BLOCK쥳ɤƬ
-       ΰ֤ǤʤФʤޤϡХȥХåեΰ
-       ֤BASIC_BLOCK쥳ɤμΰ֤˰ưޤ
-
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws UnexpectedTagException ͽʤ򸡽
+       バイトバッファからBASIC_BLOCKレコードを入力してBASIC_BLOCKレコー
+       ドを生成します。バイトバッファの位置はBASIC_BLOCKレコードの先頭
+       の位置でなければなりません。成功した場合は、バイトバッファの位
+       置はBASIC_BLOCKレコードの次の位置に移動します。
+
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws UnexpectedTagException 予期しないタグを検出
     */
     public BasicBlockRecord(final ByteBuffer bb)
 	throws IOException, UnexpectedTagException {
@@ -44,9 +44,9 @@ public final class BasicBlockRecord {
     }
 
     /**
-       ե饰ޤ
+       フラグの配列を取得します。
 
-       @return ե饰
+       @return フラグの配列
     */
     public int[] getFlags() {
 	return flags;
@@ -8,34 +8,34 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 /**
-   ؿե쥳ɤǤ
+   関数グラフレコードです。
 
    function_graph: announce_function basic_blocks {arcs | lines}*
 */
 public final class FunctionGraphRecord {
 
-    /** ؿΥ쥳ɤǤ */
+    /** 関数通知レコードです。 */
     private AnnounceFunctionRecord announce;
 
-    /** ܥ֥å쥳ɤǤ */
+    /** 基本ブロックレコードです。 */
     private BasicBlockRecord blocks;
 
-    /** ARCS쥳ɤΥꥹȤǤ */
+    /** ARCSレコードのリストです。 */
     private ArrayList<ArcsRecord> arcs;
 
-    /** LINES쥳ɤΥꥹȤǤ */
+    /** LINESレコードのリストです。 */
     private ArrayList<LinesRecord> lines;
 
     /**
-       ХȥХåեFUNCTION_GRAPH쥳ɤϤ
-       FUNCTION_GRAPH쥳ɤޤХȥХåեΰ֤
-       FUNCTION_GRAPH쥳ɤƬΰ֤ǤʤФʤޤ
-       ϡХȥХåեΰ֤FUNCTION_GRAPH쥳ɤμΰ
-       ֤˰ưޤ
-
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       バイトバッファからFUNCTION_GRAPHレコードを入力して
+       FUNCTION_GRAPHレコードを生成します。バイトバッファの位置は
+       FUNCTION_GRAPHレコードの先頭の位置でなければなりません。成功し
+       た場合は、バイトバッファの位置はFUNCTION_GRAPHレコードの次の位
+       置に移動します。
+
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     public FunctionGraphRecord(final ByteBuffer bb)
 	throws IOException, CorruptedFileException {
@@ -49,19 +49,19 @@ public final class FunctionGraphRecord {
     }
 
     /**
-       ХȥХåեARCS쥳ɤޤLINES쥳ɤϤб
-       륤󥹥󥹤ơꥹȤɲäޤХȥХåե
-       ΰ֤ARCS/LINES쥳ɤƬΰ֤ǤʤФʤޤ󡣥
-       ȥХåեΰ֤ARCS/LINES쥳ɤμ˿ʤߤޤ
-
-       ХȥХåեνüϤ뤫FUNCTIONϤ-1
-       ֤ޤFUNCTIONϤϥХȥХåեΰ֤
-       ޤ
-
-       @param bb ХȥХåե
-       @return ARCS/LINES쥳ɤϤ0Ǥʤ-1
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       バイトバッファからARCSレコードまたはLINESレコードを入力し、対応
+       するインスタンスを生成して、リストに追加します。バイトバッファ
+       の位置はARCS/LINESレコードの先頭の位置でなければなりません。バ
+       イトバッファの位置はARCS/LINESレコードの次に進みます。
+
+       バイトバッファの終端を入力するか、FUNCTIONタグを入力すると-1を
+       返します。FUNCTIONタグを入力した場合はバイトバッファの位置は変
+       更されません。
+
+       @param bb バイトバッファ
+       @return ARCS/LINESレコードを入力した場合は0、そうでなければ-1
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     private int parseArcsOrLines(final ByteBuffer bb)
 	throws IOException, CorruptedFileException {
@@ -88,36 +88,36 @@ public final class FunctionGraphRecord {
     }
 
     /**
-       ؿΥ쥳ɤޤ
+       関数通知レコードを取得します。
 
-       @return ؿΥ쥳
+       @return 関数通知レコード
     */
     public AnnounceFunctionRecord getAnnounce() {
 	return announce;
     }
 
     /**
-       ܥ֥å쥳ɤޤ
+       基本ブロックレコードを取得します。
 
-       @return ܥ֥å쥳
+       @return 基本ブロックレコード
     */
     public BasicBlockRecord getBlocks() {
 	return blocks;
     }
 
     /**
-       ARCS쥳ɤޤ
+       ARCSレコードの配列を取得します。
 
-       @return ARCS쥳ɤ
+       @return ARCSレコードの配列
     */
     public ArcsRecord[] getArcs() {
 	return arcs.toArray(new ArcsRecord[arcs.size()]);
     }
 
     /**
-       LINES쥳ɤޤ
+       LINESレコードの配列を取得します。
 
-       @return LINES쥳ɤ
+       @return LINESレコードの配列
     */
     public LinesRecord[] getLines() {
 	return lines.toArray(new LinesRecord[lines.size()]);
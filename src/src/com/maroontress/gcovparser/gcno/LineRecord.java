@@ -5,26 +5,26 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
-   LINE쥳ɤǤ
+   LINEレコードです。
 
    line: int32:line_no | int32:0 string:filename
 */
 public final class LineRecord {
 
-    /** ֹǤ */
+    /** 行番号です。 */
     private int number;
 
-    /** ե̾Ǥ */
+    /** ファイル名です。 */
     private String fileName;
 
     /**
-       ХȥХåեLINE쥳ɤϤLINE쥳ɤ
-       ХȥХåեΰ֤LINE쥳ɤƬΰ֤ǤʤФ
-       ޤϡХȥХåեΰ֤LINE쥳ɤ
-       ΰ֤˰ưޤ
+       バイトバッファからLINEレコードを入力してLINEレコードを生成しま
+       す。バイトバッファの位置はLINEレコードの先頭の位置でなければな
+       りません。成功した場合は、バイトバッファの位置はLINEレコードの
+       次の位置に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
     */
     public LineRecord(final ByteBuffer bb) throws IOException {
 	number = bb.getInt();
@@ -32,27 +32,27 @@ public final class LineRecord {
     }
 
     /**
-       ֹޤ
+       行番号を取得します。
 
-       @return ֹ
+       @return 行番号
     */
     public int getNumber() {
 	return number;
     }
 
     /**
-       ե̾ޤ
+       ファイル名を取得します。
 
-       @return ե̾
+       @return ファイル名
     */
     public String getFileName() {
 	return fileName;
     }
 
     /**
-       LINE쥳ɤνüɤޤ
+       LINEレコードの終端かどうか取得します。
 
-       @return LINES쥳ɤνüʤtrueǤʤfalse
+       @return LINESレコードの終端ならtrue、そうでなければfalse
     */
     public boolean isTerminator() {
 	return number == 0 && fileName == null;
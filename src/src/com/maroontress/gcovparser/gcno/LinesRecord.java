@@ -6,26 +6,26 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 /**
-   LINES쥳ɤǤ
+   LINESレコードです。
 
    lines: header int32:block_no line* int32:0 string:NULL
 */
 public final class LinesRecord {
 
-    /** б֥åμ̻ҤǤ */
+    /** 対応するブロックの識別子です。 */
     private int blockIndex;
 
-    /** LINE쥳ɤΥꥹȤǤ */
+    /** LINEレコードのリストです。 */
     private ArrayList<LineRecord> list;
 
     /**
-       ХȥХåեLINES쥳ɤλĤϤLINES쥳ɤ
-       ޤХȥХåեΰ֤LINES쥳ɤΥϤ
-       ľΰ֤ǤʤФʤޤϡХȥХåե
-       ΰ֤LINES쥳ɤμΰ֤˰ưޤ
+       バイトバッファからLINESレコードの残りを入力してLINESレコードを
+       生成します。バイトバッファの位置はLINESレコードのタグを入力した
+       直後の位置でなければなりません。成功した場合は、バイトバッファ
+       の位置はLINESレコードの次の位置に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
     */
     public LinesRecord(final ByteBuffer bb) throws IOException {
 	int length = bb.getInt();
@@ -41,18 +41,18 @@ public final class LinesRecord {
     }
 
     /**
-       ֥åμ̻Ҥޤ
+       ブロックの識別子を取得します。
 
-       @return ֥åμ̻
+       @return ブロックの識別子
     */
     public int getBlockIndex() {
 	return blockIndex;
     }
 
     /**
-       LINE쥳ɤ֤ޤ
+       LINEレコードの配列を返します。
 
-       @return LINE쥳ɤ
+       @return LINEレコードの配列
     */
     public LineRecord[] getList() {
 	return list.toArray(new LineRecord[list.size()]);
@@ -8,23 +8,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
-   Ρȥ쥳ɤǤ
+   ノートレコードです。
 
    note: int32:magic int32:version int32:stamp function-graph*
 */
 public final class NoteRecord {
 
-    /** ޥåʥСΥХĹǤ */
+    /** マジックナンバーのバイト長です。 */
     private static final int MAGIC_LENGTH = 4;
 
-    /** ӥåǥΥޥåʥСǤ */
+    /** ビッグエンディアンのマジックナンバーです。 */
     private static final byte[] MAGIC_BE = {'g', 'c', 'n', 'o'};
 
-    /** ȥ륨ǥΥޥåʥСǤ */
+    /** リトルエンディアンのマジックナンバーです。 */
     private static final byte[] MAGIC_LE = {'o', 'n', 'c', 'g'};
 
     /**
-       gcnoեΥСֹǤ
+       gcnoファイルのバージョン番号です。
 
        Although the ident and version are formally 32 bit numbers,
        they are derived from 4 character ASCII strings.  The version
@@ -46,8 +46,8 @@ public final class NoteRecord {
     private int version;
 
     /**
-       gcnoեΥॹפǤgcdaեƱȤƤ
-       뤳Ȥǧ뤿˻Ѥޤ
+       gcnoファイルのタイムスタンプです。gcdaファイルと同期がとれてい
+       ることを確認するために使用されます。
 
        The stamp value is used to synchronize note and data files and
        to synchronize merging within a data file. It need not be an
@@ -57,17 +57,17 @@ public final class NoteRecord {
     */
     private int stamp;
 
-    /** ؿե쥳ɤΥꥹȤǤ */
+    /** 関数グラフレコードのリストです。 */
     private ArrayList<FunctionGraphRecord> list;
 
     /**
-       ХȥХåեgcnoեѡơΡȥ쥳ɤ
-       ޤХȥХåեΰ֤ϥХåեƬǤʤФʤ
-       ϥХȥХåեΰ֤Ͻü˰ưޤ
+       バイトバッファからgcnoファイルをパースして、ノートレコードを生
+       成します。バイトバッファの位置はバッファの先頭でなければなりま
+       せん。成功した場合はバイトバッファの位置は終端に移動します。
 
-       @param bb ХȥХåե
-       @throws IOException ϥ顼
-       @throws CorruptedFileException եι¤Ƥ뤳Ȥ򸡽
+       @param bb バイトバッファ
+       @throws IOException 入出力エラー
+       @throws CorruptedFileException ファイルの構造が壊れていることを検出
     */
     public NoteRecord(final ByteBuffer bb)
 	throws IOException, CorruptedFileException {
@@ -89,27 +89,27 @@ public final class NoteRecord {
     }
 
     /**
-       Сޤ
+       バージョンを取得します。
 
-       @return С
+       @return バージョン
     */
     public int getVersion() {
 	return version;
     }
 
     /**
-       ॹפޤ
+       タイムスタンプを取得します。
 
-       @return ॹ
+       @return タイムスタンプ
     */
     public int getStamp() {
 	return stamp;
     }
 
     /**
-       ؿե쥳ɤޤ
+       関数グラフレコードの配列を取得します。
 
-       @return ؿե쥳ɤ
+       @return 関数グラフレコードの配列
     */
     public FunctionGraphRecord[] getList() {
 	return list.toArray(new FunctionGraphRecord[list.size()]);
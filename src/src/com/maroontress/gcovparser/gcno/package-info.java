@@ -1,4 +1,4 @@
 /**
-   gcnoΥѡμ󶡤ѥåǤ
+   gcnoのパーサの実装を提供するパッケージです。
 */
 package com.maroontress.gcovparser.gcno;
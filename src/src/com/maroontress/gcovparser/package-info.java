@@ -1,4 +1,4 @@
 /**
-   gcno/gcdaեѡ뵡ǽ󶡤ѥåǤ
+   gcno/gcdaファイルをパースする機能を提供するパッケージです。
 */
 package com.maroontress.gcovparser;